@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Base class of the adapter benchmarks.
+ * <p>
+ * Every checked interface is measured three ways: a plain {@code java.util.function} lambda (the baseline), the same
+ * lambda behind the interface's {@code unchecked} adapter, and an adapted lambda which always throws a preallocated
+ * checked exception. Throwing a preallocated exception isolates the cost of unwinding through the adapter from the cost
+ * of filling in a stack trace.
+ * <p>
+ * When the {@link #callSite} parameter is {@link CallSite#MEGAMORPHIC MEGAMORPHIC} the delegating call site inside each
+ * adapter is exposed to several distinct lambda classes before measurement begins, reproducing the profile of a real
+ * application which adapts many different lambdas. Each parameter combination runs in a fresh JVM so the profiles do not
+ * leak between runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class AdapterBenchmark {
+
+    /**
+     * The type profile of the delegating call site inside the {@code unchecked} adapters.
+     */
+    public enum CallSite {
+        MONOMORPHIC, MEGAMORPHIC
+    }
+
+    static final IOException FAILURE = new IOException("benchmark failure");
+
+    private static final int POLLUTION_ROUNDS = 20_000;
+
+    @Param
+    CallSite callSite;
+
+    // inputs are non-final fields to prevent constant folding
+    String  string       = "string";
+    String  other        = "other";
+    boolean booleanValue = true;
+    int     intValue     = 42;
+    long    longValue    = 42L;
+    double  doubleValue  = 42.0;
+
+    // side effects of consumers and runnables
+    Object objectSink;
+    int    intSink;
+    long   longSink;
+    double doubleSink;
+
+    /**
+     * Invokes each call enough times for the interpreter and C1 to record every receiver class in the type profile.
+     *
+     * @param calls the calls to make
+     */
+    static void pollute(final Runnable... calls) {
+        for (int i = 0; i < POLLUTION_ROUNDS; i++)
+            for (final Runnable call : calls)
+                call.run();
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function.benchmark;
+
+import java.util.Comparator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+import software.leonov.common.util.function.CheckedComparator;
+
+/**
+ * Measures the overhead of the {@code unchecked} adapters of the checked comparators against equivalent plain
+ * {@code java.util.function} lambdas.
+ */
+public class ComparatorAdapterBenchmark extends AdapterBenchmark {
+
+    private Comparator<String> comparator;
+    private Comparator<String> uncheckedComparator;
+    private Comparator<String> throwingComparator;
+
+    @Setup
+    public void setUp() {
+        comparator = (s, t) -> s.compareTo(t);
+        uncheckedComparator = CheckedComparator.unchecked((CheckedComparator<String>) (s, t) -> s.compareTo(t));
+        throwingComparator = CheckedComparator.unchecked((CheckedComparator<String>) (s, t) -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final Comparator<String> comparator1 = CheckedComparator.unchecked((CheckedComparator<String>) (s, t) -> s.compareTo(t));
+            final Comparator<String> comparator2 = CheckedComparator.unchecked((CheckedComparator<String>) (s, t) -> s.compareTo(t));
+            final Comparator<String> comparator3 = CheckedComparator.unchecked((CheckedComparator<String>) (s, t) -> s.compareTo(t));
+            pollute(() -> comparator1.compare(string, other), () -> comparator2.compare(string, other), () -> comparator3.compare(string, other));
+        }
+    }
+
+    @Benchmark
+    public int comparator_baseline() {
+        return comparator.compare(string, other);
+    }
+
+    @Benchmark
+    public int comparator_unchecked() {
+        return uncheckedComparator.compare(string, other);
+    }
+
+    @Benchmark
+    public Object comparator_throwing() {
+        try {
+            return throwingComparator.compare(string, other);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+}
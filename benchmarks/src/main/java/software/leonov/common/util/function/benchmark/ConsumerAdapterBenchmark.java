@@ -0,0 +1,344 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function.benchmark;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+import software.leonov.common.util.function.CheckedBiConsumer;
+import software.leonov.common.util.function.CheckedConsumer;
+import software.leonov.common.util.function.CheckedDoubleConsumer;
+import software.leonov.common.util.function.CheckedIntConsumer;
+import software.leonov.common.util.function.CheckedLongConsumer;
+import software.leonov.common.util.function.CheckedObjDoubleConsumer;
+import software.leonov.common.util.function.CheckedObjIntConsumer;
+import software.leonov.common.util.function.CheckedObjLongConsumer;
+
+/**
+ * Measures the overhead of the {@code unchecked} adapters of the checked consumers against equivalent plain
+ * {@code java.util.function} lambdas.
+ */
+public class ConsumerAdapterBenchmark extends AdapterBenchmark {
+
+    private Consumer<String> consumer;
+    private Consumer<String> uncheckedConsumer;
+    private Consumer<String> throwingConsumer;
+
+    private BiConsumer<String, String> biConsumer;
+    private BiConsumer<String, String> uncheckedBiConsumer;
+    private BiConsumer<String, String> throwingBiConsumer;
+
+    private IntConsumer intConsumer;
+    private IntConsumer uncheckedIntConsumer;
+    private IntConsumer throwingIntConsumer;
+
+    private LongConsumer longConsumer;
+    private LongConsumer uncheckedLongConsumer;
+    private LongConsumer throwingLongConsumer;
+
+    private DoubleConsumer doubleConsumer;
+    private DoubleConsumer uncheckedDoubleConsumer;
+    private DoubleConsumer throwingDoubleConsumer;
+
+    private ObjIntConsumer<String> objIntConsumer;
+    private ObjIntConsumer<String> uncheckedObjIntConsumer;
+    private ObjIntConsumer<String> throwingObjIntConsumer;
+
+    private ObjLongConsumer<String> objLongConsumer;
+    private ObjLongConsumer<String> uncheckedObjLongConsumer;
+    private ObjLongConsumer<String> throwingObjLongConsumer;
+
+    private ObjDoubleConsumer<String> objDoubleConsumer;
+    private ObjDoubleConsumer<String> uncheckedObjDoubleConsumer;
+    private ObjDoubleConsumer<String> throwingObjDoubleConsumer;
+
+    @Setup
+    public void setUp() {
+        consumer = s -> objectSink = s;
+        uncheckedConsumer = CheckedConsumer.unchecked((CheckedConsumer<String>) s -> objectSink = s);
+        throwingConsumer = CheckedConsumer.unchecked((CheckedConsumer<String>) s -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final Consumer<String> consumer1 = CheckedConsumer.unchecked((CheckedConsumer<String>) s -> objectSink = s);
+            final Consumer<String> consumer2 = CheckedConsumer.unchecked((CheckedConsumer<String>) s -> objectSink = s);
+            final Consumer<String> consumer3 = CheckedConsumer.unchecked((CheckedConsumer<String>) s -> objectSink = s);
+            pollute(() -> consumer1.accept(string), () -> consumer2.accept(string), () -> consumer3.accept(string));
+        }
+
+        biConsumer = (s, t) -> objectSink = t;
+        uncheckedBiConsumer = CheckedBiConsumer.unchecked((CheckedBiConsumer<String, String>) (s, t) -> objectSink = t);
+        throwingBiConsumer = CheckedBiConsumer.unchecked((CheckedBiConsumer<String, String>) (s, t) -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final BiConsumer<String, String> biConsumer1 = CheckedBiConsumer.unchecked((CheckedBiConsumer<String, String>) (s, t) -> objectSink = t);
+            final BiConsumer<String, String> biConsumer2 = CheckedBiConsumer.unchecked((CheckedBiConsumer<String, String>) (s, t) -> objectSink = t);
+            final BiConsumer<String, String> biConsumer3 = CheckedBiConsumer.unchecked((CheckedBiConsumer<String, String>) (s, t) -> objectSink = t);
+            pollute(() -> biConsumer1.accept(string, other), () -> biConsumer2.accept(string, other), () -> biConsumer3.accept(string, other));
+        }
+
+        intConsumer = i -> intSink = i;
+        uncheckedIntConsumer = CheckedIntConsumer.unchecked((CheckedIntConsumer) i -> intSink = i);
+        throwingIntConsumer = CheckedIntConsumer.unchecked((CheckedIntConsumer) i -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final IntConsumer intConsumer1 = CheckedIntConsumer.unchecked((CheckedIntConsumer) i -> intSink = i);
+            final IntConsumer intConsumer2 = CheckedIntConsumer.unchecked((CheckedIntConsumer) i -> intSink = i);
+            final IntConsumer intConsumer3 = CheckedIntConsumer.unchecked((CheckedIntConsumer) i -> intSink = i);
+            pollute(() -> intConsumer1.accept(intValue), () -> intConsumer2.accept(intValue), () -> intConsumer3.accept(intValue));
+        }
+
+        longConsumer = l -> longSink = l;
+        uncheckedLongConsumer = CheckedLongConsumer.unchecked((CheckedLongConsumer) l -> longSink = l);
+        throwingLongConsumer = CheckedLongConsumer.unchecked((CheckedLongConsumer) l -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final LongConsumer longConsumer1 = CheckedLongConsumer.unchecked((CheckedLongConsumer) l -> longSink = l);
+            final LongConsumer longConsumer2 = CheckedLongConsumer.unchecked((CheckedLongConsumer) l -> longSink = l);
+            final LongConsumer longConsumer3 = CheckedLongConsumer.unchecked((CheckedLongConsumer) l -> longSink = l);
+            pollute(() -> longConsumer1.accept(longValue), () -> longConsumer2.accept(longValue), () -> longConsumer3.accept(longValue));
+        }
+
+        doubleConsumer = d -> doubleSink = d;
+        uncheckedDoubleConsumer = CheckedDoubleConsumer.unchecked((CheckedDoubleConsumer) d -> doubleSink = d);
+        throwingDoubleConsumer = CheckedDoubleConsumer.unchecked((CheckedDoubleConsumer) d -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final DoubleConsumer doubleConsumer1 = CheckedDoubleConsumer.unchecked((CheckedDoubleConsumer) d -> doubleSink = d);
+            final DoubleConsumer doubleConsumer2 = CheckedDoubleConsumer.unchecked((CheckedDoubleConsumer) d -> doubleSink = d);
+            final DoubleConsumer doubleConsumer3 = CheckedDoubleConsumer.unchecked((CheckedDoubleConsumer) d -> doubleSink = d);
+            pollute(() -> doubleConsumer1.accept(doubleValue), () -> doubleConsumer2.accept(doubleValue), () -> doubleConsumer3.accept(doubleValue));
+        }
+
+        objIntConsumer = (s, i) -> intSink = i;
+        uncheckedObjIntConsumer = CheckedObjIntConsumer.unchecked((CheckedObjIntConsumer<String>) (s, i) -> intSink = i);
+        throwingObjIntConsumer = CheckedObjIntConsumer.unchecked((CheckedObjIntConsumer<String>) (s, i) -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final ObjIntConsumer<String> objIntConsumer1 = CheckedObjIntConsumer.unchecked((CheckedObjIntConsumer<String>) (s, i) -> intSink = i);
+            final ObjIntConsumer<String> objIntConsumer2 = CheckedObjIntConsumer.unchecked((CheckedObjIntConsumer<String>) (s, i) -> intSink = i);
+            final ObjIntConsumer<String> objIntConsumer3 = CheckedObjIntConsumer.unchecked((CheckedObjIntConsumer<String>) (s, i) -> intSink = i);
+            pollute(() -> objIntConsumer1.accept(string, intValue), () -> objIntConsumer2.accept(string, intValue), () -> objIntConsumer3.accept(string, intValue));
+        }
+
+        objLongConsumer = (s, l) -> longSink = l;
+        uncheckedObjLongConsumer = CheckedObjLongConsumer.unchecked((CheckedObjLongConsumer<String>) (s, l) -> longSink = l);
+        throwingObjLongConsumer = CheckedObjLongConsumer.unchecked((CheckedObjLongConsumer<String>) (s, l) -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final ObjLongConsumer<String> objLongConsumer1 = CheckedObjLongConsumer.unchecked((CheckedObjLongConsumer<String>) (s, l) -> longSink = l);
+            final ObjLongConsumer<String> objLongConsumer2 = CheckedObjLongConsumer.unchecked((CheckedObjLongConsumer<String>) (s, l) -> longSink = l);
+            final ObjLongConsumer<String> objLongConsumer3 = CheckedObjLongConsumer.unchecked((CheckedObjLongConsumer<String>) (s, l) -> longSink = l);
+            pollute(() -> objLongConsumer1.accept(string, longValue), () -> objLongConsumer2.accept(string, longValue), () -> objLongConsumer3.accept(string, longValue));
+        }
+
+        objDoubleConsumer = (s, d) -> doubleSink = d;
+        uncheckedObjDoubleConsumer = CheckedObjDoubleConsumer.unchecked((CheckedObjDoubleConsumer<String>) (s, d) -> doubleSink = d);
+        throwingObjDoubleConsumer = CheckedObjDoubleConsumer.unchecked((CheckedObjDoubleConsumer<String>) (s, d) -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final ObjDoubleConsumer<String> objDoubleConsumer1 = CheckedObjDoubleConsumer.unchecked((CheckedObjDoubleConsumer<String>) (s, d) -> doubleSink = d);
+            final ObjDoubleConsumer<String> objDoubleConsumer2 = CheckedObjDoubleConsumer.unchecked((CheckedObjDoubleConsumer<String>) (s, d) -> doubleSink = d);
+            final ObjDoubleConsumer<String> objDoubleConsumer3 = CheckedObjDoubleConsumer.unchecked((CheckedObjDoubleConsumer<String>) (s, d) -> doubleSink = d);
+            pollute(() -> objDoubleConsumer1.accept(string, doubleValue), () -> objDoubleConsumer2.accept(string, doubleValue), () -> objDoubleConsumer3.accept(string, doubleValue));
+        }
+    }
+
+    @Benchmark
+    public void consumer_baseline() {
+        consumer.accept(string);
+    }
+
+    @Benchmark
+    public void consumer_unchecked() {
+        uncheckedConsumer.accept(string);
+    }
+
+    @Benchmark
+    public Object consumer_throwing() {
+        try {
+            throwingConsumer.accept(string);
+        } catch (final Exception e) {
+            return e;
+        }
+        return null;
+    }
+
+    @Benchmark
+    public void biConsumer_baseline() {
+        biConsumer.accept(string, other);
+    }
+
+    @Benchmark
+    public void biConsumer_unchecked() {
+        uncheckedBiConsumer.accept(string, other);
+    }
+
+    @Benchmark
+    public Object biConsumer_throwing() {
+        try {
+            throwingBiConsumer.accept(string, other);
+        } catch (final Exception e) {
+            return e;
+        }
+        return null;
+    }
+
+    @Benchmark
+    public void intConsumer_baseline() {
+        intConsumer.accept(intValue);
+    }
+
+    @Benchmark
+    public void intConsumer_unchecked() {
+        uncheckedIntConsumer.accept(intValue);
+    }
+
+    @Benchmark
+    public Object intConsumer_throwing() {
+        try {
+            throwingIntConsumer.accept(intValue);
+        } catch (final Exception e) {
+            return e;
+        }
+        return null;
+    }
+
+    @Benchmark
+    public void longConsumer_baseline() {
+        longConsumer.accept(longValue);
+    }
+
+    @Benchmark
+    public void longConsumer_unchecked() {
+        uncheckedLongConsumer.accept(longValue);
+    }
+
+    @Benchmark
+    public Object longConsumer_throwing() {
+        try {
+            throwingLongConsumer.accept(longValue);
+        } catch (final Exception e) {
+            return e;
+        }
+        return null;
+    }
+
+    @Benchmark
+    public void doubleConsumer_baseline() {
+        doubleConsumer.accept(doubleValue);
+    }
+
+    @Benchmark
+    public void doubleConsumer_unchecked() {
+        uncheckedDoubleConsumer.accept(doubleValue);
+    }
+
+    @Benchmark
+    public Object doubleConsumer_throwing() {
+        try {
+            throwingDoubleConsumer.accept(doubleValue);
+        } catch (final Exception e) {
+            return e;
+        }
+        return null;
+    }
+
+    @Benchmark
+    public void objIntConsumer_baseline() {
+        objIntConsumer.accept(string, intValue);
+    }
+
+    @Benchmark
+    public void objIntConsumer_unchecked() {
+        uncheckedObjIntConsumer.accept(string, intValue);
+    }
+
+    @Benchmark
+    public Object objIntConsumer_throwing() {
+        try {
+            throwingObjIntConsumer.accept(string, intValue);
+        } catch (final Exception e) {
+            return e;
+        }
+        return null;
+    }
+
+    @Benchmark
+    public void objLongConsumer_baseline() {
+        objLongConsumer.accept(string, longValue);
+    }
+
+    @Benchmark
+    public void objLongConsumer_unchecked() {
+        uncheckedObjLongConsumer.accept(string, longValue);
+    }
+
+    @Benchmark
+    public Object objLongConsumer_throwing() {
+        try {
+            throwingObjLongConsumer.accept(string, longValue);
+        } catch (final Exception e) {
+            return e;
+        }
+        return null;
+    }
+
+    @Benchmark
+    public void objDoubleConsumer_baseline() {
+        objDoubleConsumer.accept(string, doubleValue);
+    }
+
+    @Benchmark
+    public void objDoubleConsumer_unchecked() {
+        uncheckedObjDoubleConsumer.accept(string, doubleValue);
+    }
+
+    @Benchmark
+    public Object objDoubleConsumer_throwing() {
+        try {
+            throwingObjDoubleConsumer.accept(string, doubleValue);
+        } catch (final Exception e) {
+            return e;
+        }
+        return null;
+    }
+
+}
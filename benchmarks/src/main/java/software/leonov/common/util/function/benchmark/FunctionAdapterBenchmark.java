@@ -0,0 +1,526 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function.benchmark;
+
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.DoubleFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+import java.util.function.ToDoubleBiFunction;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntBiFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongBiFunction;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+import software.leonov.common.util.function.CheckedBiFunction;
+import software.leonov.common.util.function.CheckedBinaryOperator;
+import software.leonov.common.util.function.CheckedDoubleFunction;
+import software.leonov.common.util.function.CheckedFunction;
+import software.leonov.common.util.function.CheckedIntFunction;
+import software.leonov.common.util.function.CheckedLongFunction;
+import software.leonov.common.util.function.CheckedToDoubleBiFunction;
+import software.leonov.common.util.function.CheckedToDoubleFunction;
+import software.leonov.common.util.function.CheckedToIntBiFunction;
+import software.leonov.common.util.function.CheckedToIntFunction;
+import software.leonov.common.util.function.CheckedToLongBiFunction;
+import software.leonov.common.util.function.CheckedToLongFunction;
+import software.leonov.common.util.function.CheckedUnaryOperator;
+
+/**
+ * Measures the overhead of the {@code unchecked} adapters of the checked functions against equivalent plain
+ * {@code java.util.function} lambdas.
+ */
+public class FunctionAdapterBenchmark extends AdapterBenchmark {
+
+    private Function<String, String> function;
+    private Function<String, String> uncheckedFunction;
+    private Function<String, String> throwingFunction;
+
+    private BiFunction<String, String, String> biFunction;
+    private BiFunction<String, String, String> uncheckedBiFunction;
+    private BiFunction<String, String, String> throwingBiFunction;
+
+    private UnaryOperator<String> unaryOperator;
+    private UnaryOperator<String> uncheckedUnaryOperator;
+    private UnaryOperator<String> throwingUnaryOperator;
+
+    private BinaryOperator<String> binaryOperator;
+    private BinaryOperator<String> uncheckedBinaryOperator;
+    private BinaryOperator<String> throwingBinaryOperator;
+
+    private IntFunction<String> intFunction;
+    private IntFunction<String> uncheckedIntFunction;
+    private IntFunction<String> throwingIntFunction;
+
+    private LongFunction<String> longFunction;
+    private LongFunction<String> uncheckedLongFunction;
+    private LongFunction<String> throwingLongFunction;
+
+    private DoubleFunction<String> doubleFunction;
+    private DoubleFunction<String> uncheckedDoubleFunction;
+    private DoubleFunction<String> throwingDoubleFunction;
+
+    private ToIntFunction<String> toIntFunction;
+    private ToIntFunction<String> uncheckedToIntFunction;
+    private ToIntFunction<String> throwingToIntFunction;
+
+    private ToLongFunction<String> toLongFunction;
+    private ToLongFunction<String> uncheckedToLongFunction;
+    private ToLongFunction<String> throwingToLongFunction;
+
+    private ToDoubleFunction<String> toDoubleFunction;
+    private ToDoubleFunction<String> uncheckedToDoubleFunction;
+    private ToDoubleFunction<String> throwingToDoubleFunction;
+
+    private ToIntBiFunction<String, String> toIntBiFunction;
+    private ToIntBiFunction<String, String> uncheckedToIntBiFunction;
+    private ToIntBiFunction<String, String> throwingToIntBiFunction;
+
+    private ToLongBiFunction<String, String> toLongBiFunction;
+    private ToLongBiFunction<String, String> uncheckedToLongBiFunction;
+    private ToLongBiFunction<String, String> throwingToLongBiFunction;
+
+    private ToDoubleBiFunction<String, String> toDoubleBiFunction;
+    private ToDoubleBiFunction<String, String> uncheckedToDoubleBiFunction;
+    private ToDoubleBiFunction<String, String> throwingToDoubleBiFunction;
+
+    @Setup
+    public void setUp() {
+        function = s -> s;
+        uncheckedFunction = CheckedFunction.unchecked((CheckedFunction<String, String>) s -> s);
+        throwingFunction = CheckedFunction.unchecked((CheckedFunction<String, String>) s -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final Function<String, String> function1 = CheckedFunction.unchecked((CheckedFunction<String, String>) s -> s);
+            final Function<String, String> function2 = CheckedFunction.unchecked((CheckedFunction<String, String>) s -> s);
+            final Function<String, String> function3 = CheckedFunction.unchecked((CheckedFunction<String, String>) s -> s);
+            pollute(() -> function1.apply(string), () -> function2.apply(string), () -> function3.apply(string));
+        }
+
+        biFunction = (s, t) -> s;
+        uncheckedBiFunction = CheckedBiFunction.unchecked((CheckedBiFunction<String, String, String>) (s, t) -> s);
+        throwingBiFunction = CheckedBiFunction.unchecked((CheckedBiFunction<String, String, String>) (s, t) -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final BiFunction<String, String, String> biFunction1 = CheckedBiFunction.unchecked((CheckedBiFunction<String, String, String>) (s, t) -> s);
+            final BiFunction<String, String, String> biFunction2 = CheckedBiFunction.unchecked((CheckedBiFunction<String, String, String>) (s, t) -> s);
+            final BiFunction<String, String, String> biFunction3 = CheckedBiFunction.unchecked((CheckedBiFunction<String, String, String>) (s, t) -> s);
+            pollute(() -> biFunction1.apply(string, other), () -> biFunction2.apply(string, other), () -> biFunction3.apply(string, other));
+        }
+
+        unaryOperator = s -> s;
+        uncheckedUnaryOperator = CheckedUnaryOperator.unchecked((CheckedUnaryOperator<String>) s -> s);
+        throwingUnaryOperator = CheckedUnaryOperator.unchecked((CheckedUnaryOperator<String>) s -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final UnaryOperator<String> unaryOperator1 = CheckedUnaryOperator.unchecked((CheckedUnaryOperator<String>) s -> s);
+            final UnaryOperator<String> unaryOperator2 = CheckedUnaryOperator.unchecked((CheckedUnaryOperator<String>) s -> s);
+            final UnaryOperator<String> unaryOperator3 = CheckedUnaryOperator.unchecked((CheckedUnaryOperator<String>) s -> s);
+            pollute(() -> unaryOperator1.apply(string), () -> unaryOperator2.apply(string), () -> unaryOperator3.apply(string));
+        }
+
+        binaryOperator = (s, t) -> t;
+        uncheckedBinaryOperator = CheckedBinaryOperator.unchecked((CheckedBinaryOperator<String>) (s, t) -> t);
+        throwingBinaryOperator = CheckedBinaryOperator.unchecked((CheckedBinaryOperator<String>) (s, t) -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final BinaryOperator<String> binaryOperator1 = CheckedBinaryOperator.unchecked((CheckedBinaryOperator<String>) (s, t) -> t);
+            final BinaryOperator<String> binaryOperator2 = CheckedBinaryOperator.unchecked((CheckedBinaryOperator<String>) (s, t) -> t);
+            final BinaryOperator<String> binaryOperator3 = CheckedBinaryOperator.unchecked((CheckedBinaryOperator<String>) (s, t) -> t);
+            pollute(() -> binaryOperator1.apply(string, other), () -> binaryOperator2.apply(string, other), () -> binaryOperator3.apply(string, other));
+        }
+
+        intFunction = i -> string;
+        uncheckedIntFunction = CheckedIntFunction.unchecked((CheckedIntFunction<String>) i -> string);
+        throwingIntFunction = CheckedIntFunction.unchecked((CheckedIntFunction<String>) i -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final IntFunction<String> intFunction1 = CheckedIntFunction.unchecked((CheckedIntFunction<String>) i -> string);
+            final IntFunction<String> intFunction2 = CheckedIntFunction.unchecked((CheckedIntFunction<String>) i -> string);
+            final IntFunction<String> intFunction3 = CheckedIntFunction.unchecked((CheckedIntFunction<String>) i -> string);
+            pollute(() -> intFunction1.apply(intValue), () -> intFunction2.apply(intValue), () -> intFunction3.apply(intValue));
+        }
+
+        longFunction = l -> string;
+        uncheckedLongFunction = CheckedLongFunction.unchecked((CheckedLongFunction<String>) l -> string);
+        throwingLongFunction = CheckedLongFunction.unchecked((CheckedLongFunction<String>) l -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final LongFunction<String> longFunction1 = CheckedLongFunction.unchecked((CheckedLongFunction<String>) l -> string);
+            final LongFunction<String> longFunction2 = CheckedLongFunction.unchecked((CheckedLongFunction<String>) l -> string);
+            final LongFunction<String> longFunction3 = CheckedLongFunction.unchecked((CheckedLongFunction<String>) l -> string);
+            pollute(() -> longFunction1.apply(longValue), () -> longFunction2.apply(longValue), () -> longFunction3.apply(longValue));
+        }
+
+        doubleFunction = d -> string;
+        uncheckedDoubleFunction = CheckedDoubleFunction.unchecked((CheckedDoubleFunction<String>) d -> string);
+        throwingDoubleFunction = CheckedDoubleFunction.unchecked((CheckedDoubleFunction<String>) d -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final DoubleFunction<String> doubleFunction1 = CheckedDoubleFunction.unchecked((CheckedDoubleFunction<String>) d -> string);
+            final DoubleFunction<String> doubleFunction2 = CheckedDoubleFunction.unchecked((CheckedDoubleFunction<String>) d -> string);
+            final DoubleFunction<String> doubleFunction3 = CheckedDoubleFunction.unchecked((CheckedDoubleFunction<String>) d -> string);
+            pollute(() -> doubleFunction1.apply(doubleValue), () -> doubleFunction2.apply(doubleValue), () -> doubleFunction3.apply(doubleValue));
+        }
+
+        toIntFunction = s -> s.length();
+        uncheckedToIntFunction = CheckedToIntFunction.unchecked((CheckedToIntFunction<String>) s -> s.length());
+        throwingToIntFunction = CheckedToIntFunction.unchecked((CheckedToIntFunction<String>) s -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final ToIntFunction<String> toIntFunction1 = CheckedToIntFunction.unchecked((CheckedToIntFunction<String>) s -> s.length());
+            final ToIntFunction<String> toIntFunction2 = CheckedToIntFunction.unchecked((CheckedToIntFunction<String>) s -> s.length());
+            final ToIntFunction<String> toIntFunction3 = CheckedToIntFunction.unchecked((CheckedToIntFunction<String>) s -> s.length());
+            pollute(() -> toIntFunction1.applyAsInt(string), () -> toIntFunction2.applyAsInt(string), () -> toIntFunction3.applyAsInt(string));
+        }
+
+        toLongFunction = s -> s.length();
+        uncheckedToLongFunction = CheckedToLongFunction.unchecked((CheckedToLongFunction<String>) s -> s.length());
+        throwingToLongFunction = CheckedToLongFunction.unchecked((CheckedToLongFunction<String>) s -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final ToLongFunction<String> toLongFunction1 = CheckedToLongFunction.unchecked((CheckedToLongFunction<String>) s -> s.length());
+            final ToLongFunction<String> toLongFunction2 = CheckedToLongFunction.unchecked((CheckedToLongFunction<String>) s -> s.length());
+            final ToLongFunction<String> toLongFunction3 = CheckedToLongFunction.unchecked((CheckedToLongFunction<String>) s -> s.length());
+            pollute(() -> toLongFunction1.applyAsLong(string), () -> toLongFunction2.applyAsLong(string), () -> toLongFunction3.applyAsLong(string));
+        }
+
+        toDoubleFunction = s -> s.length();
+        uncheckedToDoubleFunction = CheckedToDoubleFunction.unchecked((CheckedToDoubleFunction<String>) s -> s.length());
+        throwingToDoubleFunction = CheckedToDoubleFunction.unchecked((CheckedToDoubleFunction<String>) s -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final ToDoubleFunction<String> toDoubleFunction1 = CheckedToDoubleFunction.unchecked((CheckedToDoubleFunction<String>) s -> s.length());
+            final ToDoubleFunction<String> toDoubleFunction2 = CheckedToDoubleFunction.unchecked((CheckedToDoubleFunction<String>) s -> s.length());
+            final ToDoubleFunction<String> toDoubleFunction3 = CheckedToDoubleFunction.unchecked((CheckedToDoubleFunction<String>) s -> s.length());
+            pollute(() -> toDoubleFunction1.applyAsDouble(string), () -> toDoubleFunction2.applyAsDouble(string), () -> toDoubleFunction3.applyAsDouble(string));
+        }
+
+        toIntBiFunction = (s, t) -> s.length() + t.length();
+        uncheckedToIntBiFunction = CheckedToIntBiFunction.unchecked((CheckedToIntBiFunction<String, String>) (s, t) -> s.length() + t.length());
+        throwingToIntBiFunction = CheckedToIntBiFunction.unchecked((CheckedToIntBiFunction<String, String>) (s, t) -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final ToIntBiFunction<String, String> toIntBiFunction1 = CheckedToIntBiFunction.unchecked((CheckedToIntBiFunction<String, String>) (s, t) -> s.length() + t.length());
+            final ToIntBiFunction<String, String> toIntBiFunction2 = CheckedToIntBiFunction.unchecked((CheckedToIntBiFunction<String, String>) (s, t) -> s.length() + t.length());
+            final ToIntBiFunction<String, String> toIntBiFunction3 = CheckedToIntBiFunction.unchecked((CheckedToIntBiFunction<String, String>) (s, t) -> s.length() + t.length());
+            pollute(() -> toIntBiFunction1.applyAsInt(string, other), () -> toIntBiFunction2.applyAsInt(string, other), () -> toIntBiFunction3.applyAsInt(string, other));
+        }
+
+        toLongBiFunction = (s, t) -> s.length() + t.length();
+        uncheckedToLongBiFunction = CheckedToLongBiFunction.unchecked((CheckedToLongBiFunction<String, String>) (s, t) -> s.length() + t.length());
+        throwingToLongBiFunction = CheckedToLongBiFunction.unchecked((CheckedToLongBiFunction<String, String>) (s, t) -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final ToLongBiFunction<String, String> toLongBiFunction1 = CheckedToLongBiFunction.unchecked((CheckedToLongBiFunction<String, String>) (s, t) -> s.length() + t.length());
+            final ToLongBiFunction<String, String> toLongBiFunction2 = CheckedToLongBiFunction.unchecked((CheckedToLongBiFunction<String, String>) (s, t) -> s.length() + t.length());
+            final ToLongBiFunction<String, String> toLongBiFunction3 = CheckedToLongBiFunction.unchecked((CheckedToLongBiFunction<String, String>) (s, t) -> s.length() + t.length());
+            pollute(() -> toLongBiFunction1.applyAsLong(string, other), () -> toLongBiFunction2.applyAsLong(string, other), () -> toLongBiFunction3.applyAsLong(string, other));
+        }
+
+        toDoubleBiFunction = (s, t) -> s.length() + t.length();
+        uncheckedToDoubleBiFunction = CheckedToDoubleBiFunction.unchecked((CheckedToDoubleBiFunction<String, String>) (s, t) -> s.length() + t.length());
+        throwingToDoubleBiFunction = CheckedToDoubleBiFunction.unchecked((CheckedToDoubleBiFunction<String, String>) (s, t) -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final ToDoubleBiFunction<String, String> toDoubleBiFunction1 = CheckedToDoubleBiFunction.unchecked((CheckedToDoubleBiFunction<String, String>) (s, t) -> s.length() + t.length());
+            final ToDoubleBiFunction<String, String> toDoubleBiFunction2 = CheckedToDoubleBiFunction.unchecked((CheckedToDoubleBiFunction<String, String>) (s, t) -> s.length() + t.length());
+            final ToDoubleBiFunction<String, String> toDoubleBiFunction3 = CheckedToDoubleBiFunction.unchecked((CheckedToDoubleBiFunction<String, String>) (s, t) -> s.length() + t.length());
+            pollute(() -> toDoubleBiFunction1.applyAsDouble(string, other), () -> toDoubleBiFunction2.applyAsDouble(string, other), () -> toDoubleBiFunction3.applyAsDouble(string, other));
+        }
+    }
+
+    @Benchmark
+    public String function_baseline() {
+        return function.apply(string);
+    }
+
+    @Benchmark
+    public String function_unchecked() {
+        return uncheckedFunction.apply(string);
+    }
+
+    @Benchmark
+    public Object function_throwing() {
+        try {
+            return throwingFunction.apply(string);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public String biFunction_baseline() {
+        return biFunction.apply(string, other);
+    }
+
+    @Benchmark
+    public String biFunction_unchecked() {
+        return uncheckedBiFunction.apply(string, other);
+    }
+
+    @Benchmark
+    public Object biFunction_throwing() {
+        try {
+            return throwingBiFunction.apply(string, other);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public String unaryOperator_baseline() {
+        return unaryOperator.apply(string);
+    }
+
+    @Benchmark
+    public String unaryOperator_unchecked() {
+        return uncheckedUnaryOperator.apply(string);
+    }
+
+    @Benchmark
+    public Object unaryOperator_throwing() {
+        try {
+            return throwingUnaryOperator.apply(string);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public String binaryOperator_baseline() {
+        return binaryOperator.apply(string, other);
+    }
+
+    @Benchmark
+    public String binaryOperator_unchecked() {
+        return uncheckedBinaryOperator.apply(string, other);
+    }
+
+    @Benchmark
+    public Object binaryOperator_throwing() {
+        try {
+            return throwingBinaryOperator.apply(string, other);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public String intFunction_baseline() {
+        return intFunction.apply(intValue);
+    }
+
+    @Benchmark
+    public String intFunction_unchecked() {
+        return uncheckedIntFunction.apply(intValue);
+    }
+
+    @Benchmark
+    public Object intFunction_throwing() {
+        try {
+            return throwingIntFunction.apply(intValue);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public String longFunction_baseline() {
+        return longFunction.apply(longValue);
+    }
+
+    @Benchmark
+    public String longFunction_unchecked() {
+        return uncheckedLongFunction.apply(longValue);
+    }
+
+    @Benchmark
+    public Object longFunction_throwing() {
+        try {
+            return throwingLongFunction.apply(longValue);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public String doubleFunction_baseline() {
+        return doubleFunction.apply(doubleValue);
+    }
+
+    @Benchmark
+    public String doubleFunction_unchecked() {
+        return uncheckedDoubleFunction.apply(doubleValue);
+    }
+
+    @Benchmark
+    public Object doubleFunction_throwing() {
+        try {
+            return throwingDoubleFunction.apply(doubleValue);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public int toIntFunction_baseline() {
+        return toIntFunction.applyAsInt(string);
+    }
+
+    @Benchmark
+    public int toIntFunction_unchecked() {
+        return uncheckedToIntFunction.applyAsInt(string);
+    }
+
+    @Benchmark
+    public Object toIntFunction_throwing() {
+        try {
+            return throwingToIntFunction.applyAsInt(string);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public long toLongFunction_baseline() {
+        return toLongFunction.applyAsLong(string);
+    }
+
+    @Benchmark
+    public long toLongFunction_unchecked() {
+        return uncheckedToLongFunction.applyAsLong(string);
+    }
+
+    @Benchmark
+    public Object toLongFunction_throwing() {
+        try {
+            return throwingToLongFunction.applyAsLong(string);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public double toDoubleFunction_baseline() {
+        return toDoubleFunction.applyAsDouble(string);
+    }
+
+    @Benchmark
+    public double toDoubleFunction_unchecked() {
+        return uncheckedToDoubleFunction.applyAsDouble(string);
+    }
+
+    @Benchmark
+    public Object toDoubleFunction_throwing() {
+        try {
+            return throwingToDoubleFunction.applyAsDouble(string);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public int toIntBiFunction_baseline() {
+        return toIntBiFunction.applyAsInt(string, other);
+    }
+
+    @Benchmark
+    public int toIntBiFunction_unchecked() {
+        return uncheckedToIntBiFunction.applyAsInt(string, other);
+    }
+
+    @Benchmark
+    public Object toIntBiFunction_throwing() {
+        try {
+            return throwingToIntBiFunction.applyAsInt(string, other);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public long toLongBiFunction_baseline() {
+        return toLongBiFunction.applyAsLong(string, other);
+    }
+
+    @Benchmark
+    public long toLongBiFunction_unchecked() {
+        return uncheckedToLongBiFunction.applyAsLong(string, other);
+    }
+
+    @Benchmark
+    public Object toLongBiFunction_throwing() {
+        try {
+            return throwingToLongBiFunction.applyAsLong(string, other);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public double toDoubleBiFunction_baseline() {
+        return toDoubleBiFunction.applyAsDouble(string, other);
+    }
+
+    @Benchmark
+    public double toDoubleBiFunction_unchecked() {
+        return uncheckedToDoubleBiFunction.applyAsDouble(string, other);
+    }
+
+    @Benchmark
+    public Object toDoubleBiFunction_throwing() {
+        try {
+            return throwingToDoubleBiFunction.applyAsDouble(string, other);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+}
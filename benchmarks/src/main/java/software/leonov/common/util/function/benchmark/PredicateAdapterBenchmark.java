@@ -0,0 +1,222 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function.benchmark;
+
+import java.util.function.BiPredicate;
+import java.util.function.DoublePredicate;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+import software.leonov.common.util.function.CheckedBiPredicate;
+import software.leonov.common.util.function.CheckedDoublePredicate;
+import software.leonov.common.util.function.CheckedIntPredicate;
+import software.leonov.common.util.function.CheckedLongPredicate;
+import software.leonov.common.util.function.CheckedPredicate;
+
+/**
+ * Measures the overhead of the {@code unchecked} adapters of the checked predicates against equivalent plain
+ * {@code java.util.function} lambdas.
+ */
+public class PredicateAdapterBenchmark extends AdapterBenchmark {
+
+    private Predicate<String> predicate;
+    private Predicate<String> uncheckedPredicate;
+    private Predicate<String> throwingPredicate;
+
+    private BiPredicate<String, String> biPredicate;
+    private BiPredicate<String, String> uncheckedBiPredicate;
+    private BiPredicate<String, String> throwingBiPredicate;
+
+    private IntPredicate intPredicate;
+    private IntPredicate uncheckedIntPredicate;
+    private IntPredicate throwingIntPredicate;
+
+    private LongPredicate longPredicate;
+    private LongPredicate uncheckedLongPredicate;
+    private LongPredicate throwingLongPredicate;
+
+    private DoublePredicate doublePredicate;
+    private DoublePredicate uncheckedDoublePredicate;
+    private DoublePredicate throwingDoublePredicate;
+
+    @Setup
+    public void setUp() {
+        predicate = s -> s.isEmpty();
+        uncheckedPredicate = CheckedPredicate.unchecked((CheckedPredicate<String>) s -> s.isEmpty());
+        throwingPredicate = CheckedPredicate.unchecked((CheckedPredicate<String>) s -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final Predicate<String> predicate1 = CheckedPredicate.unchecked((CheckedPredicate<String>) s -> s.isEmpty());
+            final Predicate<String> predicate2 = CheckedPredicate.unchecked((CheckedPredicate<String>) s -> s.isEmpty());
+            final Predicate<String> predicate3 = CheckedPredicate.unchecked((CheckedPredicate<String>) s -> s.isEmpty());
+            pollute(() -> predicate1.test(string), () -> predicate2.test(string), () -> predicate3.test(string));
+        }
+
+        biPredicate = (s, t) -> s == t;
+        uncheckedBiPredicate = CheckedBiPredicate.unchecked((CheckedBiPredicate<String, String>) (s, t) -> s == t);
+        throwingBiPredicate = CheckedBiPredicate.unchecked((CheckedBiPredicate<String, String>) (s, t) -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final BiPredicate<String, String> biPredicate1 = CheckedBiPredicate.unchecked((CheckedBiPredicate<String, String>) (s, t) -> s == t);
+            final BiPredicate<String, String> biPredicate2 = CheckedBiPredicate.unchecked((CheckedBiPredicate<String, String>) (s, t) -> s == t);
+            final BiPredicate<String, String> biPredicate3 = CheckedBiPredicate.unchecked((CheckedBiPredicate<String, String>) (s, t) -> s == t);
+            pollute(() -> biPredicate1.test(string, other), () -> biPredicate2.test(string, other), () -> biPredicate3.test(string, other));
+        }
+
+        intPredicate = i -> i > 0;
+        uncheckedIntPredicate = CheckedIntPredicate.unchecked((CheckedIntPredicate) i -> i > 0);
+        throwingIntPredicate = CheckedIntPredicate.unchecked((CheckedIntPredicate) i -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final IntPredicate intPredicate1 = CheckedIntPredicate.unchecked((CheckedIntPredicate) i -> i > 0);
+            final IntPredicate intPredicate2 = CheckedIntPredicate.unchecked((CheckedIntPredicate) i -> i > 0);
+            final IntPredicate intPredicate3 = CheckedIntPredicate.unchecked((CheckedIntPredicate) i -> i > 0);
+            pollute(() -> intPredicate1.test(intValue), () -> intPredicate2.test(intValue), () -> intPredicate3.test(intValue));
+        }
+
+        longPredicate = l -> l > 0;
+        uncheckedLongPredicate = CheckedLongPredicate.unchecked((CheckedLongPredicate) l -> l > 0);
+        throwingLongPredicate = CheckedLongPredicate.unchecked((CheckedLongPredicate) l -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final LongPredicate longPredicate1 = CheckedLongPredicate.unchecked((CheckedLongPredicate) l -> l > 0);
+            final LongPredicate longPredicate2 = CheckedLongPredicate.unchecked((CheckedLongPredicate) l -> l > 0);
+            final LongPredicate longPredicate3 = CheckedLongPredicate.unchecked((CheckedLongPredicate) l -> l > 0);
+            pollute(() -> longPredicate1.test(longValue), () -> longPredicate2.test(longValue), () -> longPredicate3.test(longValue));
+        }
+
+        doublePredicate = d -> d > 0;
+        uncheckedDoublePredicate = CheckedDoublePredicate.unchecked((CheckedDoublePredicate) d -> d > 0);
+        throwingDoublePredicate = CheckedDoublePredicate.unchecked((CheckedDoublePredicate) d -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final DoublePredicate doublePredicate1 = CheckedDoublePredicate.unchecked((CheckedDoublePredicate) d -> d > 0);
+            final DoublePredicate doublePredicate2 = CheckedDoublePredicate.unchecked((CheckedDoublePredicate) d -> d > 0);
+            final DoublePredicate doublePredicate3 = CheckedDoublePredicate.unchecked((CheckedDoublePredicate) d -> d > 0);
+            pollute(() -> doublePredicate1.test(doubleValue), () -> doublePredicate2.test(doubleValue), () -> doublePredicate3.test(doubleValue));
+        }
+    }
+
+    @Benchmark
+    public boolean predicate_baseline() {
+        return predicate.test(string);
+    }
+
+    @Benchmark
+    public boolean predicate_unchecked() {
+        return uncheckedPredicate.test(string);
+    }
+
+    @Benchmark
+    public Object predicate_throwing() {
+        try {
+            return throwingPredicate.test(string);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public boolean biPredicate_baseline() {
+        return biPredicate.test(string, other);
+    }
+
+    @Benchmark
+    public boolean biPredicate_unchecked() {
+        return uncheckedBiPredicate.test(string, other);
+    }
+
+    @Benchmark
+    public Object biPredicate_throwing() {
+        try {
+            return throwingBiPredicate.test(string, other);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public boolean intPredicate_baseline() {
+        return intPredicate.test(intValue);
+    }
+
+    @Benchmark
+    public boolean intPredicate_unchecked() {
+        return uncheckedIntPredicate.test(intValue);
+    }
+
+    @Benchmark
+    public Object intPredicate_throwing() {
+        try {
+            return throwingIntPredicate.test(intValue);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public boolean longPredicate_baseline() {
+        return longPredicate.test(longValue);
+    }
+
+    @Benchmark
+    public boolean longPredicate_unchecked() {
+        return uncheckedLongPredicate.test(longValue);
+    }
+
+    @Benchmark
+    public Object longPredicate_throwing() {
+        try {
+            return throwingLongPredicate.test(longValue);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public boolean doublePredicate_baseline() {
+        return doublePredicate.test(doubleValue);
+    }
+
+    @Benchmark
+    public boolean doublePredicate_unchecked() {
+        return uncheckedDoublePredicate.test(doubleValue);
+    }
+
+    @Benchmark
+    public Object doublePredicate_throwing() {
+        try {
+            return throwingDoublePredicate.test(doubleValue);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+}
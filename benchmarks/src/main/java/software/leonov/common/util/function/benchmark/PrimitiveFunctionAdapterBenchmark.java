@@ -0,0 +1,488 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function.benchmark;
+
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleToIntFunction;
+import java.util.function.DoubleToLongFunction;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+import software.leonov.common.util.function.CheckedDoubleBinaryOperator;
+import software.leonov.common.util.function.CheckedDoubleToIntFunction;
+import software.leonov.common.util.function.CheckedDoubleToLongFunction;
+import software.leonov.common.util.function.CheckedDoubleUnaryOperator;
+import software.leonov.common.util.function.CheckedIntBinaryOperator;
+import software.leonov.common.util.function.CheckedIntToDoubleFunction;
+import software.leonov.common.util.function.CheckedIntToLongFunction;
+import software.leonov.common.util.function.CheckedIntUnaryOperator;
+import software.leonov.common.util.function.CheckedLongBinaryOperator;
+import software.leonov.common.util.function.CheckedLongToDoubleFunction;
+import software.leonov.common.util.function.CheckedLongToIntFunction;
+import software.leonov.common.util.function.CheckedLongUnaryOperator;
+
+/**
+ * Measures the overhead of the {@code unchecked} adapters of the checked primitive functions and operators against equivalent plain
+ * {@code java.util.function} lambdas.
+ */
+public class PrimitiveFunctionAdapterBenchmark extends AdapterBenchmark {
+
+    private IntToLongFunction intToLongFunction;
+    private IntToLongFunction uncheckedIntToLongFunction;
+    private IntToLongFunction throwingIntToLongFunction;
+
+    private IntToDoubleFunction intToDoubleFunction;
+    private IntToDoubleFunction uncheckedIntToDoubleFunction;
+    private IntToDoubleFunction throwingIntToDoubleFunction;
+
+    private LongToIntFunction longToIntFunction;
+    private LongToIntFunction uncheckedLongToIntFunction;
+    private LongToIntFunction throwingLongToIntFunction;
+
+    private LongToDoubleFunction longToDoubleFunction;
+    private LongToDoubleFunction uncheckedLongToDoubleFunction;
+    private LongToDoubleFunction throwingLongToDoubleFunction;
+
+    private DoubleToIntFunction doubleToIntFunction;
+    private DoubleToIntFunction uncheckedDoubleToIntFunction;
+    private DoubleToIntFunction throwingDoubleToIntFunction;
+
+    private DoubleToLongFunction doubleToLongFunction;
+    private DoubleToLongFunction uncheckedDoubleToLongFunction;
+    private DoubleToLongFunction throwingDoubleToLongFunction;
+
+    private IntUnaryOperator intUnaryOperator;
+    private IntUnaryOperator uncheckedIntUnaryOperator;
+    private IntUnaryOperator throwingIntUnaryOperator;
+
+    private LongUnaryOperator longUnaryOperator;
+    private LongUnaryOperator uncheckedLongUnaryOperator;
+    private LongUnaryOperator throwingLongUnaryOperator;
+
+    private DoubleUnaryOperator doubleUnaryOperator;
+    private DoubleUnaryOperator uncheckedDoubleUnaryOperator;
+    private DoubleUnaryOperator throwingDoubleUnaryOperator;
+
+    private IntBinaryOperator intBinaryOperator;
+    private IntBinaryOperator uncheckedIntBinaryOperator;
+    private IntBinaryOperator throwingIntBinaryOperator;
+
+    private LongBinaryOperator longBinaryOperator;
+    private LongBinaryOperator uncheckedLongBinaryOperator;
+    private LongBinaryOperator throwingLongBinaryOperator;
+
+    private DoubleBinaryOperator doubleBinaryOperator;
+    private DoubleBinaryOperator uncheckedDoubleBinaryOperator;
+    private DoubleBinaryOperator throwingDoubleBinaryOperator;
+
+    @Setup
+    public void setUp() {
+        intToLongFunction = i -> i + 1L;
+        uncheckedIntToLongFunction = CheckedIntToLongFunction.unchecked((CheckedIntToLongFunction) i -> i + 1L);
+        throwingIntToLongFunction = CheckedIntToLongFunction.unchecked((CheckedIntToLongFunction) i -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final IntToLongFunction intToLongFunction1 = CheckedIntToLongFunction.unchecked((CheckedIntToLongFunction) i -> i + 1L);
+            final IntToLongFunction intToLongFunction2 = CheckedIntToLongFunction.unchecked((CheckedIntToLongFunction) i -> i + 1L);
+            final IntToLongFunction intToLongFunction3 = CheckedIntToLongFunction.unchecked((CheckedIntToLongFunction) i -> i + 1L);
+            pollute(() -> intToLongFunction1.applyAsLong(intValue), () -> intToLongFunction2.applyAsLong(intValue), () -> intToLongFunction3.applyAsLong(intValue));
+        }
+
+        intToDoubleFunction = i -> i * 0.5;
+        uncheckedIntToDoubleFunction = CheckedIntToDoubleFunction.unchecked((CheckedIntToDoubleFunction) i -> i * 0.5);
+        throwingIntToDoubleFunction = CheckedIntToDoubleFunction.unchecked((CheckedIntToDoubleFunction) i -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final IntToDoubleFunction intToDoubleFunction1 = CheckedIntToDoubleFunction.unchecked((CheckedIntToDoubleFunction) i -> i * 0.5);
+            final IntToDoubleFunction intToDoubleFunction2 = CheckedIntToDoubleFunction.unchecked((CheckedIntToDoubleFunction) i -> i * 0.5);
+            final IntToDoubleFunction intToDoubleFunction3 = CheckedIntToDoubleFunction.unchecked((CheckedIntToDoubleFunction) i -> i * 0.5);
+            pollute(() -> intToDoubleFunction1.applyAsDouble(intValue), () -> intToDoubleFunction2.applyAsDouble(intValue), () -> intToDoubleFunction3.applyAsDouble(intValue));
+        }
+
+        longToIntFunction = l -> (int) l;
+        uncheckedLongToIntFunction = CheckedLongToIntFunction.unchecked((CheckedLongToIntFunction) l -> (int) l);
+        throwingLongToIntFunction = CheckedLongToIntFunction.unchecked((CheckedLongToIntFunction) l -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final LongToIntFunction longToIntFunction1 = CheckedLongToIntFunction.unchecked((CheckedLongToIntFunction) l -> (int) l);
+            final LongToIntFunction longToIntFunction2 = CheckedLongToIntFunction.unchecked((CheckedLongToIntFunction) l -> (int) l);
+            final LongToIntFunction longToIntFunction3 = CheckedLongToIntFunction.unchecked((CheckedLongToIntFunction) l -> (int) l);
+            pollute(() -> longToIntFunction1.applyAsInt(longValue), () -> longToIntFunction2.applyAsInt(longValue), () -> longToIntFunction3.applyAsInt(longValue));
+        }
+
+        longToDoubleFunction = l -> l * 0.5;
+        uncheckedLongToDoubleFunction = CheckedLongToDoubleFunction.unchecked((CheckedLongToDoubleFunction) l -> l * 0.5);
+        throwingLongToDoubleFunction = CheckedLongToDoubleFunction.unchecked((CheckedLongToDoubleFunction) l -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final LongToDoubleFunction longToDoubleFunction1 = CheckedLongToDoubleFunction.unchecked((CheckedLongToDoubleFunction) l -> l * 0.5);
+            final LongToDoubleFunction longToDoubleFunction2 = CheckedLongToDoubleFunction.unchecked((CheckedLongToDoubleFunction) l -> l * 0.5);
+            final LongToDoubleFunction longToDoubleFunction3 = CheckedLongToDoubleFunction.unchecked((CheckedLongToDoubleFunction) l -> l * 0.5);
+            pollute(() -> longToDoubleFunction1.applyAsDouble(longValue), () -> longToDoubleFunction2.applyAsDouble(longValue), () -> longToDoubleFunction3.applyAsDouble(longValue));
+        }
+
+        doubleToIntFunction = d -> (int) d;
+        uncheckedDoubleToIntFunction = CheckedDoubleToIntFunction.unchecked((CheckedDoubleToIntFunction) d -> (int) d);
+        throwingDoubleToIntFunction = CheckedDoubleToIntFunction.unchecked((CheckedDoubleToIntFunction) d -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final DoubleToIntFunction doubleToIntFunction1 = CheckedDoubleToIntFunction.unchecked((CheckedDoubleToIntFunction) d -> (int) d);
+            final DoubleToIntFunction doubleToIntFunction2 = CheckedDoubleToIntFunction.unchecked((CheckedDoubleToIntFunction) d -> (int) d);
+            final DoubleToIntFunction doubleToIntFunction3 = CheckedDoubleToIntFunction.unchecked((CheckedDoubleToIntFunction) d -> (int) d);
+            pollute(() -> doubleToIntFunction1.applyAsInt(doubleValue), () -> doubleToIntFunction2.applyAsInt(doubleValue), () -> doubleToIntFunction3.applyAsInt(doubleValue));
+        }
+
+        doubleToLongFunction = d -> (long) d;
+        uncheckedDoubleToLongFunction = CheckedDoubleToLongFunction.unchecked((CheckedDoubleToLongFunction) d -> (long) d);
+        throwingDoubleToLongFunction = CheckedDoubleToLongFunction.unchecked((CheckedDoubleToLongFunction) d -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final DoubleToLongFunction doubleToLongFunction1 = CheckedDoubleToLongFunction.unchecked((CheckedDoubleToLongFunction) d -> (long) d);
+            final DoubleToLongFunction doubleToLongFunction2 = CheckedDoubleToLongFunction.unchecked((CheckedDoubleToLongFunction) d -> (long) d);
+            final DoubleToLongFunction doubleToLongFunction3 = CheckedDoubleToLongFunction.unchecked((CheckedDoubleToLongFunction) d -> (long) d);
+            pollute(() -> doubleToLongFunction1.applyAsLong(doubleValue), () -> doubleToLongFunction2.applyAsLong(doubleValue), () -> doubleToLongFunction3.applyAsLong(doubleValue));
+        }
+
+        intUnaryOperator = i -> i + 1;
+        uncheckedIntUnaryOperator = CheckedIntUnaryOperator.unchecked((CheckedIntUnaryOperator) i -> i + 1);
+        throwingIntUnaryOperator = CheckedIntUnaryOperator.unchecked((CheckedIntUnaryOperator) i -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final IntUnaryOperator intUnaryOperator1 = CheckedIntUnaryOperator.unchecked((CheckedIntUnaryOperator) i -> i + 1);
+            final IntUnaryOperator intUnaryOperator2 = CheckedIntUnaryOperator.unchecked((CheckedIntUnaryOperator) i -> i + 1);
+            final IntUnaryOperator intUnaryOperator3 = CheckedIntUnaryOperator.unchecked((CheckedIntUnaryOperator) i -> i + 1);
+            pollute(() -> intUnaryOperator1.applyAsInt(intValue), () -> intUnaryOperator2.applyAsInt(intValue), () -> intUnaryOperator3.applyAsInt(intValue));
+        }
+
+        longUnaryOperator = l -> l + 1;
+        uncheckedLongUnaryOperator = CheckedLongUnaryOperator.unchecked((CheckedLongUnaryOperator) l -> l + 1);
+        throwingLongUnaryOperator = CheckedLongUnaryOperator.unchecked((CheckedLongUnaryOperator) l -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final LongUnaryOperator longUnaryOperator1 = CheckedLongUnaryOperator.unchecked((CheckedLongUnaryOperator) l -> l + 1);
+            final LongUnaryOperator longUnaryOperator2 = CheckedLongUnaryOperator.unchecked((CheckedLongUnaryOperator) l -> l + 1);
+            final LongUnaryOperator longUnaryOperator3 = CheckedLongUnaryOperator.unchecked((CheckedLongUnaryOperator) l -> l + 1);
+            pollute(() -> longUnaryOperator1.applyAsLong(longValue), () -> longUnaryOperator2.applyAsLong(longValue), () -> longUnaryOperator3.applyAsLong(longValue));
+        }
+
+        doubleUnaryOperator = d -> d + 1;
+        uncheckedDoubleUnaryOperator = CheckedDoubleUnaryOperator.unchecked((CheckedDoubleUnaryOperator) d -> d + 1);
+        throwingDoubleUnaryOperator = CheckedDoubleUnaryOperator.unchecked((CheckedDoubleUnaryOperator) d -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final DoubleUnaryOperator doubleUnaryOperator1 = CheckedDoubleUnaryOperator.unchecked((CheckedDoubleUnaryOperator) d -> d + 1);
+            final DoubleUnaryOperator doubleUnaryOperator2 = CheckedDoubleUnaryOperator.unchecked((CheckedDoubleUnaryOperator) d -> d + 1);
+            final DoubleUnaryOperator doubleUnaryOperator3 = CheckedDoubleUnaryOperator.unchecked((CheckedDoubleUnaryOperator) d -> d + 1);
+            pollute(() -> doubleUnaryOperator1.applyAsDouble(doubleValue), () -> doubleUnaryOperator2.applyAsDouble(doubleValue), () -> doubleUnaryOperator3.applyAsDouble(doubleValue));
+        }
+
+        intBinaryOperator = (a, b) -> a + b;
+        uncheckedIntBinaryOperator = CheckedIntBinaryOperator.unchecked((CheckedIntBinaryOperator) (a, b) -> a + b);
+        throwingIntBinaryOperator = CheckedIntBinaryOperator.unchecked((CheckedIntBinaryOperator) (a, b) -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final IntBinaryOperator intBinaryOperator1 = CheckedIntBinaryOperator.unchecked((CheckedIntBinaryOperator) (a, b) -> a + b);
+            final IntBinaryOperator intBinaryOperator2 = CheckedIntBinaryOperator.unchecked((CheckedIntBinaryOperator) (a, b) -> a + b);
+            final IntBinaryOperator intBinaryOperator3 = CheckedIntBinaryOperator.unchecked((CheckedIntBinaryOperator) (a, b) -> a + b);
+            pollute(() -> intBinaryOperator1.applyAsInt(intValue, intValue), () -> intBinaryOperator2.applyAsInt(intValue, intValue), () -> intBinaryOperator3.applyAsInt(intValue, intValue));
+        }
+
+        longBinaryOperator = (a, b) -> a + b;
+        uncheckedLongBinaryOperator = CheckedLongBinaryOperator.unchecked((CheckedLongBinaryOperator) (a, b) -> a + b);
+        throwingLongBinaryOperator = CheckedLongBinaryOperator.unchecked((CheckedLongBinaryOperator) (a, b) -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final LongBinaryOperator longBinaryOperator1 = CheckedLongBinaryOperator.unchecked((CheckedLongBinaryOperator) (a, b) -> a + b);
+            final LongBinaryOperator longBinaryOperator2 = CheckedLongBinaryOperator.unchecked((CheckedLongBinaryOperator) (a, b) -> a + b);
+            final LongBinaryOperator longBinaryOperator3 = CheckedLongBinaryOperator.unchecked((CheckedLongBinaryOperator) (a, b) -> a + b);
+            pollute(() -> longBinaryOperator1.applyAsLong(longValue, longValue), () -> longBinaryOperator2.applyAsLong(longValue, longValue), () -> longBinaryOperator3.applyAsLong(longValue, longValue));
+        }
+
+        doubleBinaryOperator = (a, b) -> a + b;
+        uncheckedDoubleBinaryOperator = CheckedDoubleBinaryOperator.unchecked((CheckedDoubleBinaryOperator) (a, b) -> a + b);
+        throwingDoubleBinaryOperator = CheckedDoubleBinaryOperator.unchecked((CheckedDoubleBinaryOperator) (a, b) -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final DoubleBinaryOperator doubleBinaryOperator1 = CheckedDoubleBinaryOperator.unchecked((CheckedDoubleBinaryOperator) (a, b) -> a + b);
+            final DoubleBinaryOperator doubleBinaryOperator2 = CheckedDoubleBinaryOperator.unchecked((CheckedDoubleBinaryOperator) (a, b) -> a + b);
+            final DoubleBinaryOperator doubleBinaryOperator3 = CheckedDoubleBinaryOperator.unchecked((CheckedDoubleBinaryOperator) (a, b) -> a + b);
+            pollute(() -> doubleBinaryOperator1.applyAsDouble(doubleValue, doubleValue), () -> doubleBinaryOperator2.applyAsDouble(doubleValue, doubleValue), () -> doubleBinaryOperator3.applyAsDouble(doubleValue, doubleValue));
+        }
+    }
+
+    @Benchmark
+    public long intToLongFunction_baseline() {
+        return intToLongFunction.applyAsLong(intValue);
+    }
+
+    @Benchmark
+    public long intToLongFunction_unchecked() {
+        return uncheckedIntToLongFunction.applyAsLong(intValue);
+    }
+
+    @Benchmark
+    public Object intToLongFunction_throwing() {
+        try {
+            return throwingIntToLongFunction.applyAsLong(intValue);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public double intToDoubleFunction_baseline() {
+        return intToDoubleFunction.applyAsDouble(intValue);
+    }
+
+    @Benchmark
+    public double intToDoubleFunction_unchecked() {
+        return uncheckedIntToDoubleFunction.applyAsDouble(intValue);
+    }
+
+    @Benchmark
+    public Object intToDoubleFunction_throwing() {
+        try {
+            return throwingIntToDoubleFunction.applyAsDouble(intValue);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public int longToIntFunction_baseline() {
+        return longToIntFunction.applyAsInt(longValue);
+    }
+
+    @Benchmark
+    public int longToIntFunction_unchecked() {
+        return uncheckedLongToIntFunction.applyAsInt(longValue);
+    }
+
+    @Benchmark
+    public Object longToIntFunction_throwing() {
+        try {
+            return throwingLongToIntFunction.applyAsInt(longValue);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public double longToDoubleFunction_baseline() {
+        return longToDoubleFunction.applyAsDouble(longValue);
+    }
+
+    @Benchmark
+    public double longToDoubleFunction_unchecked() {
+        return uncheckedLongToDoubleFunction.applyAsDouble(longValue);
+    }
+
+    @Benchmark
+    public Object longToDoubleFunction_throwing() {
+        try {
+            return throwingLongToDoubleFunction.applyAsDouble(longValue);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public int doubleToIntFunction_baseline() {
+        return doubleToIntFunction.applyAsInt(doubleValue);
+    }
+
+    @Benchmark
+    public int doubleToIntFunction_unchecked() {
+        return uncheckedDoubleToIntFunction.applyAsInt(doubleValue);
+    }
+
+    @Benchmark
+    public Object doubleToIntFunction_throwing() {
+        try {
+            return throwingDoubleToIntFunction.applyAsInt(doubleValue);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public long doubleToLongFunction_baseline() {
+        return doubleToLongFunction.applyAsLong(doubleValue);
+    }
+
+    @Benchmark
+    public long doubleToLongFunction_unchecked() {
+        return uncheckedDoubleToLongFunction.applyAsLong(doubleValue);
+    }
+
+    @Benchmark
+    public Object doubleToLongFunction_throwing() {
+        try {
+            return throwingDoubleToLongFunction.applyAsLong(doubleValue);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public int intUnaryOperator_baseline() {
+        return intUnaryOperator.applyAsInt(intValue);
+    }
+
+    @Benchmark
+    public int intUnaryOperator_unchecked() {
+        return uncheckedIntUnaryOperator.applyAsInt(intValue);
+    }
+
+    @Benchmark
+    public Object intUnaryOperator_throwing() {
+        try {
+            return throwingIntUnaryOperator.applyAsInt(intValue);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public long longUnaryOperator_baseline() {
+        return longUnaryOperator.applyAsLong(longValue);
+    }
+
+    @Benchmark
+    public long longUnaryOperator_unchecked() {
+        return uncheckedLongUnaryOperator.applyAsLong(longValue);
+    }
+
+    @Benchmark
+    public Object longUnaryOperator_throwing() {
+        try {
+            return throwingLongUnaryOperator.applyAsLong(longValue);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public double doubleUnaryOperator_baseline() {
+        return doubleUnaryOperator.applyAsDouble(doubleValue);
+    }
+
+    @Benchmark
+    public double doubleUnaryOperator_unchecked() {
+        return uncheckedDoubleUnaryOperator.applyAsDouble(doubleValue);
+    }
+
+    @Benchmark
+    public Object doubleUnaryOperator_throwing() {
+        try {
+            return throwingDoubleUnaryOperator.applyAsDouble(doubleValue);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public int intBinaryOperator_baseline() {
+        return intBinaryOperator.applyAsInt(intValue, intValue);
+    }
+
+    @Benchmark
+    public int intBinaryOperator_unchecked() {
+        return uncheckedIntBinaryOperator.applyAsInt(intValue, intValue);
+    }
+
+    @Benchmark
+    public Object intBinaryOperator_throwing() {
+        try {
+            return throwingIntBinaryOperator.applyAsInt(intValue, intValue);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public long longBinaryOperator_baseline() {
+        return longBinaryOperator.applyAsLong(longValue, longValue);
+    }
+
+    @Benchmark
+    public long longBinaryOperator_unchecked() {
+        return uncheckedLongBinaryOperator.applyAsLong(longValue, longValue);
+    }
+
+    @Benchmark
+    public Object longBinaryOperator_throwing() {
+        try {
+            return throwingLongBinaryOperator.applyAsLong(longValue, longValue);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public double doubleBinaryOperator_baseline() {
+        return doubleBinaryOperator.applyAsDouble(doubleValue, doubleValue);
+    }
+
+    @Benchmark
+    public double doubleBinaryOperator_unchecked() {
+        return uncheckedDoubleBinaryOperator.applyAsDouble(doubleValue, doubleValue);
+    }
+
+    @Benchmark
+    public Object doubleBinaryOperator_throwing() {
+        try {
+            return throwingDoubleBinaryOperator.applyAsDouble(doubleValue, doubleValue);
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+}
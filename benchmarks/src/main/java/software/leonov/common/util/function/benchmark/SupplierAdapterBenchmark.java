@@ -0,0 +1,260 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function.benchmark;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+import software.leonov.common.util.function.CheckedBooleanSupplier;
+import software.leonov.common.util.function.CheckedDoubleSupplier;
+import software.leonov.common.util.function.CheckedIntSupplier;
+import software.leonov.common.util.function.CheckedLongSupplier;
+import software.leonov.common.util.function.CheckedRunnable;
+import software.leonov.common.util.function.CheckedSupplier;
+
+/**
+ * Measures the overhead of the {@code unchecked} adapters of the checked suppliers and runnables against equivalent plain
+ * {@code java.util.function} lambdas.
+ */
+public class SupplierAdapterBenchmark extends AdapterBenchmark {
+
+    private Supplier<String> supplier;
+    private Supplier<String> uncheckedSupplier;
+    private Supplier<String> throwingSupplier;
+
+    private BooleanSupplier booleanSupplier;
+    private BooleanSupplier uncheckedBooleanSupplier;
+    private BooleanSupplier throwingBooleanSupplier;
+
+    private IntSupplier intSupplier;
+    private IntSupplier uncheckedIntSupplier;
+    private IntSupplier throwingIntSupplier;
+
+    private LongSupplier longSupplier;
+    private LongSupplier uncheckedLongSupplier;
+    private LongSupplier throwingLongSupplier;
+
+    private DoubleSupplier doubleSupplier;
+    private DoubleSupplier uncheckedDoubleSupplier;
+    private DoubleSupplier throwingDoubleSupplier;
+
+    private Runnable runnable;
+    private Runnable uncheckedRunnable;
+    private Runnable throwingRunnable;
+
+    @Setup
+    public void setUp() {
+        supplier = () -> string;
+        uncheckedSupplier = CheckedSupplier.unchecked((CheckedSupplier<String>) () -> string);
+        throwingSupplier = CheckedSupplier.unchecked((CheckedSupplier<String>) () -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final Supplier<String> supplier1 = CheckedSupplier.unchecked((CheckedSupplier<String>) () -> string);
+            final Supplier<String> supplier2 = CheckedSupplier.unchecked((CheckedSupplier<String>) () -> string);
+            final Supplier<String> supplier3 = CheckedSupplier.unchecked((CheckedSupplier<String>) () -> string);
+            pollute(() -> supplier1.get(), () -> supplier2.get(), () -> supplier3.get());
+        }
+
+        booleanSupplier = () -> booleanValue;
+        uncheckedBooleanSupplier = CheckedBooleanSupplier.unchecked((CheckedBooleanSupplier) () -> booleanValue);
+        throwingBooleanSupplier = CheckedBooleanSupplier.unchecked((CheckedBooleanSupplier) () -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final BooleanSupplier booleanSupplier1 = CheckedBooleanSupplier.unchecked((CheckedBooleanSupplier) () -> booleanValue);
+            final BooleanSupplier booleanSupplier2 = CheckedBooleanSupplier.unchecked((CheckedBooleanSupplier) () -> booleanValue);
+            final BooleanSupplier booleanSupplier3 = CheckedBooleanSupplier.unchecked((CheckedBooleanSupplier) () -> booleanValue);
+            pollute(() -> booleanSupplier1.getAsBoolean(), () -> booleanSupplier2.getAsBoolean(), () -> booleanSupplier3.getAsBoolean());
+        }
+
+        intSupplier = () -> intValue;
+        uncheckedIntSupplier = CheckedIntSupplier.unchecked((CheckedIntSupplier) () -> intValue);
+        throwingIntSupplier = CheckedIntSupplier.unchecked((CheckedIntSupplier) () -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final IntSupplier intSupplier1 = CheckedIntSupplier.unchecked((CheckedIntSupplier) () -> intValue);
+            final IntSupplier intSupplier2 = CheckedIntSupplier.unchecked((CheckedIntSupplier) () -> intValue);
+            final IntSupplier intSupplier3 = CheckedIntSupplier.unchecked((CheckedIntSupplier) () -> intValue);
+            pollute(() -> intSupplier1.getAsInt(), () -> intSupplier2.getAsInt(), () -> intSupplier3.getAsInt());
+        }
+
+        longSupplier = () -> longValue;
+        uncheckedLongSupplier = CheckedLongSupplier.unchecked((CheckedLongSupplier) () -> longValue);
+        throwingLongSupplier = CheckedLongSupplier.unchecked((CheckedLongSupplier) () -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final LongSupplier longSupplier1 = CheckedLongSupplier.unchecked((CheckedLongSupplier) () -> longValue);
+            final LongSupplier longSupplier2 = CheckedLongSupplier.unchecked((CheckedLongSupplier) () -> longValue);
+            final LongSupplier longSupplier3 = CheckedLongSupplier.unchecked((CheckedLongSupplier) () -> longValue);
+            pollute(() -> longSupplier1.getAsLong(), () -> longSupplier2.getAsLong(), () -> longSupplier3.getAsLong());
+        }
+
+        doubleSupplier = () -> doubleValue;
+        uncheckedDoubleSupplier = CheckedDoubleSupplier.unchecked((CheckedDoubleSupplier) () -> doubleValue);
+        throwingDoubleSupplier = CheckedDoubleSupplier.unchecked((CheckedDoubleSupplier) () -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final DoubleSupplier doubleSupplier1 = CheckedDoubleSupplier.unchecked((CheckedDoubleSupplier) () -> doubleValue);
+            final DoubleSupplier doubleSupplier2 = CheckedDoubleSupplier.unchecked((CheckedDoubleSupplier) () -> doubleValue);
+            final DoubleSupplier doubleSupplier3 = CheckedDoubleSupplier.unchecked((CheckedDoubleSupplier) () -> doubleValue);
+            pollute(() -> doubleSupplier1.getAsDouble(), () -> doubleSupplier2.getAsDouble(), () -> doubleSupplier3.getAsDouble());
+        }
+
+        runnable = () -> intSink++;
+        uncheckedRunnable = CheckedRunnable.unchecked((CheckedRunnable) () -> intSink++);
+        throwingRunnable = CheckedRunnable.unchecked((CheckedRunnable) () -> {
+            throw FAILURE;
+        });
+
+        if (callSite == CallSite.MEGAMORPHIC) {
+            final Runnable runnable1 = CheckedRunnable.unchecked((CheckedRunnable) () -> intSink++);
+            final Runnable runnable2 = CheckedRunnable.unchecked((CheckedRunnable) () -> intSink++);
+            final Runnable runnable3 = CheckedRunnable.unchecked((CheckedRunnable) () -> intSink++);
+            pollute(() -> runnable1.run(), () -> runnable2.run(), () -> runnable3.run());
+        }
+    }
+
+    @Benchmark
+    public String supplier_baseline() {
+        return supplier.get();
+    }
+
+    @Benchmark
+    public String supplier_unchecked() {
+        return uncheckedSupplier.get();
+    }
+
+    @Benchmark
+    public Object supplier_throwing() {
+        try {
+            return throwingSupplier.get();
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public boolean booleanSupplier_baseline() {
+        return booleanSupplier.getAsBoolean();
+    }
+
+    @Benchmark
+    public boolean booleanSupplier_unchecked() {
+        return uncheckedBooleanSupplier.getAsBoolean();
+    }
+
+    @Benchmark
+    public Object booleanSupplier_throwing() {
+        try {
+            return throwingBooleanSupplier.getAsBoolean();
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public int intSupplier_baseline() {
+        return intSupplier.getAsInt();
+    }
+
+    @Benchmark
+    public int intSupplier_unchecked() {
+        return uncheckedIntSupplier.getAsInt();
+    }
+
+    @Benchmark
+    public Object intSupplier_throwing() {
+        try {
+            return throwingIntSupplier.getAsInt();
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public long longSupplier_baseline() {
+        return longSupplier.getAsLong();
+    }
+
+    @Benchmark
+    public long longSupplier_unchecked() {
+        return uncheckedLongSupplier.getAsLong();
+    }
+
+    @Benchmark
+    public Object longSupplier_throwing() {
+        try {
+            return throwingLongSupplier.getAsLong();
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public double doubleSupplier_baseline() {
+        return doubleSupplier.getAsDouble();
+    }
+
+    @Benchmark
+    public double doubleSupplier_unchecked() {
+        return uncheckedDoubleSupplier.getAsDouble();
+    }
+
+    @Benchmark
+    public Object doubleSupplier_throwing() {
+        try {
+            return throwingDoubleSupplier.getAsDouble();
+        } catch (final Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public void runnable_baseline() {
+        runnable.run();
+    }
+
+    @Benchmark
+    public void runnable_unchecked() {
+        uncheckedRunnable.run();
+    }
+
+    @Benchmark
+    public Object runnable_throwing() {
+        try {
+            throwingRunnable.run();
+        } catch (final Exception e) {
+            return e;
+        }
+        return null;
+    }
+
+}
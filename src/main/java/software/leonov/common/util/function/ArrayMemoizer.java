@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Memoizes functions of a dense range of {@code int} keys in arrays indexed by {@code key - from}.
+ * <p>
+ * Every slot starts out empty and is filled the first time its key is looked up. A lookup of a filled slot is a range
+ * check plus one volatile array read. Slots are written with {@code lazySet}, which orders the write after the
+ * computation of the value, so a reader which sees a filled slot also sees the fully constructed value. Two threads
+ * which miss the same key at the same time may both call the underlying function, which is harmless for the pure
+ * functions this is intended for. Exceptions are not cached. Keys outside the range are passed straight to the
+ * underlying function.
+ */
+final class ArrayMemoizer {
+
+    private static final Object NULL = new Object(); // stands in for a null result
+
+    private ArrayMemoizer() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <R> CheckedIntFunction<R> memoizeFunction(final CheckedIntFunction<? extends R> function, final int from, final int to) {
+        final AtomicReferenceArray<Object> cache = new AtomicReferenceArray<>(length(from, to));
+        return value -> {
+            if (value < from || value >= to)
+                return function.apply(value);
+
+            final int index  = value - from;
+            Object    result = cache.get(index);
+
+            if (result == null) {
+                result = function.apply(value);
+                cache.lazySet(index, result == null ? NULL : result);
+                return (R) result;
+            }
+
+            return result == NULL ? null : (R) result;
+        };
+    }
+
+    static CheckedIntUnaryOperator memoizeOperator(final CheckedIntUnaryOperator operator, final int from, final int to) {
+        // the high bit marks a filled slot and the low 32 bits hold the result
+        final AtomicLongArray cache = new AtomicLongArray(length(from, to));
+        return operand -> {
+            if (operand < from || operand >= to)
+                return operator.applyAsInt(operand);
+
+            final int  index = operand - from;
+            final long slot  = cache.get(index);
+
+            if (slot != 0)
+                return (int) slot;
+
+            final int result = operator.applyAsInt(operand);
+            cache.lazySet(index, Long.MIN_VALUE | result & 0xFFFFFFFFL);
+            return result;
+        };
+    }
+
+    static CheckedIntPredicate memoizePredicate(final CheckedIntPredicate predicate, final int from, final int to) {
+        // 0 is empty, 1 is false, 2 is true
+        final AtomicIntegerArray cache = new AtomicIntegerArray(length(from, to));
+        return value -> {
+            if (value < from || value >= to)
+                return predicate.test(value);
+
+            final int index = value - from;
+            final int slot  = cache.get(index);
+
+            if (slot != 0)
+                return slot == 2;
+
+            final boolean result = predicate.test(value);
+            cache.lazySet(index, result ? 2 : 1);
+            return result;
+        };
+    }
+
+    static CheckedIntToLongFunction memoizeToLong(final CheckedIntToLongFunction function, final int from, final int to) {
+        // a long result has no spare bits, so a separate flag publishes each slot of the plain array
+        final long[]             values = new long[length(from, to)];
+        final AtomicIntegerArray filled = new AtomicIntegerArray(values.length);
+        return value -> {
+            if (value < from || value >= to)
+                return function.applyAsLong(value);
+
+            final int index = value - from;
+
+            if (filled.get(index) != 0)
+                return values[index];
+
+            final long result = function.applyAsLong(value);
+            values[index] = result;
+            filled.lazySet(index, 1);
+            return result;
+        };
+    }
+
+    private static int length(final int from, final int to) {
+        if (from > to)
+            throw new IllegalArgumentException("from > to");
+
+        final long length = (long) to - from;
+
+        if (length > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("range too large");
+
+        return (int) length;
+    }
+
+}
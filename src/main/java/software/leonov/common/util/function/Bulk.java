@@ -0,0 +1,328 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Static utility methods which apply a checked function or consumer to every element of a list, collecting every
+ * success and every failure instead of stopping at the first exception.
+ * <p>
+ * Each element is processed inside a single {@code try}/{@code catch}, and an exception thrown for one element does not
+ * prevent the remaining elements from being processed. The outcome is returned as a {@link BulkResult}. Only
+ * {@code Exception}s are collected; an {@code Error} is propagated immediately.
+ *
+ * @author Zhenya Leonov
+ */
+public final class Bulk {
+
+    private static final int MIN_BULK_GRAN = 1 << 10;
+
+    private static final Object FAILED = new Object(); // marks the result of a failed element
+
+    private Bulk() {
+    }
+
+    /**
+     * Applies the specified function to every element of the specified list, in order, collecting the results and every
+     * failure.
+     *
+     * @param <T>      the type of the elements
+     * @param <R>      the type of the results
+     * @param elements the specified list
+     * @param function the function to apply to each element
+     * @return the results and failures
+     */
+    public static <T, R> BulkResult<R> map(final List<? extends T> elements, final CheckedFunction<? super T, ? extends R> function) {
+        return map(elements, function, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Applies the specified function to every element of the specified list, in order, collecting the results and at most
+     * {@code maxFailures} failures. Failures beyond {@code maxFailures} are counted but not retained, and do not stop the
+     * remaining elements from being processed.
+     *
+     * @param <T>         the type of the elements
+     * @param <R>         the type of the results
+     * @param elements    the specified list
+     * @param function    the function to apply to each element
+     * @param maxFailures the maximum number of failures to capture
+     * @return the results and failures
+     * @throws IllegalArgumentException if {@code maxFailures} is negative
+     */
+    public static <T, R> BulkResult<R> map(final List<? extends T> elements, final CheckedFunction<? super T, ? extends R> function, final int maxFailures) {
+        Objects.requireNonNull(elements, "elements == null");
+        Objects.requireNonNull(function, "function == null");
+        checkMaxFailures(maxFailures);
+
+        final Object[] array   = elements.toArray();
+        final Object[] results = new Object[array.length];
+        return result(results, apply(array, results, 0, array.length, function, new Failures(maxFailures, new AtomicInteger())));
+    }
+
+    /**
+     * Applies the specified function to every element of the specified list using the
+     * {@link ForkJoinPool#commonPool() common pool}, collecting the results and every failure.
+     * <p>
+     * Equivalent to {@link #parallelMap(List, CheckedFunction, int, ForkJoinPool) parallelMap(elements, function,
+     * Integer.MAX_VALUE, ForkJoinPool.commonPool())}.
+     *
+     * @param <T>      the type of the elements
+     * @param <R>      the type of the results
+     * @param elements the specified list
+     * @param function the function to apply to each element
+     * @return the results and failures
+     */
+    public static <T, R> BulkResult<R> parallelMap(final List<? extends T> elements, final CheckedFunction<? super T, ? extends R> function) {
+        return parallelMap(elements, function, Integer.MAX_VALUE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Applies the specified function to every element of the specified list using the specified {@code ForkJoinPool},
+     * collecting the results and at most {@code maxFailures} failures.
+     * <p>
+     * The list is split into ranges which are processed concurrently, each with its own failure arrays, which are
+     * concatenated in element order when the ranges are joined. The results are returned in the order of the elements
+     * regardless of the order in which they were computed. The cap on captured failures is shared by all ranges, so when
+     * it is exceeded which failures are retained is unspecified, although they are still sorted by element index. Lists
+     * which are too small to benefit from parallelism are processed sequentially on the calling thread.
+     *
+     * @param <T>         the type of the elements
+     * @param <R>         the type of the results
+     * @param elements    the specified list
+     * @param function    the function to apply to each element
+     * @param maxFailures the maximum number of failures to capture
+     * @param pool        the {@code ForkJoinPool} to process the elements in
+     * @return the results and failures
+     * @throws IllegalArgumentException if {@code maxFailures} is negative
+     */
+    public static <T, R> BulkResult<R> parallelMap(final List<? extends T> elements, final CheckedFunction<? super T, ? extends R> function, final int maxFailures, final ForkJoinPool pool) {
+        Objects.requireNonNull(elements, "elements == null");
+        Objects.requireNonNull(function, "function == null");
+        Objects.requireNonNull(pool, "pool == null");
+        checkMaxFailures(maxFailures);
+
+        final Object[] array    = elements.toArray();
+        final Object[] results  = new Object[array.length];
+        final Failures failures = new Failures(maxFailures, new AtomicInteger());
+        final int      n        = array.length;
+        final int      p        = pool.getParallelism();
+
+        if (n <= MIN_BULK_GRAN || p == 1)
+            return result(results, apply(array, results, 0, n, function, failures));
+
+        return result(results, pool.invoke(new ParallelApply<>(array, results, 0, n, Math.max(n / (p << 2), MIN_BULK_GRAN), function, failures)));
+    }
+
+    /**
+     * Performs the specified action on every element of the specified list, in order, collecting the elements which were
+     * processed successfully and every failure.
+     *
+     * @param <T>      the type of the elements
+     * @param elements the specified list
+     * @param action   the action to perform on each element
+     * @return the successfully processed elements and the failures
+     */
+    public static <T> BulkResult<T> forEach(final List<? extends T> elements, final CheckedConsumer<? super T> action) {
+        return forEach(elements, action, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Performs the specified action on every element of the specified list, in order, collecting the elements which were
+     * processed successfully and at most {@code maxFailures} failures.
+     *
+     * @param <T>         the type of the elements
+     * @param elements    the specified list
+     * @param action      the action to perform on each element
+     * @param maxFailures the maximum number of failures to capture
+     * @return the successfully processed elements and the failures
+     * @throws IllegalArgumentException if {@code maxFailures} is negative
+     */
+    public static <T> BulkResult<T> forEach(final List<? extends T> elements, final CheckedConsumer<? super T> action, final int maxFailures) {
+        Objects.requireNonNull(action, "action == null");
+        return map(elements, identity(action), maxFailures);
+    }
+
+    /**
+     * Performs the specified action on every element of the specified list using the
+     * {@link ForkJoinPool#commonPool() common pool}, collecting the elements which were processed successfully and every
+     * failure.
+     *
+     * @param <T>      the type of the elements
+     * @param elements the specified list
+     * @param action   the action to perform on each element
+     * @return the successfully processed elements and the failures
+     */
+    public static <T> BulkResult<T> parallelForEach(final List<? extends T> elements, final CheckedConsumer<? super T> action) {
+        return parallelForEach(elements, action, Integer.MAX_VALUE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Performs the specified action on every element of the specified list using the specified {@code ForkJoinPool},
+     * collecting the elements which were processed successfully and at most {@code maxFailures} failures, as described in
+     * {@link #parallelMap(List, CheckedFunction, int, ForkJoinPool)}.
+     *
+     * @param <T>         the type of the elements
+     * @param elements    the specified list
+     * @param action      the action to perform on each element
+     * @param maxFailures the maximum number of failures to capture
+     * @param pool        the {@code ForkJoinPool} to process the elements in
+     * @return the successfully processed elements and the failures
+     * @throws IllegalArgumentException if {@code maxFailures} is negative
+     */
+    public static <T> BulkResult<T> parallelForEach(final List<? extends T> elements, final CheckedConsumer<? super T> action, final int maxFailures, final ForkJoinPool pool) {
+        Objects.requireNonNull(action, "action == null");
+        return parallelMap(elements, identity(action), maxFailures, pool);
+    }
+
+    private static <T> CheckedFunction<T, T> identity(final CheckedConsumer<? super T> action) {
+        return t -> {
+            action.accept(t);
+            return t;
+        };
+    }
+
+    private static void checkMaxFailures(final int maxFailures) {
+        if (maxFailures < 0)
+            throw new IllegalArgumentException("maxFailures < 0");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T, R> Failures apply(final Object[] elements, final Object[] results, final int from, final int to, final CheckedFunction<? super T, ? extends R> function, final Failures failures) {
+        for (int i = from; i < to; i++) {
+            try {
+                results[i] = function.apply((T) elements[i]);
+            } catch (final Exception e) {
+                results[i] = FAILED;
+                failures.add(i, e);
+            }
+        }
+        return failures;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> BulkResult<R> result(final Object[] results, final Failures failures) {
+        final List<R> successes = new ArrayList<>(results.length - failures.count);
+        final int[]   indexes   = new int[results.length - failures.count];
+        for (int i = 0; i < results.length; i++)
+            if (results[i] != FAILED) {
+                indexes[successes.size()] = i;
+                successes.add((R) results[i]);
+            }
+        return new BulkResult<>(Collections.unmodifiableList(successes), indexes, Arrays.copyOf(failures.indexes, failures.size), Arrays.copyOf(failures.exceptions, failures.size), failures.count);
+    }
+
+    /*
+     * The failures of a contiguous range of elements, in two parallel arrays sorted by element index. The number of
+     * failures captured is bounded by a counter shared by all ranges.
+     */
+    private static final class Failures {
+
+        private final int           maxFailures;
+        private final AtomicInteger captured;
+
+        private int[]       indexes    = new int[0];
+        private Exception[] exceptions = new Exception[0];
+        private int         size;  // the number of captured failures
+        private int         count; // the number of failures
+
+        private Failures(final int maxFailures, final AtomicInteger captured) {
+            this.maxFailures = maxFailures;
+            this.captured    = captured;
+        }
+
+        private void add(final int index, final Exception e) {
+            count++;
+
+            if (captured.get() >= maxFailures || captured.getAndIncrement() >= maxFailures)
+                return;
+
+            if (size == indexes.length) {
+                final int capacity = Math.max(8, size * 2);
+                indexes    = Arrays.copyOf(indexes, capacity);
+                exceptions = Arrays.copyOf(exceptions, capacity);
+            }
+
+            indexes[size]    = index;
+            exceptions[size] = e;
+            size++;
+        }
+
+        // the other range must follow this one
+        private Failures concat(final Failures other) {
+            if (other.count == 0)
+                return this;
+
+            if (count == 0)
+                return other;
+
+            final Failures result = new Failures(maxFailures, captured);
+            result.indexes    = Arrays.copyOf(indexes, size + other.size);
+            result.exceptions = Arrays.copyOf(exceptions, size + other.size);
+            System.arraycopy(other.indexes, 0, result.indexes, size, other.size);
+            System.arraycopy(other.exceptions, 0, result.exceptions, size, other.size);
+            result.size  = size + other.size;
+            result.count = count + other.count;
+            return result;
+        }
+
+    }
+
+    private static final class ParallelApply<T, R> extends RecursiveTask<Failures> {
+
+        private static final long serialVersionUID = -6315497393410521874L;
+
+        private final Object[]                                elements;
+        private final Object[]                                results;
+        private final int                                     low;
+        private final int                                     high;
+        private final int                                     granularity;
+        private final CheckedFunction<? super T, ? extends R> function;
+        private final Failures                                failures;
+
+        private ParallelApply(final Object[] elements, final Object[] results, final int low, final int high, final int granularity, final CheckedFunction<? super T, ? extends R> function, final Failures failures) {
+            this.elements    = elements;
+            this.results     = results;
+            this.low         = low;
+            this.high        = high;
+            this.granularity = granularity;
+            this.function    = function;
+            this.failures    = failures;
+        }
+
+        @Override
+        protected Failures compute() {
+            if (high - low <= granularity)
+                return apply(elements, results, low, high, function, failures);
+
+            final int                 mid   = (low + high) >>> 1;
+            final ParallelApply<T, R> right = new ParallelApply<>(elements, results, mid, high, granularity, function, new Failures(failures.maxFailures, failures.captured));
+            right.fork();
+
+            final Failures left = new ParallelApply<>(elements, results, low, mid, granularity, function, failures).compute();
+            return left.concat(right.join());
+        }
+
+    }
+
+}
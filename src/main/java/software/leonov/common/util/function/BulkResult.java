@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function;
+
+import java.util.List;
+
+/**
+ * The outcome of a {@link Bulk} operation: the results and indexes of the elements which were processed successfully,
+ * and the indexes and exceptions of the elements which failed.
+ * <p>
+ * The index of the element of each success is available through {@link #getSuccessIndex(int)}, so results can be
+ * matched with their inputs, or merged with the failures back into element order. Failures are stored in two parallel
+ * arrays, sorted by element index, rather than as one object per failure. If the operation was limited to capturing a
+ * maximum number of failures, {@link #getFailureCount()} still counts every failed element while only the captured
+ * failures are available through {@link #getFailedIndex(int)} and {@link #getFailure(int)}.
+ *
+ * @param <R> the type of the results
+ * @author Zhenya Leonov
+ */
+public final class BulkResult<R> {
+
+    private final List<R>     successes;
+    private final int[]       successIndexes;
+    private final int[]       indexes;
+    private final Exception[] failures;
+    private final int         failureCount;
+
+    BulkResult(final List<R> successes, final int[] successIndexes, final int[] indexes, final Exception[] failures, final int failureCount) {
+        this.successes      = successes;
+        this.successIndexes = successIndexes;
+        this.indexes        = indexes;
+        this.failures       = failures;
+        this.failureCount   = failureCount;
+    }
+
+    /**
+     * Returns an unmodifiable list of the results of the elements which were processed successfully, in the order of the
+     * elements.
+     *
+     * @return an unmodifiable list of the results of the elements which were processed successfully
+     */
+    public List<R> getSuccesses() {
+        return successes;
+    }
+
+    /**
+     * Returns the index of the element of the {@code i}-th success, that is the element whose result is
+     * {@code getSuccesses().get(i)}. Successes are sorted by element index.
+     *
+     * @param i the index of the success
+     * @return the index of the element of the {@code i}-th success
+     * @throws IndexOutOfBoundsException if {@code i} is not less than {@code getSuccesses().size()}
+     */
+    public int getSuccessIndex(final int i) {
+        return successIndexes[i];
+    }
+
+    /**
+     * Returns {@code true} if any element failed.
+     *
+     * @return {@code true} if any element failed
+     */
+    public boolean hasFailures() {
+        return failureCount > 0;
+    }
+
+    /**
+     * Returns the number of elements which failed, including failures which were not captured.
+     *
+     * @return the number of elements which failed
+     */
+    public int getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * Returns the number of captured failures, which is less than {@link #getFailureCount()} if the maximum number of
+     * failures to capture was exceeded.
+     *
+     * @return the number of captured failures
+     */
+    public int getCapturedFailureCount() {
+        return indexes.length;
+    }
+
+    /**
+     * Returns the index of the element of the {@code i}-th captured failure. Captured failures are sorted by element
+     * index.
+     *
+     * @param i the index of the captured failure
+     * @return the index of the element of the {@code i}-th captured failure
+     * @throws IndexOutOfBoundsException if {@code i} is not less than {@link #getCapturedFailureCount()}
+     */
+    public int getFailedIndex(final int i) {
+        return indexes[i];
+    }
+
+    /**
+     * Returns the exception of the {@code i}-th captured failure, exactly as it was thrown. Captured failures are sorted
+     * by element index.
+     *
+     * @param i the index of the captured failure
+     * @return the exception of the {@code i}-th captured failure
+     * @throws IndexOutOfBoundsException if {@code i} is not less than {@link #getCapturedFailureCount()}
+     */
+    public Exception getFailure(final int i) {
+        return failures[i];
+    }
+
+}
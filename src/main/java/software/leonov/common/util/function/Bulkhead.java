@@ -0,0 +1,243 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A lock-free bulkhead which limits the number of concurrent calls to a dependency, so that a slow dependency cannot
+ * tie up every thread of the caller, such as the workers of a parallel stream.
+ * <p>
+ * The permits are a single atomic counter which is decremented with a compare-and-set when a call starts and
+ * incremented when it completes, so an uncontended call takes no locks and allocates nothing. When no permit is free a
+ * call either waits, parked, for a permit to be released, optionally for at most a maximum wait, or in fail-fast mode
+ * is rejected immediately. A rejected call throws the bulkhead's preallocated {@link BulkheadFullException} without
+ * calling the underlying function. That exception is shared by every rejected call and has no stack trace: it must not
+ * be kept, and suppressed exceptions cannot be added to it. Waiting calls are not queued fairly: a permit goes to
+ * whichever call takes it first.
+ * <p>
+ * Calls are protected with {@link #call(CheckedSupplier)}, or with the decorators
+ * {@link CheckedSupplier#withBulkhead(CheckedSupplier, Bulkhead)},
+ * {@link CheckedRunnable#withBulkhead(CheckedRunnable, Bulkhead)},
+ * {@link CheckedFunction#withBulkhead(CheckedFunction, Bulkhead)}, and
+ * {@link CheckedConsumer#withBulkhead(CheckedConsumer, Bulkhead)}. A single bulkhead can protect any number of
+ * functions which share a dependency.
+ *
+ * @author Zhenya Leonov
+ */
+public final class Bulkhead {
+
+    private final int  maxConcurrentCalls;
+    private final long maxWaitNanos; // 0 in fail-fast mode, Long.MAX_VALUE to wait indefinitely
+
+    private final BulkheadFullException rejection = new BulkheadFullException();
+    private final AtomicInteger         permits;
+    private final Queue<Thread>         waiters   = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger         waiting   = new AtomicInteger();
+    private final LongAdder             rejected  = new LongAdder();
+
+    private Bulkhead(final int maxConcurrentCalls, final long maxWaitNanos) {
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWaitNanos       = maxWaitNanos;
+        this.permits            = new AtomicInteger(maxConcurrentCalls);
+    }
+
+    /**
+     * Returns a new bulkhead which allows at most {@code maxConcurrentCalls} concurrent calls, where further calls wait
+     * for as long as it takes for a permit to be released.
+     *
+     * @param maxConcurrentCalls the maximum number of concurrent calls
+     * @return a new bulkhead
+     * @throws IllegalArgumentException if {@code maxConcurrentCalls} is not positive
+     */
+    public static Bulkhead of(final int maxConcurrentCalls) {
+        return create(maxConcurrentCalls, Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns a new bulkhead which allows at most {@code maxConcurrentCalls} concurrent calls, where further calls wait
+     * at most {@code maxWait} for a permit to be released, and are rejected with a {@code BulkheadFullException} if
+     * none is.
+     *
+     * @param maxConcurrentCalls the maximum number of concurrent calls
+     * @param maxWait            the maximum time to wait for a permit
+     * @param unit               the time unit of {@code maxWait}
+     * @return a new bulkhead
+     * @throws IllegalArgumentException if {@code maxConcurrentCalls} is not positive or {@code maxWait} is negative
+     */
+    public static Bulkhead of(final int maxConcurrentCalls, final long maxWait, final TimeUnit unit) {
+        Objects.requireNonNull(unit, "unit == null");
+
+        if (maxWait < 0)
+            throw new IllegalArgumentException("maxWait < 0");
+
+        return create(maxConcurrentCalls, unit.toNanos(maxWait));
+    }
+
+    /**
+     * Returns a new fail-fast bulkhead which allows at most {@code maxConcurrentCalls} concurrent calls, and rejects
+     * further calls immediately with a {@code BulkheadFullException}. A fail-fast bulkhead never blocks the caller.
+     *
+     * @param maxConcurrentCalls the maximum number of concurrent calls
+     * @return a new fail-fast bulkhead
+     * @throws IllegalArgumentException if {@code maxConcurrentCalls} is not positive
+     */
+    public static Bulkhead failFast(final int maxConcurrentCalls) {
+        return create(maxConcurrentCalls, 0);
+    }
+
+    private static Bulkhead create(final int maxConcurrentCalls, final long maxWaitNanos) {
+        if (maxConcurrentCalls <= 0)
+            throw new IllegalArgumentException("maxConcurrentCalls <= 0");
+
+        return new Bulkhead(maxConcurrentCalls, maxWaitNanos);
+    }
+
+    /**
+     * Calls the specified supplier once this bulkhead has a free permit and returns its value.
+     *
+     * @param <T>      the type of the value
+     * @param supplier the supplier to call
+     * @return the value returned by the supplier
+     * @throws BulkheadFullException if this bulkhead rejects the call
+     * @throws InterruptedException  if the calling thread is interrupted while waiting for a permit
+     * @throws Exception             the exception thrown by the supplier
+     */
+    public <T> T call(final CheckedSupplier<? extends T> supplier) throws Exception {
+        Objects.requireNonNull(supplier, "supplier == null");
+
+        acquire();
+        try {
+            return supplier.get();
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Returns the maximum number of concurrent calls allowed by this bulkhead.
+     *
+     * @return the maximum number of concurrent calls
+     */
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    /**
+     * Returns the number of permits which are currently free.
+     *
+     * @return the number of free permits
+     */
+    public int getAvailablePermits() {
+        return permits.get();
+    }
+
+    /**
+     * Returns the number of calls which are currently waiting for a permit.
+     *
+     * @return the number of waiting calls
+     */
+    public int getWaitingCount() {
+        return waiting.get();
+    }
+
+    /**
+     * Returns the number of calls rejected with a {@code BulkheadFullException}.
+     *
+     * @return the number of rejected calls
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /*
+     * Takes a permit, waiting for one if necessary, or throws the preallocated rejection.
+     */
+    void acquire() throws InterruptedException {
+        if (tryAcquire())
+            return;
+
+        if (maxWaitNanos == 0) {
+            rejected.increment();
+            throw rejection;
+        }
+
+        await();
+    }
+
+    /*
+     * Returns a permit and wakes up a waiting call, if any.
+     */
+    void release() {
+        permits.incrementAndGet();
+        signal();
+    }
+
+    private boolean tryAcquire() {
+        for (int available = permits.get(); available > 0; available = permits.get())
+            if (permits.compareAndSet(available, available - 1))
+                return true;
+        return false;
+    }
+
+    /*
+     * A waiting thread enqueues itself before checking for a permit, so a permit released after the check unparks it,
+     * and a thread which takes a permit or gives up while permits are free passes the wake-up on to the next waiter, so
+     * a wake-up consumed by a thread which was about to leave the queue is not lost.
+     */
+    private void await() throws InterruptedException {
+        final Thread current  = Thread.currentThread();
+        final long   deadline = System.nanoTime() + maxWaitNanos;
+
+        waiting.incrementAndGet();
+        waiters.add(current);
+        try {
+            while (!tryAcquire()) {
+                if (Thread.interrupted())
+                    throw new InterruptedException();
+
+                if (maxWaitNanos == Long.MAX_VALUE)
+                    LockSupport.park(this);
+                else {
+                    final long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        rejected.increment();
+                        throw rejection;
+                    }
+                    LockSupport.parkNanos(this, remaining);
+                }
+            }
+        } finally {
+            waiters.remove(current);
+            waiting.decrementAndGet();
+            if (permits.get() > 0)
+                signal();
+        }
+    }
+
+    private void signal() {
+        final Thread waiter = waiters.peek();
+        if (waiter != null)
+            LockSupport.unpark(waiter);
+    }
+
+}
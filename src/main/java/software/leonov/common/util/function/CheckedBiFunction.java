@@ -66,4 +66,20 @@ public interface CheckedBiFunction<T, U, R> {
         };
     }
 
+    /**
+     * Returns a {@code MemoizingBiFunction} which caches up to {@code maxSize} results of the specified function.
+     * <p>
+     * The returned function behaves like {@link CheckedFunction#memoize(CheckedFunction, int)}, using the pair of
+     * arguments as the key.
+     *
+     * @param function the underlying checked function
+     * @param maxSize  the maximum number of results to cache
+     * @return a {@code MemoizingBiFunction} which caches up to {@code maxSize} results of the specified function
+     * @throws IllegalArgumentException if {@code maxSize} is not positive
+     */
+    public static <T, U, R> MemoizingBiFunction<T, U, R> memoize(final CheckedBiFunction<? super T, ? super U, ? extends R> function, final int maxSize) {
+        Objects.requireNonNull(function, "function == null");
+        return new MemoizingBiFunction<>(function, maxSize);
+    }
+
 }
@@ -64,4 +64,19 @@ public interface CheckedBooleanSupplier {
         return unchecked(supplier).getAsBoolean();
     }
 
+    /**
+     * Returns a {@code CheckedBooleanSupplier} which calls the specified supplier only once, on the first call to
+     * {@code getAsBoolean()}, and returns the same value on every subsequent call.
+     * <p>
+     * The returned supplier has the same concurrency guarantees as {@link CheckedSupplier#memoize(CheckedSupplier)}.
+     *
+     * @param supplier the underlying checked supplier
+     * @return a {@code CheckedBooleanSupplier} which calls the specified supplier only once and caches the result
+     */
+    public static CheckedBooleanSupplier memoize(final CheckedBooleanSupplier supplier) {
+        Objects.requireNonNull(supplier, "supplier == null");
+        final CheckedSupplier<Boolean> memoized = new MemoizingSupplier<>(supplier::getAsBoolean);
+        return memoized::get;
+    }
+
 }
@@ -15,7 +15,6 @@
  */
 package software.leonov.common.util.function;
 
-import java.io.Serializable;
 import java.util.Comparator;
 import java.util.Objects;
 
@@ -48,10 +47,9 @@ public interface CheckedComparator<T> {
      * @return a comparator that applies the specified function to each element of {@code type T} and compares the results
      *         according to their <i>natural ordering</i>
      */
-    @SuppressWarnings("unchecked")
     public static <T, U extends Comparable<? super U>> CheckedComparator<T> comparing(final CheckedFunction<? super T, ? extends U> function) {
         Objects.requireNonNull(function, "function == null");
-        return (CheckedComparator<T> & Serializable) (left, right) -> function.apply(left).compareTo(function.apply(right));
+        return CompoundOrdering.comparing(function);
     }
 
     /**
@@ -67,11 +65,10 @@ public interface CheckedComparator<T> {
      * @return a comparator that uses the specified comparator to compare the results of applying the specified function to
      *         each element of {@code type T}
      */
-    @SuppressWarnings("unchecked")
     public static <T, U> CheckedComparator<T> comparing(final CheckedFunction<? super T, ? extends U> function, CheckedComparator<? super U> comparator) {
         Objects.requireNonNull(function, "function == null");
         Objects.requireNonNull(comparator, "comparator == null");
-        return (CheckedComparator<T> & Serializable) (left, right) -> comparator.compare(function.apply(left), function.apply(right));
+        return CompoundOrdering.comparing(function, comparator);
     }
 
     /**
@@ -85,10 +82,9 @@ public interface CheckedComparator<T> {
      * @return a comparator that applies the specified function to each element of {@code type T} and compares the
      *         {@code double} results according to their <i>natural ordering</i>
      */
-    @SuppressWarnings("unchecked")
     public static <T> CheckedComparator<T> comparingDouble(final CheckedToDoubleFunction<? super T> function) {
         Objects.requireNonNull(function, "function == null");
-        return (CheckedComparator<T> & Serializable) (left, right) -> Double.compare(function.applyAsDouble(left), function.applyAsDouble(right));
+        return CompoundOrdering.comparingDouble(function);
     }
 
     /**
@@ -102,10 +98,9 @@ public interface CheckedComparator<T> {
      * @return a comparator that applies the specified function to each element of {@code type T} and compares the
      *         {@code int} results according to their <i>natural ordering</i>
      */
-    @SuppressWarnings("unchecked")
     public static <T> CheckedComparator<T> comparingInt(final CheckedToIntFunction<? super T> function) {
         Objects.requireNonNull(function, "function == null");
-        return (CheckedComparator<T> & Serializable) (left, right) -> Integer.compare(function.applyAsInt(left), function.applyAsInt(right));
+        return CompoundOrdering.comparingInt(function);
     }
 
     /**
@@ -119,10 +114,9 @@ public interface CheckedComparator<T> {
      * @return a comparator that applies the specified function to each element of {@code type T} and compares the
      *         {@code long} results according to their <i>natural ordering</i>
      */
-    @SuppressWarnings("unchecked")
     public static <T> CheckedComparator<T> comparingLong(final CheckedToLongFunction<? super T> function) {
         Objects.requireNonNull(function, "function == null");
-        return (CheckedComparator<T> & Serializable) (left, right) -> Long.compare(function.applyAsLong(left), function.applyAsLong(right));
+        return CompoundOrdering.comparingLong(function);
     }
 
     /**
@@ -200,13 +194,9 @@ public interface CheckedComparator<T> {
      * @return a composed comparator which uses {@code this} comparator, followed by the {@code other} comparator if this
      *         comparator returns a zero result
      */
-    @SuppressWarnings("unchecked")
     default CheckedComparator<T> thenComparing(final CheckedComparator<? super T> other) {
         Objects.requireNonNull(other, "other == null");
-        return (CheckedComparator<T> & Serializable) (left, right) -> {
-            int res = compare(left, right);
-            return (res != 0) ? res : other.compare(left, right);
-        };
+        return CompoundOrdering.<T>of(this).thenComparing(other);
     }
 
     /**
@@ -67,4 +67,46 @@ public interface CheckedConsumer<T> {
         };
     }
 
+    /**
+     * Returns a {@code CheckedConsumer} which passes each argument to the specified consumer once the specified
+     * bulkhead has a free permit, and otherwise waits or throws the bulkhead's preallocated
+     * {@link BulkheadFullException}, according to the bulkhead.
+     *
+     * @param consumer the underlying checked consumer
+     * @param bulkhead the bulkhead
+     * @return a {@code CheckedConsumer} which passes each argument to the specified consumer subject to the specified
+     *         bulkhead
+     */
+    public static <T> CheckedConsumer<T> withBulkhead(final CheckedConsumer<? super T> consumer, final Bulkhead bulkhead) {
+        Objects.requireNonNull(consumer, "consumer == null");
+        Objects.requireNonNull(bulkhead, "bulkhead == null");
+        return t -> {
+            bulkhead.acquire();
+            try {
+                consumer.accept(t);
+            } finally {
+                bulkhead.release();
+            }
+        };
+    }
+
+    /**
+     * Returns a {@code CheckedConsumer} which passes each argument to the specified consumer once the specified rate
+     * limiter has a token for it, and otherwise waits or throws the rate limiter's preallocated
+     * {@link RateLimitExceededException}, according to the rate limiter.
+     *
+     * @param consumer    the underlying checked consumer
+     * @param rateLimiter the rate limiter
+     * @return a {@code CheckedConsumer} which passes each argument to the specified consumer subject to the specified
+     *         rate limiter
+     */
+    public static <T> CheckedConsumer<T> withRateLimiter(final CheckedConsumer<? super T> consumer, final RateLimiter rateLimiter) {
+        Objects.requireNonNull(consumer, "consumer == null");
+        Objects.requireNonNull(rateLimiter, "rateLimiter == null");
+        return t -> {
+            rateLimiter.acquire();
+            consumer.accept(t);
+        };
+    }
+
 }
\ No newline at end of file
@@ -64,4 +64,19 @@ public interface CheckedDoubleSupplier {
         return unchecked(supplier).getAsDouble();
     }
 
+    /**
+     * Returns a {@code CheckedDoubleSupplier} which calls the specified supplier only once, on the first call to
+     * {@code getAsDouble()}, and returns the same value on every subsequent call.
+     * <p>
+     * The returned supplier has the same concurrency guarantees as {@link CheckedSupplier#memoize(CheckedSupplier)}.
+     *
+     * @param supplier the underlying checked supplier
+     * @return a {@code CheckedDoubleSupplier} which calls the specified supplier only once and caches the result
+     */
+    public static CheckedDoubleSupplier memoize(final CheckedDoubleSupplier supplier) {
+        Objects.requireNonNull(supplier, "supplier == null");
+        final CheckedSupplier<Double> memoized = new MemoizingSupplier<>(supplier::getAsDouble);
+        return memoized::get;
+    }
+
 }
@@ -16,6 +16,7 @@
 package software.leonov.common.util.function;
 
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
@@ -92,4 +93,135 @@ public interface CheckedFunction<T, R> {
         };
     }
 
-}
\ No newline at end of file
+    /**
+     * Returns a {@code MemoizingFunction} which caches up to {@code maxSize} results of the specified function.
+     * <p>
+     * The returned function is thread-safe and lookups take no locks. Concurrent calls with the same argument which is not
+     * yet cached call the underlying function once, and the other callers wait for it. If the underlying function throws
+     * an exception it is rethrown to every caller waiting for that argument and nothing is cached. When the cache is full
+     * the least recently used entries are evicted, approximately. Arguments are compared with {@code equals}, and
+     * {@code null} arguments and results are supported.
+     *
+     * @param function the underlying checked function
+     * @param maxSize  the maximum number of results to cache
+     * @return a {@code MemoizingFunction} which caches up to {@code maxSize} results of the specified function
+     * @throws IllegalArgumentException if {@code maxSize} is not positive
+     */
+    public static <T, R> MemoizingFunction<T, R> memoize(final CheckedFunction<? super T, ? extends R> function, final int maxSize) {
+        Objects.requireNonNull(function, "function == null");
+        return new MemoizingFunction<>(function, maxSize);
+    }
+
+    /**
+     * Returns a {@code CheckedFunction} which applies the specified function, retrying it with the same argument according
+     * to the specified policy when it throws an exception. If the attempts are exhausted the exception of the last attempt
+     * is rethrown as is. A call which succeeds at the first attempt allocates nothing.
+     *
+     * @param function the underlying checked function
+     * @param retry    the retry policy
+     * @return a {@code CheckedFunction} which retries the specified function according to the specified policy
+     */
+    public static <T, R> CheckedFunction<T, R> retry(final CheckedFunction<? super T, ? extends R> function, final Retry retry) {
+        Objects.requireNonNull(function, "function == null");
+        Objects.requireNonNull(retry, "retry == null");
+        return t -> {
+            final long start = retry.start();
+            try {
+                return function.apply(t);
+            } catch (final Exception e) {
+                return retry.retry(start, e, () -> function.apply(t));
+            }
+        };
+    }
+
+    /**
+     * Returns a {@code CheckedFunction} which applies the specified function only if the specified circuit breaker allows
+     * it, recording the outcome, and otherwise throws the breaker's preallocated {@link CircuitBreakerOpenException}.
+     *
+     * @param function       the underlying checked function
+     * @param circuitBreaker the circuit breaker
+     * @return a {@code CheckedFunction} which applies the specified function only if the specified circuit breaker allows
+     *         it
+     */
+    public static <T, R> CheckedFunction<T, R> withCircuitBreaker(final CheckedFunction<? super T, ? extends R> function, final CircuitBreaker circuitBreaker) {
+        Objects.requireNonNull(function, "function == null");
+        Objects.requireNonNull(circuitBreaker, "circuitBreaker == null");
+        return t -> {
+            final CircuitBreaker.Phase phase = circuitBreaker.acquire();
+            final long                 start = System.nanoTime();
+            try {
+                final R result = function.apply(t);
+                circuitBreaker.record(phase, start, false);
+                return result;
+            } catch (final Throwable e) {
+                circuitBreaker.record(phase, start, true);
+                throw e;
+            }
+        };
+    }
+
+    /**
+     * Returns a {@code CheckedFunction} which applies the specified function and throws {@code TimeoutException} if the
+     * call takes longer than the specified timeout.
+     * <p>
+     * The timeout is enforced as described in {@link CheckedSupplier#withTimeout(CheckedSupplier, long, TimeUnit)}.
+     *
+     * @param function the underlying checked function
+     * @param timeout  the maximum time a call may take
+     * @param unit     the unit of {@code timeout}
+     * @return a {@code CheckedFunction} which applies the specified function and throws {@code TimeoutException} if the
+     *         call takes longer than the specified timeout
+     * @throws IllegalArgumentException if {@code timeout} is not positive
+     */
+    public static <T, R> CheckedFunction<T, R> withTimeout(final CheckedFunction<? super T, ? extends R> function, final long timeout, final TimeUnit unit) {
+        Objects.requireNonNull(function, "function == null");
+        Objects.requireNonNull(unit, "unit == null");
+
+        if (timeout <= 0)
+            throw new IllegalArgumentException("timeout <= 0");
+
+        final long timeoutNanos = unit.toNanos(timeout);
+        return t -> TimerWheel.call(() -> function.apply(t), timeoutNanos);
+    }
+
+    /**
+     * Returns a {@code CheckedFunction} which applies the specified function once the specified bulkhead has a free
+     * permit, and otherwise waits or throws the bulkhead's preallocated {@link BulkheadFullException}, according to the
+     * bulkhead.
+     *
+     * @param function the underlying checked function
+     * @param bulkhead the bulkhead
+     * @return a {@code CheckedFunction} which applies the specified function subject to the specified bulkhead
+     */
+    public static <T, R> CheckedFunction<T, R> withBulkhead(final CheckedFunction<? super T, ? extends R> function, final Bulkhead bulkhead) {
+        Objects.requireNonNull(function, "function == null");
+        Objects.requireNonNull(bulkhead, "bulkhead == null");
+        return t -> {
+            bulkhead.acquire();
+            try {
+                return function.apply(t);
+            } finally {
+                bulkhead.release();
+            }
+        };
+    }
+
+    /**
+     * Returns a {@code CheckedFunction} which applies the specified function once the specified rate limiter has a
+     * token for it, and otherwise waits or throws the rate limiter's preallocated {@link RateLimitExceededException},
+     * according to the rate limiter.
+     *
+     * @param function    the underlying checked function
+     * @param rateLimiter the rate limiter
+     * @return a {@code CheckedFunction} which applies the specified function subject to the specified rate limiter
+     */
+    public static <T, R> CheckedFunction<T, R> withRateLimiter(final CheckedFunction<? super T, ? extends R> function, final RateLimiter rateLimiter) {
+        Objects.requireNonNull(function, "function == null");
+        Objects.requireNonNull(rateLimiter, "rateLimiter == null");
+        return t -> {
+            rateLimiter.acquire();
+            return function.apply(t);
+        };
+    }
+
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Static utility methods which adapt checked functional interfaces to {@link CompletableFuture}s without wrapping
+ * checked exceptions in {@link CompletionException}s.
+ * <p>
+ * {@code CompletableFuture.supplyAsync(CheckedSupplier.unchecked(supplier))} completes its future with a
+ * {@code CompletionException} wrapping the original exception, and every dependent stage wraps it again if it is not
+ * already wrapped. The futures returned by this class are completed exceptionally with the original exception, whether
+ * it was thrown by the lambda or by a future it depends on, and {@link #join(CompletableFuture)} rethrows that exception
+ * as is, so a failure costs neither a wrapper nor a walk through its causes.
+ * <p>
+ * The futures returned by this class are ordinary {@code CompletableFuture}s. Note that their own {@code join} and
+ * {@code get} methods still wrap the exception, in a {@code CompletionException} and an {@code ExecutionException}
+ * respectively.
+ *
+ * @author Zhenya Leonov
+ */
+public final class CheckedFutures {
+
+    private CheckedFutures() {
+    }
+
+    /**
+     * Returns a new {@code CompletableFuture} which is completed by a task running in the
+     * {@link ForkJoinPool#commonPool() common pool} with the value obtained by calling the specified supplier, or
+     * exceptionally with the exception it throws.
+     *
+     * @param <T>      the type of the value
+     * @param supplier the supplier to call
+     * @return a new {@code CompletableFuture}
+     */
+    public static <T> CompletableFuture<T> supplyAsync(final CheckedSupplier<? extends T> supplier) {
+        return supplyAsync(supplier, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns a new {@code CompletableFuture} which is completed by a task running in the specified executor with the
+     * value obtained by calling the specified supplier, or exceptionally with the exception it throws.
+     *
+     * @param <T>      the type of the value
+     * @param supplier the supplier to call
+     * @param executor the executor to run the task in
+     * @return a new {@code CompletableFuture}
+     */
+    public static <T> CompletableFuture<T> supplyAsync(final CheckedSupplier<? extends T> supplier, final Executor executor) {
+        Objects.requireNonNull(supplier, "supplier == null");
+        Objects.requireNonNull(executor, "executor == null");
+
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        executor.execute(() -> complete(future, supplier));
+        return future;
+    }
+
+    /**
+     * Returns a new {@code CompletableFuture} which is completed by a task running in the
+     * {@link ForkJoinPool#commonPool() common pool} after it runs the specified runnable, or exceptionally with the
+     * exception it throws.
+     *
+     * @param runnable the runnable to run
+     * @return a new {@code CompletableFuture}
+     */
+    public static CompletableFuture<Void> runAsync(final CheckedRunnable runnable) {
+        return runAsync(runnable, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns a new {@code CompletableFuture} which is completed by a task running in the specified executor after it
+     * runs the specified runnable, or exceptionally with the exception it throws.
+     *
+     * @param runnable the runnable to run
+     * @param executor the executor to run the task in
+     * @return a new {@code CompletableFuture}
+     */
+    public static CompletableFuture<Void> runAsync(final CheckedRunnable runnable, final Executor executor) {
+        Objects.requireNonNull(runnable, "runnable == null");
+        return supplyAsync(() -> {
+            runnable.run();
+            return null;
+        }, executor);
+    }
+
+    /**
+     * Returns a new {@code CompletableFuture} which, when the specified future completes normally, is completed with the
+     * result of applying the specified function to its value, or exceptionally with the exception the function throws.
+     * If the specified future completes exceptionally, the new future is completed exceptionally with the same exception,
+     * unwrapped from any {@code CompletionException}.
+     * <p>
+     * The function is applied by the thread which completes the specified future, or by the calling thread if it is
+     * already complete, as in {@link CompletableFuture#thenApply(java.util.function.Function)}.
+     *
+     * @param <T>      the type of the value of the specified future
+     * @param <R>      the type of the value of the new future
+     * @param future   the specified future
+     * @param function the function to apply to the value of the specified future
+     * @return a new {@code CompletableFuture}
+     */
+    public static <T, R> CompletableFuture<R> thenApply(final CompletableFuture<? extends T> future, final CheckedFunction<? super T, ? extends R> function) {
+        Objects.requireNonNull(future, "future == null");
+        Objects.requireNonNull(function, "function == null");
+
+        final CompletableFuture<R> result = new CompletableFuture<>();
+        future.whenComplete((value, t) -> {
+            if (t != null)
+                result.completeExceptionally(unwrap(t));
+            else
+                complete(result, () -> function.apply(value));
+        });
+        return result;
+    }
+
+    /**
+     * Returns a new {@code CompletableFuture} which, when the specified future completes normally, is completed by a task
+     * running in the specified executor with the result of applying the specified function to its value, or
+     * exceptionally with the exception the function throws. If the specified future completes exceptionally, the new
+     * future is completed exceptionally with the same exception, unwrapped from any {@code CompletionException}.
+     *
+     * @param <T>      the type of the value of the specified future
+     * @param <R>      the type of the value of the new future
+     * @param future   the specified future
+     * @param function the function to apply to the value of the specified future
+     * @param executor the executor to apply the function in
+     * @return a new {@code CompletableFuture}
+     */
+    public static <T, R> CompletableFuture<R> thenApplyAsync(final CompletableFuture<? extends T> future, final CheckedFunction<? super T, ? extends R> function, final Executor executor) {
+        Objects.requireNonNull(future, "future == null");
+        Objects.requireNonNull(function, "function == null");
+        Objects.requireNonNull(executor, "executor == null");
+
+        final CompletableFuture<R> result = new CompletableFuture<>();
+        future.whenComplete((value, t) -> {
+            if (t != null)
+                result.completeExceptionally(unwrap(t));
+            else
+                try {
+                    executor.execute(() -> complete(result, () -> function.apply(value)));
+                } catch (final Throwable e) {
+                    result.completeExceptionally(e);
+                }
+        });
+        return result;
+    }
+
+    /**
+     * Returns a new {@code CompletableFuture} which, when both specified futures complete normally, is completed with the
+     * result of applying the specified function to their values, or exceptionally with the exception the function throws.
+     * If either specified future completes exceptionally, the new future is completed exceptionally with the exception
+     * of the first one to do so, unwrapped from any {@code CompletionException}.
+     * <p>
+     * The function is applied by the thread which completes the last of the two futures, or by the calling thread if
+     * both are already complete, as in {@link CompletableFuture#thenCombine(java.util.concurrent.CompletionStage,
+     * java.util.function.BiFunction)}.
+     *
+     * @param <T>      the type of the value of the first future
+     * @param <U>      the type of the value of the second future
+     * @param <R>      the type of the value of the new future
+     * @param first    the first future
+     * @param second   the second future
+     * @param function the function to apply to the values of the specified futures
+     * @return a new {@code CompletableFuture}
+     */
+    public static <T, U, R> CompletableFuture<R> thenCombine(final CompletableFuture<? extends T> first, final CompletableFuture<? extends U> second, final CheckedBiFunction<? super T, ? super U, ? extends R> function) {
+        Objects.requireNonNull(first, "first == null");
+        Objects.requireNonNull(second, "second == null");
+        Objects.requireNonNull(function, "function == null");
+
+        final CompletableFuture<R> result = new CompletableFuture<>();
+
+        first.whenComplete((value, t) -> {
+            if (t != null)
+                result.completeExceptionally(unwrap(t));
+        });
+
+        second.whenComplete((value, t) -> {
+            if (t != null)
+                result.completeExceptionally(unwrap(t));
+        });
+
+        first.thenAcceptBoth(second, (t, u) -> complete(result, () -> function.apply(t, u)));
+        return result;
+    }
+
+    /**
+     * Waits if necessary for the specified future to complete and returns its value, or rethrows the exception it
+     * completed with as is, unwrapped from any {@code CompletionException}.
+     * <p>
+     * Like {@link CompletableFuture#join()}, this method is not interruptible. Unlike it, this method does not create a
+     * new exception when the future has failed: the original exception, checked or not, is rethrown without being
+     * declared. A cancelled future causes its {@code CancellationException} to be thrown.
+     *
+     * @param <T>    the type of the value
+     * @param future the specified future
+     * @return the value of the specified future
+     */
+    public static <T> T join(final CompletableFuture<? extends T> future) {
+        Objects.requireNonNull(future, "future == null");
+
+        final Throwable[] failure = new Throwable[1];
+
+        final T value = future.handle((v, t) -> {
+            failure[0] = t;
+            return v;
+        }).join();
+
+        if (failure[0] == null)
+            return value;
+
+        final Throwable t = unwrap(failure[0]);
+        if (t instanceof Error)
+            throw (Error) t;
+        throw Unchecked.exception((Exception) t);
+    }
+
+    private static <T> void complete(final CompletableFuture<T> future, final CheckedSupplier<? extends T> supplier) {
+        try {
+            future.complete(supplier.get());
+        } catch (final Throwable t) {
+            future.completeExceptionally(t);
+        }
+    }
+
+    private static Throwable unwrap(final Throwable t) {
+        Throwable cause = t;
+        while (cause instanceof CompletionException && cause.getCause() != null)
+            cause = cause.getCause();
+        return cause;
+    }
+
+}
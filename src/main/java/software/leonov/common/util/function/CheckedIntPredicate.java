@@ -95,4 +95,28 @@ public interface CheckedIntPredicate {
         };
     }
 
+    /**
+     * Returns a {@code CheckedIntPredicate} which caches the results of the specified predicate for arguments in the
+     * specified range.
+     * <p>
+     * The results for arguments from {@code from} (inclusive) to {@code to} (exclusive) are cached in an array which is
+     * filled lazily, so a cached lookup is a bounds check plus an array read. Arguments outside the range are passed to
+     * the underlying predicate every time. The returned predicate is thread-safe; if several threads look up the same
+     * uncached argument at the same time the underlying predicate may be called more than once. Exceptions are rethrown
+     * and not cached. This is intended for small dense domains, such as enum ordinals, byte values, or code points in the
+     * Basic Multilingual Plane, where the array costs {@code to - from} slots regardless of how many are used.
+     *
+     * @param predicate the underlying checked predicate
+     * @param from      the lowest argument to cache (inclusive)
+     * @param to        the highest argument to cache (exclusive)
+     * @return a {@code CheckedIntPredicate} which caches the results of the specified predicate for arguments in the
+     *         specified range
+     * @throws IllegalArgumentException if {@code from > to}, or the range has more than {@code Integer.MAX_VALUE - 8}
+     *                                  elements
+     */
+    public static CheckedIntPredicate memoize(final CheckedIntPredicate predicate, final int from, final int to) {
+        Objects.requireNonNull(predicate, "predicate == null");
+        return ArrayMemoizer.memoizePredicate(predicate, from, to);
+    }
+
 }
@@ -0,0 +1,542 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function;
+
+import java.util.IntSummaryStatistics;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A sequence of primitive {@code int} elements supporting sequential and parallel aggregate operations, mirroring
+ * {@link IntStream}, whose operations accept checked functional interfaces directly.
+ * <p>
+ * Adjacent stateless intermediate operations ({@link #map(CheckedIntUnaryOperator) map},
+ * {@link #filter(CheckedIntPredicate) filter}, and {@link #peek(CheckedIntConsumer) peek}) are fused into a single chain
+ * of {@link CheckedIntConsumer}s which is evaluated with one {@code try}/{@code catch} per element and without boxing,
+ * in the same way as {@link CheckedStream}. Operations which change the element type, such as
+ * {@link #mapToObj(CheckedIntFunction) mapToObj} or {@link #mapToLong(CheckedIntToLongFunction) mapToLong}, hand the
+ * fused chain to the underlying {@code IntStream} and continue with a single adapter for the conversion.
+ * <p>
+ * Any exception thrown by a checked lambda is {@link Unchecked#exception(Exception) rethrown} as is, without being
+ * wrapped in a {@code RuntimeException}.
+ *
+ * @author Zhenya Leonov
+ */
+public final class CheckedIntStream implements AutoCloseable {
+
+    private final IntStream source;
+    private final Stage     stage; // null if there are no pending stages
+
+    private CheckedIntStream(final IntStream source, final Stage stage) {
+        this.source = source;
+        this.stage  = stage;
+    }
+
+    /**
+     * Returns a sequential {@code CheckedIntStream} whose elements are the specified values.
+     *
+     * @param values the elements of the new stream
+     * @return a sequential {@code CheckedIntStream} whose elements are the specified values
+     */
+    public static CheckedIntStream of(final int... values) {
+        Objects.requireNonNull(values, "values == null");
+        return from(IntStream.of(values));
+    }
+
+    /**
+     * Returns a {@code CheckedIntStream} with the specified {@code IntStream} as its source. The returned stream is
+     * parallel if and only if the specified stream is parallel.
+     *
+     * @param stream the specified stream
+     * @return a {@code CheckedIntStream} with the specified {@code IntStream} as its source
+     */
+    public static CheckedIntStream from(final IntStream stream) {
+        Objects.requireNonNull(stream, "stream == null");
+        return new CheckedIntStream(stream, null);
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream which match the specified predicate.
+     *
+     * @param predicate the predicate to apply to each element
+     * @return a stream consisting of the elements of this stream which match the specified predicate
+     */
+    public CheckedIntStream filter(final CheckedIntPredicate predicate) {
+        Objects.requireNonNull(predicate, "predicate == null");
+        return then(downstream -> value -> {
+            if (predicate.test(value))
+                downstream.accept(value);
+        });
+    }
+
+    /**
+     * Returns a stream consisting of the results of applying the specified operator to the elements of this stream.
+     *
+     * @param mapper the operator to apply to each element
+     * @return a stream consisting of the results of applying the specified operator to the elements of this stream
+     */
+    public CheckedIntStream map(final CheckedIntUnaryOperator mapper) {
+        Objects.requireNonNull(mapper, "mapper == null");
+        return then(downstream -> value -> downstream.accept(mapper.applyAsInt(value)));
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream, additionally performing the specified action on each
+     * element as it is consumed from the resulting stream.
+     *
+     * @param action the action to perform on each element
+     * @return a stream consisting of the elements of this stream
+     */
+    public CheckedIntStream peek(final CheckedIntConsumer action) {
+        Objects.requireNonNull(action, "action == null");
+        return then(downstream -> value -> {
+            action.accept(value);
+            downstream.accept(value);
+        });
+    }
+
+    /**
+     * Returns an object-valued stream consisting of the results of applying the specified function to the elements of this
+     * stream.
+     *
+     * @param <U>    the type of the elements of the new stream
+     * @param mapper the function to apply to each element
+     * @return an object-valued stream consisting of the results of applying the specified function to the elements of this
+     *         stream
+     */
+    public <U> CheckedStream<U> mapToObj(final CheckedIntFunction<? extends U> mapper) {
+        Objects.requireNonNull(mapper, "mapper == null");
+        return CheckedStream.from(stream().mapToObj(CheckedIntFunction.unchecked(mapper)));
+    }
+
+    /**
+     * Returns a {@code CheckedLongStream} consisting of the results of applying the specified function to the elements of
+     * this stream.
+     *
+     * @param mapper the function to apply to each element
+     * @return a {@code CheckedLongStream} consisting of the results of applying the specified function to the elements of
+     *         this stream
+     */
+    public CheckedLongStream mapToLong(final CheckedIntToLongFunction mapper) {
+        Objects.requireNonNull(mapper, "mapper == null");
+        return CheckedLongStream.from(stream().mapToLong(CheckedIntToLongFunction.unchecked(mapper)));
+    }
+
+    /**
+     * Returns a {@code CheckedDoubleStream} consisting of the results of applying the specified function to the elements
+     * of this stream.
+     *
+     * @param mapper the function to apply to each element
+     * @return a {@code CheckedDoubleStream} consisting of the results of applying the specified function to the elements
+     *         of this stream
+     */
+    public CheckedDoubleStream mapToDouble(final CheckedIntToDoubleFunction mapper) {
+        Objects.requireNonNull(mapper, "mapper == null");
+        return CheckedDoubleStream.from(stream().mapToDouble(CheckedIntToDoubleFunction.unchecked(mapper)));
+    }
+
+    /**
+     * Returns a {@code CheckedLongStream} consisting of the elements of this stream, converted to {@code long}.
+     *
+     * @return a {@code CheckedLongStream} consisting of the elements of this stream, converted to {@code long}
+     */
+    public CheckedLongStream asLongStream() {
+        return CheckedLongStream.from(stream().asLongStream());
+    }
+
+    /**
+     * Returns a {@code CheckedDoubleStream} consisting of the elements of this stream, converted to {@code double}.
+     *
+     * @return a {@code CheckedDoubleStream} consisting of the elements of this stream, converted to {@code double}
+     */
+    public CheckedDoubleStream asDoubleStream() {
+        return CheckedDoubleStream.from(stream().asDoubleStream());
+    }
+
+    /**
+     * Returns a {@code CheckedStream} consisting of the elements of this stream, each boxed to an {@code Integer}.
+     *
+     * @return a {@code CheckedStream} consisting of the elements of this stream, each boxed to an {@code Integer}
+     */
+    public CheckedStream<Integer> boxed() {
+        return CheckedStream.from(stream().boxed());
+    }
+
+    /**
+     * Returns a stream consisting of the distinct elements of this stream.
+     *
+     * @return a stream consisting of the distinct elements of this stream
+     */
+    public CheckedIntStream distinct() {
+        return from(stream().distinct());
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream in sorted order.
+     *
+     * @return a stream consisting of the elements of this stream in sorted order
+     */
+    public CheckedIntStream sorted() {
+        return from(stream().sorted());
+    }
+
+    /**
+     * Returns a stream consisting of at most {@code maxSize} elements of this stream.
+     *
+     * @param maxSize the maximum number of elements
+     * @return a stream consisting of at most {@code maxSize} elements of this stream
+     * @throws IllegalArgumentException if {@code maxSize} is negative
+     */
+    public CheckedIntStream limit(final long maxSize) {
+        return from(stream().limit(maxSize));
+    }
+
+    /**
+     * Returns a stream consisting of the remaining elements of this stream after discarding the first {@code n} elements.
+     *
+     * @param n the number of leading elements to skip
+     * @return a stream consisting of the remaining elements of this stream after discarding the first {@code n} elements
+     * @throws IllegalArgumentException if {@code n} is negative
+     */
+    public CheckedIntStream skip(final long n) {
+        return from(stream().skip(n));
+    }
+
+    /**
+     * Returns an equivalent stream which is parallel.
+     *
+     * @return an equivalent stream which is parallel
+     */
+    public CheckedIntStream parallel() {
+        return new CheckedIntStream(source.parallel(), stage);
+    }
+
+    /**
+     * Returns an equivalent stream which is sequential.
+     *
+     * @return an equivalent stream which is sequential
+     */
+    public CheckedIntStream sequential() {
+        return new CheckedIntStream(source.sequential(), stage);
+    }
+
+    /**
+     * Returns whether this stream would execute in parallel if a terminal operation were executed.
+     *
+     * @return whether this stream would execute in parallel if a terminal operation were executed
+     */
+    public boolean isParallel() {
+        return source.isParallel();
+    }
+
+    /**
+     * Returns an equivalent stream with an additional close handler.
+     *
+     * @param closeHandler the task to execute when the stream is closed
+     * @return an equivalent stream with an additional close handler
+     */
+    public CheckedIntStream onClose(final CheckedRunnable closeHandler) {
+        Objects.requireNonNull(closeHandler, "closeHandler == null");
+        return new CheckedIntStream(source.onClose(CheckedRunnable.unchecked(closeHandler)), stage);
+    }
+
+    /**
+     * Performs the specified action for each element of this stream. For parallel streams the action is performed in no
+     * particular order and possibly concurrently.
+     * <p>
+     * The action is fused with any pending stateless stages, so every element is processed with a single
+     * {@code try}/{@code catch}.
+     *
+     * @param action the action to perform on each element
+     */
+    public void forEach(final CheckedIntConsumer action) {
+        Objects.requireNonNull(action, "action == null");
+        source.forEach(FusedSpliterator.sink(stage == null ? action : stage.wrap(action)));
+    }
+
+    /**
+     * Performs the specified action for each element of this stream, in the encounter order of the stream if it has one.
+     *
+     * @param action the action to perform on each element
+     */
+    public void forEachOrdered(final CheckedIntConsumer action) {
+        Objects.requireNonNull(action, "action == null");
+        stream().forEachOrdered(CheckedIntConsumer.unchecked(action));
+    }
+
+    /**
+     * Performs a reduction on the elements of this stream, using the specified identity value and associative
+     * accumulation function, and returns the reduced value.
+     *
+     * @param identity the identity value for the accumulating function
+     * @param operator an associative function for combining two values
+     * @return the result of the reduction
+     */
+    public int reduce(final int identity, final CheckedIntBinaryOperator operator) {
+        Objects.requireNonNull(operator, "operator == null");
+        return stream().reduce(identity, CheckedIntBinaryOperator.unchecked(operator));
+    }
+
+    /**
+     * Performs a reduction on the elements of this stream, using the specified associative accumulation function, and
+     * returns an {@code OptionalInt} describing the reduced value, if any.
+     *
+     * @param operator an associative function for combining two values
+     * @return an {@code OptionalInt} describing the result of the reduction
+     */
+    public OptionalInt reduce(final CheckedIntBinaryOperator operator) {
+        Objects.requireNonNull(operator, "operator == null");
+        return stream().reduce(CheckedIntBinaryOperator.unchecked(operator));
+    }
+
+    /**
+     * Returns the sum of the elements of this stream.
+     *
+     * @return the sum of the elements of this stream
+     */
+    public int sum() {
+        return stream().sum();
+    }
+
+    /**
+     * Returns an {@code OptionalInt} describing the least element of this stream, or an empty {@code OptionalInt} if the
+     * stream is empty.
+     *
+     * @return an {@code OptionalInt} describing the least element of this stream
+     */
+    public OptionalInt min() {
+        return stream().min();
+    }
+
+    /**
+     * Returns an {@code OptionalInt} describing the greatest element of this stream, or an empty {@code OptionalInt} if
+     * the stream is empty.
+     *
+     * @return an {@code OptionalInt} describing the greatest element of this stream
+     */
+    public OptionalInt max() {
+        return stream().max();
+    }
+
+    /**
+     * Returns the number of elements in this stream.
+     *
+     * @return the number of elements in this stream
+     */
+    public long count() {
+        return stream().count();
+    }
+
+    /**
+     * Returns an {@code OptionalDouble} describing the arithmetic mean of the elements of this stream, or an empty
+     * {@code OptionalDouble} if the stream is empty.
+     *
+     * @return an {@code OptionalDouble} describing the arithmetic mean of the elements of this stream
+     */
+    public OptionalDouble average() {
+        return stream().average();
+    }
+
+    /**
+     * Returns an {@code IntSummaryStatistics} describing the elements of this stream.
+     *
+     * @return an {@code IntSummaryStatistics} describing the elements of this stream
+     */
+    public IntSummaryStatistics summaryStatistics() {
+        return stream().summaryStatistics();
+    }
+
+    /**
+     * Returns whether any element of this stream matches the specified predicate. The predicate is not evaluated on more
+     * elements than necessary to determine the result.
+     *
+     * @param predicate the predicate to apply to the elements
+     * @return {@code true} if any element of this stream matches the specified predicate, otherwise {@code false}
+     */
+    public boolean anyMatch(final CheckedIntPredicate predicate) {
+        Objects.requireNonNull(predicate, "predicate == null");
+        return stream().anyMatch(CheckedIntPredicate.unchecked(predicate));
+    }
+
+    /**
+     * Returns whether all elements of this stream match the specified predicate. The predicate is not evaluated on more
+     * elements than necessary to determine the result.
+     *
+     * @param predicate the predicate to apply to the elements
+     * @return {@code true} if all elements of this stream match the specified predicate or the stream is empty, otherwise
+     *         {@code false}
+     */
+    public boolean allMatch(final CheckedIntPredicate predicate) {
+        Objects.requireNonNull(predicate, "predicate == null");
+        return stream().allMatch(CheckedIntPredicate.unchecked(predicate));
+    }
+
+    /**
+     * Returns whether no elements of this stream match the specified predicate. The predicate is not evaluated on more
+     * elements than necessary to determine the result.
+     *
+     * @param predicate the predicate to apply to the elements
+     * @return {@code true} if no elements of this stream match the specified predicate or the stream is empty, otherwise
+     *         {@code false}
+     */
+    public boolean noneMatch(final CheckedIntPredicate predicate) {
+        Objects.requireNonNull(predicate, "predicate == null");
+        return stream().noneMatch(CheckedIntPredicate.unchecked(predicate));
+    }
+
+    /**
+     * Returns an {@code OptionalInt} describing the first element of this stream, or an empty {@code OptionalInt} if the
+     * stream is empty.
+     *
+     * @return an {@code OptionalInt} describing the first element of this stream
+     */
+    public OptionalInt findFirst() {
+        return stream().findFirst();
+    }
+
+    /**
+     * Returns an {@code OptionalInt} describing some element of this stream, or an empty {@code OptionalInt} if the
+     * stream is empty.
+     *
+     * @return an {@code OptionalInt} describing some element of this stream
+     */
+    public OptionalInt findAny() {
+        return stream().findAny();
+    }
+
+    /**
+     * Returns an array containing the elements of this stream.
+     *
+     * @return an array containing the elements of this stream
+     */
+    public int[] toArray() {
+        return stream().toArray();
+    }
+
+    /**
+     * Returns an {@code IntStream} equivalent to this stream. Any pending stateless stages are fused into a single
+     * {@code Spliterator} over the underlying stream, which runs them with one {@code try}/{@code catch} per element.
+     *
+     * @return an {@code IntStream} equivalent to this stream
+     */
+    public IntStream stream() {
+        if (stage == null)
+            return source;
+
+        return StreamSupport.intStream(new FusedSpliterator(source.spliterator(), stage), source.isParallel()).onClose(source::close);
+    }
+
+    /**
+     * Closes this stream, causing all close handlers for this stream pipeline to be called.
+     */
+    @Override
+    public void close() {
+        source.close();
+    }
+
+    private CheckedIntStream then(final Stage next) {
+        final Stage stage = this.stage;
+        return new CheckedIntStream(source, stage == null ? next : downstream -> stage.wrap(next.wrap(downstream)));
+    }
+
+    /*
+     * A stateless operation expressed as a transformation of the downstream consumer.
+     */
+    @FunctionalInterface
+    private interface Stage {
+
+        CheckedIntConsumer wrap(CheckedIntConsumer downstream);
+
+    }
+
+    /*
+     * Runs the fused stages over the elements of the source spliterator. No stage produces more than one element per
+     * source element, so tryAdvance needs a single slot rather than a buffer.
+     */
+    private static final class FusedSpliterator implements Spliterator.OfInt {
+
+        private final Spliterator.OfInt source;
+        private final Stage             stage;
+        private final IntConsumer       push;
+
+        private int     next;
+        private boolean full;
+
+        private FusedSpliterator(final Spliterator.OfInt source, final Stage stage) {
+            this.source = source;
+            this.stage  = stage;
+            this.push   = sink(stage.wrap(value -> {
+                next = value;
+                full = true;
+            }));
+        }
+
+        @Override
+        public boolean tryAdvance(final IntConsumer action) {
+            while (!full)
+                if (!source.tryAdvance(push))
+                    return false;
+            full = false;
+            action.accept(next);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(final IntConsumer action) {
+            if (full) {
+                full = false;
+                action.accept(next);
+            }
+            source.forEachRemaining(sink(stage.wrap(action::accept)));
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            if (full)
+                return null;
+
+            final Spliterator.OfInt prefix = source.trySplit();
+            return prefix == null ? null : new FusedSpliterator(prefix, stage);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics() & ORDERED;
+        }
+
+        private static IntConsumer sink(final CheckedIntConsumer sink) {
+            return value -> {
+                try {
+                    sink.accept(value);
+                } catch (final Exception e) {
+                    throw Unchecked.exception(e);
+                }
+            };
+        }
+
+    }
+
+}
@@ -64,4 +64,19 @@ public interface CheckedIntSupplier {
         return unchecked(supplier).getAsInt();
     }
 
+    /**
+     * Returns a {@code CheckedIntSupplier} which calls the specified supplier only once, on the first call to
+     * {@code getAsInt()}, and returns the same value on every subsequent call.
+     * <p>
+     * The returned supplier has the same concurrency guarantees as {@link CheckedSupplier#memoize(CheckedSupplier)}.
+     *
+     * @param supplier the underlying checked supplier
+     * @return a {@code CheckedIntSupplier} which calls the specified supplier only once and caches the result
+     */
+    public static CheckedIntSupplier memoize(final CheckedIntSupplier supplier) {
+        Objects.requireNonNull(supplier, "supplier == null");
+        final CheckedSupplier<Integer> memoized = new MemoizingSupplier<>(supplier::getAsInt);
+        return memoized::get;
+    }
+
 }
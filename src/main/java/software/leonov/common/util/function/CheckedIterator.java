@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Mirror of the {@link Iterator} interface whose {@code hasNext()} and {@code next()} methods can throw a checked
+ * exception.
+ */
+public interface CheckedIterator<T> {
+
+    /**
+     * Returns {@code true} if the iteration has more elements.
+     *
+     * @return {@code true} if the iteration has more elements
+     * @throws Exception if an error occurs
+     */
+    public boolean hasNext() throws Exception;
+
+    /**
+     * Returns the next element in the iteration.
+     *
+     * @return the next element in the iteration
+     * @throws NoSuchElementException if the iteration has no more elements
+     * @throws Exception              if an error occurs
+     */
+    public T next() throws Exception;
+
+    /**
+     * Performs the given action for each remaining element until all elements have been processed or the action throws an
+     * exception.
+     *
+     * @param action the action to be performed for each element
+     * @throws Exception if an error occurs
+     */
+    public default void forEachRemaining(final CheckedConsumer<? super T> action) throws Exception {
+        Objects.requireNonNull(action, "action == null");
+        while (hasNext())
+            action.accept(next());
+    }
+
+    /**
+     * Returns an {@link Iterator} which delegates to the underlying {@link CheckedIterator},
+     * {@link Unchecked#exception(Exception) rethrowing} any checked exceptions as if they were unchecked.
+     * 
+     * @param iterator the underlying checked iterator
+     * @return an {@link Iterator} which delegates to the underlying {@link CheckedIterator},
+     *         {@link Unchecked#exception(Exception) rethrowing} any checked exceptions as if they were unchecked
+     */
+    public static <T> Iterator<T> unchecked(final CheckedIterator<? extends T> iterator) {
+        Objects.requireNonNull(iterator, "iterator == null");
+        return new Iterator<T>() {
+
+            @Override
+            public boolean hasNext() {
+                try {
+                    return iterator.hasNext();
+                } catch (final Exception e) {
+                    throw Unchecked.exception(e);
+                }
+            }
+
+            @Override
+            public T next() {
+                try {
+                    return iterator.next();
+                } catch (final Exception e) {
+                    throw Unchecked.exception(e);
+                }
+            }
+
+        };
+    }
+
+}
@@ -0,0 +1,533 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function;
+
+import java.util.LongSummaryStatistics;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A sequence of primitive {@code long} elements supporting sequential and parallel aggregate operations, mirroring
+ * {@link LongStream}, whose operations accept checked functional interfaces directly.
+ * <p>
+ * Adjacent stateless intermediate operations ({@link #map(CheckedLongUnaryOperator) map},
+ * {@link #filter(CheckedLongPredicate) filter}, and {@link #peek(CheckedLongConsumer) peek}) are fused into a single chain
+ * of {@link CheckedLongConsumer}s which is evaluated with one {@code try}/{@code catch} per element and without boxing,
+ * in the same way as {@link CheckedStream}. Operations which change the element type, such as
+ * {@link #mapToObj(CheckedLongFunction) mapToObj} or {@link #mapToInt(CheckedLongToIntFunction) mapToInt}, hand the
+ * fused chain to the underlying {@code LongStream} and continue with a single adapter for the conversion.
+ * <p>
+ * Any exception thrown by a checked lambda is {@link Unchecked#exception(Exception) rethrown} as is, without being
+ * wrapped in a {@code RuntimeException}.
+ *
+ * @author Zhenya Leonov
+ */
+public final class CheckedLongStream implements AutoCloseable {
+
+    private final LongStream source;
+    private final Stage       stage; // null if there are no pending stages
+
+    private CheckedLongStream(final LongStream source, final Stage stage) {
+        this.source = source;
+        this.stage  = stage;
+    }
+
+    /**
+     * Returns a sequential {@code CheckedLongStream} whose elements are the specified values.
+     *
+     * @param values the elements of the new stream
+     * @return a sequential {@code CheckedLongStream} whose elements are the specified values
+     */
+    public static CheckedLongStream of(final long... values) {
+        Objects.requireNonNull(values, "values == null");
+        return from(LongStream.of(values));
+    }
+
+    /**
+     * Returns a {@code CheckedLongStream} with the specified {@code LongStream} as its source. The returned stream is
+     * parallel if and only if the specified stream is parallel.
+     *
+     * @param stream the specified stream
+     * @return a {@code CheckedLongStream} with the specified {@code LongStream} as its source
+     */
+    public static CheckedLongStream from(final LongStream stream) {
+        Objects.requireNonNull(stream, "stream == null");
+        return new CheckedLongStream(stream, null);
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream which match the specified predicate.
+     *
+     * @param predicate the predicate to apply to each element
+     * @return a stream consisting of the elements of this stream which match the specified predicate
+     */
+    public CheckedLongStream filter(final CheckedLongPredicate predicate) {
+        Objects.requireNonNull(predicate, "predicate == null");
+        return then(downstream -> value -> {
+            if (predicate.test(value))
+                downstream.accept(value);
+        });
+    }
+
+    /**
+     * Returns a stream consisting of the results of applying the specified operator to the elements of this stream.
+     *
+     * @param mapper the operator to apply to each element
+     * @return a stream consisting of the results of applying the specified operator to the elements of this stream
+     */
+    public CheckedLongStream map(final CheckedLongUnaryOperator mapper) {
+        Objects.requireNonNull(mapper, "mapper == null");
+        return then(downstream -> value -> downstream.accept(mapper.applyAsLong(value)));
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream, additionally performing the specified action on each
+     * element as it is consumed from the resulting stream.
+     *
+     * @param action the action to perform on each element
+     * @return a stream consisting of the elements of this stream
+     */
+    public CheckedLongStream peek(final CheckedLongConsumer action) {
+        Objects.requireNonNull(action, "action == null");
+        return then(downstream -> value -> {
+            action.accept(value);
+            downstream.accept(value);
+        });
+    }
+
+    /**
+     * Returns an object-valued stream consisting of the results of applying the specified function to the elements of this
+     * stream.
+     *
+     * @param <U>    the type of the elements of the new stream
+     * @param mapper the function to apply to each element
+     * @return an object-valued stream consisting of the results of applying the specified function to the elements of this
+     *         stream
+     */
+    public <U> CheckedStream<U> mapToObj(final CheckedLongFunction<? extends U> mapper) {
+        Objects.requireNonNull(mapper, "mapper == null");
+        return CheckedStream.from(stream().mapToObj(CheckedLongFunction.unchecked(mapper)));
+    }
+
+    /**
+     * Returns a {@code CheckedIntStream} consisting of the results of applying the specified function to the elements of
+     * this stream.
+     *
+     * @param mapper the function to apply to each element
+     * @return a {@code CheckedIntStream} consisting of the results of applying the specified function to the elements of
+     *         this stream
+     */
+    public CheckedIntStream mapToInt(final CheckedLongToIntFunction mapper) {
+        Objects.requireNonNull(mapper, "mapper == null");
+        return CheckedIntStream.from(stream().mapToInt(CheckedLongToIntFunction.unchecked(mapper)));
+    }
+
+    /**
+     * Returns a {@code CheckedDoubleStream} consisting of the results of applying the specified function to the elements of
+     * this stream.
+     *
+     * @param mapper the function to apply to each element
+     * @return a {@code CheckedDoubleStream} consisting of the results of applying the specified function to the elements of
+     *         this stream
+     */
+    public CheckedDoubleStream mapToDouble(final CheckedLongToDoubleFunction mapper) {
+        Objects.requireNonNull(mapper, "mapper == null");
+        return CheckedDoubleStream.from(stream().mapToDouble(CheckedLongToDoubleFunction.unchecked(mapper)));
+    }
+
+    /**
+     * Returns a {@code CheckedDoubleStream} consisting of the elements of this stream, converted to {@code double}.
+     *
+     * @return a {@code CheckedDoubleStream} consisting of the elements of this stream, converted to {@code double}
+     */
+    public CheckedDoubleStream asDoubleStream() {
+        return CheckedDoubleStream.from(stream().asDoubleStream());
+    }
+
+    /**
+     * Returns a {@code CheckedStream} consisting of the elements of this stream, each boxed to a {@code Long}.
+     *
+     * @return a {@code CheckedStream} consisting of the elements of this stream, each boxed to a {@code Long}
+     */
+    public CheckedStream<Long> boxed() {
+        return CheckedStream.from(stream().boxed());
+    }
+
+    /**
+     * Returns a stream consisting of the distinct elements of this stream.
+     *
+     * @return a stream consisting of the distinct elements of this stream
+     */
+    public CheckedLongStream distinct() {
+        return from(stream().distinct());
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream in sorted order.
+     *
+     * @return a stream consisting of the elements of this stream in sorted order
+     */
+    public CheckedLongStream sorted() {
+        return from(stream().sorted());
+    }
+
+    /**
+     * Returns a stream consisting of at most {@code maxSize} elements of this stream.
+     *
+     * @param maxSize the maximum number of elements
+     * @return a stream consisting of at most {@code maxSize} elements of this stream
+     * @throws IllegalArgumentException if {@code maxSize} is negative
+     */
+    public CheckedLongStream limit(final long maxSize) {
+        return from(stream().limit(maxSize));
+    }
+
+    /**
+     * Returns a stream consisting of the remaining elements of this stream after discarding the first {@code n} elements.
+     *
+     * @param n the number of leading elements to skip
+     * @return a stream consisting of the remaining elements of this stream after discarding the first {@code n} elements
+     * @throws IllegalArgumentException if {@code n} is negative
+     */
+    public CheckedLongStream skip(final long n) {
+        return from(stream().skip(n));
+    }
+
+    /**
+     * Returns an equivalent stream which is parallel.
+     *
+     * @return an equivalent stream which is parallel
+     */
+    public CheckedLongStream parallel() {
+        return new CheckedLongStream(source.parallel(), stage);
+    }
+
+    /**
+     * Returns an equivalent stream which is sequential.
+     *
+     * @return an equivalent stream which is sequential
+     */
+    public CheckedLongStream sequential() {
+        return new CheckedLongStream(source.sequential(), stage);
+    }
+
+    /**
+     * Returns whether this stream would execute in parallel if a terminal operation were executed.
+     *
+     * @return whether this stream would execute in parallel if a terminal operation were executed
+     */
+    public boolean isParallel() {
+        return source.isParallel();
+    }
+
+    /**
+     * Returns an equivalent stream with an additional close handler.
+     *
+     * @param closeHandler the task to execute when the stream is closed
+     * @return an equivalent stream with an additional close handler
+     */
+    public CheckedLongStream onClose(final CheckedRunnable closeHandler) {
+        Objects.requireNonNull(closeHandler, "closeHandler == null");
+        return new CheckedLongStream(source.onClose(CheckedRunnable.unchecked(closeHandler)), stage);
+    }
+
+    /**
+     * Performs the specified action for each element of this stream. For parallel streams the action is performed in no
+     * particular order and possibly concurrently.
+     * <p>
+     * The action is fused with any pending stateless stages, so every element is processed with a single
+     * {@code try}/{@code catch}.
+     *
+     * @param action the action to perform on each element
+     */
+    public void forEach(final CheckedLongConsumer action) {
+        Objects.requireNonNull(action, "action == null");
+        source.forEach(FusedSpliterator.sink(stage == null ? action : stage.wrap(action)));
+    }
+
+    /**
+     * Performs the specified action for each element of this stream, in the encounter order of the stream if it has one.
+     *
+     * @param action the action to perform on each element
+     */
+    public void forEachOrdered(final CheckedLongConsumer action) {
+        Objects.requireNonNull(action, "action == null");
+        stream().forEachOrdered(CheckedLongConsumer.unchecked(action));
+    }
+
+    /**
+     * Performs a reduction on the elements of this stream, using the specified identity value and associative
+     * accumulation function, and returns the reduced value.
+     *
+     * @param identity the identity value for the accumulating function
+     * @param operator an associative function for combining two values
+     * @return the result of the reduction
+     */
+    public long reduce(final long identity, final CheckedLongBinaryOperator operator) {
+        Objects.requireNonNull(operator, "operator == null");
+        return stream().reduce(identity, CheckedLongBinaryOperator.unchecked(operator));
+    }
+
+    /**
+     * Performs a reduction on the elements of this stream, using the specified associative accumulation function, and
+     * returns an {@code OptionalLong} describing the reduced value, if any.
+     *
+     * @param operator an associative function for combining two values
+     * @return an {@code OptionalLong} describing the result of the reduction
+     */
+    public OptionalLong reduce(final CheckedLongBinaryOperator operator) {
+        Objects.requireNonNull(operator, "operator == null");
+        return stream().reduce(CheckedLongBinaryOperator.unchecked(operator));
+    }
+
+    /**
+     * Returns the sum of the elements of this stream.
+     *
+     * @return the sum of the elements of this stream
+     */
+    public long sum() {
+        return stream().sum();
+    }
+
+    /**
+     * Returns an {@code OptionalLong} describing the least element of this stream, or an empty {@code OptionalLong} if the
+     * stream is empty.
+     *
+     * @return an {@code OptionalLong} describing the least element of this stream
+     */
+    public OptionalLong min() {
+        return stream().min();
+    }
+
+    /**
+     * Returns an {@code OptionalLong} describing the greatest element of this stream, or an empty {@code OptionalLong} if
+     * the stream is empty.
+     *
+     * @return an {@code OptionalLong} describing the greatest element of this stream
+     */
+    public OptionalLong max() {
+        return stream().max();
+    }
+
+    /**
+     * Returns the number of elements in this stream.
+     *
+     * @return the number of elements in this stream
+     */
+    public long count() {
+        return stream().count();
+    }
+
+    /**
+     * Returns an {@code OptionalDouble} describing the arithmetic mean of the elements of this stream, or an empty
+     * {@code OptionalDouble} if the stream is empty.
+     *
+     * @return an {@code OptionalDouble} describing the arithmetic mean of the elements of this stream
+     */
+    public OptionalDouble average() {
+        return stream().average();
+    }
+
+    /**
+     * Returns a {@code LongSummaryStatistics} describing the elements of this stream.
+     *
+     * @return a {@code LongSummaryStatistics} describing the elements of this stream
+     */
+    public LongSummaryStatistics summaryStatistics() {
+        return stream().summaryStatistics();
+    }
+
+    /**
+     * Returns whether any element of this stream matches the specified predicate. The predicate is not evaluated on more
+     * elements than necessary to determine the result.
+     *
+     * @param predicate the predicate to apply to the elements
+     * @return {@code true} if any element of this stream matches the specified predicate, otherwise {@code false}
+     */
+    public boolean anyMatch(final CheckedLongPredicate predicate) {
+        Objects.requireNonNull(predicate, "predicate == null");
+        return stream().anyMatch(CheckedLongPredicate.unchecked(predicate));
+    }
+
+    /**
+     * Returns whether all elements of this stream match the specified predicate. The predicate is not evaluated on more
+     * elements than necessary to determine the result.
+     *
+     * @param predicate the predicate to apply to the elements
+     * @return {@code true} if all elements of this stream match the specified predicate or the stream is empty, otherwise
+     *         {@code false}
+     */
+    public boolean allMatch(final CheckedLongPredicate predicate) {
+        Objects.requireNonNull(predicate, "predicate == null");
+        return stream().allMatch(CheckedLongPredicate.unchecked(predicate));
+    }
+
+    /**
+     * Returns whether no elements of this stream match the specified predicate. The predicate is not evaluated on more
+     * elements than necessary to determine the result.
+     *
+     * @param predicate the predicate to apply to the elements
+     * @return {@code true} if no elements of this stream match the specified predicate or the stream is empty, otherwise
+     *         {@code false}
+     */
+    public boolean noneMatch(final CheckedLongPredicate predicate) {
+        Objects.requireNonNull(predicate, "predicate == null");
+        return stream().noneMatch(CheckedLongPredicate.unchecked(predicate));
+    }
+
+    /**
+     * Returns an {@code OptionalLong} describing the first element of this stream, or an empty {@code OptionalLong} if the
+     * stream is empty.
+     *
+     * @return an {@code OptionalLong} describing the first element of this stream
+     */
+    public OptionalLong findFirst() {
+        return stream().findFirst();
+    }
+
+    /**
+     * Returns an {@code OptionalLong} describing some element of this stream, or an empty {@code OptionalLong} if the
+     * stream is empty.
+     *
+     * @return an {@code OptionalLong} describing some element of this stream
+     */
+    public OptionalLong findAny() {
+        return stream().findAny();
+    }
+
+    /**
+     * Returns an array containing the elements of this stream.
+     *
+     * @return an array containing the elements of this stream
+     */
+    public long[] toArray() {
+        return stream().toArray();
+    }
+
+    /**
+     * Returns a {@code LongStream} equivalent to this stream. Any pending stateless stages are fused into a single
+     * {@code Spliterator} over the underlying stream, which runs them with one {@code try}/{@code catch} per element.
+     *
+     * @return a {@code LongStream} equivalent to this stream
+     */
+    public LongStream stream() {
+        if (stage == null)
+            return source;
+
+        return StreamSupport.longStream(new FusedSpliterator(source.spliterator(), stage), source.isParallel()).onClose(source::close);
+    }
+
+    /**
+     * Closes this stream, causing all close handlers for this stream pipeline to be called.
+     */
+    @Override
+    public void close() {
+        source.close();
+    }
+
+    private CheckedLongStream then(final Stage next) {
+        final Stage stage = this.stage;
+        return new CheckedLongStream(source, stage == null ? next : downstream -> stage.wrap(next.wrap(downstream)));
+    }
+
+    /*
+     * A stateless operation expressed as a transformation of the downstream consumer.
+     */
+    @FunctionalInterface
+    private interface Stage {
+
+        CheckedLongConsumer wrap(CheckedLongConsumer downstream);
+
+    }
+
+    /*
+     * Runs the fused stages over the elements of the source spliterator. No stage produces more than one element per
+     * source element, so tryAdvance needs a single slot rather than a buffer.
+     */
+    private static final class FusedSpliterator implements Spliterator.OfLong {
+
+        private final Spliterator.OfLong source;
+        private final Stage              stage;
+        private final LongConsumer       push;
+
+        private long    next;
+        private boolean full;
+
+        private FusedSpliterator(final Spliterator.OfLong source, final Stage stage) {
+            this.source = source;
+            this.stage  = stage;
+            this.push   = sink(stage.wrap(value -> {
+                next = value;
+                full = true;
+            }));
+        }
+
+        @Override
+        public boolean tryAdvance(final LongConsumer action) {
+            while (!full)
+                if (!source.tryAdvance(push))
+                    return false;
+            full = false;
+            action.accept(next);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(final LongConsumer action) {
+            if (full) {
+                full = false;
+                action.accept(next);
+            }
+            source.forEachRemaining(sink(stage.wrap(action::accept)));
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            if (full)
+                return null;
+
+            final Spliterator.OfLong prefix = source.trySplit();
+            return prefix == null ? null : new FusedSpliterator(prefix, stage);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics() & ORDERED;
+        }
+
+        private static LongConsumer sink(final CheckedLongConsumer sink) {
+            return value -> {
+                try {
+                    sink.accept(value);
+                } catch (final Exception e) {
+                    throw Unchecked.exception(e);
+                }
+            };
+        }
+
+    }
+
+}
@@ -64,4 +64,19 @@ public interface CheckedLongSupplier {
         return unchecked(supplier).getAsLong();
     }
 
+    /**
+     * Returns a {@code CheckedLongSupplier} which calls the specified supplier only once, on the first call to
+     * {@code getAsLong()}, and returns the same value on every subsequent call.
+     * <p>
+     * The returned supplier has the same concurrency guarantees as {@link CheckedSupplier#memoize(CheckedSupplier)}.
+     *
+     * @param supplier the underlying checked supplier
+     * @return a {@code CheckedLongSupplier} which calls the specified supplier only once and caches the result
+     */
+    public static CheckedLongSupplier memoize(final CheckedLongSupplier supplier) {
+        Objects.requireNonNull(supplier, "supplier == null");
+        final CheckedSupplier<Long> memoized = new MemoizingSupplier<>(supplier::getAsLong);
+        return memoized::get;
+    }
+
 }
@@ -16,6 +16,7 @@
 package software.leonov.common.util.function;
 
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Mirror of the {@link Runnable} interface whose {@code run()} method can throw a checked exception.
@@ -49,4 +50,108 @@ public interface CheckedRunnable {
         };
     }
 
-}
\ No newline at end of file
+    /**
+     * Returns a {@code CheckedRunnable} which runs the specified runnable, retrying it according to the specified policy
+     * when it throws an exception. If the attempts are exhausted the exception of the last attempt is rethrown as is.
+     *
+     * @param runnable the underlying checked runnable
+     * @param retry    the retry policy
+     * @return a {@code CheckedRunnable} which retries the specified runnable according to the specified policy
+     */
+    public static CheckedRunnable retry(final CheckedRunnable runnable, final Retry retry) {
+        Objects.requireNonNull(runnable, "runnable == null");
+        Objects.requireNonNull(retry, "retry == null");
+
+        final CheckedSupplier<Void> supplier = () -> {
+            runnable.run();
+            return null;
+        };
+
+        return () -> retry.call(supplier);
+    }
+
+    /**
+     * Returns a {@code CheckedRunnable} which runs the specified runnable only if the specified circuit breaker allows it,
+     * recording the outcome, and otherwise throws the breaker's preallocated {@link CircuitBreakerOpenException}.
+     *
+     * @param runnable       the underlying checked runnable
+     * @param circuitBreaker the circuit breaker
+     * @return a {@code CheckedRunnable} which runs the specified runnable only if the specified circuit breaker allows it
+     */
+    public static CheckedRunnable withCircuitBreaker(final CheckedRunnable runnable, final CircuitBreaker circuitBreaker) {
+        Objects.requireNonNull(runnable, "runnable == null");
+        Objects.requireNonNull(circuitBreaker, "circuitBreaker == null");
+
+        final CheckedSupplier<Void> supplier = () -> {
+            runnable.run();
+            return null;
+        };
+
+        return () -> circuitBreaker.call(supplier);
+    }
+
+    /**
+     * Returns a {@code CheckedRunnable} which runs the specified runnable and throws {@code TimeoutException} if it takes
+     * longer than the specified timeout.
+     * <p>
+     * The timeout is enforced as described in {@link CheckedSupplier#withTimeout(CheckedSupplier, long, TimeUnit)}.
+     *
+     * @param runnable the underlying checked runnable
+     * @param timeout  the maximum time a call may take
+     * @param unit     the unit of {@code timeout}
+     * @return a {@code CheckedRunnable} which runs the specified runnable and throws {@code TimeoutException} if it takes
+     *         longer than the specified timeout
+     * @throws IllegalArgumentException if {@code timeout} is not positive
+     */
+    public static CheckedRunnable withTimeout(final CheckedRunnable runnable, final long timeout, final TimeUnit unit) {
+        Objects.requireNonNull(runnable, "runnable == null");
+
+        final CheckedSupplier<Void> supplier = CheckedSupplier.withTimeout(() -> {
+            runnable.run();
+            return null;
+        }, timeout, unit);
+
+        return supplier::get;
+    }
+
+    /**
+     * Returns a {@code CheckedRunnable} which runs the specified runnable once the specified bulkhead has a free
+     * permit, and otherwise waits or throws the bulkhead's preallocated {@link BulkheadFullException}, according to the
+     * bulkhead.
+     *
+     * @param runnable the underlying checked runnable
+     * @param bulkhead the bulkhead
+     * @return a {@code CheckedRunnable} which runs the specified runnable subject to the specified bulkhead
+     */
+    public static CheckedRunnable withBulkhead(final CheckedRunnable runnable, final Bulkhead bulkhead) {
+        Objects.requireNonNull(runnable, "runnable == null");
+        Objects.requireNonNull(bulkhead, "bulkhead == null");
+        return () -> {
+            bulkhead.acquire();
+            try {
+                runnable.run();
+            } finally {
+                bulkhead.release();
+            }
+        };
+    }
+
+    /**
+     * Returns a {@code CheckedRunnable} which runs the specified runnable once the specified rate limiter has a token
+     * for it, and otherwise waits or throws the rate limiter's preallocated {@link RateLimitExceededException},
+     * according to the rate limiter.
+     *
+     * @param runnable    the underlying checked runnable
+     * @param rateLimiter the rate limiter
+     * @return a {@code CheckedRunnable} which runs the specified runnable subject to the specified rate limiter
+     */
+    public static CheckedRunnable withRateLimiter(final CheckedRunnable runnable, final RateLimiter rateLimiter) {
+        Objects.requireNonNull(runnable, "runnable == null");
+        Objects.requireNonNull(rateLimiter, "rateLimiter == null");
+        return () -> {
+            rateLimiter.acquire();
+            runnable.run();
+        };
+    }
+
+}
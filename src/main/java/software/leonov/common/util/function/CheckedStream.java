@@ -0,0 +1,1186 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A sequence of elements supporting sequential and parallel aggregate operations, mirroring {@link Stream}, whose
+ * operations accept checked functional interfaces directly.
+ * <p>
+ * Adjacent stateless intermediate operations ({@link #map(CheckedFunction) map}, {@link #filter(CheckedPredicate)
+ * filter}, {@link #flatMap(CheckedFunction) flatMap}, and {@link #peek(CheckedConsumer) peek}) are not applied to the
+ * underlying {@code Stream} one by one. Instead they are fused into a single chain of checked consumers which is
+ * evaluated with one {@code try}/{@code catch} per element, so no adapter is allocated per stage and no frame is added
+ * per stage per element. The fused chain is handed to the underlying {@code Stream} when a stateful intermediate
+ * operation or a terminal operation is invoked.
+ * <p>
+ * Any exception thrown by a checked lambda is {@link Unchecked#exception(Exception) rethrown} as is, without being
+ * wrapped in a {@code RuntimeException}.
+ * <p>
+ * Like a {@code Stream}, a {@code CheckedStream} should be operated on only once: each intermediate operation returns a
+ * new {@code CheckedStream} and the previous one should no longer be used.
+ *
+ * @param <T> the type of the stream elements
+ * @author Zhenya Leonov
+ */
+public final class CheckedStream<T> implements AutoCloseable {
+
+    private final Stream<Object>   source;
+    private final Stage<Object, T> stage;        // null if there are no pending stages
+    private final Cancellation     cancellation; // null unless fail-fast
+
+    private CheckedStream(final Stream<Object> source, final Stage<Object, T> stage, final Cancellation cancellation) {
+        this.source       = source;
+        this.stage        = stage;
+        this.cancellation = cancellation;
+    }
+
+    /**
+     * Returns a sequential {@code CheckedStream} whose elements are the specified values.
+     *
+     * @param <T>    the type of the stream elements
+     * @param values the elements of the new stream
+     * @return a sequential {@code CheckedStream} whose elements are the specified values
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs") // creating a stream from an array is safe
+    public static <T> CheckedStream<T> of(final T... values) {
+        Objects.requireNonNull(values, "values == null");
+        return from(Arrays.stream(values));
+    }
+
+    /**
+     * Returns a sequential {@code CheckedStream} with the specified collection as its source.
+     *
+     * @param <T>        the type of the stream elements
+     * @param collection the specified collection
+     * @return a sequential {@code CheckedStream} with the specified collection as its source
+     */
+    public static <T> CheckedStream<T> from(final Collection<T> collection) {
+        Objects.requireNonNull(collection, "collection == null");
+        return from(collection.stream());
+    }
+
+    /**
+     * Returns a {@code CheckedStream} with the specified {@code Stream} as its source. The returned stream is parallel if
+     * and only if the specified stream is parallel.
+     *
+     * @param <T>    the type of the stream elements
+     * @param stream the specified stream
+     * @return a {@code CheckedStream} with the specified {@code Stream} as its source
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CheckedStream<T> from(final Stream<? extends T> stream) {
+        Objects.requireNonNull(stream, "stream == null");
+        return new CheckedStream<>((Stream<Object>) stream, null, null);
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream which match the specified predicate.
+     *
+     * @param predicate the predicate to apply to each element
+     * @return a stream consisting of the elements of this stream which match the specified predicate
+     */
+    public CheckedStream<T> filter(final CheckedPredicate<? super T> predicate) {
+        Objects.requireNonNull(predicate, "predicate == null");
+        return then(downstream -> t -> {
+            if (predicate.test(t))
+                downstream.accept(t);
+        });
+    }
+
+    /**
+     * Returns a stream consisting of the results of applying the specified function to the elements of this stream.
+     *
+     * @param <R>    the type of the elements of the new stream
+     * @param mapper the function to apply to each element
+     * @return a stream consisting of the results of applying the specified function to the elements of this stream
+     */
+    public <R> CheckedStream<R> map(final CheckedFunction<? super T, ? extends R> mapper) {
+        Objects.requireNonNull(mapper, "mapper == null");
+        return then(downstream -> t -> downstream.accept(mapper.apply(t)));
+    }
+
+    /**
+     * Returns a stream consisting of the elements of the streams produced by applying the specified function to each
+     * element of this stream. Each mapped stream is closed after its contents have been consumed. A {@code null} mapped
+     * stream is treated as an empty stream.
+     *
+     * @param <R>    the type of the elements of the new stream
+     * @param mapper the function to apply to each element, which produces a stream of new values
+     * @return a stream consisting of the elements of the streams produced by applying the specified function to each
+     *         element of this stream
+     */
+    public <R> CheckedStream<R> flatMap(final CheckedFunction<? super T, ? extends Stream<? extends R>> mapper) {
+        Objects.requireNonNull(mapper, "mapper == null");
+        return then(downstream -> t -> {
+            try (final Stream<? extends R> stream = mapper.apply(t)) {
+                if (stream != null) {
+                    final Iterator<? extends R> itor = stream.sequential().iterator();
+                    while (itor.hasNext())
+                        downstream.accept(itor.next());
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns a stream consisting of the results of applying the specified function to consecutive chunks of at most
+     * {@code batchSize} elements of this stream, flattened in order.
+     * <p>
+     * This is intended for functions which have a bulk variant whose per-call overhead, such as a round trip to a store,
+     * dominates the cost of processing a single element. The function receives each chunk as a {@code List} and may
+     * return a list of any size, typically one result per element, which becomes part of the resulting stream in the
+     * order of the chunks. A {@code null} result is treated as an empty list. Every chunk is full except possibly the last
+     * chunk of each split of a parallel stream.
+     *
+     * @param <R>       the type of the elements of the new stream
+     * @param batchSize the maximum number of elements per chunk
+     * @param mapper    the function to apply to each chunk
+     * @return a stream consisting of the results of applying the specified function to chunks of elements of this stream
+     * @throws IllegalArgumentException if {@code batchSize} is not positive
+     */
+    public <R> CheckedStream<R> mapBatch(final int batchSize, final CheckedFunction<? super List<T>, ? extends List<? extends R>> mapper) {
+        return mapBatch(batchSize, 0, TimeUnit.NANOSECONDS, mapper);
+    }
+
+    /**
+     * Returns a stream consisting of the results of applying the specified function to consecutive chunks of at most
+     * {@code batchSize} elements of this stream, flattened in order, where a chunk is also passed to the function once
+     * {@code maxLinger} has elapsed since its first element was pulled.
+     * <p>
+     * The linger bounds how long the elements of a slow or unbounded source, such as a queue-backed stream, are held
+     * back waiting for a chunk to fill. It is checked as each element arrives: a source which blocks indefinitely while
+     * producing the next element cannot be preempted. A {@code maxLinger} of zero disables the linger, in which case
+     * this method is equivalent to {@link #mapBatch(int, CheckedFunction)}.
+     *
+     * @param <R>       the type of the elements of the new stream
+     * @param batchSize the maximum number of elements per chunk
+     * @param maxLinger the maximum time to wait for a chunk to fill, or zero to wait indefinitely
+     * @param unit      the time unit of {@code maxLinger}
+     * @param mapper    the function to apply to each chunk
+     * @return a stream consisting of the results of applying the specified function to chunks of elements of this stream
+     * @throws IllegalArgumentException if {@code batchSize} is not positive or {@code maxLinger} is negative
+     */
+    @SuppressWarnings("unchecked")
+    public <R> CheckedStream<R> mapBatch(final int batchSize, final long maxLinger, final TimeUnit unit, final CheckedFunction<? super List<T>, ? extends List<? extends R>> mapper) {
+        Objects.requireNonNull(unit, "unit == null");
+        Objects.requireNonNull(mapper, "mapper == null");
+
+        if (batchSize <= 0)
+            throw new IllegalArgumentException("batchSize <= 0");
+        if (maxLinger < 0)
+            throw new IllegalArgumentException("maxLinger < 0");
+
+        final Stream<T> stream  = stream();
+        final Stream<R> batched = StreamSupport.stream(new BatchSpliterator<T, R>(stream.spliterator(), batchSize, unit.toNanos(maxLinger), mapper, cancellation), stream.isParallel());
+        return new CheckedStream<>((Stream<Object>) batched.onClose(stream::close), null, cancellation);
+    }
+
+    /**
+     * Returns a stream consisting of the results of applying the specified function to the elements of this stream
+     * asynchronously on the specified executor, with at most {@code maxConcurrency} applications in flight at a time.
+     * The results are in the order of the elements of this stream.
+     * <p>
+     * This is intended for functions which block on I/O, whose calls can be overlapped without flooding the system. The
+     * elements of this stream are pulled one at a time by the thread consuming the resulting stream, and only while fewer
+     * than {@code maxConcurrency} elements are in flight, so a slow function applies backpressure to this stream. A
+     * result which completes out of order is held until every preceding result has been consumed.
+     * <p>
+     * When an application of the function throws an exception, which is detected as soon as it completes rather than
+     * when its result is due, every outstanding application is cancelled, interrupting the threads running it, and the
+     * exception is rethrown as is. Outstanding applications are also cancelled when the resulting stream is closed. The
+     * resulting stream is never split, so {@link #parallel()} has no effect on this stage.
+     *
+     * @param <R>            the type of the elements of the new stream
+     * @param maxConcurrency the maximum number of applications of the function in flight at a time
+     * @param executor       the executor to run the applications of the function on
+     * @param mapper         the function to apply to each element
+     * @return a stream consisting of the results of applying the specified function to the elements of this stream
+     * @throws IllegalArgumentException if {@code maxConcurrency} is not positive
+     */
+    public <R> CheckedStream<R> mapAsync(final int maxConcurrency, final Executor executor, final CheckedFunction<? super T, ? extends R> mapper) {
+        return mapAsync(maxConcurrency, executor, mapper, true);
+    }
+
+    /**
+     * Returns a stream consisting of the results of applying the specified function to the elements of this stream
+     * asynchronously on the specified executor, with at most {@code maxConcurrency} applications in flight at a time.
+     * The results are in the order in which they complete.
+     * <p>
+     * Unlike {@link #mapAsync(int, Executor, CheckedFunction)}, a result is available as soon as it completes, and a slow
+     * application of the function does not hold back the results of the elements which follow it. Backpressure,
+     * cancellation, and exceptions are handled the same way.
+     *
+     * @param <R>            the type of the elements of the new stream
+     * @param maxConcurrency the maximum number of applications of the function in flight at a time
+     * @param executor       the executor to run the applications of the function on
+     * @param mapper         the function to apply to each element
+     * @return a stream consisting of the results of applying the specified function to the elements of this stream
+     * @throws IllegalArgumentException if {@code maxConcurrency} is not positive
+     */
+    public <R> CheckedStream<R> mapAsyncUnordered(final int maxConcurrency, final Executor executor, final CheckedFunction<? super T, ? extends R> mapper) {
+        return mapAsync(maxConcurrency, executor, mapper, false);
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream, additionally performing the specified action on each
+     * element as it is consumed from the resulting stream.
+     *
+     * @param action the action to perform on each element
+     * @return a stream consisting of the elements of this stream
+     */
+    public CheckedStream<T> peek(final CheckedConsumer<? super T> action) {
+        Objects.requireNonNull(action, "action == null");
+        return then(downstream -> t -> {
+            action.accept(t);
+            downstream.accept(t);
+        });
+    }
+
+    /**
+     * Returns a {@code CheckedIntStream} consisting of the results of applying the specified function to the elements of
+     * this stream.
+     * <p>
+     * The returned stream is not {@link #failFast() fail-fast}, even if this stream is.
+     *
+     * @param mapper the function to apply to each element
+     * @return a {@code CheckedIntStream} consisting of the results of applying the specified function to the elements of
+     *         this stream
+     */
+    public CheckedIntStream mapToInt(final CheckedToIntFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper, "mapper == null");
+        return CheckedIntStream.from(stream().mapToInt(CheckedToIntFunction.unchecked(mapper)));
+    }
+
+    /**
+     * Returns a {@code CheckedLongStream} consisting of the results of applying the specified function to the elements of
+     * this stream.
+     * <p>
+     * The returned stream is not {@link #failFast() fail-fast}, even if this stream is.
+     *
+     * @param mapper the function to apply to each element
+     * @return a {@code CheckedLongStream} consisting of the results of applying the specified function to the elements of
+     *         this stream
+     */
+    public CheckedLongStream mapToLong(final CheckedToLongFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper, "mapper == null");
+        return CheckedLongStream.from(stream().mapToLong(CheckedToLongFunction.unchecked(mapper)));
+    }
+
+    /**
+     * Returns a {@code CheckedDoubleStream} consisting of the results of applying the specified function to the elements
+     * of this stream.
+     * <p>
+     * The returned stream is not {@link #failFast() fail-fast}, even if this stream is.
+     *
+     * @param mapper the function to apply to each element
+     * @return a {@code CheckedDoubleStream} consisting of the results of applying the specified function to the elements
+     *         of this stream
+     */
+    public CheckedDoubleStream mapToDouble(final CheckedToDoubleFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper, "mapper == null");
+        return CheckedDoubleStream.from(stream().mapToDouble(CheckedToDoubleFunction.unchecked(mapper)));
+    }
+
+    /**
+     * Returns a stream consisting of the distinct elements of this stream according to {@link Object#equals(Object)}.
+     *
+     * @return a stream consisting of the distinct elements of this stream
+     */
+    public CheckedStream<T> distinct() {
+        return derive(stream().distinct());
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream sorted according to their natural order.
+     *
+     * @return a stream consisting of the elements of this stream sorted according to their natural order
+     */
+    public CheckedStream<T> sorted() {
+        return derive(stream().sorted());
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream sorted according to the specified comparator.
+     *
+     * @param comparator the comparator which determines the order of the elements
+     * @return a stream consisting of the elements of this stream sorted according to the specified comparator
+     */
+    public CheckedStream<T> sorted(final CheckedComparator<? super T> comparator) {
+        Objects.requireNonNull(comparator, "comparator == null");
+        return derive(stream().sorted(adaptComparator(comparator)));
+    }
+
+    /**
+     * Returns a stream consisting of at most {@code maxSize} elements of this stream.
+     *
+     * @param maxSize the maximum number of elements
+     * @return a stream consisting of at most {@code maxSize} elements of this stream
+     * @throws IllegalArgumentException if {@code maxSize} is negative
+     */
+    public CheckedStream<T> limit(final long maxSize) {
+        return derive(stream().limit(maxSize));
+    }
+
+    /**
+     * Returns a stream consisting of the remaining elements of this stream after discarding the first {@code n} elements.
+     *
+     * @param n the number of leading elements to skip
+     * @return a stream consisting of the remaining elements of this stream after discarding the first {@code n} elements
+     * @throws IllegalArgumentException if {@code n} is negative
+     */
+    public CheckedStream<T> skip(final long n) {
+        return derive(stream().skip(n));
+    }
+
+    /**
+     * Returns an equivalent stream which is parallel.
+     *
+     * @return an equivalent stream which is parallel
+     */
+    public CheckedStream<T> parallel() {
+        return new CheckedStream<>(source.parallel(), stage, cancellation);
+    }
+
+    /**
+     * Returns an equivalent stream which is sequential.
+     *
+     * @return an equivalent stream which is sequential
+     */
+    public CheckedStream<T> sequential() {
+        return new CheckedStream<>(source.sequential(), stage, cancellation);
+    }
+
+    /**
+     * Returns whether this stream would execute in parallel if a terminal operation were executed.
+     *
+     * @return whether this stream would execute in parallel if a terminal operation were executed
+     */
+    public boolean isParallel() {
+        return source.isParallel();
+    }
+
+    /**
+     * Returns an equivalent stream with an additional close handler.
+     *
+     * @param closeHandler the task to execute when the stream is closed
+     * @return an equivalent stream with an additional close handler
+     */
+    public CheckedStream<T> onClose(final CheckedRunnable closeHandler) {
+        Objects.requireNonNull(closeHandler, "closeHandler == null");
+        return new CheckedStream<>(source.onClose(CheckedRunnable.unchecked(closeHandler)), stage, cancellation);
+    }
+
+    /**
+     * Returns an equivalent stream which stops processing elements as soon as any checked lambda of this stream throws an
+     * exception.
+     * <p>
+     * A parallel {@code Stream} reports the first exception only after every other task has processed its whole split.
+     * A fail-fast stream shares a cancellation flag between all of its tasks instead: the first exception thrown by a
+     * lambda raises the flag, and every task checks it before pulling the next element from its split. When the terminal
+     * operation completes, the first exception is rethrown on the calling thread as is, rather than the copy which
+     * {@code ForkJoinTask} may create for an exception thrown on another thread, with any exceptions thrown concurrently
+     * by other tasks attached as {@link Throwable#addSuppressed(Throwable) suppressed} exceptions.
+     * <p>
+     * Fail-fast applies to the operations of this {@code CheckedStream} and the {@code CheckedStream}s derived from it by
+     * its intermediate operations. It ends at a primitive conversion: the {@code CheckedIntStream},
+     * {@code CheckedLongStream}, and {@code CheckedDoubleStream} returned by {@link #mapToInt(CheckedToIntFunction)},
+     * {@link #mapToLong(CheckedToLongFunction)}, and {@link #mapToDouble(CheckedToDoubleFunction)} report exceptions as
+     * a plain parallel stream does. Elements are pulled from the underlying stream one at a time, so sequential streams
+     * which do not need early cancellation are better off without this mode.
+     *
+     * @return an equivalent stream which stops processing elements as soon as any checked lambda throws an exception
+     */
+    public CheckedStream<T> failFast() {
+        return cancellation != null ? this : new CheckedStream<>(source, stage, new Cancellation());
+    }
+
+    /**
+     * Performs the specified action for each element of this stream. For parallel streams the action is performed in no
+     * particular order and possibly concurrently.
+     * <p>
+     * The action is fused with any pending stateless stages, so every element is processed with a single
+     * {@code try}/{@code catch}.
+     *
+     * @param action the action to perform on each element
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(final CheckedConsumer<? super T> action) {
+        Objects.requireNonNull(action, "action == null");
+
+        if (cancellation != null) {
+            evaluate(() -> {
+                peek(action).stream().forEach(t -> {
+                });
+                return null;
+            });
+            return;
+        }
+
+        final CheckedConsumer<Object> sink = stage == null ? (CheckedConsumer<Object>) action : stage.wrap(action);
+        source.forEach(t -> {
+            try {
+                sink.accept(t);
+            } catch (final Exception e) {
+                throw Unchecked.exception(e);
+            }
+        });
+    }
+
+    /**
+     * Performs the specified action for each element of this stream, in the encounter order of the stream if it has one.
+     *
+     * @param action the action to perform on each element
+     */
+    public void forEachOrdered(final CheckedConsumer<? super T> action) {
+        Objects.requireNonNull(action, "action == null");
+        evaluate(() -> {
+            stream().forEachOrdered(adaptConsumer(action));
+            return null;
+        });
+    }
+
+    /**
+     * Performs a reduction on the elements of this stream, using the specified identity value and associative
+     * accumulation function, and returns the reduced value.
+     *
+     * @param identity    the identity value for the accumulating function
+     * @param accumulator an associative function for combining two values
+     * @return the result of the reduction
+     */
+    public T reduce(final T identity, final CheckedBinaryOperator<T> accumulator) {
+        Objects.requireNonNull(accumulator, "accumulator == null");
+        return evaluate(() -> stream().reduce(identity, adaptOperator(accumulator)));
+    }
+
+    /**
+     * Performs a reduction on the elements of this stream, using the specified associative accumulation function, and
+     * returns an {@code Optional} describing the reduced value, if any.
+     *
+     * @param accumulator an associative function for combining two values
+     * @return an {@code Optional} describing the result of the reduction
+     * @throws NullPointerException if the result of the reduction is {@code null}
+     */
+    public Optional<T> reduce(final CheckedBinaryOperator<T> accumulator) {
+        Objects.requireNonNull(accumulator, "accumulator == null");
+        return evaluate(() -> stream().reduce(adaptOperator(accumulator)));
+    }
+
+    /**
+     * Performs a mutable reduction on the elements of this stream using the specified {@code Collector}.
+     *
+     * @param <R>       the type of the result
+     * @param <A>       the intermediate accumulation type of the collector
+     * @param collector the collector describing the reduction
+     * @return the result of the reduction
+     */
+    public <R, A> R collect(final Collector<? super T, A, R> collector) {
+        Objects.requireNonNull(collector, "collector == null");
+        return evaluate(() -> stream().collect(collector));
+    }
+
+    /**
+     * Returns the elements of this stream in a {@code List}, in encounter order. There are no guarantees on the type or
+     * mutability of the returned {@code List}.
+     *
+     * @return the elements of this stream in a {@code List}
+     */
+    public List<T> toList() {
+        return collect(Collectors.toList());
+    }
+
+    /**
+     * Returns an array containing the elements of this stream.
+     *
+     * @return an array containing the elements of this stream
+     */
+    public Object[] toArray() {
+        return evaluate(() -> stream().toArray());
+    }
+
+    /**
+     * Returns the least element of this stream according to the specified comparator.
+     *
+     * @param comparator the comparator which determines the order of the elements
+     * @return an {@code Optional} describing the least element of this stream, or an empty {@code Optional} if the stream
+     *         is empty
+     * @throws NullPointerException if the least element is {@code null}
+     */
+    public Optional<T> min(final CheckedComparator<? super T> comparator) {
+        Objects.requireNonNull(comparator, "comparator == null");
+        return evaluate(() -> stream().min(adaptComparator(comparator)));
+    }
+
+    /**
+     * Returns the greatest element of this stream according to the specified comparator.
+     *
+     * @param comparator the comparator which determines the order of the elements
+     * @return an {@code Optional} describing the greatest element of this stream, or an empty {@code Optional} if the
+     *         stream is empty
+     * @throws NullPointerException if the greatest element is {@code null}
+     */
+    public Optional<T> max(final CheckedComparator<? super T> comparator) {
+        Objects.requireNonNull(comparator, "comparator == null");
+        return evaluate(() -> stream().max(adaptComparator(comparator)));
+    }
+
+    /**
+     * Returns the number of elements in this stream.
+     *
+     * @return the number of elements in this stream
+     */
+    public long count() {
+        return evaluate(() -> stream().count());
+    }
+
+    /**
+     * Returns whether any element of this stream matches the specified predicate. The predicate is not evaluated on more
+     * elements than necessary to determine the result.
+     *
+     * @param predicate the predicate to apply to the elements
+     * @return {@code true} if any element of this stream matches the specified predicate, otherwise {@code false}
+     */
+    public boolean anyMatch(final CheckedPredicate<? super T> predicate) {
+        Objects.requireNonNull(predicate, "predicate == null");
+        return evaluate(() -> stream().anyMatch(adaptPredicate(predicate)));
+    }
+
+    /**
+     * Returns whether all elements of this stream match the specified predicate. The predicate is not evaluated on more
+     * elements than necessary to determine the result.
+     *
+     * @param predicate the predicate to apply to the elements
+     * @return {@code true} if all elements of this stream match the specified predicate or the stream is empty, otherwise
+     *         {@code false}
+     */
+    public boolean allMatch(final CheckedPredicate<? super T> predicate) {
+        Objects.requireNonNull(predicate, "predicate == null");
+        return evaluate(() -> stream().allMatch(adaptPredicate(predicate)));
+    }
+
+    /**
+     * Returns whether no elements of this stream match the specified predicate. The predicate is not evaluated on more
+     * elements than necessary to determine the result.
+     *
+     * @param predicate the predicate to apply to the elements
+     * @return {@code true} if no elements of this stream match the specified predicate or the stream is empty, otherwise
+     *         {@code false}
+     */
+    public boolean noneMatch(final CheckedPredicate<? super T> predicate) {
+        Objects.requireNonNull(predicate, "predicate == null");
+        return evaluate(() -> stream().noneMatch(adaptPredicate(predicate)));
+    }
+
+    /**
+     * Returns an {@code Optional} describing the first element of this stream, or an empty {@code Optional} if the stream
+     * is empty.
+     *
+     * @return an {@code Optional} describing the first element of this stream
+     * @throws NullPointerException if the element selected is {@code null}
+     */
+    public Optional<T> findFirst() {
+        return evaluate(() -> stream().findFirst());
+    }
+
+    /**
+     * Returns an {@code Optional} describing some element of this stream, or an empty {@code Optional} if the stream is
+     * empty.
+     *
+     * @return an {@code Optional} describing some element of this stream
+     * @throws NullPointerException if the element selected is {@code null}
+     */
+    public Optional<T> findAny() {
+        return evaluate(() -> stream().findAny());
+    }
+
+    /**
+     * Returns a {@code Stream} equivalent to this stream. Any pending stateless stages are fused into a single
+     * {@code Spliterator} over the underlying stream, which runs them with one {@code try}/{@code catch} per element.
+     *
+     * @return a {@code Stream} equivalent to this stream
+     */
+    @SuppressWarnings("unchecked")
+    public Stream<T> stream() {
+        if (stage == null && cancellation == null)
+            return (Stream<T>) source;
+
+        return StreamSupport.stream(new FusedSpliterator<>(source.spliterator(), stage, cancellation), source.isParallel()).onClose(source::close);
+    }
+
+    /**
+     * Closes this stream, causing all close handlers for this stream pipeline to be called.
+     */
+    @Override
+    public void close() {
+        source.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> CheckedStream<R> mapAsync(final int maxConcurrency, final Executor executor, final CheckedFunction<? super T, ? extends R> mapper, final boolean ordered) {
+        Objects.requireNonNull(executor, "executor == null");
+        Objects.requireNonNull(mapper, "mapper == null");
+
+        if (maxConcurrency <= 0)
+            throw new IllegalArgumentException("maxConcurrency <= 0");
+
+        final Stream<T>              stream      = stream();
+        final AsyncSpliterator<T, R> spliterator = new AsyncSpliterator<>(stream.spliterator(), maxConcurrency, executor, mapper, ordered, cancellation);
+        final Stream<R>              mapped      = StreamSupport.stream(spliterator, stream.isParallel());
+        return new CheckedStream<>((Stream<Object>) mapped.onClose(spliterator::cancel).onClose(stream::close), null, cancellation);
+    }
+
+    private <R> CheckedStream<R> then(final Stage<T, R> next) {
+        return new CheckedStream<>(source, stage == null ? Stage.identity(next) : stage.andThen(next), cancellation);
+    }
+
+    @SuppressWarnings("unchecked")
+    private CheckedStream<T> derive(final Stream<? extends T> stream) {
+        return new CheckedStream<>((Stream<Object>) stream, null, cancellation);
+    }
+
+    /*
+     * Runs a terminal operation. In fail-fast mode the first exception thrown by any task replaces whatever the
+     * operation threw or returned.
+     */
+    private <R> R evaluate(final Supplier<R> operation) {
+        if (cancellation == null)
+            return operation.get();
+
+        final R result;
+        try {
+            result = operation.get();
+        } catch (final Throwable t) {
+            throw cancellation.failure(t);
+        }
+
+        if (cancellation.isCancelled())
+            throw cancellation.failure(null);
+
+        return result;
+    }
+
+    private Consumer<T> adaptConsumer(final CheckedConsumer<? super T> consumer) {
+        if (cancellation == null)
+            return CheckedConsumer.unchecked(consumer);
+
+        return t -> {
+            try {
+                consumer.accept(t);
+            } catch (final Exception e) {
+                throw cancellation.cancel(e);
+            }
+        };
+    }
+
+    private Predicate<T> adaptPredicate(final CheckedPredicate<? super T> predicate) {
+        if (cancellation == null)
+            return CheckedPredicate.unchecked(predicate);
+
+        return t -> {
+            try {
+                return predicate.test(t);
+            } catch (final Exception e) {
+                throw cancellation.cancel(e);
+            }
+        };
+    }
+
+    private BinaryOperator<T> adaptOperator(final CheckedBinaryOperator<T> operator) {
+        if (cancellation == null)
+            return CheckedBinaryOperator.unchecked(operator);
+
+        return (left, right) -> {
+            try {
+                return operator.apply(left, right);
+            } catch (final Exception e) {
+                throw cancellation.cancel(e);
+            }
+        };
+    }
+
+    private Comparator<T> adaptComparator(final CheckedComparator<? super T> comparator) {
+        if (cancellation == null)
+            return CheckedComparator.unchecked(comparator);
+
+        return (left, right) -> {
+            try {
+                return comparator.compare(left, right);
+            } catch (final Exception e) {
+                throw cancellation.cancel(e);
+            }
+        };
+    }
+
+    /*
+     * A stateless operation expressed as a transformation of the downstream consumer.
+     */
+    @FunctionalInterface
+    private interface Stage<T, R> {
+
+        CheckedConsumer<T> wrap(CheckedConsumer<? super R> downstream);
+
+        default <V> Stage<T, V> andThen(final Stage<R, V> next) {
+            return downstream -> wrap(next.wrap(downstream));
+        }
+
+        @SuppressWarnings("unchecked")
+        static <T, R> Stage<Object, R> identity(final Stage<T, R> stage) {
+            return (Stage<Object, R>) stage;
+        }
+
+    }
+
+    /*
+     * The cancellation flag shared by the tasks of a fail-fast stream. The first exception is recorded before the flag is
+     * raised, so a task which sees the flag always finds the exception.
+     */
+    private static final class Cancellation {
+
+        private final AtomicReference<Exception> first  = new AtomicReference<>();
+        private final Queue<Exception>           others = new ConcurrentLinkedQueue<>();
+
+        private volatile boolean cancelled;
+
+        private boolean isCancelled() {
+            return cancelled;
+        }
+
+        private RuntimeException cancel(final Exception e) {
+            if (!first.compareAndSet(null, e))
+                others.add(e);
+            cancelled = true;
+            throw Unchecked.exception(e);
+        }
+
+        /*
+         * Throws the first exception with the others attached as suppressed, or the specified throwable if no task has
+         * failed. The throwable propagated by the terminal operation is either one of the recorded exceptions, a copy of
+         * one made by ForkJoinTask, or an unrelated failure which is attached as well.
+         */
+        private RuntimeException failure(final Throwable thrown) {
+            final Exception first = this.first.get();
+
+            if (first == null) {
+                if (thrown instanceof Error)
+                    throw (Error) thrown;
+                throw Unchecked.exception((Exception) thrown);
+            }
+
+            for (Exception e; (e = others.poll()) != null;)
+                if (e != first)
+                    first.addSuppressed(e);
+
+            if (thrown != null && !isRecorded(first, thrown) && !isRecorded(first, thrown.getCause()))
+                first.addSuppressed(thrown);
+
+            throw Unchecked.exception(first);
+        }
+
+        private static boolean isRecorded(final Exception first, final Throwable t) {
+            return t == first || Arrays.asList(first.getSuppressed()).contains(t);
+        }
+
+    }
+
+    /*
+     * Runs the fused stages over the elements of the source spliterator. The bulk traversal pushes every element through
+     * the chain directly, while tryAdvance buffers the output of a single source element, which flatMap can expand into
+     * any number of elements. In fail-fast mode elements are pulled one at a time and the traversal stops as soon as the
+     * cancellation flag is raised.
+     */
+    private static final class FusedSpliterator<T> implements Spliterator<T> {
+
+        private static final int CHARACTERISTICS = ORDERED;
+
+        private final Spliterator<Object> source;
+        private final Stage<Object, T>    stage;        // null if there are no stages
+        private final Cancellation        cancellation; // null unless fail-fast
+        private final Buffer<T>           buffer = new Buffer<>();
+        private final Consumer<Object>    push;
+
+        private FusedSpliterator(final Spliterator<Object> source, final Stage<Object, T> stage, final Cancellation cancellation) {
+            this.source       = source;
+            this.stage        = stage;
+            this.cancellation = cancellation;
+            this.push         = sink(buffer::add);
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super T> action) {
+            while (buffer.isEmpty())
+                if (isCancelled() || !source.tryAdvance(push))
+                    return false;
+            action.accept(buffer.poll());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(final Consumer<? super T> action) {
+            while (!buffer.isEmpty())
+                action.accept(buffer.poll());
+
+            final Consumer<Object> sink = sink(action::accept);
+
+            if (cancellation == null)
+                source.forEachRemaining(sink);
+            else
+                while (!cancellation.isCancelled())
+                    if (!source.tryAdvance(sink))
+                        break;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if (!buffer.isEmpty() || isCancelled())
+                return null;
+
+            final Spliterator<Object> prefix = source.trySplit();
+            return prefix == null ? null : new FusedSpliterator<>(prefix, stage, cancellation);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics() & CHARACTERISTICS;
+        }
+
+        private boolean isCancelled() {
+            return cancellation != null && cancellation.isCancelled();
+        }
+
+        @SuppressWarnings("unchecked")
+        private Consumer<Object> sink(final CheckedConsumer<? super T> downstream) {
+            final CheckedConsumer<Object> sink = stage == null ? (CheckedConsumer<Object>) downstream : stage.wrap(downstream);
+            return t -> {
+                try {
+                    sink.accept(t);
+                } catch (final Exception e) {
+                    if (cancellation != null)
+                        throw cancellation.cancel(e);
+                    throw Unchecked.exception(e);
+                }
+            };
+        }
+
+    }
+
+    /*
+     * A FIFO buffer which, unlike ArrayDeque, accepts null elements, since a stream may contain them. The backing list is
+     * cleared whenever the buffer is drained.
+     */
+    private static final class Buffer<T> {
+
+        private final ArrayList<T> elements = new ArrayList<>();
+        private int                head;
+
+        private boolean isEmpty() {
+            return head == elements.size();
+        }
+
+        private void add(final T t) {
+            elements.add(t);
+        }
+
+        private void addAll(final Collection<? extends T> c) {
+            elements.addAll(c);
+        }
+
+        // the buffer must not be empty
+        private T poll() {
+            final T t = elements.get(head++);
+            if (head == elements.size()) {
+                elements.clear();
+                head = 0;
+            }
+            return t;
+        }
+
+    }
+
+    /*
+     * Groups the elements of the source spliterator into chunks, applies the mapper to each chunk, and buffers its
+     * results. A split of the source becomes a split of chunks, so chunks never span splits and the results keep the
+     * encounter order of the source.
+     */
+    private static final class BatchSpliterator<T, R> implements Spliterator<R> {
+
+        private static final int CHARACTERISTICS = ORDERED;
+
+        private final Spliterator<T>                                                source;
+        private final int                                                           batchSize;
+        private final long                                                          lingerNanos;  // 0 if there is no linger
+        private final CheckedFunction<? super List<T>, ? extends List<? extends R>> mapper;
+        private final Cancellation                                                  cancellation; // null unless fail-fast
+        private final Buffer<R>                                                     buffer = new Buffer<>();
+
+        private BatchSpliterator(final Spliterator<T> source, final int batchSize, final long lingerNanos, final CheckedFunction<? super List<T>, ? extends List<? extends R>> mapper, final Cancellation cancellation) {
+            this.source       = source;
+            this.batchSize    = batchSize;
+            this.lingerNanos  = lingerNanos;
+            this.mapper       = mapper;
+            this.cancellation = cancellation;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super R> action) {
+            while (buffer.isEmpty())
+                if (!fill())
+                    return false;
+            action.accept(buffer.poll());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(final Consumer<? super R> action) {
+            do {
+                while (!buffer.isEmpty())
+                    action.accept(buffer.poll());
+            } while (fill());
+        }
+
+        @Override
+        public Spliterator<R> trySplit() {
+            if (!buffer.isEmpty() || isCancelled())
+                return null;
+
+            final Spliterator<T> prefix = source.trySplit();
+            return prefix == null ? null : new BatchSpliterator<>(prefix, batchSize, lingerNanos, mapper, cancellation);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics() & CHARACTERISTICS;
+        }
+
+        private boolean isCancelled() {
+            return cancellation != null && cancellation.isCancelled();
+        }
+
+        /*
+         * Pulls the next chunk from the source and buffers the results of the mapper, returning false if the source is
+         * exhausted.
+         */
+        private boolean fill() {
+            final List<T> batch = new ArrayList<>((int) Math.min(batchSize, Math.max(source.estimateSize(), 1)));
+            long          start = 0;
+
+            while (batch.size() < batchSize && !isCancelled() && source.tryAdvance(batch::add)) {
+                if (lingerNanos == 0)
+                    continue;
+                if (batch.size() == 1)
+                    start = System.nanoTime();
+                else if (System.nanoTime() - start >= lingerNanos)
+                    break;
+            }
+
+            if (batch.isEmpty())
+                return false;
+
+            final List<? extends R> results;
+            try {
+                results = mapper.apply(batch);
+            } catch (final Exception e) {
+                if (cancellation != null)
+                    throw cancellation.cancel(e);
+                throw Unchecked.exception(e);
+            }
+
+            if (results != null)
+                buffer.addAll(results);
+            return true;
+        }
+
+    }
+
+    /*
+     * Applies the mapper to the elements of the source spliterator on an executor, keeping at most maxConcurrency tasks
+     * in flight. Tasks are kept in submission order and every task adds itself to the completed queue when it is done,
+     * which lets the consumer detect a failure as soon as it happens. In ordered mode the consumer waits for the oldest
+     * task, checking every task which completes in the meantime, while in unordered mode it takes whichever task
+     * completes first.
+     */
+    private static final class AsyncSpliterator<T, R> implements Spliterator<R> {
+
+        private final Spliterator<T>                          source;
+        private final int                                     maxConcurrency;
+        private final Executor                                executor;
+        private final CheckedFunction<? super T, ? extends R> mapper;
+        private final boolean                                 ordered;
+        private final Cancellation                            cancellation; // null unless fail-fast
+        private final ArrayDeque<Task>                        inFlight  = new ArrayDeque<>();
+        private final BlockingQueue<Task>                     completed = new LinkedBlockingQueue<>();
+        private final Consumer<T>                             submit    = this::submit;
+
+        private boolean exhausted;
+
+        private AsyncSpliterator(final Spliterator<T> source, final int maxConcurrency, final Executor executor, final CheckedFunction<? super T, ? extends R> mapper, final boolean ordered, final Cancellation cancellation) {
+            this.source         = source;
+            this.maxConcurrency = maxConcurrency;
+            this.executor       = executor;
+            this.mapper         = mapper;
+            this.ordered        = ordered;
+            this.cancellation   = cancellation;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super R> action) {
+            try {
+                while (!exhausted && inFlight.size() < maxConcurrency)
+                    exhausted = (cancellation != null && cancellation.isCancelled()) || !source.tryAdvance(submit);
+            } catch (final Throwable t) {
+                cancel();
+                throw t;
+            }
+
+            if (inFlight.isEmpty())
+                return false;
+
+            action.accept(ordered ? nextInOrder() : nextCompleted());
+            return true;
+        }
+
+        @Override
+        public Spliterator<R> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            final long size = source.estimateSize() + inFlight.size();
+            return size < 0 ? Long.MAX_VALUE : size;
+        }
+
+        @Override
+        public int characteristics() {
+            return ordered ? source.characteristics() & ORDERED : 0;
+        }
+
+        private void submit(final T t) {
+            final Task task = new Task(t);
+            inFlight.add(task);
+            executor.execute(task);
+        }
+
+        private R nextInOrder() {
+            final Task task = inFlight.peek();
+            try {
+                for (Task done; (done = completed.poll()) != null;)
+                    check(done);
+                while (!task.isDone())
+                    check(completed.take());
+            } catch (final InterruptedException e) {
+                cancel();
+                Thread.currentThread().interrupt();
+                throw Unchecked.exception(e);
+            }
+            inFlight.poll();
+            return check(task);
+        }
+
+        private R nextCompleted() {
+            final Task task;
+            try {
+                task = completed.take();
+            } catch (final InterruptedException e) {
+                cancel();
+                Thread.currentThread().interrupt();
+                throw Unchecked.exception(e);
+            }
+            inFlight.remove(task);
+            return check(task);
+        }
+
+        /*
+         * Returns the result of the specified completed task, or cancels every outstanding task and rethrows the exception
+         * thrown by the mapper.
+         */
+        private R check(final Task task) {
+            try {
+                return task.get();
+            } catch (final InterruptedException | CancellationException e) {
+                throw new AssertionError(e); // tasks are only cancelled after the consumer has stopped
+            } catch (final ExecutionException e) {
+                cancel();
+
+                final Throwable cause = e.getCause();
+                if (cause instanceof Error)
+                    throw (Error) cause;
+                if (cancellation != null)
+                    throw cancellation.cancel((Exception) cause);
+                throw Unchecked.exception((Exception) cause);
+            }
+        }
+
+        private void cancel() {
+            for (Task task; (task = inFlight.poll()) != null;)
+                task.cancel(true);
+            completed.clear();
+        }
+
+        private final class Task extends FutureTask<R> {
+
+            private Task(final T t) {
+                super(() -> mapper.apply(t));
+            }
+
+            @Override
+            protected void done() {
+                completed.add(this);
+            }
+
+        }
+
+    }
+
+}
@@ -16,6 +16,8 @@
 package software.leonov.common.util.function;
 
 import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 /**
@@ -64,4 +66,205 @@ public interface CheckedSupplier<T> {
         return unchecked(supplier).get();
     }
 
+    /**
+     * Returns a {@code CheckedSupplier} which calls the specified supplier only once, on the first call to {@code get()},
+     * and returns the same value on every subsequent call.
+     * <p>
+     * The returned supplier is thread-safe. If several threads call it concurrently before the value is available, exactly
+     * one of them calls the underlying supplier while the others wait for it. Once the value is available no locks are
+     * taken and every call is a single volatile read. If the underlying supplier throws an exception it is rethrown to the
+     * calling thread and to every thread which was waiting for the same computation, and the next call tries again.
+     * <p>
+     * A supplier which calls its own memoized supplier while computing fails with an {@code IllegalStateException}.
+     *
+     * @param supplier the underlying checked supplier
+     * @return a {@code CheckedSupplier} which calls the specified supplier only once and caches the result
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CheckedSupplier<T> memoize(final CheckedSupplier<? extends T> supplier) {
+        Objects.requireNonNull(supplier, "supplier == null");
+        return supplier instanceof MemoizingSupplier ? (CheckedSupplier<T>) supplier : new MemoizingSupplier<>(supplier);
+    }
+
+    /**
+     * Returns an {@code ExpiringSupplier} which caches the value returned by the specified supplier and reloads it once it
+     * is older than the specified duration.
+     * <p>
+     * The first call to {@code get()} loads the value, and concurrent callers wait for it as with
+     * {@link #memoize(CheckedSupplier)}. After that the first caller to observe an expired value reloads it while every
+     * other caller continues to receive the stale value. If the reload throws an exception the last good value is kept for
+     * another period.
+     *
+     * @param supplier the underlying checked supplier
+     * @param duration how long a value remains fresh after it is loaded
+     * @param unit     the unit of {@code duration}
+     * @return an {@code ExpiringSupplier} which caches the value returned by the specified supplier and reloads it once it
+     *         is older than the specified duration
+     * @throws IllegalArgumentException if {@code duration} is not positive
+     */
+    public static <T> ExpiringSupplier<T> memoizeWithExpiration(final CheckedSupplier<? extends T> supplier, final long duration, final TimeUnit unit) {
+        return memoizeWithExpiration(supplier, duration, unit, Runnable::run);
+    }
+
+    /**
+     * Returns an {@code ExpiringSupplier} which caches the value returned by the specified supplier and reloads it on the
+     * specified executor once it is older than the specified duration.
+     * <p>
+     * The first call to {@code get()} loads the value, and concurrent callers wait for it as with
+     * {@link #memoize(CheckedSupplier)}. After that the first caller to observe an expired value submits a reload to the
+     * executor, and every other caller continues to receive the stale value until the reload completes. No caller waits
+     * for a reload unless the executor runs it on the calling thread. If the reload throws an exception the last good
+     * value is kept for another period. If the executor rejects the reload the next call tries again.
+     *
+     * @param supplier the underlying checked supplier
+     * @param duration how long a value remains fresh after it is loaded
+     * @param unit     the unit of {@code duration}
+     * @param executor the executor which runs reloads
+     * @return an {@code ExpiringSupplier} which caches the value returned by the specified supplier and reloads it on the
+     *         specified executor once it is older than the specified duration
+     * @throws IllegalArgumentException if {@code duration} is not positive
+     */
+    public static <T> ExpiringSupplier<T> memoizeWithExpiration(final CheckedSupplier<? extends T> supplier, final long duration, final TimeUnit unit, final Executor executor) {
+        Objects.requireNonNull(supplier, "supplier == null");
+        Objects.requireNonNull(unit, "unit == null");
+        Objects.requireNonNull(executor, "executor == null");
+        return new ExpiringSupplier<>(supplier, duration, unit, executor);
+    }
+
+    /**
+     * Returns a {@code HedgingSupplier} which calls the specified supplier on the specified executor and, if a call has
+     * not completed after the specified delay, starts another call, up to {@code maxAttempts} calls in total, returning
+     * the value of the first call to complete normally and cancelling the rest.
+     * <p>
+     * If every call throws an exception, the exception of the last call to complete is rethrown as is.
+     *
+     * @param supplier    the underlying checked supplier
+     * @param maxAttempts the maximum number of concurrent calls to the underlying supplier per call to {@code get()}
+     * @param delay       how long to wait for a call to complete before starting another
+     * @param unit        the unit of {@code delay}
+     * @param executor    the executor which runs the calls to the underlying supplier
+     * @return a {@code HedgingSupplier} which hedges calls to the specified supplier after the specified delay
+     * @throws IllegalArgumentException if {@code maxAttempts} is less than 2 or {@code delay} is negative
+     */
+    public static <T> HedgingSupplier<T> hedge(final CheckedSupplier<? extends T> supplier, final int maxAttempts, final long delay, final TimeUnit unit, final Executor executor) {
+        Objects.requireNonNull(supplier, "supplier == null");
+        Objects.requireNonNull(unit, "unit == null");
+        Objects.requireNonNull(executor, "executor == null");
+        return new HedgingSupplier<>(supplier, maxAttempts, delay, unit, false, executor);
+    }
+
+    /**
+     * Returns a {@code HedgingSupplier} which calls the specified supplier on the specified executor and, if a call has
+     * not completed within the observed 95th percentile latency of the specified supplier, starts another call, up to
+     * {@code maxAttempts} calls in total, returning the value of the first call to complete normally and cancelling the
+     * rest.
+     * <p>
+     * Until enough calls have completed to estimate the 95th percentile, the initial delay is used instead. If every call
+     * throws an exception, the exception of the last call to complete is rethrown as is.
+     *
+     * @param supplier     the underlying checked supplier
+     * @param maxAttempts  the maximum number of concurrent calls to the underlying supplier per call to {@code get()}
+     * @param initialDelay how long to wait for a call to complete before starting another, until the latency is known
+     * @param unit         the unit of {@code initialDelay}
+     * @param executor     the executor which runs the calls to the underlying supplier
+     * @return a {@code HedgingSupplier} which hedges calls to the specified supplier after their 95th percentile latency
+     * @throws IllegalArgumentException if {@code maxAttempts} is less than 2 or {@code initialDelay} is negative
+     */
+    public static <T> HedgingSupplier<T> hedgeAdaptive(final CheckedSupplier<? extends T> supplier, final int maxAttempts, final long initialDelay, final TimeUnit unit, final Executor executor) {
+        Objects.requireNonNull(supplier, "supplier == null");
+        Objects.requireNonNull(unit, "unit == null");
+        Objects.requireNonNull(executor, "executor == null");
+        return new HedgingSupplier<>(supplier, maxAttempts, initialDelay, unit, true, executor);
+    }
+
+    /**
+     * Returns a {@code CheckedSupplier} which calls the specified supplier, retrying it according to the specified policy
+     * when it throws an exception. If the attempts are exhausted the exception of the last attempt is rethrown as is.
+     *
+     * @param supplier the underlying checked supplier
+     * @param retry    the retry policy
+     * @return a {@code CheckedSupplier} which retries the specified supplier according to the specified policy
+     */
+    public static <T> CheckedSupplier<T> retry(final CheckedSupplier<? extends T> supplier, final Retry retry) {
+        Objects.requireNonNull(supplier, "supplier == null");
+        Objects.requireNonNull(retry, "retry == null");
+        return () -> retry.call(supplier);
+    }
+
+    /**
+     * Returns a {@code CheckedSupplier} which calls the specified supplier only if the specified circuit breaker allows
+     * it, recording the outcome, and otherwise throws the breaker's preallocated {@link CircuitBreakerOpenException}.
+     *
+     * @param supplier       the underlying checked supplier
+     * @param circuitBreaker the circuit breaker
+     * @return a {@code CheckedSupplier} which calls the specified supplier only if the specified circuit breaker allows it
+     */
+    public static <T> CheckedSupplier<T> withCircuitBreaker(final CheckedSupplier<? extends T> supplier, final CircuitBreaker circuitBreaker) {
+        Objects.requireNonNull(supplier, "supplier == null");
+        Objects.requireNonNull(circuitBreaker, "circuitBreaker == null");
+        return () -> circuitBreaker.call(supplier);
+    }
+
+    /**
+     * Returns a {@code CheckedSupplier} which calls the specified supplier and throws {@code TimeoutException} if the call
+     * takes longer than the specified timeout.
+     * <p>
+     * The call runs on the calling thread, so there is no thread hop and no thread is started per call. Deadlines are
+     * tracked by a timer wheel with a one millisecond tick, run by a single daemon thread which is shared by every
+     * timeout decorator and parks while there are no calls in progress. If a call is still running at its deadline its
+     * thread, platform or virtual, is interrupted, and when the call returns or throws, {@code TimeoutException} is
+     * thrown, undeclared as with {@link Unchecked#exception(Exception)}, with the exception of the call, if any, attached
+     * as a suppressed exception. The timer's interrupt is cleared before {@code TimeoutException} is thrown. If the thread
+     * is already interrupted when the timeout elapses it is not interrupted again and the interrupt is left set, but an
+     * interrupt from elsewhere which arrives after the timer's cannot be told apart from it and is cleared as well. A call
+     * which ignores interruption is not stopped, but still times out when it completes.
+     *
+     * @param supplier the underlying checked supplier
+     * @param timeout  the maximum time a call may take
+     * @param unit     the unit of {@code timeout}
+     * @return a {@code CheckedSupplier} which calls the specified supplier and throws {@code TimeoutException} if the call
+     *         takes longer than the specified timeout
+     * @throws IllegalArgumentException if {@code timeout} is not positive
+     */
+    public static <T> CheckedSupplier<T> withTimeout(final CheckedSupplier<? extends T> supplier, final long timeout, final TimeUnit unit) {
+        Objects.requireNonNull(supplier, "supplier == null");
+        Objects.requireNonNull(unit, "unit == null");
+
+        if (timeout <= 0)
+            throw new IllegalArgumentException("timeout <= 0");
+
+        final long timeoutNanos = unit.toNanos(timeout);
+        return () -> TimerWheel.call(supplier, timeoutNanos);
+    }
+
+    /**
+     * Returns a {@code CheckedSupplier} which calls the specified supplier once the specified bulkhead has a free
+     * permit, and otherwise waits or throws the bulkhead's preallocated {@link BulkheadFullException}, according to the
+     * bulkhead.
+     *
+     * @param supplier the underlying checked supplier
+     * @param bulkhead the bulkhead
+     * @return a {@code CheckedSupplier} which calls the specified supplier subject to the specified bulkhead
+     */
+    public static <T> CheckedSupplier<T> withBulkhead(final CheckedSupplier<? extends T> supplier, final Bulkhead bulkhead) {
+        Objects.requireNonNull(supplier, "supplier == null");
+        Objects.requireNonNull(bulkhead, "bulkhead == null");
+        return () -> bulkhead.call(supplier);
+    }
+
+    /**
+     * Returns a {@code CheckedSupplier} which calls the specified supplier once the specified rate limiter has a token
+     * for it, and otherwise waits or throws the rate limiter's preallocated {@link RateLimitExceededException},
+     * according to the rate limiter.
+     *
+     * @param supplier    the underlying checked supplier
+     * @param rateLimiter the rate limiter
+     * @return a {@code CheckedSupplier} which calls the specified supplier subject to the specified rate limiter
+     */
+    public static <T> CheckedSupplier<T> withRateLimiter(final CheckedSupplier<? extends T> supplier, final RateLimiter rateLimiter) {
+        Objects.requireNonNull(supplier, "supplier == null");
+        Objects.requireNonNull(rateLimiter, "rateLimiter == null");
+        return () -> rateLimiter.call(supplier);
+    }
+
 }
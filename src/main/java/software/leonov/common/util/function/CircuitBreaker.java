@@ -0,0 +1,444 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * A lock-free circuit breaker which stops calling a failing dependency, so that callers fail immediately instead of each
+ * paying the full cost of a failure or a timeout.
+ * <p>
+ * The breaker is a state machine with three {@link State states}:
+ * <ul>
+ * <li>{@link State#CLOSED CLOSED}: calls are allowed and their outcomes are recorded in a sliding window of the last
+ * {@code windowSize} calls. Once the window is full, the breaker opens if the fraction of calls which threw an exception
+ * reaches the failure rate threshold, or the fraction of calls which took at least the slow call duration reaches the
+ * slow call rate threshold.</li>
+ * <li>{@link State#OPEN OPEN}: calls are rejected with the breaker's preallocated {@link CircuitBreakerOpenException}
+ * until the open duration has elapsed, after which the next call moves the breaker to half-open.</li>
+ * <li>{@link State#HALF_OPEN HALF_OPEN}: a limited number of trial calls, {@code min(windowSize, 10)}, are allowed and
+ * further calls are rejected. When every trial call has completed, the breaker closes with an empty window if the trial
+ * rates are below the thresholds, and opens again otherwise.</li>
+ * </ul>
+ * <p>
+ * Every state is an immutable snapshot, apart from its counters, which is replaced with a single compare-and-set, so
+ * transitions take no locks and the outcome of a call which started in an earlier state is ignored. Every exception or
+ * error thrown by a call counts as a failure and is rethrown as is.
+ * <p>
+ * Every rejected call throws the same {@code CircuitBreakerOpenException} instance, which has no stack trace, so a
+ * caller must not keep it and cannot add suppressed exceptions to it.
+ * <p>
+ * Calls are protected with {@link #call(CheckedSupplier)}, or with the decorators
+ * {@link CheckedSupplier#withCircuitBreaker(CheckedSupplier, CircuitBreaker)},
+ * {@link CheckedRunnable#withCircuitBreaker(CheckedRunnable, CircuitBreaker)}, and
+ * {@link CheckedFunction#withCircuitBreaker(CheckedFunction, CircuitBreaker)}. A single breaker can protect any number
+ * of functions which share a dependency.
+ *
+ * @author Zhenya Leonov
+ */
+public final class CircuitBreaker {
+
+    /**
+     * The states of a circuit breaker.
+     */
+    public enum State {
+
+        /**
+         * Calls are allowed and recorded.
+         */
+        CLOSED,
+
+        /**
+         * Calls are rejected.
+         */
+        OPEN,
+
+        /**
+         * A limited number of trial calls are allowed.
+         */
+        HALF_OPEN
+
+    }
+
+    private static final int MAX_HALF_OPEN_CALLS = 10;
+
+    private final int    windowSize;
+    private final double failureRateThreshold;
+    private final long   slowCallNanos;
+    private final double slowCallRateThreshold;
+    private final long   openNanos;
+    private final int    halfOpenCalls;
+
+    private final CircuitBreakerOpenException    rejection = new CircuitBreakerOpenException();
+    private final List<BiConsumer<State, State>> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicReference<Phase>         phase;
+    private final LongAdder                      successes = new LongAdder();
+    private final LongAdder                      failures  = new LongAdder();
+    private final LongAdder                      slowCalls = new LongAdder();
+    private final LongAdder                      rejected  = new LongAdder();
+    private final LongAdder                      opened    = new LongAdder();
+
+    private CircuitBreaker(final int windowSize, final double failureRateThreshold, final long slowCallNanos, final double slowCallRateThreshold, final long openNanos) {
+        this.windowSize            = windowSize;
+        this.failureRateThreshold  = failureRateThreshold;
+        this.slowCallNanos         = slowCallNanos;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openNanos             = openNanos;
+        this.halfOpenCalls         = Math.min(windowSize, MAX_HALF_OPEN_CALLS);
+        this.phase                 = new AtomicReference<>(new Closed());
+    }
+
+    /**
+     * Returns a new closed circuit breaker which opens when the failure rate of the last {@code windowSize} calls reaches
+     * {@code failureRateThreshold}, and stays open for {@code openDuration}.
+     *
+     * @param windowSize           the number of calls in the sliding window
+     * @param failureRateThreshold the fraction of failed calls, between {@code 0} exclusive and {@code 1} inclusive, at
+     *                             which the breaker opens
+     * @param openDuration         how long the breaker stays open before allowing trial calls
+     * @param unit                 the time unit of {@code openDuration}
+     * @return a new closed circuit breaker
+     * @throws IllegalArgumentException if {@code windowSize} or {@code openDuration} is not positive, or
+     *                                  {@code failureRateThreshold} is not in {@code (0, 1]}
+     */
+    public static CircuitBreaker of(final int windowSize, final double failureRateThreshold, final long openDuration, final TimeUnit unit) {
+        return of(windowSize, failureRateThreshold, Long.MAX_VALUE, 1, openDuration, unit);
+    }
+
+    /**
+     * Returns a new closed circuit breaker which opens when the failure rate of the last {@code windowSize} calls reaches
+     * {@code failureRateThreshold}, or the fraction of those calls which took at least {@code slowCallDuration} reaches
+     * {@code slowCallRateThreshold}, and stays open for {@code openDuration}.
+     *
+     * @param windowSize            the number of calls in the sliding window
+     * @param failureRateThreshold  the fraction of failed calls, between {@code 0} exclusive and {@code 1} inclusive, at
+     *                              which the breaker opens
+     * @param slowCallDuration      the duration at or above which a call is slow
+     * @param slowCallRateThreshold the fraction of slow calls, between {@code 0} exclusive and {@code 1} inclusive, at
+     *                              which the breaker opens
+     * @param openDuration          how long the breaker stays open before allowing trial calls
+     * @param unit                  the time unit of {@code slowCallDuration} and {@code openDuration}
+     * @return a new closed circuit breaker
+     * @throws IllegalArgumentException if {@code windowSize}, {@code slowCallDuration}, or {@code openDuration} is not
+     *                                  positive, or either threshold is not in {@code (0, 1]}
+     */
+    public static CircuitBreaker of(final int windowSize, final double failureRateThreshold, final long slowCallDuration, final double slowCallRateThreshold, final long openDuration, final TimeUnit unit) {
+        Objects.requireNonNull(unit, "unit == null");
+
+        if (windowSize <= 0)
+            throw new IllegalArgumentException("windowSize <= 0");
+        if (!(failureRateThreshold > 0 && failureRateThreshold <= 1))
+            throw new IllegalArgumentException("failureRateThreshold not in (0, 1]");
+        if (slowCallDuration <= 0)
+            throw new IllegalArgumentException("slowCallDuration <= 0");
+        if (!(slowCallRateThreshold > 0 && slowCallRateThreshold <= 1))
+            throw new IllegalArgumentException("slowCallRateThreshold not in (0, 1]");
+        if (openDuration <= 0)
+            throw new IllegalArgumentException("openDuration <= 0");
+
+        return new CircuitBreaker(windowSize, failureRateThreshold, unit.toNanos(slowCallDuration), slowCallRateThreshold, unit.toNanos(openDuration));
+    }
+
+    /**
+     * Calls the specified supplier if this breaker allows it and returns its value, recording the outcome.
+     *
+     * @param <T>      the type of the value
+     * @param supplier the supplier to call
+     * @return the value returned by the supplier
+     * @throws CircuitBreakerOpenException if this breaker rejects the call
+     * @throws Exception                   the exception thrown by the supplier
+     */
+    public <T> T call(final CheckedSupplier<? extends T> supplier) throws Exception {
+        Objects.requireNonNull(supplier, "supplier == null");
+
+        final Phase phase = acquire();
+        final long  start = System.nanoTime();
+        try {
+            final T value = supplier.get();
+            record(phase, start, false);
+            return value;
+        } catch (final Throwable t) {
+            record(phase, start, true);
+            throw t;
+        }
+    }
+
+    /**
+     * Returns the current state of this breaker. An open breaker whose open duration has elapsed is reported as open
+     * until the next call moves it to half-open.
+     *
+     * @return the current state of this breaker
+     */
+    public State getState() {
+        return phase.get().state();
+    }
+
+    /**
+     * Registers a listener which is notified of every state transition with the previous and the new state. Listeners
+     * are called synchronously by the thread whose call caused the transition, and should be fast and not throw.
+     *
+     * @param listener the listener to notify of state transitions
+     */
+    public void addListener(final BiConsumer<State, State> listener) {
+        Objects.requireNonNull(listener, "listener == null");
+        listeners.add(listener);
+    }
+
+    /**
+     * Returns the fraction of failed calls in the current sliding window, or {@code 0} if the breaker is not closed or
+     * no calls have been recorded since it closed.
+     *
+     * @return the fraction of failed calls in the current sliding window
+     */
+    public double getFailureRate() {
+        final Phase phase = this.phase.get();
+        return phase instanceof Closed ? ((Closed) phase).rate(((Closed) phase).failures) : 0;
+    }
+
+    /**
+     * Returns the fraction of slow calls in the current sliding window, or {@code 0} if the breaker is not closed or no
+     * calls have been recorded since it closed.
+     *
+     * @return the fraction of slow calls in the current sliding window
+     */
+    public double getSlowCallRate() {
+        final Phase phase = this.phase.get();
+        return phase instanceof Closed ? ((Closed) phase).rate(((Closed) phase).slowCalls) : 0;
+    }
+
+    /**
+     * Returns the number of calls which have completed normally.
+     *
+     * @return the number of calls which have completed normally
+     */
+    public long getSuccessCount() {
+        return successes.sum();
+    }
+
+    /**
+     * Returns the number of calls which have thrown an exception.
+     *
+     * @return the number of calls which have thrown an exception
+     */
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * Returns the number of calls which took at least the slow call duration, whether they failed or not.
+     *
+     * @return the number of slow calls
+     */
+    public long getSlowCallCount() {
+        return slowCalls.sum();
+    }
+
+    /**
+     * Returns the number of calls rejected with a {@code CircuitBreakerOpenException}.
+     *
+     * @return the number of rejected calls
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Returns the number of times this breaker has opened.
+     *
+     * @return the number of times this breaker has opened
+     */
+    public long getOpenCount() {
+        return opened.sum();
+    }
+
+    /*
+     * Returns the phase in which a call is allowed to proceed, or throws the preallocated rejection.
+     */
+    Phase acquire() {
+        while (true) {
+            final Phase phase = this.phase.get();
+
+            if (phase.tryAcquire())
+                return phase;
+
+            if (phase instanceof Open && System.nanoTime() - ((Open) phase).since >= openNanos) {
+                transition(phase, new HalfOpen());
+                continue;
+            }
+
+            rejected.increment();
+            throw rejection;
+        }
+    }
+
+    /*
+     * Records the outcome of a call which was allowed in the specified phase and started at the specified time.
+     */
+    void record(final Phase phase, final long start, final boolean failed) {
+        final boolean slow = System.nanoTime() - start >= slowCallNanos;
+
+        (failed ? failures : successes).increment();
+        if (slow)
+            slowCalls.increment();
+
+        phase.record(failed, slow);
+    }
+
+    private void transition(final Phase from, final Phase to) {
+        if (!phase.compareAndSet(from, to))
+            return;
+
+        if (to instanceof Open)
+            opened.increment();
+
+        for (final BiConsumer<State, State> listener : listeners)
+            listener.accept(from.state(), to.state());
+    }
+
+    private boolean exceeds(final int failed, final int slow, final int calls) {
+        return failed >= failureRateThreshold * calls || slow >= slowCallRateThreshold * calls;
+    }
+
+    /*
+     * A state of the breaker together with the counters of the calls allowed in it.
+     */
+    abstract class Phase {
+
+        abstract State state();
+
+        abstract boolean tryAcquire();
+
+        abstract void record(boolean failed, boolean slow);
+
+    }
+
+    /*
+     * A ring of the outcomes of the last windowSize calls. Each slot is replaced with getAndSet, and the counters are
+     * adjusted by the difference between the old and the new outcome, so they stay exact under concurrent updates.
+     */
+    private final class Closed extends Phase {
+
+        private static final int EMPTY   = 0;
+        private static final int SUCCESS = 1;
+        private static final int FAILED  = 2;
+        private static final int SLOW    = 4;
+
+        private final AtomicIntegerArray outcomes  = new AtomicIntegerArray(windowSize);
+        private final AtomicLong         index     = new AtomicLong();
+        private final AtomicInteger      calls     = new AtomicInteger();
+        private final AtomicInteger      failures  = new AtomicInteger();
+        private final AtomicInteger      slowCalls = new AtomicInteger();
+
+        @Override
+        State state() {
+            return State.CLOSED;
+        }
+
+        @Override
+        boolean tryAcquire() {
+            return true;
+        }
+
+        @Override
+        void record(final boolean failed, final boolean slow) {
+            final int outcome = (failed ? FAILED : SUCCESS) | (slow ? SLOW : 0);
+            final int old     = outcomes.getAndSet((int) (index.getAndIncrement() % windowSize), outcome);
+
+            final int calls     = old == EMPTY ? this.calls.incrementAndGet() : this.calls.get();
+            final int failures  = this.failures.addAndGet(bit(outcome, FAILED) - bit(old, FAILED));
+            final int slowCalls = this.slowCalls.addAndGet(bit(outcome, SLOW) - bit(old, SLOW));
+
+            if (calls == windowSize && exceeds(failures, slowCalls, calls))
+                transition(this, new Open());
+        }
+
+        private double rate(final AtomicInteger count) {
+            final int calls = this.calls.get();
+            return calls == 0 ? 0 : (double) count.get() / calls;
+        }
+
+        private int bit(final int outcome, final int bit) {
+            return (outcome & bit) == 0 ? 0 : 1;
+        }
+
+    }
+
+    private final class Open extends Phase {
+
+        private final long since = System.nanoTime();
+
+        @Override
+        State state() {
+            return State.OPEN;
+        }
+
+        @Override
+        boolean tryAcquire() {
+            return false;
+        }
+
+        @Override
+        void record(final boolean failed, final boolean slow) {
+        }
+
+    }
+
+    private final class HalfOpen extends Phase {
+
+        private final AtomicInteger permits   = new AtomicInteger(halfOpenCalls);
+        private final AtomicInteger completed = new AtomicInteger();
+        private final AtomicInteger failures  = new AtomicInteger();
+        private final AtomicInteger slowCalls = new AtomicInteger();
+
+        @Override
+        State state() {
+            return State.HALF_OPEN;
+        }
+
+        @Override
+        boolean tryAcquire() {
+            while (true) {
+                final int permits = this.permits.get();
+                if (permits == 0)
+                    return false;
+                if (this.permits.compareAndSet(permits, permits - 1))
+                    return true;
+            }
+        }
+
+        @Override
+        void record(final boolean failed, final boolean slow) {
+            if (failed)
+                failures.incrementAndGet();
+            if (slow)
+                slowCalls.incrementAndGet();
+
+            if (completed.incrementAndGet() == halfOpenCalls)
+                transition(this, exceeds(failures.get(), slowCalls.get(), halfOpenCalls) ? new Open() : new Closed());
+        }
+
+    }
+
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function;
+
+/**
+ * Thrown by a call protected by a {@link CircuitBreaker} which is open, or half-open with no trial calls left, without
+ * calling the underlying function.
+ *
+ * @author Zhenya Leonov
+ */
+public final class CircuitBreakerOpenException extends RuntimeException {
+
+    private static final long serialVersionUID = 8093125620486627184L;
+
+    CircuitBreakerOpenException() {
+        super("circuit breaker is open", null, false, false);
+    }
+
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A comparator which evaluates a chain of sort keys in a single loop.
+ * <p>
+ * Each key is described by a kind, an optional key extractor ({@code null} means the element itself is the key), an
+ * optional key comparator, and a set of flags. Reversal and {@code null} handling are recorded as flags rather than
+ * additional wrapper comparators, so a chain of any length costs one virtual call per comparison plus one call per key
+ * extractor.
+ * <p>
+ * A {@code null} guard on the elements ({@link #NULLS_FIRST} or {@link #NULLS_LAST}) covers {@code span} consecutive
+ * keys: if both elements are {@code null} those keys are skipped, mirroring {@link Nulls} which does not consult the
+ * wrapped comparator in that case. A guard on the first key always covers every key, just as a {@code Nulls} comparator
+ * pushes subsequent {@code thenComparing} calls into the comparator it wraps.
+ * <p>
+ * Guards and key {@code null} checks always see the arguments in their original order, while {@link #REVERSED} swaps
+ * the extracted keys before they are compared.
+ */
+class CompoundOrdering<T> implements CheckedComparator<T>, Serializable {
+
+    private static final long serialVersionUID = -3275476532167925013L;
+
+    // kinds
+    static final byte NATURAL    = 0;
+    static final byte INT        = 1;
+    static final byte LONG       = 2;
+    static final byte DOUBLE     = 3;
+    static final byte COMPARATOR = 4;
+    static final byte NONE       = 5; // all non-null keys are equal
+
+    // flags
+    static final int REVERSED        = 1;
+    static final int NULLS_FIRST     = 1 << 1;
+    static final int NULLS_LAST      = 1 << 2;
+    static final int KEY_NULLS_FIRST = 1 << 3;
+    static final int KEY_NULLS_LAST  = 1 << 4;
+
+    private static final int NULLS     = NULLS_FIRST | NULLS_LAST;
+    private static final int KEY_NULLS = KEY_NULLS_FIRST | KEY_NULLS_LAST;
+
+    private final byte[]                      kinds;
+    private final Object[]                    extractors;  // elements can be null
+    private final CheckedComparator<Object>[] comparators; // elements can be null
+    private final int[]                       flags;
+    private final int[]                       spans;
+
+    private CompoundOrdering(final byte[] kinds, final Object[] extractors, final CheckedComparator<Object>[] comparators, final int[] flags, final int[] spans) {
+        this.kinds       = kinds;
+        this.extractors  = extractors;
+        this.comparators = comparators;
+        this.flags       = flags;
+        this.spans       = spans;
+    }
+
+    private static <T> CompoundOrdering<T> key(final byte kind, final Object extractor, final CheckedComparator<?> comparator, final int flags) {
+        return new CompoundOrdering<>(new byte[] { kind }, new Object[] { extractor }, comparators(comparator), new int[] { flags }, new int[] { 1 });
+    }
+
+    // the comparators of the keys are only ever called with the key of the same kind they were given
+    @SuppressWarnings("unchecked")
+    private static CheckedComparator<Object>[] comparators(final CheckedComparator<?> comparator) {
+        return (CheckedComparator<Object>[]) new CheckedComparator<?>[] { comparator };
+    }
+
+    static <T> CompoundOrdering<T> comparing(final CheckedFunction<?, ?> function) {
+        return key(NATURAL, function, null, 0);
+    }
+
+    static <T> CompoundOrdering<T> comparingInt(final CheckedToIntFunction<?> function) {
+        return key(INT, function, null, 0);
+    }
+
+    static <T> CompoundOrdering<T> comparingLong(final CheckedToLongFunction<?> function) {
+        return key(LONG, function, null, 0);
+    }
+
+    static <T> CompoundOrdering<T> comparingDouble(final CheckedToDoubleFunction<?> function) {
+        return key(DOUBLE, function, null, 0);
+    }
+
+    static <T> CompoundOrdering<T> comparing(final CheckedFunction<?, ?> function, final CheckedComparator<?> comparator) {
+        final CompoundOrdering<?> ordering = of(comparator);
+
+        // fold a single key on the element itself into this key, moving its null guard onto the extracted key
+        if (ordering.kinds.length == 1 && ordering.extractors[0] == null && ordering.kinds[0] != INT && ordering.kinds[0] != LONG && ordering.kinds[0] != DOUBLE) {
+            final int flags = ordering.flags[0];
+            return key(ordering.kinds[0], function, ordering.comparators[0], (flags & REVERSED) | (flags & NULLS) << 2);
+        }
+
+        return key(COMPARATOR, function, comparator, 0);
+    }
+
+    /**
+     * Returns a {@code CompoundOrdering} equivalent to the specified comparator, unwrapping {@link Reversed}, {@link Nulls}
+     * and the natural orderings into flags.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> CompoundOrdering<T> of(final CheckedComparator<?> comparator) {
+        if (comparator instanceof CompoundOrdering)
+            return (CompoundOrdering<T>) comparator;
+        else if (comparator instanceof NaturalOrdering)
+            return key(NATURAL, null, null, 0);
+        else if (comparator instanceof ReversedNaturalOrdering)
+            return key(NATURAL, null, null, REVERSED);
+        else if (comparator instanceof Reversed)
+            return CompoundOrdering.<T>of(((Reversed<?>) comparator).reversed()).reversed();
+        else if (comparator instanceof Nulls) {
+            final Nulls<?> nulls = (Nulls<?>) comparator;
+            return nulls(nulls.nullsFirst(), nulls.comparator());
+        } else
+            return key(COMPARATOR, null, comparator, 0);
+    }
+
+    /**
+     * Returns a {@code CompoundOrdering} which orders {@code null} elements before or after all others and otherwise
+     * delegates to the specified comparator (if any).
+     */
+    static <T> CompoundOrdering<T> nulls(final boolean nullsFirst, final CheckedComparator<?> comparator) {
+        final CompoundOrdering<T> ordering = comparator == null ? key(NONE, null, null, 0) : of(comparator);
+
+        // a guard on the first key always spans every key, the outermost guard decides where single nulls go
+        final int[] flags = ordering.flags.clone();
+        final int[] spans = ordering.spans.clone();
+        flags[0] = flags[0] & ~NULLS | (nullsFirst ? NULLS_FIRST : NULLS_LAST);
+        spans[0] = flags.length;
+        return new CompoundOrdering<>(ordering.kinds, ordering.extractors, ordering.comparators, flags, spans);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int compare(final T left, final T right) throws Exception {
+        for (int i = 0; i < kinds.length; i++) {
+            final int flags = this.flags[i];
+
+            if ((flags & NULLS) != 0 && (left == null || right == null)) {
+                if (left == right) {
+                    i += spans[i] - 1;
+                    continue;
+                }
+                return (left == null) == ((flags & NULLS_FIRST) != 0) ? -1 : 1;
+            }
+
+            final boolean reversed = (flags & REVERSED) != 0;
+            final int     result;
+
+            switch (kinds[i]) {
+            case INT: {
+                final CheckedToIntFunction<Object> function = (CheckedToIntFunction<Object>) extractors[i];
+                final int                          x        = function.applyAsInt(left);
+                final int                          y        = function.applyAsInt(right);
+                result = reversed ? Integer.compare(y, x) : Integer.compare(x, y);
+                break;
+            }
+            case LONG: {
+                final CheckedToLongFunction<Object> function = (CheckedToLongFunction<Object>) extractors[i];
+                final long                          x        = function.applyAsLong(left);
+                final long                          y        = function.applyAsLong(right);
+                result = reversed ? Long.compare(y, x) : Long.compare(x, y);
+                break;
+            }
+            case DOUBLE: {
+                final CheckedToDoubleFunction<Object> function = (CheckedToDoubleFunction<Object>) extractors[i];
+                final double                          x        = function.applyAsDouble(left);
+                final double                          y        = function.applyAsDouble(right);
+                result = reversed ? Double.compare(y, x) : Double.compare(x, y);
+                break;
+            }
+            default: {
+                final CheckedFunction<Object, Object> function = (CheckedFunction<Object, Object>) extractors[i];
+                final Object                          x        = function == null ? left : function.apply(left);
+                final Object                          y        = function == null ? right : function.apply(right);
+
+                if ((flags & KEY_NULLS) != 0 && (x == null || y == null)) {
+                    if (x == y)
+                        continue;
+                    return (x == null) == ((flags & KEY_NULLS_FIRST) != 0) ? -1 : 1;
+                }
+
+                if (kinds[i] == NATURAL)
+                    result = reversed ? ((Comparable<Object>) y).compareTo(x) : ((Comparable<Object>) x).compareTo(y);
+                else if (kinds[i] == COMPARATOR)
+                    result = reversed ? comparators[i].compare(y, x) : comparators[i].compare(x, y);
+                else
+                    result = 0;
+            }
+            }
+
+            if (result != 0)
+                return result;
+        }
+        return 0;
+    }
+
+    @Override
+    public CompoundOrdering<T> thenComparing(final CheckedComparator<? super T> other) {
+        Objects.requireNonNull(other, "other == null");
+        final CompoundOrdering<?> next  = of(other);
+        final int[]               spans = concat(this.spans, next.spans);
+
+        // like Nulls.thenComparing(CheckedComparator) a guard on the first key extends over the appended keys
+        if ((flags[0] & NULLS) != 0)
+            spans[0] = spans.length;
+
+        return new CompoundOrdering<>(concat(kinds, next.kinds), concat(extractors, next.extractors), concat(comparators, next.comparators), concat(flags, next.flags), spans);
+    }
+
+    @Override
+    public CompoundOrdering<T> reversed() {
+        final int[] flags = new int[this.flags.length];
+        for (int i = 0; i < flags.length; i++) {
+            int f = this.flags[i] ^ REVERSED;
+            if ((f & NULLS) != 0)
+                f ^= NULLS;
+            if ((f & KEY_NULLS) != 0)
+                f ^= KEY_NULLS;
+            flags[i] = f;
+        }
+        return new CompoundOrdering<>(kinds, extractors, comparators, flags, spans);
+    }
+
+    /**
+     * Returns {@code true} if every key of this ordering is an {@code int}, {@code long}, or {@code double} extracted from
+     * the element, with no {@code null} handling, meaning the ordering is fully determined by the primitive keys.
+     */
+    boolean isPrimitive() {
+        for (int i = 0; i < kinds.length; i++)
+            if (kinds[i] != INT && kinds[i] != LONG && kinds[i] != DOUBLE || (flags[i] & ~REVERSED) != 0)
+                return false;
+        return true;
+    }
+
+    int size() {
+        return kinds.length;
+    }
+
+    byte kind(final int index) {
+        return kinds[index];
+    }
+
+    Object extractor(final int index) {
+        return extractors[index];
+    }
+
+    boolean isReversed(final int index) {
+        return (flags[index] & REVERSED) != 0;
+    }
+
+    private static byte[] concat(final byte[] first, final byte[] second) {
+        final byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private static int[] concat(final int[] first, final int[] second) {
+        final int[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private static <E> E[] concat(final E[] first, final E[] second) {
+        final E[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj)
+            return true;
+
+        if (obj == null)
+            return false;
+
+        if (getClass() != obj.getClass())
+            return false;
+
+        final CompoundOrdering<?> other = (CompoundOrdering<?>) obj;
+
+        return Arrays.equals(kinds, other.kinds) && Arrays.equals(extractors, other.extractors) && Arrays.equals(comparators, other.comparators) && Arrays.equals(flags, other.flags) && Arrays.equals(spans, other.spans);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(Arrays.hashCode(kinds), Arrays.hashCode(extractors), Arrays.hashCode(comparators), Arrays.hashCode(flags), Arrays.hashCode(spans));
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A memoizing {@link CheckedSupplier} whose value expires after a fixed duration and is then refreshed ahead of the
+ * callers which need it.
+ * <p>
+ * The first call to {@link #get()} loads the value; concurrent callers wait for that load and share its outcome, exactly
+ * as with {@link CheckedSupplier#memoize(CheckedSupplier)}. The first caller to observe that the value has expired hands
+ * a reload to the {@code Executor}, and every other caller keeps receiving the current value until the reload completes.
+ * At most one reload is in progress at any time. Callers only avoid waiting for reloads when the {@code Executor} is
+ * asynchronous: with the default {@code Runnable::run} executor of
+ * {@link CheckedSupplier#memoizeWithExpiration(CheckedSupplier, long, TimeUnit)} the caller which triggers a reload runs
+ * it itself.
+ * <p>
+ * If a reload throws an exception the last good value is retained for another period, the failure is counted, and the
+ * exception is made available through {@link #getLastFailure()}.
+ * <p>
+ * Instances are created by {@link CheckedSupplier#memoizeWithExpiration(CheckedSupplier, long, TimeUnit, Executor)}.
+ *
+ * @param <T> the type of results supplied by this supplier
+ * @author Zhenya Leonov
+ */
+public final class ExpiringSupplier<T> implements CheckedSupplier<T> {
+
+    private final CheckedSupplier<? extends T> supplier;
+    private final long                         durationNanos;
+    private final Executor                     executor;
+    private final CheckedSupplier<T>           initial;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final AtomicLong    failures   = new AtomicLong();
+
+    private volatile Entry<T>  entry;
+    private volatile long      lastLoadNanos;
+    private volatile Exception lastFailure;
+
+    ExpiringSupplier(final CheckedSupplier<? extends T> supplier, final long duration, final TimeUnit unit, final Executor executor) {
+        if (duration <= 0)
+            throw new IllegalArgumentException("duration <= 0");
+
+        this.supplier      = supplier;
+        this.durationNanos = unit.toNanos(duration);
+        this.executor      = executor;
+        this.initial       = new MemoizingSupplier<>(this::load);
+    }
+
+    @Override
+    public T get() throws Exception {
+        Entry<T> entry = this.entry;
+
+        if (entry == null)
+            return initial.get();
+
+        if (System.nanoTime() - entry.loadedAt >= durationNanos && refreshing.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::refresh);
+            } catch (final RejectedExecutionException e) {
+                refreshing.set(false);
+            }
+            entry = this.entry; // the executor may have run the reload on this thread
+        }
+
+        return entry.value;
+    }
+
+    /**
+     * Returns how long the most recent successful load took, or {@code 0} if no load has succeeded yet.
+     *
+     * @param unit the time unit of the result
+     * @return how long the most recent successful load took
+     */
+    public long getLastLoadDuration(final TimeUnit unit) {
+        return unit.convert(lastLoadNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the number of loads which have thrown an exception.
+     *
+     * @return the number of loads which have thrown an exception
+     */
+    public long getFailureCount() {
+        return failures.get();
+    }
+
+    /**
+     * Returns the exception thrown by the most recent failed load, or {@code null} if no load has failed.
+     *
+     * @return the exception thrown by the most recent failed load, or {@code null} if no load has failed
+     */
+    public Exception getLastFailure() {
+        return lastFailure;
+    }
+
+    private T load() throws Exception {
+        final long start = System.nanoTime();
+        final T    value;
+        try {
+            value = supplier.get();
+        } catch (final Exception e) {
+            failures.incrementAndGet();
+            lastFailure = e;
+            throw e;
+        }
+        final long end = System.nanoTime();
+
+        lastLoadNanos = end - start;
+        entry         = new Entry<>(value, end);
+        return value;
+    }
+
+    private void refresh() {
+        try {
+            load();
+        } catch (final Exception e) {
+            // keep serving the last good value and try again after another period
+            entry = new Entry<>(entry.value, System.nanoTime());
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    private static final class Entry<T> {
+
+        private final T    value;
+        private final long loadedAt;
+
+        private Entry(final T value, final long loadedAt) {
+            this.value    = value;
+            this.loadedAt = loadedAt;
+        }
+
+    }
+
+}
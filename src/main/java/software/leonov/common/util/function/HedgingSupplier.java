@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link CheckedSupplier} which hedges slow calls to an underlying supplier: if a call has not completed after the
+ * hedge delay, another call is started, up to a maximum number of attempts, and the first attempt to complete normally
+ * wins.
+ * <p>
+ * Every attempt runs on the {@code Executor} while the calling thread waits. As soon as an attempt returns a value the
+ * attempts which are still running are cancelled, interrupting their threads, and the value is returned. An attempt which
+ * throws an exception does not end the call while other attempts are running, nor does it start another attempt; if
+ * every started attempt throws, the exception of the last one to complete is rethrown as is.
+ * <p>
+ * The duration of every attempt which completes is recorded in a histogram, whose percentiles are available through
+ * {@link #getLatency(double, TimeUnit)}. An adaptive supplier hedges after the observed 95th percentile latency, so that
+ * about one call in twenty is hedged regardless of how fast the underlying supplier is, and uses the initial delay until
+ * enough attempts have been recorded. The histogram ages out old samples, so the delay follows a drifting latency.
+ * <p>
+ * Instances are created by {@link CheckedSupplier#hedge(CheckedSupplier, int, long, TimeUnit, Executor)} and
+ * {@link CheckedSupplier#hedgeAdaptive(CheckedSupplier, int, long, TimeUnit, Executor)}.
+ *
+ * @param <T> the type of results supplied by this supplier
+ * @author Zhenya Leonov
+ */
+public final class HedgingSupplier<T> implements CheckedSupplier<T> {
+
+    private static final double PERCENTILE  = 0.95;
+    private static final int    MIN_SAMPLES = 20;
+    private static final int    WINDOW      = 4096;
+
+    private final CheckedSupplier<? extends T> supplier;
+    private final int                          maxAttempts;
+    private final boolean                      adaptive;
+    private final Executor                     executor;
+    private final LatencyHistogram             histogram = new LatencyHistogram(WINDOW);
+    private final LongAdder                    hedges    = new LongAdder();
+
+    private volatile long delayNanos;
+
+    HedgingSupplier(final CheckedSupplier<? extends T> supplier, final int maxAttempts, final long delay, final TimeUnit unit, final boolean adaptive, final Executor executor) {
+        if (maxAttempts < 2)
+            throw new IllegalArgumentException("maxAttempts < 2");
+        if (delay < 0)
+            throw new IllegalArgumentException("delay < 0");
+
+        this.supplier    = supplier;
+        this.maxAttempts = maxAttempts;
+        this.delayNanos  = unit.toNanos(delay);
+        this.adaptive    = adaptive;
+        this.executor    = executor;
+    }
+
+    @Override
+    public T get() throws Exception {
+        return new Call().get();
+    }
+
+    /**
+     * Returns the current hedge delay, which is fixed unless this supplier is adaptive.
+     *
+     * @param unit the time unit of the result
+     * @return the current hedge delay
+     */
+    public long getHedgeDelay(final TimeUnit unit) {
+        return unit.convert(delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the specified percentile of the duration of recent attempts, or {@code -1} if no attempt has completed. The
+     * result is an upper bound accurate to within 12.5%.
+     *
+     * @param percentile the percentile, between {@code 0} and {@code 1}
+     * @param unit       the time unit of the result
+     * @return the specified percentile of the duration of recent attempts, or {@code -1} if no attempt has completed
+     * @throws IllegalArgumentException if {@code percentile} is not between {@code 0} and {@code 1}
+     */
+    public long getLatency(final double percentile, final TimeUnit unit) {
+        if (!(percentile >= 0 && percentile <= 1))
+            throw new IllegalArgumentException("percentile not in [0, 1]");
+
+        final long nanos = histogram.percentile(percentile);
+        return nanos < 0 ? -1 : unit.convert(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the number of attempts started after the hedge delay elapsed, that is the number of attempts beyond the
+     * first attempt of each call.
+     *
+     * @return the number of attempts started after the hedge delay elapsed
+     */
+    public long getHedgeCount() {
+        return hedges.sum();
+    }
+
+    private void record(final long nanos) {
+        if (histogram.record(nanos) >= MIN_SAMPLES && adaptive)
+            delayNanos = histogram.percentile(PERCENTILE);
+    }
+
+    /*
+     * A single call to get(). Every attempt adds itself to the completed queue when it is done, which the calling thread
+     * polls with the hedge delay as the timeout.
+     */
+    private final class Call {
+
+        private final List<Attempt>          attempts  = new ArrayList<>(maxAttempts);
+        private final BlockingQueue<Attempt> completed = new LinkedBlockingQueue<>();
+
+        private T get() throws Exception {
+            start();
+
+            int done = 0;
+            while (true) {
+                final Attempt attempt;
+                try {
+                    attempt = attempts.size() < maxAttempts ? completed.poll(delayNanos, TimeUnit.NANOSECONDS) : completed.take();
+                } catch (final InterruptedException e) {
+                    cancel();
+                    throw e;
+                }
+
+                if (attempt == null) {
+                    try {
+                        start();
+                        hedges.increment();
+                    } catch (final RejectedExecutionException e) {
+                        attempts.remove(attempts.size() - 1); // keep waiting for the attempts which are running
+                    }
+                    continue;
+                }
+
+                done++;
+                try {
+                    final T value = attempt.get();
+                    cancel();
+                    return value;
+                } catch (final CancellationException e) {
+                    throw new AssertionError(e); // attempts are only cancelled after the caller has stopped waiting
+                } catch (final ExecutionException e) {
+                    final Throwable cause = e.getCause();
+                    if (cause instanceof Error) {
+                        cancel();
+                        throw (Error) cause;
+                    }
+                    if (done == attempts.size())
+                        throw (Exception) cause;
+                }
+            }
+        }
+
+        private void start() {
+            final Attempt attempt = new Attempt();
+            attempts.add(attempt);
+            executor.execute(attempt);
+        }
+
+        private void cancel() {
+            for (final Attempt attempt : attempts)
+                attempt.cancel(true);
+        }
+
+        private final class Attempt extends FutureTask<T> {
+
+            private long start;
+
+            private Attempt() {
+                super(supplier::get);
+            }
+
+            @Override
+            public void run() {
+                start = System.nanoTime();
+                super.run();
+            }
+
+            @Override
+            protected void done() {
+                if (!isCancelled())
+                    record(System.nanoTime() - start);
+                completed.add(this);
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * A lock-free histogram of durations in nanoseconds with log-linear buckets: every power of two is divided into 8
+ * buckets, so a recorded value is known to within 12.5%. Old samples are aged out by halving every bucket once the
+ * histogram holds more than the window size, which lets percentiles follow a drifting distribution.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB      = 1 << SUB_BITS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(64 * SUB);
+    private final AtomicLong      count   = new AtomicLong();
+    private final long            window;
+
+    LatencyHistogram(final long window) {
+        this.window = window;
+    }
+
+    /*
+     * Records the specified duration and returns the number of samples in the histogram.
+     */
+    long record(final long nanos) {
+        buckets.incrementAndGet(index(nanos));
+        final long count = this.count.incrementAndGet();
+
+        if (count == window) // exactly one recording reaches the window
+            decay();
+
+        return count;
+    }
+
+    long count() {
+        return count.get();
+    }
+
+    /*
+     * Returns an upper bound of the specified percentile, between 0 and 1, of the recorded durations, or -1 if the
+     * histogram is empty.
+     */
+    long percentile(final double percentile) {
+        long total = 0;
+        for (int i = 0; i < buckets.length(); i++)
+            total += buckets.get(i);
+
+        if (total == 0)
+            return -1;
+
+        final long rank = Math.max(1, (long) Math.ceil(percentile * total));
+
+        long seen = 0;
+        for (int i = 0; i < buckets.length(); i++)
+            if ((seen += buckets.get(i)) >= rank)
+                return upper(i);
+
+        return upper(buckets.length() - 1); // concurrent recordings
+    }
+
+    private void decay() {
+        long removed = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            final long n = buckets.getAndUpdate(i, m -> m >>> 1);
+            removed += n - (n >>> 1);
+        }
+        count.addAndGet(-removed);
+    }
+
+    private static int index(final long nanos) {
+        if (nanos < SUB)
+            return (int) Math.max(nanos, 0);
+
+        final int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        return (exponent - SUB_BITS + 1) * SUB + (int) (nanos >>> (exponent - SUB_BITS)) - SUB;
+    }
+
+    private static long upper(final int index) {
+        if (index < SUB)
+            return index;
+
+        final int shift = index / SUB - 1;
+        return ((long) (index % SUB + SUB + 1) << shift) - 1;
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function;
+
+import java.util.Objects;
+
+/**
+ * A {@link CheckedBiFunction} which caches up to a fixed number of results of an underlying function.
+ * <p>
+ * The pair of arguments is used as the key of a {@link MemoizingFunction}, and this class has the same concurrency,
+ * eviction, and exception handling behavior.
+ * <p>
+ * Instances are created by {@link CheckedBiFunction#memoize(CheckedBiFunction, int)}.
+ *
+ * @param <T> the type of the first argument to the function
+ * @param <U> the type of the second argument to the function
+ * @param <R> the type of the result of the function
+ * @author Zhenya Leonov
+ */
+public final class MemoizingBiFunction<T, U, R> implements CheckedBiFunction<T, U, R> {
+
+    private final MemoizingFunction<Pair<T, U>, R> memoized;
+
+    MemoizingBiFunction(final CheckedBiFunction<? super T, ? super U, ? extends R> function, final int maxSize) {
+        memoized = new MemoizingFunction<>(pair -> function.apply(pair.first, pair.second), maxSize);
+    }
+
+    @Override
+    public R apply(final T t, final U u) throws Exception {
+        return memoized.apply(new Pair<>(t, u));
+    }
+
+    /**
+     * Returns the number of calls which found their arguments in the cache, including calls which waited for another
+     * thread to compute the value.
+     *
+     * @return the number of calls which found their arguments in the cache
+     */
+    public long getHitCount() {
+        return memoized.getHitCount();
+    }
+
+    /**
+     * Returns the number of calls which did not find their arguments in the cache and called the underlying function.
+     *
+     * @return the number of calls which did not find their arguments in the cache
+     */
+    public long getMissCount() {
+        return memoized.getMissCount();
+    }
+
+    /**
+     * Returns the number of entries which have been evicted to keep the cache within its maximum size.
+     *
+     * @return the number of entries which have been evicted
+     */
+    public long getEvictionCount() {
+        return memoized.getEvictionCount();
+    }
+
+    /**
+     * Returns the number of entries currently in the cache.
+     *
+     * @return the number of entries currently in the cache
+     */
+    public int size() {
+        return memoized.size();
+    }
+
+    private static final class Pair<T, U> {
+
+        private final T first;
+        private final U second;
+
+        private Pair(final T first, final U second) {
+            this.first  = first;
+            this.second = second;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj)
+                return true;
+
+            if (!(obj instanceof Pair))
+                return false;
+
+            final Pair<?, ?> other = (Pair<?, ?>) obj;
+
+            return Objects.equals(first, other.first) && Objects.equals(second, other.second);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(first) + Objects.hashCode(second);
+        }
+
+    }
+
+}
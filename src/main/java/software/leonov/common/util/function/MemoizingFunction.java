@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link CheckedFunction} which caches up to a fixed number of results of an underlying function.
+ * <p>
+ * Lookups are lock-free: a hit is a {@code ConcurrentHashMap} read, a volatile write of the entry's reference bit (only
+ * if it is not already set), and a volatile read of the value. Concurrent misses for the same key call the underlying
+ * function once; the other callers wait for that call and share its outcome. Exceptions are never cached, the next call
+ * for the same key tries again.
+ * <p>
+ * When the cache grows beyond its maximum size, entries are evicted with the CLOCK (second chance) policy, an
+ * approximation of least-recently-used eviction which does not reorder anything on a hit: entries are queued in
+ * insertion order, an entry which has been read since it was last examined is given another pass, and the first one
+ * which has not is evicted. Eviction runs on the thread which inserted the excess entry, under a lock which is never
+ * taken by lookups.
+ * <p>
+ * Instances are created by {@link CheckedFunction#memoize(CheckedFunction, int)}.
+ *
+ * @param <T> the type of the input to the function
+ * @param <R> the type of the result of the function
+ * @author Zhenya Leonov
+ */
+public final class MemoizingFunction<T, R> implements CheckedFunction<T, R> {
+
+    private static final Object NULL = new Object(); // stands in for a null key
+
+    private final CheckedFunction<? super T, ? extends R> function;
+    private final int                                     maxSize;
+
+    private final ConcurrentHashMap<Object, Entry<R>> map   = new ConcurrentHashMap<>();
+    private final Queue<Entry<R>>                     clock = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger                       size  = new AtomicInteger();
+    private final AtomicInteger                       stale = new AtomicInteger(); // failed entries left in the clock
+    private final ReentrantLock                       lock  = new ReentrantLock();
+
+    private final LongAdder hits      = new LongAdder();
+    private final LongAdder misses    = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    MemoizingFunction(final CheckedFunction<? super T, ? extends R> function, final int maxSize) {
+        if (maxSize <= 0)
+            throw new IllegalArgumentException("maxSize <= 0");
+
+        this.function = function;
+        this.maxSize  = maxSize;
+    }
+
+    @Override
+    public R apply(final T t) throws Exception {
+        final Object key   = t == null ? NULL : t;
+        Entry<R>     entry = map.get(key);
+
+        if (entry != null) {
+            hits.increment();
+            if (!entry.referenced)
+                entry.referenced = true;
+        } else {
+            final Entry<R> created = new Entry<>(key, () -> function.apply(t));
+            entry = map.putIfAbsent(key, created);
+
+            if (entry != null)
+                hits.increment();
+            else {
+                misses.increment();
+                entry = created;
+                clock.add(entry);
+                if (size.incrementAndGet() > maxSize)
+                    evict();
+            }
+        }
+
+        try {
+            return entry.get();
+        } catch (final Throwable e) {
+            if (map.remove(key, entry)) {
+                size.decrementAndGet();
+                if (stale.incrementAndGet() > maxSize)
+                    sweep();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of calls which found their key in the cache, including calls which waited for another thread to
+     * compute the value.
+     *
+     * @return the number of calls which found their key in the cache
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of calls which did not find their key in the cache and called the underlying function.
+     *
+     * @return the number of calls which did not find their key in the cache
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of entries which have been evicted to keep the cache within its maximum size.
+     *
+     * @return the number of entries which have been evicted
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the number of entries currently in the cache.
+     *
+     * @return the number of entries currently in the cache
+     */
+    public int size() {
+        return size.get();
+    }
+
+    private void evict() {
+        lock.lock();
+        try {
+            while (size.get() > maxSize) {
+                final Entry<R> entry = clock.poll();
+
+                if (entry == null)
+                    return;
+
+                if (map.get(entry.key) != entry) { // already removed after a failure
+                    stale.decrementAndGet();
+                    continue;
+                }
+
+                if (entry.referenced) {
+                    entry.referenced = false;
+                    clock.add(entry);
+                } else if (map.remove(entry.key, entry)) {
+                    size.decrementAndGet();
+                    evictions.increment();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Unlinks the entries which were removed after a failure from the clock, so that a cache which stays within its
+     * maximum size while keys keep failing does not accumulate them.
+     */
+    private void sweep() {
+        lock.lock();
+        try {
+            if (stale.get() <= maxSize) // another thread has swept
+                return;
+
+            int removed = 0;
+            for (final Iterator<Entry<R>> itor = clock.iterator(); itor.hasNext();) {
+                final Entry<R> entry = itor.next();
+                if (map.get(entry.key) != entry) {
+                    itor.remove();
+                    removed++;
+                }
+            }
+            stale.addAndGet(-removed);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // for testing
+    int clockSize() {
+        return clock.size();
+    }
+
+    private static final class Entry<R> extends MemoizingSupplier<R> {
+
+        private final Object key;
+
+        private volatile boolean referenced;
+
+        private Entry(final Object key, final CheckedSupplier<? extends R> supplier) {
+            super(supplier);
+            this.key = key;
+        }
+
+    }
+
+}
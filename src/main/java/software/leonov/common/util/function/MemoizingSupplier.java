@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@link CheckedSupplier} which computes its value at most once.
+ * <p>
+ * The state is {@code null} until a thread claims the computation by installing a {@link Computation} with a CAS. Other
+ * threads which arrive while the computation is running wait for it and share its outcome. On success the state is
+ * replaced by a {@link Value}, after which every call is a single volatile read. On failure the state is reset to
+ * {@code null}, so the exception is rethrown to the threads which were waiting and the next call tries again.
+ */
+class MemoizingSupplier<T> implements CheckedSupplier<T> {
+
+    private final CheckedSupplier<? extends T> supplier;
+    private final AtomicReference<Object>      state = new AtomicReference<>(); // null, Computation, or Value
+
+    MemoizingSupplier(final CheckedSupplier<? extends T> supplier) {
+        this.supplier = supplier;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get() throws Exception {
+        final Object state = this.state.get();
+        return state instanceof Value ? ((Value<T>) state).value : compute();
+    }
+
+    @SuppressWarnings("unchecked")
+    private T compute() throws Exception {
+        for (;;) {
+            final Object state = this.state.get();
+
+            if (state instanceof Value)
+                return ((Value<T>) state).value;
+
+            if (state != null)
+                return ((Computation<T>) state).await();
+
+            final Computation<T> computation = new Computation<>();
+            if (this.state.compareAndSet(null, computation)) {
+                try {
+                    final T value = supplier.get();
+                    this.state.set(new Value<>(value));
+                    computation.complete(value, null);
+                    return value;
+                } catch (final Throwable t) {
+                    this.state.set(null);
+                    computation.complete(null, t);
+                    throw t;
+                }
+            }
+        }
+    }
+
+    private static final class Value<T> {
+
+        private final T value;
+
+        private Value(final T value) {
+            this.value = value;
+        }
+
+    }
+
+    private static final class Computation<T> {
+
+        private final Thread         owner = Thread.currentThread();
+        private final CountDownLatch done  = new CountDownLatch(1);
+
+        private T         value;   // safely published by the latch
+        private Throwable failure; // safely published by the latch
+
+        private void complete(final T value, final Throwable failure) {
+            this.value   = value;
+            this.failure = failure;
+            done.countDown();
+        }
+
+        private T await() throws Exception {
+            if (owner == Thread.currentThread())
+                throw new IllegalStateException("recursive call to a memoized supplier");
+
+            done.await();
+
+            if (failure instanceof Exception)
+                throw (Exception) failure;
+            else if (failure != null)
+                throw (Error) failure;
+            else
+                return value;
+        }
+
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Merges already sorted iterators with a loser tree (tournament tree), using about {@code log2(k)} comparisons per
+ * element for {@code k} iterators.
+ * <p>
+ * Internal node {@code t} of the tree records the index of the iterator which lost the match played at that node, and
+ * {@code tree[0]} records the overall winner. The leaves, one per iterator, are implicit at positions {@code k} to
+ * {@code 2k - 1}. Exhausted iterators lose to everything and ties go to the iterator with the lower index, which makes
+ * the merge stable.
+ * <p>
+ * Iterators are read lazily: only the current head of each iterator is held, and an iterator is only advanced when the
+ * element that was taken from it has been returned and another element is requested.
+ */
+class MergingIterator<T> implements CheckedIterator<T> {
+
+    private final CheckedIterator<? extends T>[] iterators;
+    private final CheckedComparator<? super T>   comparator;
+    private final Object[]                       heads;
+    private final boolean[]                      exhausted;
+    private final int[]                          tree;
+    private final int                            k;
+
+    private boolean initialized = false;
+    private int     pending     = -1; // the iterator whose head was just returned, if any
+
+    MergingIterator(final CheckedIterator<? extends T>[] iterators, final CheckedComparator<? super T> comparator) {
+        this.iterators  = iterators;
+        this.comparator = comparator;
+        this.k          = iterators.length;
+        this.heads      = new Object[k];
+        this.exhausted  = new boolean[k];
+        this.tree       = new int[Math.max(k, 1)];
+    }
+
+    @Override
+    public boolean hasNext() throws Exception {
+        if (!initialized) {
+            if (k == 0)
+                return false;
+
+            Arrays.fill(tree, -1);
+            for (int i = 0; i < k; i++) {
+                advance(i);
+                replay(i);
+            }
+            initialized = true;
+        } else if (pending >= 0) {
+            advance(pending);
+            replay(pending);
+            pending = -1;
+        }
+        return !exhausted[tree[0]];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() throws Exception {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        final int winner = tree[0];
+        final T   next   = (T) heads[winner];
+        heads[winner] = null;
+        pending       = winner;
+        return next;
+    }
+
+    private void advance(final int i) throws Exception {
+        if (iterators[i].hasNext())
+            heads[i] = iterators[i].next();
+        else
+            exhausted[i] = true;
+    }
+
+    /*
+     * Plays the matches on the path from leaf i to the root. During initialization a node which has not been visited yet
+     * (-1) holds the first arrival until its other subtree produces a winner.
+     */
+    private void replay(final int i) throws Exception {
+        int winner = i;
+        for (int t = (i + k) >>> 1; t > 0; t >>>= 1) {
+            if (tree[t] == -1) {
+                tree[t] = winner;
+                return;
+            }
+            if (beats(tree[t], winner)) {
+                final int loser = winner;
+                winner  = tree[t];
+                tree[t] = loser;
+            }
+        }
+        tree[0] = winner;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean beats(final int a, final int b) throws Exception {
+        if (exhausted[a])
+            return false;
+        if (exhausted[b])
+            return true;
+        final int c = comparator.compare((T) heads[a], (T) heads[b]);
+        return c < 0 || c == 0 && a < b;
+    }
+
+}
@@ -25,12 +25,12 @@ class Nulls<T> implements CheckedComparator<T>, Serializable {
     private final boolean              nullsFirst;
     private final CheckedComparator<T> comparator; // can be null
 
-    static <T> Nulls<T> first(final CheckedComparator<? super T> comparator) {
-        return new Nulls<>(true, comparator);
+    static <T> CheckedComparator<T> first(final CheckedComparator<? super T> comparator) {
+        return comparator instanceof CompoundOrdering ? CompoundOrdering.nulls(true, comparator) : new Nulls<>(true, comparator);
     }
 
-    static <T> Nulls<T> last(final CheckedComparator<? super T> comparator) {
-        return new Nulls<>(false, comparator);
+    static <T> CheckedComparator<T> last(final CheckedComparator<? super T> comparator) {
+        return comparator instanceof CompoundOrdering ? CompoundOrdering.nulls(false, comparator) : new Nulls<>(false, comparator);
     }
 
     @SuppressWarnings("unchecked")
@@ -66,7 +66,15 @@ class Nulls<T> implements CheckedComparator<T>, Serializable {
     @Override
     public CheckedComparator<T> thenComparing(final CheckedComparator<? super T> other) {
         Objects.requireNonNull(other, "other == null");
-        return new Nulls<>(nullsFirst, comparator == null ? other : comparator.thenComparing(other));
+        return CompoundOrdering.nulls(nullsFirst, comparator == null ? other : comparator.thenComparing(other));
+    }
+
+    boolean nullsFirst() {
+        return nullsFirst;
+    }
+
+    CheckedComparator<T> comparator() {
+        return comparator;
     }
 
     @Override
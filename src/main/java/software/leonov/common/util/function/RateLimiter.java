@@ -0,0 +1,222 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A lock-free token bucket rate limiter which limits the rate of calls to a dependency, for example from the workers of
+ * a parallel stream.
+ * <p>
+ * The bucket holds up to {@code permitsPerPeriod} tokens and is refilled continuously at a rate of
+ * {@code permitsPerPeriod} tokens per period, so bursts of up to {@code permitsPerPeriod} calls are allowed after an
+ * idle period while the long-term rate never exceeds it. Rather than a token count and a refill timestamp, the bucket
+ * is stored as a single {@code System.nanoTime()} timestamp, the time at which the bucket will be full again, which is
+ * advanced by the refill interval of one token with a compare-and-set for every call, so refilling takes no timer, no
+ * lock, and no allocation.
+ * <p>
+ * When no token is available a call either reserves the next one and sleeps, parked, until it is due, optionally only
+ * if it is due within a maximum wait, or in fail-fast mode is rejected immediately. A rejected call throws the rate
+ * limiter's preallocated {@link RateLimitExceededException} without calling the underlying function and without taking
+ * a token. The same instance, without a stack trace, is thrown for every rejected call, so it must not be kept and
+ * suppressed exceptions cannot be added to it.
+ * <p>
+ * Calls are protected with {@link #call(CheckedSupplier)}, or with the decorators
+ * {@link CheckedSupplier#withRateLimiter(CheckedSupplier, RateLimiter)},
+ * {@link CheckedRunnable#withRateLimiter(CheckedRunnable, RateLimiter)},
+ * {@link CheckedFunction#withRateLimiter(CheckedFunction, RateLimiter)}, and
+ * {@link CheckedConsumer#withRateLimiter(CheckedConsumer, RateLimiter)}. A single rate limiter can protect any number
+ * of functions which share a dependency.
+ *
+ * @author Zhenya Leonov
+ */
+public final class RateLimiter {
+
+    private final int  permitsPerPeriod;
+    private final long intervalNanos;  // the time it takes to refill one token
+    private final long toleranceNanos; // how far ahead of now the full timestamp may be for a call to proceed at once
+    private final long maxWaitNanos;   // 0 in fail-fast mode, Long.MAX_VALUE to wait indefinitely
+
+    private final RateLimitExceededException rejection = new RateLimitExceededException();
+    private final AtomicLong                 full      = new AtomicLong(System.nanoTime());
+    private final AtomicInteger              waiting   = new AtomicInteger();
+    private final LongAdder                  rejected  = new LongAdder();
+
+    private RateLimiter(final int permitsPerPeriod, final long periodNanos, final long maxWaitNanos) {
+        this.permitsPerPeriod = permitsPerPeriod;
+        this.intervalNanos    = Math.max(periodNanos / permitsPerPeriod, 1);
+        this.toleranceNanos   = intervalNanos * (permitsPerPeriod - 1);
+        this.maxWaitNanos     = maxWaitNanos;
+    }
+
+    /**
+     * Returns a new rate limiter which allows {@code permitsPerPeriod} calls per {@code period}, where further calls wait
+     * for as long as it takes for their token to be refilled.
+     *
+     * @param permitsPerPeriod the number of calls allowed per period, which is also the size of the bucket
+     * @param period           the period
+     * @param unit             the time unit of {@code period}
+     * @return a new rate limiter
+     * @throws IllegalArgumentException if {@code permitsPerPeriod} or {@code period} is not positive
+     */
+    public static RateLimiter of(final int permitsPerPeriod, final long period, final TimeUnit unit) {
+        return of(permitsPerPeriod, period, Long.MAX_VALUE, unit);
+    }
+
+    /**
+     * Returns a new rate limiter which allows {@code permitsPerPeriod} calls per {@code period}, where further calls wait
+     * for their token to be refilled if it is refilled within {@code maxWait}, and are rejected with a
+     * {@code RateLimitExceededException} otherwise.
+     *
+     * @param permitsPerPeriod the number of calls allowed per period, which is also the size of the bucket
+     * @param period           the period
+     * @param maxWait          the maximum time to wait for a token
+     * @param unit             the time unit of {@code period} and {@code maxWait}
+     * @return a new rate limiter
+     * @throws IllegalArgumentException if {@code permitsPerPeriod} or {@code period} is not positive, or
+     *                                  {@code maxWait} is negative
+     */
+    public static RateLimiter of(final int permitsPerPeriod, final long period, final long maxWait, final TimeUnit unit) {
+        Objects.requireNonNull(unit, "unit == null");
+
+        if (permitsPerPeriod <= 0)
+            throw new IllegalArgumentException("permitsPerPeriod <= 0");
+        if (period <= 0)
+            throw new IllegalArgumentException("period <= 0");
+        if (maxWait < 0)
+            throw new IllegalArgumentException("maxWait < 0");
+
+        return new RateLimiter(permitsPerPeriod, unit.toNanos(period), unit.toNanos(maxWait));
+    }
+
+    /**
+     * Returns a new fail-fast rate limiter which allows {@code permitsPerPeriod} calls per {@code period}, and rejects
+     * further calls immediately with a {@code RateLimitExceededException}. A fail-fast rate limiter never blocks the
+     * caller.
+     *
+     * @param permitsPerPeriod the number of calls allowed per period, which is also the size of the bucket
+     * @param period           the period
+     * @param unit             the time unit of {@code period}
+     * @return a new fail-fast rate limiter
+     * @throws IllegalArgumentException if {@code permitsPerPeriod} or {@code period} is not positive
+     */
+    public static RateLimiter failFast(final int permitsPerPeriod, final long period, final TimeUnit unit) {
+        return of(permitsPerPeriod, period, 0, unit);
+    }
+
+    /**
+     * Calls the specified supplier once this rate limiter has a token for it and returns its value.
+     *
+     * @param <T>      the type of the value
+     * @param supplier the supplier to call
+     * @return the value returned by the supplier
+     * @throws RateLimitExceededException if this rate limiter rejects the call
+     * @throws InterruptedException       if the calling thread is interrupted while waiting for a token
+     * @throws Exception                  the exception thrown by the supplier
+     */
+    public <T> T call(final CheckedSupplier<? extends T> supplier) throws Exception {
+        Objects.requireNonNull(supplier, "supplier == null");
+
+        acquire();
+        return supplier.get();
+    }
+
+    /**
+     * Returns the number of calls allowed per period, which is also the size of the bucket.
+     *
+     * @return the number of calls allowed per period
+     */
+    public int getPermitsPerPeriod() {
+        return permitsPerPeriod;
+    }
+
+    /**
+     * Returns the number of tokens which are currently in the bucket, that is the number of calls which would be allowed
+     * to proceed without waiting.
+     *
+     * @return the number of tokens currently in the bucket
+     */
+    public int getAvailablePermits() {
+        final long now = System.nanoTime();
+        return (int) Math.max((toleranceNanos + intervalNanos - Math.max(full.get() - now, 0)) / intervalNanos, 0);
+    }
+
+    /**
+     * Returns the number of calls which are currently waiting for their token.
+     *
+     * @return the number of waiting calls
+     */
+    public int getWaitingCount() {
+        return waiting.get();
+    }
+
+    /**
+     * Returns the number of calls rejected with a {@code RateLimitExceededException}.
+     *
+     * @return the number of rejected calls
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /*
+     * Takes a token, reserving the next one and waiting for it if necessary, or throws the preallocated rejection.
+     */
+    void acquire() throws InterruptedException {
+        while (true) {
+            final long now     = System.nanoTime();
+            final long current = full.get();
+            final long start   = current - now > 0 ? current : now; // an idle bucket is capped at its size
+            final long wait    = start - now - toleranceNanos;
+
+            if (wait > maxWaitNanos) {
+                rejected.increment();
+                throw rejection;
+            }
+
+            if (full.compareAndSet(current, start + intervalNanos)) {
+                if (wait > 0)
+                    await(now + wait, start + intervalNanos);
+                return;
+            }
+        }
+    }
+
+    /*
+     * Sleeps until the reserved token is due. If interrupted the token is returned, unless a later call has already
+     * reserved the one after it.
+     */
+    private void await(final long due, final long next) throws InterruptedException {
+        waiting.incrementAndGet();
+        try {
+            for (long remaining = due - System.nanoTime(); remaining > 0; remaining = due - System.nanoTime()) {
+                LockSupport.parkNanos(this, remaining);
+                if (Thread.interrupted()) {
+                    full.compareAndSet(next, next - intervalNanos);
+                    throw new InterruptedException();
+                }
+            }
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+}
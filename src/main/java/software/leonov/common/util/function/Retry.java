@@ -0,0 +1,348 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An immutable policy for retrying checked calls which throw an exception, with exponential backoff, jitter, and an
+ * optional total deadline.
+ * <p>
+ * A policy is created with {@link #withMaxAttempts(int)} and refined with the {@code with} and {@code retry} methods,
+ * each of which returns a new policy:
+ *
+ * <pre>{@code
+ * Retry retry = Retry.withMaxAttempts(5)
+ *                    .withBackoff(10, 1000, TimeUnit.MILLISECONDS)
+ *                    .withJitter(0.5)
+ *                    .withDeadline(3, TimeUnit.SECONDS)
+ *                    .retryOn(IOException.class);
+ *
+ * CheckedSupplier<String> reader = CheckedSupplier.retry(() -> read(path), retry);
+ * }</pre>
+ * <p>
+ * After a failed attempt the exception is classified with the {@link #retryIf(CheckedPredicate) retry predicate}. If it
+ * is not retryable, the attempts are exhausted, or the next attempt would start after the deadline, the exception is
+ * rethrown as is. Otherwise the calling thread sleeps for the backoff delay, which starts at the initial delay and is
+ * multiplied after every attempt up to the maximum delay, and is then reduced by a random fraction of up to the jitter
+ * so that concurrent callers do not retry in lockstep. The deadline is measured from the start of the first attempt. An
+ * {@code InterruptedException} thrown by an attempt is never retried, whatever the predicate, since it has already
+ * cleared the interrupt status of the thread, and is rethrown as is.
+ * <p>
+ * The synchronous path allocates nothing unless an attempt fails. {@link #callAsync(CheckedSupplier,
+ * ScheduledExecutorService)} schedules attempts on a {@code ScheduledExecutorService} instead of sleeping, so no thread
+ * is blocked between attempts.
+ *
+ * @author Zhenya Leonov
+ */
+public final class Retry {
+
+    private static final CheckedPredicate<Exception> ALWAYS = e -> true;
+
+    private final int                                 maxAttempts;
+    private final long                                initialDelayNanos;
+    private final long                                maxDelayNanos;
+    private final double                              multiplier;
+    private final double                              jitter;
+    private final long                                deadlineNanos; // 0 if there is no deadline
+    private final CheckedPredicate<? super Exception> retryIf;
+
+    private Retry(final int maxAttempts, final long initialDelayNanos, final long maxDelayNanos, final double multiplier, final double jitter, final long deadlineNanos, final CheckedPredicate<? super Exception> retryIf) {
+        this.maxAttempts       = maxAttempts;
+        this.initialDelayNanos = initialDelayNanos;
+        this.maxDelayNanos     = maxDelayNanos;
+        this.multiplier        = multiplier;
+        this.jitter            = jitter;
+        this.deadlineNanos     = deadlineNanos;
+        this.retryIf           = retryIf;
+    }
+
+    /**
+     * Returns a policy which makes at most {@code maxAttempts} attempts, retrying immediately after any exception, with no
+     * deadline.
+     *
+     * @param maxAttempts the maximum number of attempts, including the first
+     * @return a policy which makes at most {@code maxAttempts} attempts
+     * @throws IllegalArgumentException if {@code maxAttempts} is not positive
+     */
+    public static Retry withMaxAttempts(final int maxAttempts) {
+        if (maxAttempts <= 0)
+            throw new IllegalArgumentException("maxAttempts <= 0");
+        return new Retry(maxAttempts, 0, 0, 2, 0, 0, ALWAYS);
+    }
+
+    /**
+     * Returns a copy of this policy whose backoff delay starts at {@code initialDelay} and doubles after every attempt up
+     * to {@code maxDelay}.
+     *
+     * @param initialDelay the delay before the second attempt
+     * @param maxDelay     the maximum delay between attempts
+     * @param unit         the time unit of {@code initialDelay} and {@code maxDelay}
+     * @return a copy of this policy with the specified backoff
+     * @throws IllegalArgumentException if {@code initialDelay} is negative or {@code maxDelay < initialDelay}
+     */
+    public Retry withBackoff(final long initialDelay, final long maxDelay, final TimeUnit unit) {
+        return withBackoff(initialDelay, maxDelay, unit, 2);
+    }
+
+    /**
+     * Returns a copy of this policy whose backoff delay starts at {@code initialDelay} and is multiplied by
+     * {@code multiplier} after every attempt up to {@code maxDelay}.
+     *
+     * @param initialDelay the delay before the second attempt
+     * @param maxDelay     the maximum delay between attempts
+     * @param unit         the time unit of {@code initialDelay} and {@code maxDelay}
+     * @param multiplier   the factor by which the delay grows after every attempt
+     * @return a copy of this policy with the specified backoff
+     * @throws IllegalArgumentException if {@code initialDelay} is negative, {@code maxDelay < initialDelay}, or
+     *                                  {@code multiplier < 1}
+     */
+    public Retry withBackoff(final long initialDelay, final long maxDelay, final TimeUnit unit, final double multiplier) {
+        Objects.requireNonNull(unit, "unit == null");
+
+        if (initialDelay < 0)
+            throw new IllegalArgumentException("initialDelay < 0");
+        if (maxDelay < initialDelay)
+            throw new IllegalArgumentException("maxDelay < initialDelay");
+        if (!(multiplier >= 1))
+            throw new IllegalArgumentException("multiplier < 1");
+
+        return new Retry(maxAttempts, unit.toNanos(initialDelay), unit.toNanos(maxDelay), multiplier, jitter, deadlineNanos, retryIf);
+    }
+
+    /**
+     * Returns a copy of this policy which reduces every backoff delay by a random fraction of at most {@code jitter}.
+     *
+     * @param jitter the maximum fraction of the delay to subtract, between {@code 0} and {@code 1}
+     * @return a copy of this policy with the specified jitter
+     * @throws IllegalArgumentException if {@code jitter} is not between {@code 0} and {@code 1}
+     */
+    public Retry withJitter(final double jitter) {
+        if (!(jitter >= 0 && jitter <= 1))
+            throw new IllegalArgumentException("jitter not in [0, 1]");
+        return new Retry(maxAttempts, initialDelayNanos, maxDelayNanos, multiplier, jitter, deadlineNanos, retryIf);
+    }
+
+    /**
+     * Returns a copy of this policy which makes no attempt which would start later than {@code deadline} after the first
+     * attempt started.
+     *
+     * @param deadline the total time allowed for all attempts
+     * @param unit     the time unit of {@code deadline}
+     * @return a copy of this policy with the specified deadline
+     * @throws IllegalArgumentException if {@code deadline} is not positive
+     */
+    public Retry withDeadline(final long deadline, final TimeUnit unit) {
+        Objects.requireNonNull(unit, "unit == null");
+        if (deadline <= 0)
+            throw new IllegalArgumentException("deadline <= 0");
+        return new Retry(maxAttempts, initialDelayNanos, maxDelayNanos, multiplier, jitter, unit.toNanos(deadline), retryIf);
+    }
+
+    /**
+     * Returns a copy of this policy which retries only exceptions accepted by the specified predicate. An exception thrown
+     * by the predicate is thrown in place of the exception being classified.
+     *
+     * @param predicate the predicate which decides whether an exception is retryable
+     * @return a copy of this policy with the specified retry predicate
+     */
+    public Retry retryIf(final CheckedPredicate<? super Exception> predicate) {
+        Objects.requireNonNull(predicate, "predicate == null");
+        return new Retry(maxAttempts, initialDelayNanos, maxDelayNanos, multiplier, jitter, deadlineNanos, predicate);
+    }
+
+    /**
+     * Returns a copy of this policy which retries only exceptions which are instances of any of the specified types.
+     *
+     * @param types the retryable exception types
+     * @return a copy of this policy which retries only exceptions of the specified types
+     */
+    @SafeVarargs
+    public final Retry retryOn(final Class<? extends Exception>... types) {
+        Objects.requireNonNull(types, "types == null");
+
+        final Class<?>[] copy = new Class<?>[types.length];
+        for (int i = 0; i < types.length; i++)
+            copy[i] = Objects.requireNonNull(types[i], "type == null");
+
+        return retryIf(e -> {
+            for (final Class<?> type : copy)
+                if (type.isInstance(e))
+                    return true;
+            return false;
+        });
+    }
+
+    /**
+     * Calls the specified supplier, retrying according to this policy, and returns its value, or rethrows the exception
+     * of the last attempt as is. If the calling thread is interrupted while waiting between attempts,
+     * {@code InterruptedException} is thrown.
+     *
+     * @param <T>      the type of the value
+     * @param supplier the supplier to call
+     * @return the value returned by the supplier
+     * @throws Exception the exception thrown by the last attempt
+     */
+    public <T> T call(final CheckedSupplier<? extends T> supplier) throws Exception {
+        Objects.requireNonNull(supplier, "supplier == null");
+
+        final long start = start();
+        try {
+            return supplier.get();
+        } catch (final Exception e) {
+            return retry(start, e, supplier);
+        }
+    }
+
+    /**
+     * Returns a new {@code CompletableFuture} which is completed with the value of the specified supplier, called on the
+     * specified {@code ScheduledExecutorService} and retried according to this policy. Each retry is scheduled after the
+     * backoff delay, so no thread waits between attempts.
+     * <p>
+     * If the attempts are exhausted the future is completed exceptionally with the exception of the last attempt, not
+     * wrapped in a {@code CompletionException}. Cancelling the future prevents further attempts. If the executor rejects
+     * a retry, the future is completed exceptionally with the exception of the last attempt, with the
+     * {@code RejectedExecutionException} attached as a suppressed exception.
+     *
+     * @param <T>       the type of the value
+     * @param supplier  the supplier to call
+     * @param scheduler the executor which runs and schedules the attempts
+     * @return a new {@code CompletableFuture}
+     */
+    public <T> CompletableFuture<T> callAsync(final CheckedSupplier<? extends T> supplier, final ScheduledExecutorService scheduler) {
+        Objects.requireNonNull(supplier, "supplier == null");
+        Objects.requireNonNull(scheduler, "scheduler == null");
+
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        scheduler.execute(new AsyncAttempt<>(supplier, scheduler, future));
+        return future;
+    }
+
+    /*
+     * Returns the start time of a call, which is only needed if there is a deadline.
+     */
+    long start() {
+        return deadlineNanos == 0 ? 0 : System.nanoTime();
+    }
+
+    /*
+     * Makes the remaining attempts of a call whose first attempt threw the specified exception.
+     */
+    <T> T retry(final long start, final Exception first, final CheckedSupplier<? extends T> supplier) throws Exception {
+        Exception failure = first;
+
+        for (int attempts = 1;; attempts++) {
+            final long delay = delay(start, attempts, failure);
+
+            if (delay < 0)
+                throw failure;
+            if (delay > 0)
+                TimeUnit.NANOSECONDS.sleep(delay);
+
+            try {
+                return supplier.get();
+            } catch (final Exception e) {
+                failure = e;
+            }
+        }
+    }
+
+    /*
+     * Returns the delay before the next attempt after the specified number of attempts, the last of which threw the
+     * specified exception, or -1 if there should be no further attempt.
+     */
+    private long delay(final long start, final int attempts, final Exception failure) throws Exception {
+        if (attempts >= maxAttempts || failure instanceof InterruptedException || !retryIf.test(failure))
+            return -1;
+
+        long delay = initialDelayNanos;
+
+        if (delay > 0) {
+            final double backoff = delay * Math.pow(multiplier, attempts - 1);
+            delay = backoff >= maxDelayNanos ? maxDelayNanos : (long) backoff;
+
+            if (jitter > 0)
+                delay -= (long) (delay * jitter * ThreadLocalRandom.current().nextDouble());
+        }
+
+        if (deadlineNanos != 0 && System.nanoTime() - start + delay >= deadlineNanos)
+            return -1;
+
+        return delay;
+    }
+
+    /*
+     * One attempt of an asynchronous call, which schedules itself again after a retryable failure.
+     */
+    private final class AsyncAttempt<T> implements Runnable {
+
+        private final CheckedSupplier<? extends T> supplier;
+        private final ScheduledExecutorService     scheduler;
+        private final CompletableFuture<T>         future;
+        private final long                         start = System.nanoTime();
+
+        private int attempts;
+
+        private AsyncAttempt(final CheckedSupplier<? extends T> supplier, final ScheduledExecutorService scheduler, final CompletableFuture<T> future) {
+            this.supplier  = supplier;
+            this.scheduler = scheduler;
+            this.future    = future;
+        }
+
+        @Override
+        public void run() {
+            if (future.isDone())
+                return;
+
+            try {
+                future.complete(supplier.get());
+            } catch (final Exception e) {
+                retry(e);
+            } catch (final Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }
+
+        private void retry(final Exception failure) {
+            final long delay;
+            try {
+                delay = delay(start, ++attempts, failure);
+            } catch (final Throwable t) {
+                future.completeExceptionally(t);
+                return;
+            }
+
+            if (delay < 0) {
+                future.completeExceptionally(failure);
+                return;
+            }
+
+            try {
+                scheduler.schedule(this, delay, TimeUnit.NANOSECONDS);
+            } catch (final RejectedExecutionException e) {
+                failure.addSuppressed(e);
+                future.completeExceptionally(failure);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collector;
+
+/**
+ * Static utility methods for selecting the least or greatest elements of arrays and streams with a
+ * {@link CheckedComparator}, without sorting all of the input.
+ * <p>
+ * Any exception thrown by a comparator is {@link Unchecked#exception(Exception) rethrown} as is, without being wrapped
+ * in a {@code RuntimeException}.
+ *
+ * @author Zhenya Leonov
+ */
+public final class Selection {
+
+    private Selection() {
+    }
+
+    /**
+     * Returns the {@code k} greatest elements of the specified array according to the specified comparator, in
+     * descending order.
+     * <p>
+     * The elements are selected with a bounded heap in {@code O(n log k)} time and {@code O(k)} space. Of several equal
+     * elements the one which appears first in the array is preferred. The array is not modified.
+     *
+     * @param <T>        the type of elements in the array
+     * @param array      the specified array
+     * @param k          the number of elements to return
+     * @param comparator the comparator which determines the order of the elements
+     * @return the {@code k} greatest elements of the specified array (or all of them if the array is shorter than
+     *         {@code k}), in descending order
+     * @throws IllegalArgumentException if {@code k} is negative
+     */
+    public static <T> List<T> topK(final T[] array, final int k, final CheckedComparator<? super T> comparator) {
+        Objects.requireNonNull(comparator, "comparator == null");
+        return bottomK(array, k, comparator.reversed());
+    }
+
+    /**
+     * Returns the {@code k} least elements of the specified array according to the specified comparator, in ascending
+     * order.
+     * <p>
+     * The elements are selected with a bounded heap in {@code O(n log k)} time and {@code O(k)} space. Of several equal
+     * elements the one which appears first in the array is preferred. The array is not modified.
+     *
+     * @param <T>        the type of elements in the array
+     * @param array      the specified array
+     * @param k          the number of elements to return
+     * @param comparator the comparator which determines the order of the elements
+     * @return the {@code k} least elements of the specified array (or all of them if the array is shorter than {@code k}),
+     *         in ascending order
+     * @throws IllegalArgumentException if {@code k} is negative
+     */
+    public static <T> List<T> bottomK(final T[] array, final int k, final CheckedComparator<? super T> comparator) {
+        Objects.requireNonNull(array, "array == null");
+        Objects.requireNonNull(comparator, "comparator == null");
+
+        final BoundedHeap<T> heap = new BoundedHeap<>(k, comparator);
+        for (final T element : array)
+            heap.offer(element);
+        return heap.toSortedList();
+    }
+
+    /**
+     * Returns a {@code Collector} which accumulates the {@code k} greatest input elements according to the specified
+     * comparator into a {@code List}, in descending order.
+     * <p>
+     * The collector retains at most {@code k} elements per accumulation, using {@code O(n log k)} time. Of several equal
+     * elements the one encountered first is preferred. There are no guarantees on the type or mutability of the returned
+     * {@code List}.
+     *
+     * @param <T>        the type of the input elements
+     * @param k          the number of elements to retain
+     * @param comparator the comparator which determines the order of the elements
+     * @return a {@code Collector} which accumulates the {@code k} greatest input elements into a {@code List}, in
+     *         descending order
+     * @throws IllegalArgumentException if {@code k} is negative
+     */
+    public static <T> Collector<T, ?, List<T>> toTopK(final int k, final CheckedComparator<? super T> comparator) {
+        Objects.requireNonNull(comparator, "comparator == null");
+        return toBottomK(k, comparator.reversed());
+    }
+
+    /**
+     * Returns a {@code Collector} which accumulates the {@code k} least input elements according to the specified
+     * comparator into a {@code List}, in ascending order.
+     * <p>
+     * The collector retains at most {@code k} elements per accumulation, using {@code O(n log k)} time. Of several equal
+     * elements the one encountered first is preferred. There are no guarantees on the type or mutability of the returned
+     * {@code List}.
+     *
+     * @param <T>        the type of the input elements
+     * @param k          the number of elements to retain
+     * @param comparator the comparator which determines the order of the elements
+     * @return a {@code Collector} which accumulates the {@code k} least input elements into a {@code List}, in ascending
+     *         order
+     * @throws IllegalArgumentException if {@code k} is negative
+     */
+    public static <T> Collector<T, ?, List<T>> toBottomK(final int k, final CheckedComparator<? super T> comparator) {
+        Objects.requireNonNull(comparator, "comparator == null");
+        checkK(k);
+        return Collector.<T, BoundedHeap<T>, List<T>>of(() -> new BoundedHeap<>(k, comparator), BoundedHeap::offer, BoundedHeap::combine, BoundedHeap::toSortedList);
+    }
+
+    /**
+     * Partially sorts the specified array so that the element at index {@code n} is the element which would be at that
+     * index if the whole array were sorted, every element before it is less than or equal to it, and every element after
+     * it is greater than or equal to it, according to the specified comparator.
+     * <p>
+     * This method uses introselect: a quickselect with three-way partitioning, which falls back to sorting the remaining
+     * range if partitioning is not making progress. It runs in {@code O(n)} expected time and {@code O(n log n)} worst case
+     * time. This method is not stable.
+     *
+     * @param <T>        the type of elements in the array
+     * @param array      the specified array
+     * @param n          the index of the element to select
+     * @param comparator the comparator which determines the order of the elements
+     * @return the element at index {@code n} after the array is partially sorted
+     * @throws IndexOutOfBoundsException if {@code n} is not a valid index of the array
+     */
+    public static <T> T nthElement(final T[] array, final int n, final CheckedComparator<? super T> comparator) {
+        Objects.requireNonNull(array, "array == null");
+        Objects.requireNonNull(comparator, "comparator == null");
+
+        if (n < 0 || n >= array.length)
+            throw new IndexOutOfBoundsException("n: " + n + ", length: " + array.length);
+
+        int low   = 0;
+        int high  = array.length - 1;
+        int depth = 2 * (Integer.SIZE - Integer.numberOfLeadingZeros(array.length));
+
+        try {
+            while (low < high) {
+                if (depth-- == 0) {
+                    Arrays.sort(array, low, high + 1, CheckedComparator.unchecked(comparator));
+                    break;
+                }
+
+                final T pivot = medianOf3(array[low], array[(low + high) >>> 1], array[high], comparator);
+
+                // [low, lt) < pivot, [lt, gt] == pivot, (gt, high] > pivot
+                int lt = low;
+                int gt = high;
+                for (int i = low; i <= gt;) {
+                    final int c = comparator.compare(array[i], pivot);
+                    if (c < 0)
+                        swap(array, lt++, i++);
+                    else if (c > 0)
+                        swap(array, i, gt--);
+                    else
+                        i++;
+                }
+
+                if (n < lt)
+                    high = lt - 1;
+                else if (n > gt)
+                    low = gt + 1;
+                else
+                    break;
+            }
+        } catch (final Exception e) {
+            throw Unchecked.exception(e);
+        }
+
+        return array[n];
+    }
+
+    private static <T> T medianOf3(final T a, final T b, final T c, final CheckedComparator<? super T> comparator) throws Exception {
+        if (comparator.compare(a, b) < 0) {
+            if (comparator.compare(b, c) < 0)
+                return b;
+            return comparator.compare(a, c) < 0 ? c : a;
+        } else {
+            if (comparator.compare(a, c) < 0)
+                return a;
+            return comparator.compare(b, c) < 0 ? c : b;
+        }
+    }
+
+    private static void swap(final Object[] array, final int i, final int j) {
+        final Object tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
+    private static void checkK(final int k) {
+        if (k < 0)
+            throw new IllegalArgumentException("k < 0");
+    }
+
+    /*
+     * Retains the k least elements offered so far in a binary max-heap whose root is the greatest retained element. Each
+     * element is stored with its encounter sequence number, which breaks ties so that of several equal elements the one
+     * offered first is considered the least. The backing arrays grow on demand so that a large k does not allocate up
+     * front.
+     */
+    private static final class BoundedHeap<T> {
+
+        private final int                          k;
+        private final CheckedComparator<? super T> comparator;
+
+        private Object[] heap;
+        private long[]   seqs;
+        private int      size;
+        private long     count;
+
+        private BoundedHeap(final int k, final CheckedComparator<? super T> comparator) {
+            checkK(k);
+            this.k          = k;
+            this.comparator = comparator;
+            this.heap       = new Object[Math.min(k, 16)];
+            this.seqs       = new long[heap.length];
+        }
+
+        private void offer(final T element) {
+            offer(element, count++);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void offer(final T element, final long seq) {
+            try {
+                if (size < k) {
+                    if (size == heap.length) {
+                        heap = Arrays.copyOf(heap, (int) Math.min(k, heap.length * 2L));
+                        seqs = Arrays.copyOf(seqs, heap.length);
+                    }
+                    int i = size++;
+                    while (i > 0) {
+                        final int parent = (i - 1) >>> 1;
+                        if (compare(element, seq, parent) < 0)
+                            break;
+                        heap[i] = heap[parent];
+                        seqs[i] = seqs[parent];
+                        i       = parent;
+                    }
+                    heap[i] = element;
+                    seqs[i] = seq;
+                } else if (k > 0 && compare(element, seq, 0) < 0)
+                    siftDown(element, seq, size);
+            } catch (final Exception e) {
+                throw Unchecked.exception(e);
+            }
+        }
+
+        /*
+         * Places the element at the root and moves it down until the first n slots form a heap again.
+         */
+        @SuppressWarnings("unchecked")
+        private void siftDown(final T element, final long seq, final int n) throws Exception {
+            int i = 0;
+            for (int child = 1; child < n; child = 2 * i + 1) {
+                if (child + 1 < n && compare((T) heap[child + 1], seqs[child + 1], child) > 0)
+                    child++;
+                if (compare(element, seq, child) > 0)
+                    break;
+                heap[i] = heap[child];
+                seqs[i] = seqs[child];
+                i       = child;
+            }
+            heap[i] = element;
+            seqs[i] = seq;
+        }
+
+        @SuppressWarnings("unchecked")
+        private int compare(final T element, final long seq, final int i) throws Exception {
+            final int c = comparator.compare(element, (T) heap[i]);
+            return c != 0 ? c : Long.compare(seq, seqs[i]);
+        }
+
+        @SuppressWarnings("unchecked")
+        private BoundedHeap<T> combine(final BoundedHeap<T> other) {
+            // the other elements were encountered after all of the elements of this heap
+            for (int i = 0; i < other.size; i++)
+                offer((T) other.heap[i], count + other.seqs[i]);
+            count += other.count;
+            return this;
+        }
+
+        /*
+         * Heapsorts the retained elements in place, this heap must not be used afterwards.
+         */
+        @SuppressWarnings("unchecked")
+        private List<T> toSortedList() {
+            try {
+                for (int n = size - 1; n > 0; n--) {
+                    final T    element = (T) heap[n];
+                    final long seq     = seqs[n];
+                    heap[n] = heap[0];
+                    seqs[n] = seqs[0];
+                    siftDown(element, seq, n);
+                }
+            } catch (final Exception e) {
+                throw Unchecked.exception(e);
+            }
+
+            final List<T> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++)
+                list.add((T) heap[i]);
+            return list;
+        }
+
+    }
+
+}
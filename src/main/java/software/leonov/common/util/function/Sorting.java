@@ -0,0 +1,535 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Static utility methods for sorting arrays and lists with {@link CheckedComparator}s and {@link CheckedFunction}s.
+ * <p>
+ * Unless otherwise noted, any exception thrown by a comparator or a key extractor is
+ * {@link Unchecked#exception(Exception) rethrown} as is, without being wrapped in a {@code RuntimeException}.
+ *
+ * @author Zhenya Leonov
+ */
+public final class Sorting {
+
+    private static final int INSERTIONSORT_THRESHOLD = 7;
+    private static final int RADIXSORT_THRESHOLD     = 64;
+    private static final int MIN_ARRAY_SORT_GRAN     = 1 << 13;
+
+    private Sorting() {
+    }
+
+    /**
+     * Sorts the specified array according to the order induced by the specified comparator.
+     * <p>
+     * If the comparator was built exclusively from {@link CheckedComparator#comparingInt(CheckedToIntFunction)
+     * comparingInt}, {@link CheckedComparator#comparingLong(CheckedToLongFunction) comparingLong},
+     * {@link CheckedComparator#comparingDouble(CheckedToDoubleFunction) comparingDouble}, their {@code thenComparing*}
+     * counterparts, and {@link CheckedComparator#reversed() reversed()}, the primitive keys are extracted once per element
+     * and the array is sorted with an LSD radix sort in linear time, without calling the comparator at all. Otherwise
+     * this method is equivalent to {@link Arrays#sort(Object[], java.util.Comparator)
+     * Arrays.sort(array, CheckedComparator.unchecked(comparator))}.
+     * <p>
+     * This sort is <i>stable</i>. If the radix sort is used and a key extractor throws an exception the array is not
+     * modified.
+     *
+     * @param <T>        the type of elements in the array
+     * @param array      the array to sort
+     * @param comparator the comparator which determines the order of the array
+     */
+    public static <T> void sort(final T[] array, final CheckedComparator<? super T> comparator) {
+        Objects.requireNonNull(array, "array == null");
+        Objects.requireNonNull(comparator, "comparator == null");
+
+        if (array.length >= RADIXSORT_THRESHOLD && comparator instanceof CompoundOrdering && ((CompoundOrdering<?>) comparator).isPrimitive()) {
+            final Object[] sorted = radixSort(array, (CompoundOrdering<?>) comparator);
+            System.arraycopy(sorted, 0, array, 0, sorted.length);
+        } else
+            Arrays.sort(array, CheckedComparator.unchecked(comparator));
+    }
+
+    /**
+     * Sorts the specified list according to the order induced by the specified comparator.
+     * <p>
+     * If the comparator was built exclusively from {@link CheckedComparator#comparingInt(CheckedToIntFunction)
+     * comparingInt}, {@link CheckedComparator#comparingLong(CheckedToLongFunction) comparingLong},
+     * {@link CheckedComparator#comparingDouble(CheckedToDoubleFunction) comparingDouble}, their {@code thenComparing*}
+     * counterparts, and {@link CheckedComparator#reversed() reversed()}, the primitive keys are extracted once per element
+     * and the list is sorted with an LSD radix sort in linear time, without calling the comparator at all. Otherwise this
+     * method is equivalent to {@link List#sort(java.util.Comparator) list.sort(CheckedComparator.unchecked(comparator))}.
+     * <p>
+     * This sort is <i>stable</i>. If the radix sort is used and a key extractor throws an exception the list is not
+     * modified.
+     *
+     * @param <T>        the type of elements in the list
+     * @param list       the list to sort
+     * @param comparator the comparator which determines the order of the list
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> void sort(final List<T> list, final CheckedComparator<? super T> comparator) {
+        Objects.requireNonNull(list, "list == null");
+        Objects.requireNonNull(comparator, "comparator == null");
+
+        if (list.size() >= RADIXSORT_THRESHOLD && comparator instanceof CompoundOrdering && ((CompoundOrdering<?>) comparator).isPrimitive()) {
+            final Object[]        sorted = radixSort(list.toArray(), (CompoundOrdering<?>) comparator);
+            final ListIterator<T> itor   = list.listIterator();
+            for (final Object element : sorted) {
+                itor.next();
+                itor.set((T) element);
+            }
+        } else
+            list.sort(CheckedComparator.unchecked(comparator));
+    }
+
+    /**
+     * Sorts the specified array according to the order induced by the specified comparator, using the
+     * {@link ForkJoinPool#commonPool() common pool} to sort in parallel.
+     * <p>
+     * Equivalent to {@link #parallelSort(Object[], CheckedComparator, ForkJoinPool) parallelSort(array, comparator,
+     * ForkJoinPool.commonPool())}.
+     *
+     * @param <T>        the type of elements in the array
+     * @param array      the array to sort
+     * @param comparator the comparator which determines the order of the array
+     */
+    public static <T> void parallelSort(final T[] array, final CheckedComparator<? super T> comparator) {
+        parallelSort(array, comparator, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts the specified array according to the order induced by the specified comparator, using the specified
+     * {@code ForkJoinPool} to sort in parallel.
+     * <p>
+     * Unlike {@link Arrays#parallelSort(Object[], java.util.Comparator) Arrays.parallelSort(array,
+     * CheckedComparator.unchecked(comparator))}, as soon as the comparator throws an exception in any of the sub-tasks all
+     * remaining sub-tasks stop sorting, and the original exception is {@link Unchecked#exception(Exception) rethrown} on
+     * the calling thread rather than a copy reconstructed by the {@code ForkJoinPool}. If the comparator throws an
+     * exception the order of the array is unspecified, but it still holds exactly the elements it held before.
+     * <p>
+     * This sort is <i>stable</i>. Arrays which are too small to benefit from parallelism are sorted sequentially on the
+     * calling thread.
+     *
+     * @param <T>        the type of elements in the array
+     * @param array      the array to sort
+     * @param comparator the comparator which determines the order of the array
+     * @param pool       the pool used to sort the array
+     */
+    public static <T> void parallelSort(final T[] array, final CheckedComparator<? super T> comparator, final ForkJoinPool pool) {
+        Objects.requireNonNull(array, "array == null");
+        Objects.requireNonNull(comparator, "comparator == null");
+        Objects.requireNonNull(pool, "pool == null");
+
+        final int n = array.length;
+        final int p = pool.getParallelism();
+
+        if (n <= MIN_ARRAY_SORT_GRAN || p == 1) { // Arrays.sort can lose elements if the comparator throws, sort a copy
+            final T[] copy = array.clone();
+            Arrays.sort(copy, CheckedComparator.unchecked(comparator));
+            System.arraycopy(copy, 0, array, 0, n);
+            return;
+        }
+
+        final CancellableComparator<? super T> cancellable = new CancellableComparator<>(comparator);
+        try {
+            pool.invoke(new ParallelMergeSort<>(array, array.clone(), 0, n, Math.max(n / (p << 2), MIN_ARRAY_SORT_GRAN), cancellable));
+        } catch (final RuntimeException e) {
+            if (!cancellable.isCancelled())
+                throw e;
+        }
+
+        // the pool may have rethrown a copy of the exception, or nothing at all if the failure was observed at a task boundary
+        if (cancellable.isCancelled())
+            throw Unchecked.exception(cancellable.failure.get());
+    }
+
+    /**
+     * Returns an iterator which merges the specified iterators, each of which must already be sorted according to the
+     * specified comparator, into a single sorted sequence.
+     * <p>
+     * The iterators are merged with a loser tree, which performs about {@code log2(k)} comparisons per element for
+     * {@code k} iterators. The iterators are read lazily and only the current head of each iterator is retained; an
+     * iterator is advanced only when its previous element has been returned and another element is requested. The merge is
+     * <i>stable</i>: equal elements are returned in the order of the iterators which produced them.
+     * <p>
+     * Exceptions thrown by the iterators or the comparator are relayed to the caller of the returned iterator as is. Use
+     * {@link CheckedIterator#unchecked(CheckedIterator)} to obtain a plain {@code Iterator}.
+     *
+     * @param <T>        the type of elements returned by the iterators
+     * @param iterators  the sorted iterators to merge
+     * @param comparator the comparator by which the iterators are sorted
+     * @return an iterator which merges the specified iterators into a single sorted sequence
+     */
+    public static <T> CheckedIterator<T> merge(final Collection<? extends CheckedIterator<? extends T>> iterators, final CheckedComparator<? super T> comparator) {
+        Objects.requireNonNull(iterators, "iterators == null");
+        Objects.requireNonNull(comparator, "comparator == null");
+
+        final CheckedIterator<? extends T>[] array = toArray(iterators);
+        for (final CheckedIterator<? extends T> iterator : array)
+            Objects.requireNonNull(iterator, "iterators contains null");
+
+        return new MergingIterator<>(array, comparator);
+    }
+
+    /**
+     * Sorts the specified array according to the <i>natural ordering</i> of the keys extracted by the specified function.
+     * <p>
+     * Unlike sorting with {@link CheckedComparator#comparing(CheckedFunction)}, which calls the function twice per
+     * comparison, the function is called exactly once per element and the results are cached for the duration of the
+     * sort. This sort is <i>stable</i>. If the function throws an exception the array is not modified.
+     *
+     * @param <T>      the type of elements in the array
+     * @param <K>      the type of the keys
+     * @param array    the array to sort
+     * @param function the function which extracts the sort key of each element
+     */
+    public static <T, K extends Comparable<? super K>> void sortByKey(final T[] array, final CheckedFunction<? super T, ? extends K> function) {
+        sortByKey(array, function, CheckedComparator.naturalOrder());
+    }
+
+    /**
+     * Sorts the specified array by comparing the keys extracted by the specified function with the specified comparator.
+     * <p>
+     * Unlike sorting with {@link CheckedComparator#comparing(CheckedFunction, CheckedComparator)}, which calls the
+     * function twice per comparison, the function is called exactly once per element and the results are cached for the
+     * duration of the sort. This sort is <i>stable</i>. If the function or the comparator throws an exception the array is
+     * not modified.
+     *
+     * @param <T>        the type of elements in the array
+     * @param <K>        the type of the keys
+     * @param array      the array to sort
+     * @param function   the function which extracts the sort key of each element
+     * @param comparator the comparator used to compare the keys
+     */
+    public static <T, K> void sortByKey(final T[] array, final CheckedFunction<? super T, ? extends K> function, final CheckedComparator<? super K> comparator) {
+        Objects.requireNonNull(array, "array == null");
+        Objects.requireNonNull(function, "function == null");
+        Objects.requireNonNull(comparator, "comparator == null");
+
+        final Object[] sorted = sortedByKey(array, function, comparator);
+        System.arraycopy(sorted, 0, array, 0, sorted.length);
+    }
+
+    /**
+     * Sorts the specified list according to the <i>natural ordering</i> of the keys extracted by the specified function.
+     * <p>
+     * Unlike sorting with {@link CheckedComparator#comparing(CheckedFunction)}, which calls the function twice per
+     * comparison, the function is called exactly once per element and the results are cached for the duration of the
+     * sort. This sort is <i>stable</i>. If the function throws an exception the list is not modified.
+     *
+     * @param <T>      the type of elements in the list
+     * @param <K>      the type of the keys
+     * @param list     the list to sort
+     * @param function the function which extracts the sort key of each element
+     */
+    public static <T, K extends Comparable<? super K>> void sortByKey(final List<T> list, final CheckedFunction<? super T, ? extends K> function) {
+        sortByKey(list, function, CheckedComparator.naturalOrder());
+    }
+
+    /**
+     * Sorts the specified list by comparing the keys extracted by the specified function with the specified comparator.
+     * <p>
+     * Unlike sorting with {@link CheckedComparator#comparing(CheckedFunction, CheckedComparator)}, which calls the
+     * function twice per comparison, the function is called exactly once per element and the results are cached for the
+     * duration of the sort. This sort is <i>stable</i>. If the function or the comparator throws an exception the list is
+     * not modified.
+     *
+     * @param <T>        the type of elements in the list
+     * @param <K>        the type of the keys
+     * @param list       the list to sort
+     * @param function   the function which extracts the sort key of each element
+     * @param comparator the comparator used to compare the keys
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, K> void sortByKey(final List<T> list, final CheckedFunction<? super T, ? extends K> function, final CheckedComparator<? super K> comparator) {
+        Objects.requireNonNull(list, "list == null");
+        Objects.requireNonNull(function, "function == null");
+        Objects.requireNonNull(comparator, "comparator == null");
+
+        final Object[]        sorted = sortedByKey(list.toArray(), function, comparator);
+        final ListIterator<T> itor   = list.listIterator();
+        for (final Object element : sorted) {
+            itor.next();
+            itor.set((T) element);
+        }
+    }
+
+    // the collection only holds iterators of T, so the array does too
+    @SuppressWarnings("unchecked")
+    private static <T> CheckedIterator<? extends T>[] toArray(final Collection<? extends CheckedIterator<? extends T>> iterators) {
+        return (CheckedIterator<? extends T>[]) iterators.toArray(new CheckedIterator<?>[0]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object[] sortedByKey(final Object[] values, final CheckedFunction<?, ?> function, final CheckedComparator<?> comparator) {
+        final CheckedFunction<Object, Object> f = (CheckedFunction<Object, Object>) function;
+        final CheckedComparator<Object>       c = (CheckedComparator<Object>) comparator;
+
+        final Object[] keys = new Object[values.length];
+        try {
+            for (int i = 0; i < values.length; i++)
+                keys[i] = f.apply(values[i]);
+
+            final Object[] sortedKeys   = keys.clone();
+            final Object[] sortedValues = values.clone();
+            mergeSort(keys, values.clone(), sortedKeys, sortedValues, 0, keys.length, c);
+            return sortedValues;
+        } catch (final Exception e) {
+            throw Unchecked.exception(e);
+        }
+    }
+
+    /*
+     * Stable LSD radix sort over the primitive keys of the ordering, least significant key first. Each key is mapped to an
+     * unsigned long whose natural order matches the key's comparator (complemented if the key is reversed), and the keys
+     * are sorted one byte at a time together with the indexes of the elements they were extracted from. Passes in which
+     * every key has the same byte, such as the upper half of an int key, are skipped.
+     */
+    private static Object[] radixSort(final Object[] values, final CompoundOrdering<?> ordering) {
+        final int n = values.length;
+
+        long[] keys        = new long[n];
+        long[] keysBuffer  = new long[n];
+        int[]  order       = new int[n];
+        int[]  orderBuffer = new int[n];
+
+        for (int i = 0; i < n; i++)
+            order[i] = i;
+
+        try {
+            for (int k = ordering.size() - 1; k >= 0; k--) {
+                extractKeys(values, order, ordering, k, keys);
+
+                final int[][] counts = new int[Long.BYTES][256];
+                for (int i = 0; i < n; i++)
+                    for (int pass = 0; pass < Long.BYTES; pass++)
+                        counts[pass][(int) (keys[i] >>> (pass << 3)) & 0xFF]++;
+
+                for (int pass = 0; pass < Long.BYTES; pass++) {
+                    final int   shift = pass << 3;
+                    final int[] count = counts[pass];
+
+                    if (count[(int) (keys[0] >>> shift) & 0xFF] == n)
+                        continue;
+
+                    for (int b = 0, sum = 0; b < 256; b++) {
+                        final int c = count[b];
+                        count[b] = sum;
+                        sum += c;
+                    }
+
+                    for (int i = 0; i < n; i++) {
+                        final int j = count[(int) (keys[i] >>> shift) & 0xFF]++;
+                        keysBuffer[j]  = keys[i];
+                        orderBuffer[j] = order[i];
+                    }
+
+                    final long[] tmpKeys = keys;
+                    keys       = keysBuffer;
+                    keysBuffer = tmpKeys;
+
+                    final int[] tmpOrder = order;
+                    order       = orderBuffer;
+                    orderBuffer = tmpOrder;
+                }
+            }
+        } catch (final Exception e) {
+            throw Unchecked.exception(e);
+        }
+
+        final Object[] sorted = new Object[n];
+        for (int i = 0; i < n; i++)
+            sorted[i] = values[order[i]];
+        return sorted;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void extractKeys(final Object[] values, final int[] order, final CompoundOrdering<?> ordering, final int index, final long[] keys) throws Exception {
+        final long mask = ordering.isReversed(index) ? -1L : 0L;
+
+        switch (ordering.kind(index)) {
+        case CompoundOrdering.INT: {
+            final CheckedToIntFunction<Object> function = (CheckedToIntFunction<Object>) ordering.extractor(index);
+            for (int i = 0; i < keys.length; i++)
+                keys[i] = ((function.applyAsInt(values[order[i]]) ^ Integer.MIN_VALUE) & 0xFFFFFFFFL) ^ (mask & 0xFFFFFFFFL);
+            break;
+        }
+        case CompoundOrdering.LONG: {
+            final CheckedToLongFunction<Object> function = (CheckedToLongFunction<Object>) ordering.extractor(index);
+            for (int i = 0; i < keys.length; i++)
+                keys[i] = function.applyAsLong(values[order[i]]) ^ Long.MIN_VALUE ^ mask;
+            break;
+        }
+        case CompoundOrdering.DOUBLE: {
+            final CheckedToDoubleFunction<Object> function = (CheckedToDoubleFunction<Object>) ordering.extractor(index);
+            for (int i = 0; i < keys.length; i++) {
+                // same total order as Double.compare: -0.0 before 0.0 and NaN after positive infinity
+                final long bits = Double.doubleToLongBits(function.applyAsDouble(values[order[i]]));
+                keys[i] = (bits < 0 ? ~bits : bits ^ Long.MIN_VALUE) ^ mask;
+            }
+            break;
+        }
+        default:
+            throw new AssertionError();
+        }
+    }
+
+    /*
+     * Stable merge sort of the keys in the range [low, high), applying every move to the values as well. The source and
+     * destination arrays swap roles at each level of recursion; both must hold the same elements on entry.
+     */
+    private static void mergeSort(final Object[] srcKeys, final Object[] srcValues, final Object[] destKeys, final Object[] destValues, final int low, final int high, final CheckedComparator<Object> comparator) throws Exception {
+        final int length = high - low;
+
+        if (length < INSERTIONSORT_THRESHOLD) {
+            for (int i = low + 1; i < high; i++)
+                for (int j = i; j > low && comparator.compare(destKeys[j - 1], destKeys[j]) > 0; j--) {
+                    swap(destKeys, j, j - 1);
+                    swap(destValues, j, j - 1);
+                }
+            return;
+        }
+
+        final int mid = (low + high) >>> 1;
+        mergeSort(destKeys, destValues, srcKeys, srcValues, low, mid, comparator);
+        mergeSort(destKeys, destValues, srcKeys, srcValues, mid, high, comparator);
+
+        // the halves are already in order
+        if (comparator.compare(srcKeys[mid - 1], srcKeys[mid]) <= 0) {
+            System.arraycopy(srcKeys, low, destKeys, low, length);
+            System.arraycopy(srcValues, low, destValues, low, length);
+            return;
+        }
+
+        for (int i = low, p = low, q = mid; i < high; i++) {
+            if (q >= high || p < mid && comparator.compare(srcKeys[p], srcKeys[q]) <= 0) {
+                destKeys[i]   = srcKeys[p];
+                destValues[i] = srcValues[p++];
+            } else {
+                destKeys[i]   = srcKeys[q];
+                destValues[i] = srcValues[q++];
+            }
+        }
+    }
+
+    private static void swap(final Object[] array, final int i, final int j) {
+        final Object tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
+    /*
+     * Records the first exception thrown by the underlying comparator. Once a failure is recorded every subsequent
+     * comparison, on any thread, aborts immediately.
+     */
+    private static final class CancellableComparator<T> implements Comparator<T> {
+
+        private static final RuntimeException CANCELLED = new RuntimeException("cancelled", null, false, false) {
+            private static final long serialVersionUID = -8519946467617286012L;
+        };
+
+        private final CheckedComparator<T>       comparator;
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+        private CancellableComparator(final CheckedComparator<T> comparator) {
+            this.comparator = comparator;
+        }
+
+        @Override
+        public int compare(final T left, final T right) {
+            if (failure.get() != null)
+                throw CANCELLED;
+            try {
+                return comparator.compare(left, right);
+            } catch (final Exception e) {
+                failure.compareAndSet(null, e);
+                throw CANCELLED;
+            }
+        }
+
+        boolean isCancelled() {
+            return failure.get() != null;
+        }
+
+    }
+
+    /*
+     * Sorts both halves of the range in parallel and merges them through the buffer, which must be a copy of the array.
+     */
+    private static final class ParallelMergeSort<T> extends RecursiveAction {
+
+        private static final long serialVersionUID = 4417516101766425235L;
+
+        private final T[]                              array;
+        private final T[]                              buffer;
+        private final int                              low;
+        private final int                              high;
+        private final int                              granularity;
+        private final CancellableComparator<? super T> comparator;
+
+        private ParallelMergeSort(final T[] array, final T[] buffer, final int low, final int high, final int granularity, final CancellableComparator<? super T> comparator) {
+            this.array       = array;
+            this.buffer      = buffer;
+            this.low         = low;
+            this.high        = high;
+            this.granularity = granularity;
+            this.comparator  = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            if (comparator.isCancelled())
+                return;
+
+            if (high - low <= granularity) { // sort the range in the buffer so the array is left intact if the comparator throws
+                System.arraycopy(array, low, buffer, low, high - low);
+                Arrays.sort(buffer, low, high, comparator);
+                System.arraycopy(buffer, low, array, low, high - low);
+                return;
+            }
+
+            final int mid = (low + high) >>> 1;
+            invokeAll(new ParallelMergeSort<>(array, buffer, low, mid, granularity, comparator), new ParallelMergeSort<>(array, buffer, mid, high, granularity, comparator));
+
+            if (comparator.isCancelled() || comparator.compare(array[mid - 1], array[mid]) <= 0)
+                return;
+
+            System.arraycopy(array, low, buffer, low, high - low);
+
+            int i = low, p = low, q = mid;
+            try {
+                for (; i < high; i++)
+                    array[i] = q >= high || p < mid && comparator.compare(buffer[p], buffer[q]) <= 0 ? buffer[p++] : buffer[q++];
+            } finally {
+                if (i < high) { // the comparator threw, copy back the elements which have not been merged yet
+                    System.arraycopy(buffer, p, array, i, mid - p);
+                    System.arraycopy(buffer, q, array, i + mid - p, high - q);
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,370 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Static utility methods which run blocking checked tasks concurrently, each on its own thread, and join them before
+ * returning.
+ * <p>
+ * The tasks of an invocation form a structured unit of work: the calling thread waits until every task has completed,
+ * the first task to throw an exception cancels the others by interrupting their threads, and that exception is rethrown
+ * as is, without being wrapped in an {@code ExecutionException}. {@code invokeAny} instead returns the first result and
+ * cancels the others as soon as one task succeeds, and the timed variants cancel every task when the timeout elapses and
+ * throw {@code TimeoutException}, undeclared. No task of an invocation is left running when the invocation returns or
+ * throws, so a task which ignores interruption delays its invocation until it completes.
+ * <p>
+ * This library is packaged as a multi-release JAR. On Java 21 and later every task runs on its own virtual thread, so an
+ * invocation can fan out to thousands of blocking tasks cheaply. On earlier versions tasks run on a shared pool of at
+ * most {@code max(16, 4 * availableProcessors)} daemon platform threads, and tasks beyond that limit wait in a queue.
+ * Because the pool is bounded, tasks which themselves invoke and wait for nested tasks can exhaust it on Java 8.
+ *
+ * @author Zhenya Leonov
+ */
+public final class StructuredTasks {
+
+    private StructuredTasks() {
+    }
+
+    /**
+     * Returns {@code true} if tasks run on virtual threads, that is if this library was loaded from its Java 21 layer.
+     *
+     * @return {@code true} if tasks run on virtual threads
+     */
+    public static boolean isVirtual() {
+        return TaskThreads.isVirtual();
+    }
+
+    /**
+     * Runs the specified suppliers concurrently and returns their results, in the order of the suppliers, once they have
+     * all completed.
+     * <p>
+     * If a supplier throws an exception the remaining suppliers are cancelled, and the exception is rethrown after every
+     * supplier has stopped. If the calling thread is interrupted while waiting, the suppliers are cancelled and
+     * {@code InterruptedException} is thrown with the interrupt status of the thread restored.
+     *
+     * @param <T>       the type of the results
+     * @param suppliers the suppliers to run
+     * @return the results of the suppliers, in the order of the suppliers
+     */
+    public static <T> List<T> invokeAll(final Collection<? extends CheckedSupplier<? extends T>> suppliers) {
+        return Scope.<T>fork(suppliers).all(false, 0);
+    }
+
+    /**
+     * Runs the specified suppliers concurrently and returns their results, in the order of the suppliers, once they have
+     * all completed, waiting at most for the specified timeout.
+     * <p>
+     * If a supplier throws an exception the remaining suppliers are cancelled, and the exception is rethrown after every
+     * supplier has stopped. If the timeout elapses first, the suppliers are cancelled and {@code TimeoutException} is
+     * thrown after every supplier has stopped. If the calling thread is interrupted while waiting, the suppliers are
+     * cancelled and {@code InterruptedException} is thrown with the interrupt status of the thread restored.
+     *
+     * @param <T>       the type of the results
+     * @param suppliers the suppliers to run
+     * @param timeout   the maximum time to wait
+     * @param unit      the time unit of {@code timeout}
+     * @return the results of the suppliers, in the order of the suppliers
+     */
+    public static <T> List<T> invokeAll(final Collection<? extends CheckedSupplier<? extends T>> suppliers, final long timeout, final TimeUnit unit) {
+        final long deadline = deadline(timeout, unit);
+        return Scope.<T>fork(suppliers).all(true, deadline);
+    }
+
+    /**
+     * Runs the specified suppliers concurrently and returns the result of the first one to complete without throwing an
+     * exception, cancelling the rest.
+     * <p>
+     * If every supplier throws an exception, the first exception thrown is rethrown with the others attached as
+     * {@link Throwable#addSuppressed(Throwable) suppressed} exceptions. If the calling thread is interrupted while
+     * waiting, the suppliers are cancelled and {@code InterruptedException} is thrown with the interrupt status of the
+     * thread restored. In every case this method returns or throws only after every supplier has stopped.
+     *
+     * @param <T>       the type of the result
+     * @param suppliers the suppliers to run
+     * @return the result of the first supplier to complete without throwing an exception
+     * @throws IllegalArgumentException if {@code suppliers} is empty
+     */
+    public static <T> T invokeAny(final Collection<? extends CheckedSupplier<? extends T>> suppliers) {
+        return Scope.<T>fork(checkNotEmpty(suppliers)).any(false, 0);
+    }
+
+    /**
+     * Runs the specified suppliers concurrently and returns the result of the first one to complete without throwing an
+     * exception, cancelling the rest, waiting at most for the specified timeout.
+     * <p>
+     * If every supplier throws an exception, the first exception thrown is rethrown with the others attached as
+     * {@link Throwable#addSuppressed(Throwable) suppressed} exceptions. If the timeout elapses first, the suppliers are
+     * cancelled and {@code TimeoutException} is thrown. If the calling thread is interrupted while waiting, the
+     * suppliers are cancelled and {@code InterruptedException} is thrown with the interrupt status of the thread
+     * restored. In every case this method returns or throws only after every supplier has stopped.
+     *
+     * @param <T>       the type of the result
+     * @param suppliers the suppliers to run
+     * @param timeout   the maximum time to wait
+     * @param unit      the time unit of {@code timeout}
+     * @return the result of the first supplier to complete without throwing an exception
+     * @throws IllegalArgumentException if {@code suppliers} is empty
+     */
+    public static <T> T invokeAny(final Collection<? extends CheckedSupplier<? extends T>> suppliers, final long timeout, final TimeUnit unit) {
+        final long deadline = deadline(timeout, unit);
+        return Scope.<T>fork(checkNotEmpty(suppliers)).any(true, deadline);
+    }
+
+    /**
+     * Runs the specified tasks concurrently and returns once they have all completed.
+     * <p>
+     * If a task throws an exception the remaining tasks are cancelled, and the exception is rethrown after every task has
+     * stopped. If the calling thread is interrupted while waiting, the tasks are cancelled and
+     * {@code InterruptedException} is thrown with the interrupt status of the thread restored.
+     *
+     * @param tasks the tasks to run
+     */
+    public static void runAll(final Collection<? extends CheckedRunnable> tasks) {
+        invokeAll(suppliers(tasks));
+    }
+
+    /**
+     * Runs the specified tasks concurrently and returns once they have all completed, waiting at most for the specified
+     * timeout.
+     * <p>
+     * If a task throws an exception the remaining tasks are cancelled, and the exception is rethrown after every task has
+     * stopped. If the timeout elapses first, the tasks are cancelled and {@code TimeoutException} is thrown after every
+     * task has stopped. If the calling thread is interrupted while waiting, the tasks are cancelled and
+     * {@code InterruptedException} is thrown with the interrupt status of the thread restored.
+     *
+     * @param tasks   the tasks to run
+     * @param timeout the maximum time to wait
+     * @param unit    the time unit of {@code timeout}
+     */
+    public static void runAll(final Collection<? extends CheckedRunnable> tasks, final long timeout, final TimeUnit unit) {
+        invokeAll(suppliers(tasks), timeout, unit);
+    }
+
+    private static long deadline(final long timeout, final TimeUnit unit) {
+        Objects.requireNonNull(unit, "unit == null");
+        return System.nanoTime() + unit.toNanos(timeout);
+    }
+
+    private static <C extends Collection<?>> C checkNotEmpty(final C suppliers) {
+        Objects.requireNonNull(suppliers, "suppliers == null");
+        if (suppliers.isEmpty())
+            throw new IllegalArgumentException("suppliers is empty");
+        return suppliers;
+    }
+
+    private static List<CheckedSupplier<Void>> suppliers(final Collection<? extends CheckedRunnable> tasks) {
+        Objects.requireNonNull(tasks, "tasks == null");
+
+        final List<CheckedSupplier<Void>> suppliers = new ArrayList<>(tasks.size());
+        for (final CheckedRunnable task : tasks) {
+            Objects.requireNonNull(task, "task == null");
+            suppliers.add(() -> {
+                task.run();
+                return null;
+            });
+        }
+        return suppliers;
+    }
+
+    /*
+     * The tasks of a single invocation. Every task adds itself to the completed queue when it is done, so the first
+     * failure is seen as soon as it happens, and counts down the finished latch when its thread stops running it, which
+     * a cancelled FutureTask does not wait for. A task which is cancelled before it starts counts down the latch in
+     * cancel instead, so that cancelling does not wait for a pool thread to pick up a task which will never run.
+     */
+    private static final class Scope<T> {
+
+        private final int                 size;
+        private final List<Task>          tasks;
+        private final BlockingQueue<Task> completed = new LinkedBlockingQueue<>();
+        private final CountDownLatch      finished;
+
+        private Scope(final int size) {
+            this.size = size;
+            tasks     = new ArrayList<>(size);
+            finished  = new CountDownLatch(size);
+        }
+
+        private static <T> Scope<T> fork(final Collection<? extends CheckedSupplier<? extends T>> suppliers) {
+            Objects.requireNonNull(suppliers, "suppliers == null");
+
+            final List<? extends CheckedSupplier<? extends T>> list = new ArrayList<>(suppliers);
+            list.forEach(supplier -> Objects.requireNonNull(supplier, "supplier == null"));
+
+            final Scope<T> scope = new Scope<>(list.size());
+            list.forEach(scope::fork);
+            return scope;
+        }
+
+        private void fork(final CheckedSupplier<? extends T> supplier) {
+            final Task task = new Task(supplier);
+            tasks.add(task);
+            try {
+                TaskThreads.start(task);
+            } catch (final Throwable t) {
+                for (int i = tasks.size(); i < size; i++) // the tasks which were never forked, cancel counts down this one
+                    finished.countDown();
+                cancel();
+                throw t;
+            }
+        }
+
+        private List<T> all(final boolean timed, final long deadline) {
+            for (int i = 0; i < size; i++)
+                check(next(timed, deadline));
+
+            final List<T> results = new ArrayList<>(size);
+            for (final Task task : tasks)
+                results.add(check(task));
+            return Collections.unmodifiableList(results);
+        }
+
+        private T any(final boolean timed, final long deadline) {
+            Exception failure = null;
+
+            for (int i = 0; i < size; i++) {
+                final Task task = next(timed, deadline);
+                try {
+                    final T result = task.get();
+                    cancel();
+                    return result;
+                } catch (final InterruptedException | CancellationException e) {
+                    throw new AssertionError(e); // tasks are only cancelled after the caller has stopped waiting
+                } catch (final ExecutionException e) {
+                    final Throwable cause = e.getCause();
+                    if (cause instanceof Error) {
+                        cancel();
+                        throw (Error) cause;
+                    }
+                    if (failure == null)
+                        failure = (Exception) cause;
+                    else if (failure != cause)
+                        failure.addSuppressed(cause);
+                }
+            }
+
+            throw Unchecked.exception(failure);
+        }
+
+        /*
+         * Waits for the next task to complete, cancelling every task if the deadline passes or the caller is interrupted.
+         */
+        private Task next(final boolean timed, final long deadline) {
+            final Task task;
+            try {
+                task = timed ? completed.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS) : completed.take();
+            } catch (final InterruptedException e) {
+                cancel();
+                Thread.currentThread().interrupt();
+                throw Unchecked.exception(e);
+            }
+
+            if (task == null) {
+                cancel();
+                throw Unchecked.exception(new TimeoutException());
+            }
+
+            return task;
+        }
+
+        private T check(final Task task) {
+            try {
+                return task.get();
+            } catch (final InterruptedException | CancellationException e) {
+                throw new AssertionError(e); // tasks are only cancelled after the caller has stopped waiting
+            } catch (final ExecutionException e) {
+                cancel();
+
+                final Throwable cause = e.getCause();
+                if (cause instanceof Error)
+                    throw (Error) cause;
+                throw Unchecked.exception((Exception) cause);
+            }
+        }
+
+        /*
+         * Cancels every task and waits for their threads to stop running them.
+         */
+        private void cancel() {
+            for (final Task task : tasks)
+                task.cancel(true);
+
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    finished.await();
+                    break;
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+
+            if (interrupted)
+                Thread.currentThread().interrupt();
+        }
+
+        private final class Task extends FutureTask<T> {
+
+            private final AtomicBoolean started = new AtomicBoolean();
+
+            private Task(final CheckedSupplier<? extends T> supplier) {
+                super(supplier::get);
+            }
+
+            @Override
+            public void run() {
+                if (!started.compareAndSet(false, true))
+                    return;
+                try {
+                    super.run();
+                } finally {
+                    finished.countDown();
+                }
+            }
+
+            @Override
+            public boolean cancel(final boolean mayInterruptIfRunning) {
+                final boolean cancelled = super.cancel(mayInterruptIfRunning);
+                if (started.compareAndSet(false, true)) // the task will never run
+                    finished.countDown();
+                return cancelled;
+            }
+
+            @Override
+            protected void done() {
+                completed.add(this);
+            }
+
+        }
+
+    }
+
+}
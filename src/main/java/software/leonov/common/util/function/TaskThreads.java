@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * The threads which run the tasks of StructuredTasks. This is the Java 8 version, which runs tasks on a shared, bounded
+ * pool of daemon platform threads. The Java 21 version in the multi-release layer of the JAR starts a virtual thread per
+ * task instead.
+ */
+final class TaskThreads {
+
+    private static final int MAX_THREADS = Math.max(16, Runtime.getRuntime().availableProcessors() * 4);
+
+    private static final Executor EXECUTOR;
+
+    static {
+        final AtomicInteger count = new AtomicInteger();
+
+        final ThreadFactory factory = runnable -> {
+            final Thread thread = new Thread(runnable, "structured-task-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), factory);
+        executor.allowCoreThreadTimeOut(true);
+        EXECUTOR = executor;
+    }
+
+    private TaskThreads() {
+    }
+
+    // a method rather than a constant, which javac would inline into callers compiled against this version
+    static boolean isVirtual() {
+        return false;
+    }
+
+    static void start(final Runnable task) {
+        EXECUTOR.execute(task);
+    }
+
+}
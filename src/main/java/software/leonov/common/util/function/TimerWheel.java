@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * A hashed timer wheel, run by a single shared daemon thread, which interrupts threads whose calls have exceeded their
+ * timeout.
+ *
+ * A call registers an entry in a lock-free queue and runs on its own thread. The timer thread moves new entries into
+ * the bucket of their deadline tick, and every tick it visits one bucket, interrupting the threads of expired entries
+ * and dropping the entries of calls which have completed. The timer thread parks while there are no entries, so an idle
+ * wheel costs nothing, and it is only started by the first call with a timeout.
+ *
+ * The state of an entry decides the race between the call completing and the timer firing. The call moves it from
+ * PENDING to DONE when it completes. The timer moves it from PENDING to EXPIRED under the lock of the entry, and if the
+ * thread is not already interrupted interrupts it and records INTERRUPTED before releasing the lock. A call which loses
+ * the race acquires the lock, which waits for the timer to finish, and clears the interrupt only if the timer delivered
+ * it, so that it never leaks into whatever the thread does next. An interrupt from someone else which arrives after the
+ * timer's cannot be told apart from it and is cleared as well.
+ */
+final class TimerWheel {
+
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int  WHEEL_SIZE = 512; // a power of 2
+
+    private static final int PENDING     = 0;
+    private static final int EXPIRED     = 1;
+    private static final int INTERRUPTED = 2;
+    private static final int DONE        = 3;
+
+    private final Entry[]      wheel   = new Entry[WHEEL_SIZE];
+    private final Queue<Entry> pending = new ConcurrentLinkedQueue<>();
+    private final long         origin  = System.nanoTime();
+    private final Thread       worker;
+
+    private volatile boolean idle;
+
+    private long tick; // the next tick to visit
+    private int  size; // the number of entries in the wheel
+
+    private TimerWheel() {
+        worker = new Thread(this::run, "timer-wheel");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /*
+     * Calls the specified supplier on the calling thread, interrupting it if the call has not completed within the
+     * specified timeout, in which case TimeoutException is thrown when the call returns or throws, with the exception of
+     * the call, if any, attached as a suppressed exception.
+     */
+    static <T> T call(final CheckedSupplier<? extends T> supplier, final long timeoutNanos) throws Exception {
+        final Entry entry = Shared.WHEEL.schedule(Thread.currentThread(), timeoutNanos);
+
+        final T value;
+        try {
+            value = supplier.get();
+        } catch (final Throwable t) {
+            if (entry.complete())
+                throw t;
+            throw timeout(timeoutNanos, t);
+        }
+
+        if (entry.complete())
+            return value;
+        throw timeout(timeoutNanos, null);
+    }
+
+    private static RuntimeException timeout(final long timeoutNanos, final Throwable thrown) {
+        final TimeoutException e = new TimeoutException("timed out after " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms");
+        if (thrown != null)
+            e.addSuppressed(thrown);
+        return Unchecked.exception(e);
+    }
+
+    private Entry schedule(final Thread thread, final long timeoutNanos) {
+        final Entry entry = new Entry(thread, System.nanoTime() + timeoutNanos);
+        pending.add(entry);
+        if (idle)
+            LockSupport.unpark(worker);
+        return entry;
+    }
+
+    private void run() {
+        while (true) {
+            transfer();
+
+            if (size == 0) {
+                idle = true;
+                if (pending.isEmpty())
+                    LockSupport.park(this);
+                idle = false;
+                tick = ticks(System.nanoTime()); // nothing to visit in between
+                continue;
+            }
+
+            final long now   = System.nanoTime();
+            final long ticks = ticks(now);
+
+            if (ticks < tick) {
+                LockSupport.parkNanos(this, origin + tick * TICK_NANOS - now);
+                continue;
+            }
+
+            // every bucket is visited at most once however many ticks have passed
+            for (long i = tick, last = Math.min(ticks, tick + WHEEL_SIZE - 1); i <= last; i++)
+                expire((int) (i & (WHEEL_SIZE - 1)), now);
+            tick = ticks + 1;
+        }
+    }
+
+    /*
+     * Moves new entries into the wheel, except for the entries of calls which have already completed, which is most of
+     * them when calls are short.
+     */
+    private void transfer() {
+        for (Entry entry; (entry = pending.poll()) != null;) {
+            if (entry.get() == DONE)
+                continue;
+
+            final int bucket = (int) (Math.max(tickOf(entry.deadline), tick) & (WHEEL_SIZE - 1));
+            entry.next    = wheel[bucket];
+            wheel[bucket] = entry;
+            size++;
+        }
+    }
+
+    private void expire(final int bucket, final long now) {
+        Entry previous = null;
+        for (Entry entry = wheel[bucket]; entry != null; entry = entry.next) {
+            final boolean expired = entry.deadline - now <= 0;
+
+            if (!expired && entry.get() != DONE) {
+                previous = entry;
+                continue;
+            }
+
+            if (expired)
+                entry.interrupt();
+
+            if (previous == null)
+                wheel[bucket] = entry.next;
+            else
+                previous.next = entry.next;
+            size--;
+        }
+    }
+
+    // the last tick which has started at the specified time
+    private long ticks(final long nanos) {
+        return (nanos - origin) / TICK_NANOS;
+    }
+
+    // the first tick which starts at or after the specified deadline
+    private long tickOf(final long deadline) {
+        return (deadline - origin + TICK_NANOS - 1) / TICK_NANOS;
+    }
+
+    private static final class Shared {
+
+        private static final TimerWheel WHEEL = new TimerWheel();
+
+    }
+
+    private static final class Entry extends AtomicInteger {
+
+        private static final long serialVersionUID = 2894301735620961574L;
+
+        private final Thread thread;
+        private final long   deadline;
+
+        private Entry next; // confined to the timer thread
+
+        private Entry(final Thread thread, final long deadline) {
+            this.thread   = thread;
+            this.deadline = deadline;
+        }
+
+        private synchronized void interrupt() {
+            if (compareAndSet(PENDING, EXPIRED) && !thread.isInterrupted()) {
+                thread.interrupt();
+                set(INTERRUPTED);
+            }
+        }
+
+        /*
+         * Returns true if the call completed before the timer fired. Otherwise clears the interrupt if the timer delivered
+         * it.
+         */
+        private boolean complete() {
+            if (compareAndSet(PENDING, DONE))
+                return true;
+
+            synchronized (this) { // the timer holds the lock until it has interrupted the thread
+                if (get() == INTERRUPTED)
+                    Thread.interrupted();
+            }
+            return false;
+        }
+
+    }
+
+}
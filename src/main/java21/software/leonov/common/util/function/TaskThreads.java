@@ -0,0 +1,35 @@
+/*
+ * Copyright (C) 2023 Zhenya Leonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package software.leonov.common.util.function;
+
+/*
+ * The threads which run the tasks of StructuredTasks. This is the Java 21 version, selected from the multi-release layer
+ * of the JAR, which starts a virtual thread per task.
+ */
+final class TaskThreads {
+
+    private TaskThreads() {
+    }
+
+    static boolean isVirtual() {
+        return true;
+    }
+
+    static void start(final Runnable task) {
+        Thread.startVirtualThread(task);
+    }
+
+}
@@ -0,0 +1,122 @@
+package software.leonov.common.util.function;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ArrayMemoizerTest {
+
+    private AtomicInteger calls;
+
+    @BeforeAll
+    static void setUpBeforeClass() throws Exception {
+    }
+
+    @AfterAll
+    static void tearDownAfterClass() throws Exception {
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        calls = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+    }
+
+    @Test
+    void test_int_function() throws Exception {
+        final CheckedIntFunction<String> memoized = CheckedIntFunction.memoize(i -> {
+            calls.incrementAndGet();
+            return i == 0 ? null : Integer.toString(i);
+        }, -5, 5);
+
+        for (int n = 0; n < 3; n++)
+            for (int i = -5; i < 5; i++)
+                assertThat(memoized.apply(i)).isEqualTo(i == 0 ? null : Integer.toString(i));
+        assertThat(calls.get()).isEqualTo(10);
+
+        assertThat(memoized.apply(5)).isEqualTo("5");
+        assertThat(memoized.apply(5)).isEqualTo("5");
+        assertThat(calls.get()).isEqualTo(12);
+    }
+
+    @Test
+    void test_int_unary_operator() throws Exception {
+        final CheckedIntUnaryOperator memoized = CheckedIntUnaryOperator.memoize(i -> {
+            calls.incrementAndGet();
+            return i == 0 ? 0 : -i;
+        }, Integer.MIN_VALUE, Integer.MIN_VALUE + 4);
+
+        for (int n = 0; n < 3; n++) {
+            assertThat(memoized.applyAsInt(Integer.MIN_VALUE)).isEqualTo(Integer.MIN_VALUE);
+            assertThat(memoized.applyAsInt(Integer.MIN_VALUE + 1)).isEqualTo(Integer.MAX_VALUE);
+        }
+        assertThat(calls.get()).isEqualTo(2);
+
+        assertThat(memoized.applyAsInt(Integer.MAX_VALUE)).isEqualTo(-Integer.MAX_VALUE);
+        assertThat(memoized.applyAsInt(0)).isEqualTo(0);
+        assertThat(calls.get()).isEqualTo(4);
+    }
+
+    @Test
+    void test_int_predicate() throws Exception {
+        final CheckedIntPredicate memoized = CheckedIntPredicate.memoize(i -> {
+            calls.incrementAndGet();
+            return Character.isLetter(i);
+        }, 0, 1 << 16);
+
+        for (int n = 0; n < 3; n++) {
+            assertThat(memoized.test('a')).isTrue();
+            assertThat(memoized.test('1')).isFalse();
+        }
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void test_int_to_long_function() throws Exception {
+        final CheckedIntToLongFunction memoized = CheckedIntToLongFunction.memoize(i -> {
+            calls.incrementAndGet();
+            return i == 1 ? 0 : Long.MIN_VALUE + i;
+        }, 0, 256);
+
+        for (int n = 0; n < 3; n++) {
+            assertThat(memoized.applyAsLong(0)).isEqualTo(Long.MIN_VALUE);
+            assertThat(memoized.applyAsLong(1)).isEqualTo(0L);
+            assertThat(memoized.applyAsLong(255)).isEqualTo(Long.MIN_VALUE + 255);
+        }
+        assertThat(calls.get()).isEqualTo(3);
+    }
+
+    @Test
+    void test_exceptions_are_not_cached() throws Exception {
+        final IOException failure = new IOException();
+
+        final CheckedIntUnaryOperator memoized = CheckedIntUnaryOperator.memoize(i -> {
+            if (calls.incrementAndGet() == 1)
+                throw failure;
+            return i;
+        }, 0, 10);
+
+        assertThat(assertThrows(IOException.class, () -> memoized.applyAsInt(3))).isSameInstanceAs(failure);
+        assertThat(memoized.applyAsInt(3)).isEqualTo(3);
+        assertThat(memoized.applyAsInt(3)).isEqualTo(3);
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void test_invalid_range() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> CheckedIntPredicate.memoize(i -> true, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> CheckedIntPredicate.memoize(i -> true, Integer.MIN_VALUE, Integer.MAX_VALUE));
+    }
+
+}
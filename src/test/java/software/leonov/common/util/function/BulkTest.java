@@ -0,0 +1,161 @@
+package software.leonov.common.util.function;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BulkTest {
+
+    @BeforeAll
+    static void setUpBeforeClass() throws Exception {
+    }
+
+    @AfterAll
+    static void tearDownAfterClass() throws Exception {
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+    }
+
+    private static Integer failOnMultiplesOf7(final Integer i) throws IOException {
+        if (i % 7 == 0)
+            throw new IOException(Integer.toString(i));
+        return i * 2;
+    }
+
+    private static List<Integer> range(final int n) {
+        return IntStream.range(0, n).boxed().collect(Collectors.toList());
+    }
+
+    @Test
+    void test_map() throws Exception {
+        final BulkResult<Integer> result = Bulk.map(range(20), BulkTest::failOnMultiplesOf7);
+
+        assertThat(result.hasFailures()).isTrue();
+        assertThat(result.getFailureCount()).isEqualTo(3);
+        assertThat(result.getCapturedFailureCount()).isEqualTo(3);
+        assertThat(result.getSuccesses()).hasSize(17);
+        assertThat(result.getSuccesses().get(0)).isEqualTo(2);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(result.getFailedIndex(i)).isEqualTo(i * 7);
+            assertThat(result.getFailure(i)).hasMessageThat().isEqualTo(Integer.toString(i * 7));
+        }
+    }
+
+    @Test
+    void test_success_indexes() throws Exception {
+        final BulkResult<Integer> result = Bulk.map(range(20), BulkTest::failOnMultiplesOf7);
+
+        assertThat(result.getSuccessIndex(0)).isEqualTo(1);
+        assertThat(result.getSuccessIndex(5)).isEqualTo(6);
+        assertThat(result.getSuccessIndex(6)).isEqualTo(8);
+        for (int i = 0; i < result.getSuccesses().size(); i++)
+            assertThat(result.getSuccesses().get(i)).isEqualTo(result.getSuccessIndex(i) * 2);
+        assertThrows(IndexOutOfBoundsException.class, () -> result.getSuccessIndex(17));
+
+        final BulkResult<Integer> parallel = Bulk.parallelMap(range(50_000), BulkTest::failOnMultiplesOf7);
+        for (int i = 0; i < parallel.getSuccesses().size(); i++)
+            assertThat(parallel.getSuccesses().get(i)).isEqualTo(parallel.getSuccessIndex(i) * 2);
+    }
+
+    @Test
+    void test_map_no_failures() throws Exception {
+        final BulkResult<String> result = Bulk.map(Arrays.asList(1, 2, 3), Object::toString);
+
+        assertThat(result.hasFailures()).isFalse();
+        assertThat(result.getSuccesses()).containsExactly("1", "2", "3").inOrder();
+    }
+
+    @Test
+    void test_original_exception_is_captured() throws Exception {
+        final IOException failure = new IOException();
+
+        final BulkResult<Object> result = Bulk.map(Arrays.asList(1, 2), i -> {
+            if (i == 2)
+                throw failure;
+            return i;
+        });
+
+        assertThat(result.getFailure(0)).isSameInstanceAs(failure);
+        assertThat(result.getFailedIndex(0)).isEqualTo(1);
+    }
+
+    @Test
+    void test_max_failures() throws Exception {
+        final BulkResult<Integer> result = Bulk.map(range(100), BulkTest::failOnMultiplesOf7, 2);
+
+        assertThat(result.getFailureCount()).isEqualTo(15);
+        assertThat(result.getCapturedFailureCount()).isEqualTo(2);
+        assertThat(result.getSuccesses()).hasSize(85);
+        assertThrows(IndexOutOfBoundsException.class, () -> result.getFailure(2));
+        assertThrows(IllegalArgumentException.class, () -> Bulk.map(range(1), BulkTest::failOnMultiplesOf7, -1));
+    }
+
+    @Test
+    void test_parallel_map() throws Exception {
+        final int                 n      = 100_000;
+        final BulkResult<Integer> result = Bulk.parallelMap(range(n), BulkTest::failOnMultiplesOf7);
+
+        final List<Integer> expected = IntStream.range(0, n).filter(i -> i % 7 != 0).map(i -> i * 2).boxed().collect(Collectors.toList());
+
+        assertThat(result.getSuccesses()).containsExactlyElementsIn(expected).inOrder();
+        assertThat(result.getFailureCount()).isEqualTo(n / 7 + 1);
+        assertThat(result.getCapturedFailureCount()).isEqualTo(n / 7 + 1);
+
+        for (int i = 0; i < result.getCapturedFailureCount(); i++)
+            assertThat(result.getFailedIndex(i)).isEqualTo(i * 7);
+    }
+
+    @Test
+    void test_parallel_map_max_failures() throws Exception {
+        final BulkResult<Integer> result = Bulk.parallelMap(range(100_000), BulkTest::failOnMultiplesOf7, 10, new ForkJoinPool(4));
+
+        assertThat(result.getFailureCount()).isEqualTo(100_000 / 7 + 1);
+        assertThat(result.getCapturedFailureCount()).isEqualTo(10);
+
+        for (int i = 1; i < result.getCapturedFailureCount(); i++)
+            assertThat(result.getFailedIndex(i)).isGreaterThan(result.getFailedIndex(i - 1));
+    }
+
+    @Test
+    void test_for_each() throws Exception {
+        final List<Integer> seen = new ArrayList<>();
+
+        final BulkResult<Integer> result = Bulk.forEach(range(10), i -> {
+            seen.add(i);
+            failOnMultiplesOf7(i);
+        });
+
+        assertThat(seen).containsExactlyElementsIn(range(10)).inOrder();
+        assertThat(result.getSuccesses()).containsExactly(1, 2, 3, 4, 5, 6, 8, 9).inOrder();
+        assertThat(result.getFailedIndex(1)).isEqualTo(7);
+    }
+
+    @Test
+    void test_parallel_for_each() throws Exception {
+        final BulkResult<Integer> result = Bulk.parallelForEach(range(50_000), BulkTest::failOnMultiplesOf7);
+
+        assertThat(result.getSuccesses()).hasSize(50_000 - (50_000 / 7 + 1));
+        assertThat(result.getFailureCount()).isEqualTo(50_000 / 7 + 1);
+    }
+
+}
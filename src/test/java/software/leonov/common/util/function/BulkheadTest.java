@@ -0,0 +1,175 @@
+package software.leonov.common.util.function;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BulkheadTest {
+
+    @BeforeAll
+    static void setUpBeforeClass() throws Exception {
+    }
+
+    @AfterAll
+    static void tearDownAfterClass() throws Exception {
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+    }
+
+    @Test
+    void test_limits_concurrency_of_parallel_stream() throws Exception {
+        final Bulkhead      bulkhead = Bulkhead.of(2);
+        final AtomicInteger current  = new AtomicInteger();
+        final AtomicInteger peak     = new AtomicInteger();
+
+        final CheckedFunction<Integer, Integer> function = CheckedFunction.withBulkhead(i -> {
+            peak.accumulateAndGet(current.incrementAndGet(), Math::max);
+            Thread.sleep(1);
+            current.decrementAndGet();
+            return i * 2;
+        }, bulkhead);
+
+        final List<Integer> results = IntStream.range(0, 200).boxed().parallel().map(CheckedFunction.unchecked(function)).collect(Collectors.toList());
+
+        assertThat(results).containsExactlyElementsIn(IntStream.range(0, 200).map(i -> i * 2).boxed().collect(Collectors.toList())).inOrder();
+        assertThat(peak.get()).isAtMost(2);
+        assertThat(bulkhead.getAvailablePermits()).isEqualTo(2);
+        assertThat(bulkhead.getWaitingCount()).isEqualTo(0);
+        assertThat(bulkhead.getRejectedCount()).isEqualTo(0);
+    }
+
+    @Test
+    void test_fail_fast() throws Exception {
+        final Bulkhead       bulkhead = Bulkhead.failFast(1);
+        final CountDownLatch started  = new CountDownLatch(1);
+        final CountDownLatch release  = new CountDownLatch(1);
+
+        final Thread holder = new Thread(CheckedRunnable.unchecked(CheckedRunnable.withBulkhead(() -> {
+            started.countDown();
+            release.await();
+        }, bulkhead)));
+        holder.start();
+        started.await();
+
+        final CheckedConsumer<Object> consumer = CheckedConsumer.withBulkhead(o -> {
+        }, bulkhead);
+
+        final BulkheadFullException rejection = assertThrows(BulkheadFullException.class, () -> consumer.accept("a"));
+        assertThat(assertThrows(BulkheadFullException.class, () -> consumer.accept("b"))).isSameInstanceAs(rejection);
+        assertThat(rejection.getStackTrace()).isEmpty();
+        assertThat(bulkhead.getRejectedCount()).isEqualTo(2);
+        assertThat(bulkhead.getAvailablePermits()).isEqualTo(0);
+
+        release.countDown();
+        holder.join();
+
+        consumer.accept("c");
+        assertThat(bulkhead.getAvailablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void test_max_wait() throws Exception {
+        final Bulkhead       bulkhead = Bulkhead.of(1, 20, TimeUnit.MILLISECONDS);
+        final CountDownLatch started  = new CountDownLatch(1);
+        final CountDownLatch release  = new CountDownLatch(1);
+
+        final Thread holder = new Thread(() -> {
+            try {
+                bulkhead.call(() -> {
+                    started.countDown();
+                    release.await();
+                    return null;
+                });
+            } catch (final Exception e) {
+                throw new AssertionError(e);
+            }
+        });
+        holder.start();
+        started.await();
+
+        final long start = System.nanoTime();
+        assertThrows(BulkheadFullException.class, () -> bulkhead.call(() -> "value"));
+        assertThat(System.nanoTime() - start).isAtLeast(TimeUnit.MILLISECONDS.toNanos(20));
+        assertThat(bulkhead.getWaitingCount()).isEqualTo(0);
+
+        release.countDown();
+        holder.join();
+
+        assertThat(bulkhead.call(() -> "value")).isEqualTo("value");
+    }
+
+    @Test
+    void test_waiting_call_proceeds_when_permit_is_released() throws Exception {
+        final Bulkhead       bulkhead = Bulkhead.of(1);
+        final CountDownLatch release  = new CountDownLatch(1);
+
+        final CheckedSupplier<String> supplier = CheckedSupplier.withBulkhead(() -> "value", bulkhead);
+
+        bulkhead.acquire();
+
+        final Thread waiter = new Thread(CheckedRunnable.unchecked(() -> {
+            assertThat(supplier.get()).isEqualTo("value");
+            release.countDown();
+        }));
+        waiter.start();
+
+        while (bulkhead.getWaitingCount() == 0)
+            Thread.sleep(1);
+
+        assertThat(release.getCount()).isEqualTo(1);
+        bulkhead.release();
+        assertThat(release.await(5, TimeUnit.SECONDS)).isTrue();
+        waiter.join();
+    }
+
+    @Test
+    void test_permit_is_released_on_failure() throws Exception {
+        final Bulkhead bulkhead = Bulkhead.failFast(1);
+
+        final CheckedSupplier<Object> failing = CheckedSupplier.withBulkhead(() -> {
+            throw new IOException();
+        }, bulkhead);
+
+        assertThrows(IOException.class, failing::get);
+        assertThrows(IOException.class, failing::get);
+        assertThat(bulkhead.getAvailablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void test_interrupted_while_waiting() throws Exception {
+        final Bulkhead bulkhead = Bulkhead.of(1);
+        bulkhead.acquire();
+
+        Thread.currentThread().interrupt();
+        assertThrows(InterruptedException.class, () -> bulkhead.call(() -> "value"));
+        assertThat(Thread.interrupted()).isFalse();
+        assertThat(bulkhead.getWaitingCount()).isEqualTo(0);
+    }
+
+    @Test
+    void test_illegal_arguments() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> Bulkhead.of(0));
+        assertThrows(IllegalArgumentException.class, () -> Bulkhead.failFast(-1));
+        assertThrows(IllegalArgumentException.class, () -> Bulkhead.of(1, -1, TimeUnit.SECONDS));
+    }
+
+}
@@ -0,0 +1,120 @@
+package software.leonov.common.util.function;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CheckedFuturesTest {
+
+    @BeforeAll
+    static void setUpBeforeClass() throws Exception {
+    }
+
+    @AfterAll
+    static void tearDownAfterClass() throws Exception {
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+    }
+
+    @Test
+    void test_supplyAsync() throws Exception {
+        assertThat(CheckedFutures.join(CheckedFutures.supplyAsync(() -> "value"))).isEqualTo("value");
+    }
+
+    @Test
+    void test_supplyAsync_completes_with_original_exception() throws Exception {
+        final IOException failure = new IOException();
+
+        final CompletableFuture<Object> future = CheckedFutures.supplyAsync(() -> {
+            throw failure;
+        });
+
+        assertThat(assertThrows(IOException.class, () -> CheckedFutures.join(future))).isSameInstanceAs(failure);
+        assertThat(future.handle((v, t) -> t).join()).isSameInstanceAs(failure);
+    }
+
+    @Test
+    void test_runAsync() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final IOException failure = new IOException();
+
+            assertThat(CheckedFutures.join(CheckedFutures.runAsync(() -> {
+            }, executor))).isNull();
+            assertThat(assertThrows(IOException.class, () -> CheckedFutures.join(CheckedFutures.runAsync(() -> {
+                throw failure;
+            }, executor)))).isSameInstanceAs(failure);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void test_thenApply() throws Exception {
+        final IOException failure = new IOException();
+
+        final CompletableFuture<Integer> future = CheckedFutures.thenApply(CompletableFuture.completedFuture(2), n -> n * 3);
+
+        assertThat(CheckedFutures.join(future)).isEqualTo(6);
+        assertThat(assertThrows(IOException.class, () -> CheckedFutures.join(CheckedFutures.thenApply(CompletableFuture.completedFuture(2), n -> {
+            throw failure;
+        })))).isSameInstanceAs(failure);
+    }
+
+    @Test
+    void test_thenApply_unwraps_upstream_failure() throws Exception {
+        final IOException failure = new IOException();
+
+        final CompletableFuture<Integer> upstream = CompletableFuture.<Integer>supplyAsync(() -> {
+            throw Unchecked.exception(failure);
+        }).thenApply(n -> n + 1);
+
+        final CompletableFuture<Integer> future = CheckedFutures.thenApplyAsync(upstream, n -> n * 2, Runnable::run);
+
+        assertThat(future.handle((v, t) -> t).join()).isSameInstanceAs(failure);
+        assertThat(assertThrows(IOException.class, () -> CheckedFutures.join(future))).isSameInstanceAs(failure);
+    }
+
+    @Test
+    void test_thenCombine() throws Exception {
+        final IOException failure = new IOException();
+
+        final CompletableFuture<Integer> first  = new CompletableFuture<>();
+        final CompletableFuture<Integer> second = CheckedFutures.supplyAsync(() -> 20);
+        final CompletableFuture<Integer> sum    = CheckedFutures.thenCombine(first, second, Integer::sum);
+
+        first.complete(1);
+        assertThat(CheckedFutures.join(sum)).isEqualTo(21);
+
+        final CompletableFuture<Integer> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new CompletionException(failure));
+        assertThat(assertThrows(IOException.class, () -> CheckedFutures.join(CheckedFutures.thenCombine(failed, second, Integer::sum)))).isSameInstanceAs(failure);
+    }
+
+    @Test
+    void test_join_cancelled() throws Exception {
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+        future.cancel(false);
+
+        assertThrows(CancellationException.class, () -> CheckedFutures.join(future));
+    }
+
+}
@@ -0,0 +1,100 @@
+package software.leonov.common.util.function;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.DoubleSummaryStatistics;
+import java.util.IntSummaryStatistics;
+import java.util.LongSummaryStatistics;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CheckedPrimitiveStreamTest {
+
+    @BeforeAll
+    static void setUpBeforeClass() throws Exception {
+    }
+
+    @AfterAll
+    static void tearDownAfterClass() throws Exception {
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+    }
+
+    @Test
+    void test_int_stream() throws Exception {
+        assertThat(CheckedIntStream.of(1, 2, 3, 4, 5).filter(i -> i % 2 == 1).map(i -> i * i).toArray()).asList().containsExactly(1, 9, 25).inOrder();
+        assertThat(CheckedIntStream.of(1, 2, 3, 4).map(i -> i * 10).sum()).isEqualTo(100);
+        assertThat(CheckedIntStream.of(1, 2, 3, 4).reduce(1, (a, b) -> a * b)).isEqualTo(24);
+        assertThat(CheckedIntStream.of(1, 2, 3).mapToObj(Integer::toString).toList()).containsExactly("1", "2", "3").inOrder();
+
+        final IntSummaryStatistics statistics = CheckedIntStream.of(3, 1, 2).map(i -> -i).summaryStatistics();
+        assertThat(statistics.getMin()).isEqualTo(-3);
+        assertThat(statistics.getMax()).isEqualTo(-1);
+        assertThat(statistics.getSum()).isEqualTo(-6);
+    }
+
+    @Test
+    void test_long_stream() throws Exception {
+        assertThat(CheckedLongStream.of(1, 2, 3).map(l -> l << 40).sum()).isEqualTo(6L << 40);
+        assertThat(CheckedLongStream.of(5, 6, 7).filter(l -> l > 5).reduce(Long::max).getAsLong()).isEqualTo(7L);
+        assertThat(CheckedLongStream.of(1, 2).mapToInt(l -> (int) l * 2).sum()).isEqualTo(6);
+
+        final LongSummaryStatistics statistics = CheckedLongStream.from(LongStream.rangeClosed(1, 100)).summaryStatistics();
+        assertThat(statistics.getCount()).isEqualTo(100);
+        assertThat(statistics.getSum()).isEqualTo(5050);
+    }
+
+    @Test
+    void test_double_stream() throws Exception {
+        assertThat(CheckedDoubleStream.of(1.5, 2.5).map(d -> d * 2).sum()).isEqualTo(8.0);
+        assertThat(CheckedDoubleStream.of(1.0, 4.0, 9.0).map(Math::sqrt).mapToLong(d -> (long) d).toArray()).asList().containsExactly(1L, 2L, 3L).inOrder();
+
+        final DoubleSummaryStatistics statistics = CheckedDoubleStream.of(1.0, 2.0, 3.0).filter(d -> d > 1).summaryStatistics();
+        assertThat(statistics.getAverage()).isEqualTo(2.5);
+    }
+
+    @Test
+    void test_object_to_primitive() throws Exception {
+        assertThat(CheckedStream.of("a", "bb", "ccc").mapToInt(String::length).sum()).isEqualTo(6);
+        assertThat(CheckedStream.of("a", "bb").mapToDouble(String::length).average().getAsDouble()).isEqualTo(1.5);
+    }
+
+    @Test
+    void test_parallel() throws Exception {
+        final AtomicInteger peeked = new AtomicInteger();
+
+        final long sum = CheckedIntStream.from(IntStream.range(0, 100_000)).parallel().peek(i -> peeked.incrementAndGet()).filter(i -> i % 2 == 0).mapToLong(i -> i).sum();
+
+        assertThat(sum).isEqualTo(LongStream.range(0, 100_000).filter(i -> i % 2 == 0).sum());
+        assertThat(peeked.get()).isEqualTo(100_000);
+    }
+
+    @Test
+    void test_checked_exception_is_rethrown() throws Exception {
+        final IOException failure = new IOException();
+
+        final CheckedIntStream stream = CheckedIntStream.of(1, 2, 3).map(i -> {
+            if (i == 2)
+                throw failure;
+            return i;
+        });
+
+        assertThat(assertThrows(IOException.class, stream::sum)).isSameInstanceAs(failure);
+    }
+
+}
@@ -0,0 +1,322 @@
+package software.leonov.common.util.function;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CheckedStreamTest {
+
+    @BeforeAll
+    static void setUpBeforeClass() throws Exception {
+    }
+
+    @AfterAll
+    static void tearDownAfterClass() throws Exception {
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+    }
+
+    @Test
+    void test_fused_stages() throws Exception {
+        final List<String> actual = CheckedStream.of("a", "bb", "ccc", "dddd").filter(s -> s.length() % 2 == 0).map(String::length).flatMap(n -> Stream.of(n, -n)).map(String::valueOf).toList();
+
+        assertThat(actual).containsExactly("2", "-2", "4", "-4").inOrder();
+    }
+
+    @Test
+    void test_forEach() throws Exception {
+        final List<Integer> actual = new ArrayList<>();
+
+        CheckedStream.of(1, 2, 3, 4).map(n -> n * 10).filter(n -> n != 20).forEach(actual::add);
+
+        assertThat(actual).containsExactly(10, 30, 40).inOrder();
+    }
+
+    @Test
+    void test_short_circuit_pulls_lazily() throws Exception {
+        final AtomicInteger mapped = new AtomicInteger();
+
+        final Integer first = CheckedStream.from(Stream.iterate(1, n -> n + 1)).peek(n -> mapped.incrementAndGet()).flatMap(n -> Stream.of(n, n)).filter(n -> n > 2).findFirst().get();
+
+        assertThat(first).isEqualTo(3);
+        assertThat(mapped.get()).isEqualTo(3);
+    }
+
+    @Test
+    void test_null_elements() throws Exception {
+        assertThat(CheckedStream.of("a", "b").map(s -> (String) null).limit(1).toList()).containsExactly((String) null);
+        assertThat(CheckedStream.of("a", null, "c").flatMap(s -> Stream.of(s, s)).anyMatch(s -> s == null)).isTrue();
+
+        final Iterator<String> iterator = CheckedStream.of("a", "b").map(s -> s.equals("a") ? null : s).stream().iterator();
+        assertThat(iterator.next()).isNull();
+        assertThat(iterator.next()).isEqualTo("b");
+        assertThat(iterator.hasNext()).isFalse();
+    }
+
+    @Test
+    void test_sorted() throws Exception {
+        final List<String> actual = CheckedStream.of("ccc", "a", "bb").map(String::toUpperCase).sorted(CheckedComparator.comparingInt(String::length).reversed()).toList();
+
+        assertThat(actual).containsExactly("CCC", "BB", "A").inOrder();
+    }
+
+    @Test
+    void test_reduce() throws Exception {
+        assertThat(CheckedStream.of(1, 2, 3, 4).map(n -> n * n).reduce(0, Integer::sum)).isEqualTo(30);
+        assertThat(CheckedStream.of(1, 2, 3, 4).filter(n -> n > 4).reduce(Integer::sum).isPresent()).isFalse();
+    }
+
+    @Test
+    void test_parallel() throws Exception {
+        final List<Integer> input    = IntStream.range(0, 100_000).boxed().collect(Collectors.toList());
+        final List<Integer> expected = input.stream().filter(n -> n % 3 == 0).map(n -> n * 2).collect(Collectors.toList());
+
+        assertThat(CheckedStream.from(input).parallel().filter(n -> n % 3 == 0).map(n -> n * 2).toList()).isEqualTo(expected);
+
+        final LongAdder sum = new LongAdder();
+        CheckedStream.from(input).parallel().filter(n -> n % 3 == 0).map(n -> n * 2).forEach(sum::add);
+        assertThat(sum.sum()).isEqualTo(expected.stream().mapToLong(Integer::longValue).sum());
+    }
+
+    @Test
+    void test_checked_exception_is_rethrown() throws Exception {
+        final IOException failure = new IOException();
+
+        final CheckedStream<String> stream = CheckedStream.of("a", "b").map(s -> {
+            if (s.equals("b"))
+                throw failure;
+            return s;
+        });
+
+        assertThat(assertThrows(IOException.class, stream::toList)).isSameInstanceAs(failure);
+    }
+
+    @Test
+    void test_close() throws Exception {
+        final AtomicInteger closed = new AtomicInteger();
+
+        try (final CheckedStream<String> stream = CheckedStream.from(Arrays.asList("a")).onClose(closed::incrementAndGet).map(String::trim)) {
+            assertThat(stream.count()).isEqualTo(1);
+        }
+
+        assertThat(closed.get()).isEqualTo(1);
+    }
+
+    @Test
+    void test_failFast_stops_early_and_rethrows_original() throws Exception {
+        final IOException failure   = new IOException();
+        final LongAdder   processed = new LongAdder();
+
+        final CheckedStream<Integer> stream = CheckedStream.from(IntStream.range(0, 10_000_000).boxed()).parallel().failFast().map(n -> {
+            processed.increment();
+            if (n == 1000)
+                throw failure;
+            return n;
+        });
+
+        assertThat(assertThrows(IOException.class, stream::count)).isSameInstanceAs(failure);
+        assertThat(processed.sum()).isLessThan(10_000_000L);
+    }
+
+    @Test
+    void test_failFast_attaches_others_as_suppressed() throws Exception {
+        final AtomicInteger thrown = new AtomicInteger();
+
+        final IOException e = assertThrows(IOException.class, () -> CheckedStream.from(IntStream.range(0, 100_000).boxed()).parallel().failFast().filter(n -> n % 1000 == 0).forEach(n -> {
+            thrown.incrementAndGet();
+            throw new IOException(Integer.toString(n));
+        }));
+
+        assertThat(e.getSuppressed().length).isLessThan(thrown.get());
+        for (final Throwable suppressed : e.getSuppressed())
+            assertThat(suppressed).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void test_failFast_terminal_lambda() throws Exception {
+        final IOException failure = new IOException();
+
+        final CheckedStream<Integer> stream = CheckedStream.of(3, 1, 2).failFast().sorted().map(n -> n * 2);
+
+        assertThat(assertThrows(IOException.class, () -> stream.reduce((a, b) -> {
+            throw failure;
+        }))).isSameInstanceAs(failure);
+    }
+
+    @Test
+    void test_mapBatch() throws Exception {
+        final List<Integer> sizes = new ArrayList<>();
+
+        final List<String> result = CheckedStream.from(IntStream.range(0, 10).boxed()).filter(n -> n != 5).mapBatch(4, batch -> {
+            sizes.add(batch.size());
+            return batch.stream().map(n -> "#" + n).collect(Collectors.toList());
+        }).toList();
+
+        assertThat(result).containsExactly("#0", "#1", "#2", "#3", "#4", "#6", "#7", "#8", "#9").inOrder();
+        assertThat(sizes).containsExactly(4, 4, 1).inOrder();
+    }
+
+    @Test
+    void test_mapBatch_null_results() throws Exception {
+        final CheckedFunction<List<Integer>, List<String>> mapper = batch -> batch.stream().map(n -> n % 2 == 0 ? null : "#" + n).collect(Collectors.toList());
+
+        assertThat(CheckedStream.of(0, 1, 2, 3, 4).mapBatch(2, mapper).toList()).containsExactly(null, "#1", null, "#3", null).inOrder();
+        assertThat(CheckedStream.of(0, 1, 2, 3, 4).mapBatch(2, mapper).limit(3).toList()).containsExactly(null, "#1", null).inOrder();
+    }
+
+    @Test
+    void test_mapBatch_parallel() throws Exception {
+        final LongAdder calls = new LongAdder();
+
+        final List<Integer> result = CheckedStream.from(IntStream.range(0, 100_000).boxed()).parallel().mapBatch(256, batch -> {
+            calls.increment();
+            return batch.stream().map(n -> n * 2).collect(Collectors.toList());
+        }).toList();
+
+        assertThat(result).containsExactlyElementsIn(IntStream.range(0, 100_000).map(n -> n * 2).boxed().collect(Collectors.toList())).inOrder();
+        assertThat(calls.sum()).isLessThan(100_000L / 128);
+    }
+
+    @Test
+    void test_mapBatch_linger() throws Exception {
+        final List<Integer> sizes = new ArrayList<>();
+
+        final Stream<Integer> slow = Stream.iterate(0, n -> {
+            try {
+                Thread.sleep(5);
+            } catch (final InterruptedException e) {
+                throw new AssertionError(e);
+            }
+            return n + 1;
+        }).limit(20);
+
+        final List<Integer> result = CheckedStream.from(slow).mapBatch(1000, 20, TimeUnit.MILLISECONDS, batch -> {
+            sizes.add(batch.size());
+            return batch;
+        }).toList();
+
+        assertThat(result).hasSize(20);
+        assertThat(sizes.size()).isGreaterThan(1);
+    }
+
+    @Test
+    void test_mapBatch_exception_is_rethrown() throws Exception {
+        final IOException failure = new IOException();
+
+        final CheckedStream<Integer> stream = CheckedStream.of(1, 2, 3).mapBatch(2, batch -> {
+            throw failure;
+        });
+
+        assertThat(assertThrows(IOException.class, stream::toList)).isSameInstanceAs(failure);
+        assertThrows(IllegalArgumentException.class, () -> CheckedStream.of(1).mapBatch(0, batch -> batch));
+    }
+
+    @Test
+    void test_mapAsync() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final AtomicInteger running = new AtomicInteger();
+            final AtomicInteger peak    = new AtomicInteger();
+
+            final List<Integer> result = CheckedStream.from(IntStream.range(0, 200).boxed()).mapAsync(4, executor, n -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep((n * 7) % 3);
+                running.decrementAndGet();
+                return n * 2;
+            }).toList();
+
+            assertThat(result).containsExactlyElementsIn(IntStream.range(0, 200).map(n -> n * 2).boxed().collect(Collectors.toList())).inOrder();
+            assertThat(peak.get()).isAtMost(4);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void test_mapAsyncUnordered() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Integer> result = CheckedStream.from(IntStream.range(0, 100).boxed()).mapAsyncUnordered(4, executor, n -> {
+                Thread.sleep(n % 3);
+                return n;
+            }).toList();
+
+            assertThat(result).containsExactlyElementsIn(IntStream.range(0, 100).boxed().collect(Collectors.toList()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void test_mapAsync_backpressure() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final AtomicInteger pulled = new AtomicInteger();
+
+            final Iterator<Integer> itor = CheckedStream.from(IntStream.range(0, 1000).boxed()).peek(n -> pulled.incrementAndGet()).mapAsync(3, executor, n -> n).stream().iterator();
+
+            for (int i = 0; i < 10; i++)
+                assertThat(itor.next()).isEqualTo(i);
+            assertThat(pulled.get()).isAtMost(10 + 3);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void test_mapAsync_failure_cancels_outstanding() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final IOException    failure     = new IOException();
+            final CountDownLatch started     = new CountDownLatch(3);
+            final CountDownLatch interrupted = new CountDownLatch(3);
+
+            final CheckedStream<Integer> stream = CheckedStream.of(0, 1, 2, 3, 4, 5).mapAsync(4, executor, n -> {
+                if (n == 3) {
+                    started.await();
+                    throw failure;
+                }
+                started.countDown();
+                try {
+                    Thread.sleep(10_000);
+                } catch (final InterruptedException e) {
+                    interrupted.countDown();
+                    throw e;
+                }
+                return n;
+            });
+
+            assertThat(assertThrows(IOException.class, stream::toList)).isSameInstanceAs(failure);
+            assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
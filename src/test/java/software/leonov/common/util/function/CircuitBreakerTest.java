@@ -0,0 +1,145 @@
+package software.leonov.common.util.function;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import software.leonov.common.util.function.CircuitBreaker.State;
+
+class CircuitBreakerTest {
+
+    @BeforeAll
+    static void setUpBeforeClass() throws Exception {
+    }
+
+    @AfterAll
+    static void tearDownAfterClass() throws Exception {
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+    }
+
+    @Test
+    void test_opens_on_failure_rate() throws Exception {
+        final CircuitBreaker breaker = CircuitBreaker.of(10, 0.5, 1, TimeUnit.MINUTES);
+        final AtomicBoolean  fail    = new AtomicBoolean();
+        final AtomicInteger  calls   = new AtomicInteger();
+
+        final CheckedSupplier<String> supplier = CheckedSupplier.withCircuitBreaker(() -> {
+            calls.incrementAndGet();
+            if (fail.get())
+                throw new IOException();
+            return "value";
+        }, breaker);
+
+        for (int i = 0; i < 6; i++)
+            assertThat(supplier.get()).isEqualTo("value");
+
+        fail.set(true);
+        for (int i = 0; i < 4; i++)
+            assertThrows(IOException.class, supplier::get);
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(breaker.getFailureRate()).isEqualTo(0.4);
+
+        assertThrows(IOException.class, supplier::get); // the window now holds 5 failures out of 10
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+
+        final CircuitBreakerOpenException rejection = assertThrows(CircuitBreakerOpenException.class, supplier::get);
+        assertThat(assertThrows(CircuitBreakerOpenException.class, supplier::get)).isSameInstanceAs(rejection);
+        assertThat(rejection.getStackTrace()).isEmpty();
+
+        assertThat(calls.get()).isEqualTo(11);
+        assertThat(breaker.getSuccessCount()).isEqualTo(6);
+        assertThat(breaker.getFailureCount()).isEqualTo(5);
+        assertThat(breaker.getRejectedCount()).isEqualTo(2);
+        assertThat(breaker.getOpenCount()).isEqualTo(1);
+    }
+
+    @Test
+    void test_half_open_closes_after_successful_trials() throws Exception {
+        final CircuitBreaker breaker     = CircuitBreaker.of(2, 1, 20, TimeUnit.MILLISECONDS);
+        final List<String>   transitions = new ArrayList<>();
+        breaker.addListener((from, to) -> transitions.add(from + "->" + to));
+
+        final CheckedRunnable failing = CheckedRunnable.withCircuitBreaker(() -> {
+            throw new IOException();
+        }, breaker);
+
+        final CheckedFunction<Integer, Integer> function = CheckedFunction.withCircuitBreaker(n -> n + 1, breaker);
+
+        assertThrows(IOException.class, failing::run);
+        assertThrows(IOException.class, failing::run);
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        assertThrows(CircuitBreakerOpenException.class, () -> function.apply(1));
+
+        Thread.sleep(30);
+
+        assertThat(function.apply(1)).isEqualTo(2);
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        assertThat(function.apply(2)).isEqualTo(3);
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+
+        assertThat(transitions).containsExactly("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED").inOrder();
+    }
+
+    @Test
+    void test_half_open_reopens_after_failed_trial() throws Exception {
+        final CircuitBreaker breaker = CircuitBreaker.of(1, 1, 20, TimeUnit.MILLISECONDS);
+
+        final CheckedSupplier<Object> failing = CheckedSupplier.withCircuitBreaker(() -> {
+            throw new IOException();
+        }, breaker);
+
+        assertThrows(IOException.class, failing::get);
+        Thread.sleep(30);
+        assertThrows(IOException.class, failing::get);
+
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        assertThat(breaker.getOpenCount()).isEqualTo(2);
+    }
+
+    @Test
+    void test_opens_on_slow_call_rate() throws Exception {
+        final CircuitBreaker breaker = CircuitBreaker.of(4, 1, 5, 0.5, 1, TimeUnit.MILLISECONDS);
+
+        breaker.call(() -> null);
+        breaker.call(() -> null);
+        breaker.call(() -> {
+            Thread.sleep(10);
+            return null;
+        });
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+
+        breaker.call(() -> {
+            Thread.sleep(10);
+            return null;
+        });
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        assertThat(breaker.getSlowCallCount()).isEqualTo(2);
+    }
+
+    @Test
+    void test_illegal_arguments() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> CircuitBreaker.of(0, 0.5, 1, TimeUnit.SECONDS));
+        assertThrows(IllegalArgumentException.class, () -> CircuitBreaker.of(10, 0, 1, TimeUnit.SECONDS));
+        assertThrows(IllegalArgumentException.class, () -> CircuitBreaker.of(10, 0.5, 0, TimeUnit.SECONDS));
+    }
+
+}
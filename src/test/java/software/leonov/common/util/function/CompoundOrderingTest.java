@@ -0,0 +1,115 @@
+package software.leonov.common.util.function;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.truth.Truth.assertThat;
+import static software.leonov.common.util.function.CheckedComparator.comparing;
+import static software.leonov.common.util.function.CheckedComparator.comparingInt;
+import static software.leonov.common.util.function.CheckedComparator.naturalOrder;
+import static software.leonov.common.util.function.CheckedComparator.nullsFirst;
+import static software.leonov.common.util.function.CheckedComparator.nullsLast;
+import static software.leonov.common.util.function.CheckedComparator.unchecked;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CompoundOrderingTest {
+
+    private static List<String> strings;
+
+    @BeforeAll
+    static void setUpBeforeClass() throws Exception {
+        final Random random = new Random(42);
+        strings = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            final StringBuilder sb = new StringBuilder();
+            for (int j = random.nextInt(4); j >= 0; j--)
+                sb.append((char) ('a' + random.nextInt(3)));
+            strings.add(random.nextInt(10) == 0 ? null : sb.toString());
+        }
+    }
+
+    @AfterAll
+    static void tearDownAfterClass() throws Exception {
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+    }
+
+    @Test
+    void test_thenComparing_is_flattened() throws Exception {
+        final CheckedComparator<String> comparator = comparingInt(String::length).thenComparing(s -> s.charAt(0)).thenComparingLong(s -> s.charAt(s.length() - 1)).reversed();
+
+        assertThat(comparator).isInstanceOf(CompoundOrdering.class);
+    }
+
+    @Test
+    void test_thenComparing() throws Exception {
+        final List<String> actual = newArrayList("bb", "a", "ab", "c", "ba");
+
+        actual.sort(unchecked(comparingInt(String::length).thenComparing(naturalOrder())));
+
+        assertThat(actual).isEqualTo(newArrayList("a", "c", "ab", "ba", "bb"));
+    }
+
+    @Test
+    void test_thenComparing_reversed() throws Exception {
+        final List<String> actual = newArrayList("bb", "a", "ab", "c", "ba");
+
+        actual.sort(unchecked(comparingInt(String::length).thenComparing(CheckedComparator.<String>naturalOrder().reversed())));
+
+        assertThat(actual).isEqualTo(newArrayList("c", "a", "bb", "ba", "ab"));
+    }
+
+    @Test
+    void test_chain_matches_java_util_Comparator() throws Exception {
+        final List<String> nonNull = new ArrayList<>(strings);
+        nonNull.removeIf(s -> s == null);
+
+        final List<String> expected = new ArrayList<>(nonNull);
+        expected.sort(Comparator.comparingInt(String::length).reversed().thenComparing(s -> s.charAt(0)).thenComparing(Comparator.<String>naturalOrder().reversed()));
+
+        final List<String> actual = new ArrayList<>(nonNull);
+        actual.sort(unchecked(comparingInt(String::length).reversed().thenComparing(s -> s.charAt(0)).thenComparing(CheckedComparator.<String>naturalOrder().reversed())));
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void test_nulls_matches_java_util_Comparator() throws Exception {
+        final List<String> expected = new ArrayList<>(strings);
+        expected.sort(Comparator.nullsFirst(Comparator.comparingInt(String::length)).thenComparing(Comparator.nullsLast(Comparator.<String>naturalOrder())).reversed());
+
+        final List<String> actual = new ArrayList<>(strings);
+        actual.sort(unchecked(nullsFirst(comparingInt(String::length)).thenComparing(nullsLast(naturalOrder())).reversed()));
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void test_comparing_nulls_key_matches_java_util_Comparator() throws Exception {
+        final List<String> nonNull = new ArrayList<>(strings);
+        nonNull.removeIf(s -> s == null);
+
+        final List<String> expected = new ArrayList<>(nonNull);
+        expected.sort(Comparator.comparing((String s) -> s.length() > 2 ? null : s, Comparator.nullsFirst(Comparator.<String>reverseOrder())).thenComparing(Comparator.naturalOrder()));
+
+        final List<String> actual = new ArrayList<>(nonNull);
+        actual.sort(unchecked(comparing((String s) -> s.length() > 2 ? null : s, nullsFirst(CheckedComparator.<String>reverseOrder())).thenComparing(naturalOrder())));
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+}
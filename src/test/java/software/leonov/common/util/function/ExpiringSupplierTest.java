@@ -0,0 +1,123 @@
+package software.leonov.common.util.function;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ExpiringSupplierTest {
+
+    private Queue<Runnable> pending;
+
+    @BeforeAll
+    static void setUpBeforeClass() throws Exception {
+    }
+
+    @AfterAll
+    static void tearDownAfterClass() throws Exception {
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pending = new ArrayDeque<>();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+    }
+
+    @Test
+    void test_value_is_cached_until_expired() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+
+        final ExpiringSupplier<Integer> supplier = CheckedSupplier.memoizeWithExpiration(calls::incrementAndGet, 1, TimeUnit.HOURS, pending::add);
+
+        assertThat(supplier.get()).isEqualTo(1);
+        assertThat(supplier.get()).isEqualTo(1);
+        assertThat(pending).isEmpty();
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void test_stale_value_is_served_while_reloading() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+
+        final ExpiringSupplier<Integer> supplier = CheckedSupplier.memoizeWithExpiration(calls::incrementAndGet, 1, TimeUnit.NANOSECONDS, pending::add);
+
+        assertThat(supplier.get()).isEqualTo(1);
+        Thread.sleep(1);
+
+        assertThat(supplier.get()).isEqualTo(1);
+        assertThat(supplier.get()).isEqualTo(1);
+        assertThat(pending).hasSize(1);
+
+        pending.remove().run();
+
+        assertThat(supplier.get()).isEqualTo(2);
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void test_failed_reload_keeps_last_good_value() throws Exception {
+        final IOException   failure = new IOException();
+        final AtomicInteger calls   = new AtomicInteger();
+
+        final ExpiringSupplier<Integer> supplier = CheckedSupplier.memoizeWithExpiration(() -> {
+            if (calls.incrementAndGet() > 1)
+                throw failure;
+            return 42;
+        }, 1, TimeUnit.NANOSECONDS, pending::add);
+
+        assertThat(supplier.get()).isEqualTo(42);
+        Thread.sleep(1);
+        assertThat(supplier.get()).isEqualTo(42);
+
+        pending.remove().run();
+
+        assertThat(supplier.get()).isEqualTo(42);
+        assertThat(supplier.getFailureCount()).isEqualTo(1);
+        assertThat(supplier.getLastFailure()).isSameInstanceAs(failure);
+    }
+
+    @Test
+    void test_direct_reload_returns_fresh_value() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+
+        final ExpiringSupplier<Integer> supplier = CheckedSupplier.memoizeWithExpiration(() -> {
+            Thread.sleep(2);
+            return calls.incrementAndGet();
+        }, 1, TimeUnit.NANOSECONDS);
+
+        assertThat(supplier.get()).isEqualTo(1);
+        assertThat(supplier.get()).isEqualTo(2);
+        assertThat(supplier.getLastLoadDuration(TimeUnit.NANOSECONDS)).isGreaterThan(0L);
+    }
+
+    @Test
+    void test_failed_initial_load_is_rethrown() throws Exception {
+        final IOException failure = new IOException();
+
+        final ExpiringSupplier<Integer> supplier = CheckedSupplier.memoizeWithExpiration(() -> {
+            throw failure;
+        }, 1, TimeUnit.HOURS, pending::add);
+
+        assertThat(assertThrows(IOException.class, supplier::get)).isSameInstanceAs(failure);
+        assertThat(supplier.getFailureCount()).isEqualTo(1);
+    }
+
+    @Test
+    void test_non_positive_duration() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> CheckedSupplier.memoizeWithExpiration(() -> 1, 0, TimeUnit.SECONDS));
+    }
+
+}
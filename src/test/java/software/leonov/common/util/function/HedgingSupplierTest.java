@@ -0,0 +1,135 @@
+package software.leonov.common.util.function;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HedgingSupplierTest {
+
+    private ExecutorService executor;
+
+    @BeforeAll
+    static void setUpBeforeClass() throws Exception {
+    }
+
+    @AfterAll
+    static void tearDownAfterClass() throws Exception {
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void test_fast_call_is_not_hedged() throws Exception {
+        final HedgingSupplier<String> supplier = CheckedSupplier.hedge(() -> "value", 2, 1, TimeUnit.SECONDS, executor);
+
+        assertThat(supplier.get()).isEqualTo("value");
+        assertThat(supplier.getHedgeCount()).isEqualTo(0);
+        assertThat(supplier.getLatency(0.5, TimeUnit.NANOSECONDS)).isAtLeast(0);
+    }
+
+    @Test
+    void test_slow_call_is_hedged_and_cancelled() throws Exception {
+        final AtomicInteger  calls       = new AtomicInteger();
+        final CountDownLatch interrupted = new CountDownLatch(1);
+
+        final HedgingSupplier<Integer> supplier = CheckedSupplier.hedge(() -> {
+            final int call = calls.incrementAndGet();
+            if (call == 1)
+                try {
+                    Thread.sleep(10_000);
+                } catch (final InterruptedException e) {
+                    interrupted.countDown();
+                    throw e;
+                }
+            return call;
+        }, 3, 20, TimeUnit.MILLISECONDS, executor);
+
+        assertThat(supplier.get()).isEqualTo(2);
+        assertThat(supplier.getHedgeCount()).isEqualTo(1);
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void test_failure_waits_for_other_attempts() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+
+        final HedgingSupplier<String> supplier = CheckedSupplier.hedge(() -> {
+            if (calls.incrementAndGet() == 1) {
+                Thread.sleep(50);
+                throw new IOException();
+            }
+            return "second";
+        }, 2, 10, TimeUnit.MILLISECONDS, executor);
+
+        assertThat(supplier.get()).isEqualTo("second");
+    }
+
+    @Test
+    void test_last_failure_is_rethrown() throws Exception {
+        final IOException   first  = new IOException();
+        final IOException   second = new IOException();
+        final AtomicInteger calls  = new AtomicInteger();
+
+        final HedgingSupplier<Object> supplier = CheckedSupplier.hedge(() -> {
+            if (calls.incrementAndGet() == 1) {
+                Thread.sleep(100);
+                throw first;
+            }
+            throw second;
+        }, 2, 10, TimeUnit.MILLISECONDS, executor);
+
+        assertThat(assertThrows(IOException.class, supplier::get)).isSameInstanceAs(first);
+        assertThrows(IllegalArgumentException.class, () -> CheckedSupplier.hedge(() -> null, 1, 10, TimeUnit.MILLISECONDS, executor));
+    }
+
+    @Test
+    void test_adaptive_delay() throws Exception {
+        final HedgingSupplier<Object> supplier = CheckedSupplier.hedgeAdaptive(() -> {
+            Thread.sleep(1);
+            return null;
+        }, 2, 10, TimeUnit.SECONDS, executor);
+
+        assertThat(supplier.getHedgeDelay(TimeUnit.SECONDS)).isEqualTo(10);
+
+        for (int i = 0; i < 50; i++)
+            supplier.get();
+
+        assertThat(supplier.getHedgeDelay(TimeUnit.MILLISECONDS)).isLessThan(1000);
+        assertThat(supplier.getHedgeDelay(TimeUnit.NANOSECONDS)).isEqualTo(supplier.getLatency(0.95, TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    void test_histogram() throws Exception {
+        final LatencyHistogram histogram = new LatencyHistogram(1 << 20);
+
+        for (int i = 1; i <= 1000; i++)
+            histogram.record(i * 1000L);
+
+        assertThat(histogram.count()).isEqualTo(1000);
+        assertThat((double) histogram.percentile(0.5)).isWithin(500_000 * 0.125).of(500_000);
+        assertThat((double) histogram.percentile(0.95)).isWithin(950_000 * 0.125).of(950_000);
+        assertThat(histogram.percentile(0.95)).isAtLeast(950_000L);
+        assertThat(new LatencyHistogram(10).percentile(0.5)).isEqualTo(-1);
+    }
+
+}
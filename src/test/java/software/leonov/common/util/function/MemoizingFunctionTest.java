@@ -0,0 +1,193 @@
+package software.leonov.common.util.function;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MemoizingFunctionTest {
+
+    private static ExecutorService executor;
+
+    @BeforeAll
+    static void setUpBeforeClass() throws Exception {
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterAll
+    static void tearDownAfterClass() throws Exception {
+        executor.shutdownNow();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+    }
+
+    @Test
+    void test_memoize_counts_hits_and_misses() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+
+        final MemoizingFunction<String, Integer> memoized = CheckedFunction.memoize(s -> {
+            calls.incrementAndGet();
+            return s == null ? -1 : s.length();
+        }, 10);
+
+        assertThat(memoized.apply("a")).isEqualTo(1);
+        assertThat(memoized.apply("bb")).isEqualTo(2);
+        assertThat(memoized.apply("a")).isEqualTo(1);
+        assertThat(memoized.apply(null)).isEqualTo(-1);
+        assertThat(memoized.apply(null)).isEqualTo(-1);
+
+        assertThat(calls.get()).isEqualTo(3);
+        assertThat(memoized.getMissCount()).isEqualTo(3);
+        assertThat(memoized.getHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void test_memoize_single_flight() throws Exception {
+        final AtomicInteger  calls = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+
+        final MemoizingFunction<Integer, Integer> memoized = CheckedFunction.memoize(i -> {
+            calls.incrementAndGet();
+            Thread.sleep(50);
+            return i * 2;
+        }, 10);
+
+        final List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++)
+            futures.add(executor.submit(() -> {
+                start.await();
+                return memoized.apply(21);
+            }));
+        start.countDown();
+
+        for (final Future<Integer> future : futures)
+            assertThat(future.get()).isEqualTo(42);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void test_memoize_evicts_unreferenced_entries_first() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+
+        final MemoizingFunction<Integer, Integer> memoized = CheckedFunction.memoize(i -> {
+            calls.incrementAndGet();
+            return i;
+        }, 3);
+
+        memoized.apply(1);
+        memoized.apply(2);
+        memoized.apply(3);
+        memoized.apply(1); // 1 gets a second chance
+        memoized.apply(4); // evicts 2
+
+        assertThat(memoized.size()).isEqualTo(3);
+        assertThat(memoized.getEvictionCount()).isEqualTo(1);
+
+        calls.set(0);
+        memoized.apply(1);
+        assertThat(calls.get()).isEqualTo(0);
+        memoized.apply(2);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void test_memoize_size_is_bounded() throws Exception {
+        final MemoizingFunction<Integer, Integer> memoized = CheckedFunction.memoize(i -> i, 100);
+
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            final int seed = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++)
+                    assertThat(memoized.apply((i * 31 + seed) % 1000)).isEqualTo((i * 31 + seed) % 1000);
+                return null;
+            }));
+        }
+        for (final Future<?> future : futures)
+            future.get();
+
+        assertThat(memoized.size()).isAtMost(100);
+        assertThat(memoized.getHitCount() + memoized.getMissCount()).isEqualTo(80_000);
+    }
+
+    @Test
+    void test_memoize_exceptions_are_not_cached() throws Exception {
+        final IOException   failure = new IOException();
+        final AtomicInteger calls   = new AtomicInteger();
+
+        final MemoizingFunction<String, String> memoized = CheckedFunction.memoize(s -> {
+            if (calls.incrementAndGet() == 1)
+                throw failure;
+            return s;
+        }, 10);
+
+        assertThat(assertThrows(IOException.class, () -> memoized.apply("a"))).isSameInstanceAs(failure);
+        assertThat(memoized.size()).isEqualTo(0);
+        assertThat(memoized.apply("a")).isEqualTo("a");
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void test_memoize_failures_do_not_accumulate() throws Exception {
+        final MemoizingFunction<Integer, Integer> memoized = CheckedFunction.memoize(i -> {
+            if (i % 2 == 1)
+                throw new IOException();
+            return i;
+        }, 10);
+
+        for (int i = 0; i < 10_000; i++) {
+            final int key = i;
+            if (key % 2 == 1)
+                assertThrows(IOException.class, () -> memoized.apply(key));
+            else
+                memoized.apply(key % 10); // stays within the maximum size, so nothing is evicted
+        }
+
+        assertThat(memoized.size()).isEqualTo(5);
+        assertThat(memoized.getEvictionCount()).isEqualTo(0);
+        assertThat(memoized.clockSize()).isAtMost(5 + 10 + 1);
+    }
+
+    @Test
+    void test_memoize_bifunction() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+
+        final MemoizingBiFunction<String, Integer, String> memoized = CheckedBiFunction.memoize((s, n) -> {
+            calls.incrementAndGet();
+            return s + n;
+        }, 10);
+
+        assertThat(memoized.apply("a", 1)).isEqualTo("a1");
+        assertThat(memoized.apply("a", 2)).isEqualTo("a2");
+        assertThat(memoized.apply("a", 1)).isEqualTo("a1");
+        assertThat(memoized.apply(null, null)).isEqualTo("nullnull");
+
+        assertThat(calls.get()).isEqualTo(3);
+        assertThat(memoized.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void test_memoize_non_positive_max_size() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> CheckedFunction.memoize(s -> s, 0));
+    }
+
+}
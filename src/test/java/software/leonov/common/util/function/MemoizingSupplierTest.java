@@ -0,0 +1,108 @@
+package software.leonov.common.util.function;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MemoizingSupplierTest {
+
+    private static ExecutorService executor;
+
+    @BeforeAll
+    static void setUpBeforeClass() throws Exception {
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterAll
+    static void tearDownAfterClass() throws Exception {
+        executor.shutdownNow();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+    }
+
+    @Test
+    void test_memoize_computes_once() throws Exception {
+        final AtomicInteger  calls = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+
+        final CheckedSupplier<String> memoized = CheckedSupplier.memoize(() -> {
+            calls.incrementAndGet();
+            Thread.sleep(50);
+            return "value";
+        });
+
+        final List<Future<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++)
+            futures.add(executor.submit(() -> {
+                start.await();
+                return memoized.get();
+            }));
+        start.countDown();
+
+        for (final Future<String> future : futures)
+            assertThat(future.get()).isEqualTo("value");
+        assertThat(memoized.get()).isEqualTo("value");
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void test_memoize_retries_after_failure() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+
+        final CheckedSupplier<String> memoized = CheckedSupplier.memoize(() -> {
+            if (calls.incrementAndGet() == 1)
+                throw new IOException();
+            return null;
+        });
+
+        assertThrows(IOException.class, memoized::get);
+        assertThat(memoized.get()).isNull();
+        assertThat(memoized.get()).isNull();
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void test_memoize_idempotent() throws Exception {
+        final CheckedSupplier<String> memoized = CheckedSupplier.memoize(() -> "value");
+
+        assertThat(CheckedSupplier.memoize(memoized)).isSameInstanceAs(memoized);
+    }
+
+    @Test
+    void test_memoize_recursive() throws Exception {
+        final CheckedSupplier<?>[] memoized = new CheckedSupplier<?>[1];
+        memoized[0] = CheckedSupplier.memoize(() -> memoized[0].get());
+
+        assertThrows(IllegalStateException.class, memoized[0]::get);
+    }
+
+    @Test
+    void test_memoize_int() throws Exception {
+        final AtomicInteger      calls    = new AtomicInteger();
+        final CheckedIntSupplier memoized = CheckedIntSupplier.memoize(calls::incrementAndGet);
+
+        assertThat(memoized.getAsInt()).isEqualTo(1);
+        assertThat(memoized.getAsInt()).isEqualTo(1);
+    }
+
+}
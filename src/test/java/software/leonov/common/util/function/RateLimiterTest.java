@@ -0,0 +1,139 @@
+package software.leonov.common.util.function;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTest {
+
+
+    @BeforeAll
+    static void setUpBeforeClass() throws Exception {
+    }
+
+    @AfterAll
+    static void tearDownAfterClass() throws Exception {
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+    }
+
+    @Test
+    void test_fail_fast_allows_burst_then_rejects() throws Exception {
+        final RateLimiter   limiter = RateLimiter.failFast(5, 1, TimeUnit.MINUTES);
+        final AtomicInteger calls   = new AtomicInteger();
+
+        final CheckedRunnable runnable = CheckedRunnable.withRateLimiter(calls::incrementAndGet, limiter);
+
+        assertThat(limiter.getAvailablePermits()).isEqualTo(5);
+        for (int i = 0; i < 5; i++)
+            runnable.run();
+        assertThat(limiter.getAvailablePermits()).isEqualTo(0);
+
+        final RateLimitExceededException rejection = assertThrows(RateLimitExceededException.class, runnable::run);
+        assertThat(assertThrows(RateLimitExceededException.class, runnable::run)).isSameInstanceAs(rejection);
+        assertThat(rejection.getStackTrace()).isEmpty();
+
+        assertThat(calls.get()).isEqualTo(5);
+        assertThat(limiter.getRejectedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void test_refills_over_time() throws Exception {
+        final RateLimiter limiter = RateLimiter.failFast(2, 2, TimeUnit.SECONDS); // a token every second
+
+        final CheckedFunction<Integer, Integer> function = CheckedFunction.withRateLimiter(i -> i + 1, limiter);
+
+        assertThat(function.apply(1)).isEqualTo(2);
+        assertThat(function.apply(2)).isEqualTo(3);
+        assertThrows(RateLimitExceededException.class, () -> function.apply(3));
+
+        Thread.sleep(1_100);
+
+        assertThat(function.apply(3)).isEqualTo(4);
+    }
+
+    @Test
+    void test_idle_bucket_is_capped() throws Exception {
+        final RateLimiter limiter = RateLimiter.failFast(3, 3, TimeUnit.SECONDS); // a token every second
+
+        Thread.sleep(1_100); // long enough for a fourth token if the bucket were not capped
+
+        assertThat(limiter.getAvailablePermits()).isEqualTo(3);
+        for (int i = 0; i < 3; i++)
+            limiter.call(() -> null);
+        assertThrows(RateLimitExceededException.class, () -> limiter.call(() -> null));
+    }
+
+    @Test
+    void test_waits_for_token_in_parallel_stream() throws Exception {
+        final RateLimiter   limiter = RateLimiter.of(10, 100, TimeUnit.MILLISECONDS);
+        final AtomicInteger calls   = new AtomicInteger();
+
+        final CheckedConsumer<Integer> consumer = CheckedConsumer.withRateLimiter(i -> calls.incrementAndGet(), limiter);
+
+        final long start = System.nanoTime();
+        IntStream.range(0, 30).boxed().parallel().forEach(CheckedConsumer.unchecked(consumer));
+        final long elapsed = System.nanoTime() - start;
+
+        // a full bucket of 10 calls proceeds at once, the other 20 are spaced 10 milliseconds apart
+        assertThat(calls.get()).isEqualTo(30);
+        assertThat(elapsed).isAtLeast(TimeUnit.MILLISECONDS.toNanos(190));
+        assertThat(limiter.getWaitingCount()).isEqualTo(0);
+        assertThat(limiter.getRejectedCount()).isEqualTo(0);
+    }
+
+    @Test
+    void test_max_wait() throws Exception {
+        final RateLimiter limiter = RateLimiter.of(1, 50, 20, TimeUnit.MILLISECONDS);
+
+        final CheckedSupplier<String> supplier = CheckedSupplier.withRateLimiter(() -> "value", limiter);
+
+        assertThat(supplier.get()).isEqualTo("value");
+        assertThrows(RateLimitExceededException.class, supplier::get); // the next token is due in 50 milliseconds
+
+        Thread.sleep(35);
+
+        assertThat(supplier.get()).isEqualTo("value"); // now due within 20 milliseconds
+        assertThat(limiter.getRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void test_interrupted_while_waiting_returns_token() throws Exception {
+        final RateLimiter limiter = RateLimiter.of(1, 100, TimeUnit.MILLISECONDS);
+
+        limiter.call(() -> null);
+
+        Thread.currentThread().interrupt();
+        assertThrows(InterruptedException.class, () -> limiter.call(() -> null));
+        assertThat(Thread.interrupted()).isFalse();
+        assertThat(limiter.getWaitingCount()).isEqualTo(0);
+
+        Thread.sleep(110); // the bucket would still be empty had the reserved token not been returned
+
+        assertThat(limiter.getAvailablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void test_illegal_arguments() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.of(0, 1, TimeUnit.SECONDS));
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.of(1, 0, TimeUnit.SECONDS));
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.of(1, 1, -1, TimeUnit.SECONDS));
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.failFast(-1, 1, TimeUnit.SECONDS));
+    }
+
+}
@@ -0,0 +1,158 @@
+package software.leonov.common.util.function;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RetryTest {
+
+    private ScheduledExecutorService scheduler;
+
+    @BeforeAll
+    static void setUpBeforeClass() throws Exception {
+    }
+
+    @AfterAll
+    static void tearDownAfterClass() throws Exception {
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        scheduler.shutdownNow();
+    }
+
+    private static CheckedSupplier<Integer> failing(final AtomicInteger calls, final int failures) {
+        return () -> {
+            if (calls.incrementAndGet() <= failures)
+                throw new IOException(Integer.toString(calls.get()));
+            return calls.get();
+        };
+    }
+
+    @Test
+    void test_retry_until_success() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+
+        assertThat(CheckedSupplier.retry(failing(calls, 2), Retry.withMaxAttempts(3)).get()).isEqualTo(3);
+    }
+
+    @Test
+    void test_last_exception_is_rethrown() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+
+        final IOException e = assertThrows(IOException.class, () -> Retry.withMaxAttempts(3).call(failing(calls, 10)));
+
+        assertThat(e).hasMessageThat().isEqualTo("3");
+        assertThat(calls.get()).isEqualTo(3);
+    }
+
+    @Test
+    void test_classification() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+
+        final CheckedRunnable runnable = CheckedRunnable.retry(() -> {
+            calls.incrementAndGet();
+            throw new TimeoutException();
+        }, Retry.withMaxAttempts(5).retryOn(IOException.class));
+
+        assertThrows(TimeoutException.class, runnable::run);
+        assertThat(calls.get()).isEqualTo(1);
+
+        calls.set(0);
+        final Retry retry = Retry.withMaxAttempts(5).retryIf(e -> !(e instanceof FileNotFoundException));
+        assertThrows(FileNotFoundException.class, () -> retry.call(() -> {
+            if (calls.incrementAndGet() < 3)
+                throw new IOException();
+            throw new FileNotFoundException();
+        }));
+        assertThat(calls.get()).isEqualTo(3);
+    }
+
+    @Test
+    void test_interrupted_exception_is_not_retried() throws Exception {
+        final AtomicInteger        calls       = new AtomicInteger();
+        final InterruptedException interrupted = new InterruptedException();
+
+        final Retry retry = Retry.withMaxAttempts(5).withBackoff(1, 1, TimeUnit.MILLISECONDS);
+
+        assertThat(assertThrows(InterruptedException.class, () -> retry.call(() -> {
+            calls.incrementAndGet();
+            throw interrupted;
+        }))).isSameInstanceAs(interrupted);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void test_function() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+
+        final CheckedFunction<Integer, Integer> function = CheckedFunction.retry(n -> {
+            if (calls.incrementAndGet() == 1)
+                throw new IOException();
+            return n * 2;
+        }, Retry.withMaxAttempts(2));
+
+        assertThat(function.apply(21)).isEqualTo(42);
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void test_backoff() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final Retry         retry = Retry.withMaxAttempts(4).withBackoff(10, 40, TimeUnit.MILLISECONDS);
+
+        final long start = System.nanoTime();
+        assertThat(retry.call(failing(calls, 3))).isEqualTo(4);
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isAtLeast(10 + 20 + 40);
+    }
+
+    @Test
+    void test_deadline() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final Retry         retry = Retry.withMaxAttempts(100).withBackoff(20, 20, TimeUnit.MILLISECONDS).withJitter(0.5).withDeadline(100, TimeUnit.MILLISECONDS);
+
+        assertThrows(IOException.class, () -> retry.call(failing(calls, 1000)));
+        assertThat(calls.get()).isAtMost(10);
+    }
+
+    @Test
+    void test_callAsync() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final Retry         retry = Retry.withMaxAttempts(3).withBackoff(5, 5, TimeUnit.MILLISECONDS);
+
+        assertThat(CheckedFutures.join(retry.callAsync(failing(calls, 2), scheduler))).isEqualTo(3);
+
+        calls.set(0);
+        final CompletableFuture<Integer> future = retry.callAsync(failing(calls, 10), scheduler);
+        assertThat(assertThrows(IOException.class, () -> CheckedFutures.join(future))).hasMessageThat().isEqualTo("3");
+    }
+
+    @Test
+    void test_illegal_arguments() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> Retry.withMaxAttempts(0));
+        assertThrows(IllegalArgumentException.class, () -> Retry.withMaxAttempts(1).withBackoff(10, 5, TimeUnit.SECONDS));
+        assertThrows(IllegalArgumentException.class, () -> Retry.withMaxAttempts(1).withJitter(1.5));
+        assertThrows(IllegalArgumentException.class, () -> Retry.withMaxAttempts(1).withDeadline(0, TimeUnit.SECONDS));
+    }
+
+}
@@ -0,0 +1,129 @@
+package software.leonov.common.util.function;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static software.leonov.common.util.function.CheckedComparator.naturalOrder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SelectionTest {
+
+    private static Integer[] integers;
+    private static Integer[] sorted;
+
+    @BeforeAll
+    static void setUpBeforeClass() throws Exception {
+        final Random random = new Random(42);
+        integers = new Integer[10_000];
+        for (int i = 0; i < integers.length; i++)
+            integers[i] = random.nextInt(5_000);
+        sorted = integers.clone();
+        Arrays.sort(sorted);
+    }
+
+    @AfterAll
+    static void tearDownAfterClass() throws Exception {
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+    }
+
+    @Test
+    void test_bottomK() throws Exception {
+        assertThat(Selection.bottomK(integers, 100, naturalOrder())).isEqualTo(Arrays.asList(sorted).subList(0, 100));
+    }
+
+    @Test
+    void test_topK() throws Exception {
+        final List<Integer> expected = new ArrayList<>(Arrays.asList(sorted).subList(sorted.length - 100, sorted.length));
+        expected.sort(Comparator.reverseOrder());
+
+        assertThat(Selection.topK(integers, 100, naturalOrder())).isEqualTo(expected);
+    }
+
+    @Test
+    void test_topK_larger_than_array() throws Exception {
+        assertThat(Selection.topK(new Integer[] { 2, 3, 1 }, 10, naturalOrder())).containsExactly(3, 2, 1).inOrder();
+        assertThat(Selection.topK(new Integer[] { 2, 3, 1 }, 0, naturalOrder())).isEmpty();
+    }
+
+    @Test
+    void test_toBottomK_parallel() throws Exception {
+        assertThat(Arrays.stream(integers).parallel().collect(Selection.toBottomK(100, naturalOrder()))).isEqualTo(Arrays.asList(sorted).subList(0, 100));
+    }
+
+    @Test
+    void test_toTopK() throws Exception {
+        final List<Integer> expected = new ArrayList<>(Arrays.asList(sorted).subList(sorted.length - 10, sorted.length));
+        expected.sort(Comparator.reverseOrder());
+
+        assertThat(Arrays.stream(integers).collect(Selection.toTopK(10, naturalOrder()))).isEqualTo(expected);
+    }
+
+    @Test
+    void test_bottomK_ties() throws Exception {
+        final CheckedComparator<String> byFirst = CheckedComparator.comparingInt(s -> s.charAt(0));
+
+        assertThat(Selection.bottomK(new String[] { "5a", "5b", "1x" }, 2, byFirst)).containsExactly("1x", "5a").inOrder();
+        assertThat(Selection.bottomK(new String[] { "5a", "1x", "5b", "5c" }, 3, byFirst)).containsExactly("1x", "5a", "5b").inOrder();
+    }
+
+    @Test
+    void test_topK_ties() throws Exception {
+        final CheckedComparator<String> byFirst = CheckedComparator.comparingInt(s -> s.charAt(0));
+
+        assertThat(Selection.topK(new String[] { "1a", "1b", "9x" }, 2, byFirst)).containsExactly("9x", "1a").inOrder();
+        assertThat(Selection.topK(new String[] { "9a", "1a", "9b", "1b", "9c" }, 4, byFirst)).containsExactly("9a", "9b", "9c", "1a").inOrder();
+    }
+
+    @Test
+    void test_toBottomK_ties_parallel() throws Exception {
+        final String[] strings = new String[10_000];
+        for (int i = 0; i < strings.length; i++)
+            strings[i] = i % 10 + ":" + i;
+
+        final CheckedComparator<String> byFirst  = CheckedComparator.comparingInt(s -> s.charAt(0));
+        final List<String>              expected = new ArrayList<>(Arrays.asList(strings));
+        expected.sort(CheckedComparator.unchecked(byFirst)); // stable
+
+        assertThat(Arrays.stream(strings).parallel().collect(Selection.toBottomK(1_500, byFirst))).isEqualTo(expected.subList(0, 1_500));
+        assertThat(Arrays.stream(strings).collect(Selection.toTopK(1_500, byFirst))).isEqualTo(Arrays.stream(strings).parallel().collect(Selection.toTopK(1_500, byFirst)));
+    }
+
+    @Test
+    void test_nthElement() throws Exception {
+        for (final int n : new int[] { 0, 1, 500, 5_000, 9_998, 9_999 }) {
+            final Integer[] actual = integers.clone();
+
+            assertThat(Selection.nthElement(actual, n, naturalOrder())).isEqualTo(sorted[n]);
+            for (int i = 0; i < n; i++)
+                assertThat(actual[i]).isAtMost(sorted[n]);
+            for (int i = n + 1; i < actual.length; i++)
+                assertThat(actual[i]).isAtLeast(sorted[n]);
+        }
+    }
+
+    @Test
+    void test_nthElement_rethrows_checked_exception() throws Exception {
+        assertThrows(IOException.class, () -> Selection.nthElement(integers.clone(), 10, (left, right) -> {
+            throw new IOException();
+        }));
+    }
+
+}
@@ -0,0 +1,307 @@
+package software.leonov.common.util.function;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static software.leonov.common.util.function.CheckedComparator.naturalOrder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SortingTest {
+
+    private static List<String> strings;
+
+    @BeforeAll
+    static void setUpBeforeClass() throws Exception {
+        final Random random = new Random(42);
+        strings = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+            strings.add(Integer.toString(random.nextInt(200)));
+    }
+
+    @AfterAll
+    static void tearDownAfterClass() throws Exception {
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+    }
+
+    @Test
+    void test_sortByKey_list() throws Exception {
+        final List<String> expected = new ArrayList<>(strings);
+        expected.sort(Comparator.comparing(Integer::parseInt));
+
+        final List<String> actual = new ArrayList<>(strings);
+        Sorting.sortByKey(actual, Integer::parseInt);
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void test_sortByKey_array_reversed() throws Exception {
+        final String[] expected = strings.toArray(new String[0]);
+        Arrays.sort(expected, Comparator.comparing(Integer::parseInt, Comparator.<Integer>reverseOrder()));
+
+        final String[] actual = strings.toArray(new String[0]);
+        Sorting.sortByKey(actual, Integer::parseInt, CheckedComparator.<Integer>reverseOrder());
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void test_sortByKey_is_stable() throws Exception {
+        final List<String> actual = newArrayList("bb", "a", "ab", "c", "ba");
+
+        Sorting.sortByKey(actual, String::length);
+
+        assertThat(actual).isEqualTo(newArrayList("a", "c", "bb", "ab", "ba"));
+    }
+
+    @Test
+    void test_sortByKey_calls_function_once_per_element() throws Exception {
+        final AtomicInteger calls  = new AtomicInteger();
+        final List<String>  actual = new ArrayList<>(strings);
+
+        Sorting.sortByKey(actual, s -> {
+            calls.incrementAndGet();
+            return Integer.parseInt(s);
+        }, naturalOrder());
+
+        assertThat(calls.get()).isEqualTo(strings.size());
+    }
+
+    @Test
+    void test_sortByKey_rethrows_checked_exception() throws Exception {
+        final List<String> actual = new ArrayList<>(strings);
+
+        final IOException e = assertThrows(IOException.class, () -> Sorting.sortByKey(actual, s -> {
+            if (s.equals(strings.get(500)))
+                throw new IOException(s);
+            return s;
+        }));
+
+        assertThat(e).hasMessageThat().isEqualTo(strings.get(500));
+        assertThat(actual).isEqualTo(strings);
+    }
+
+    @Test
+    void test_sort_primitive_keys() throws Exception {
+        final Random       random  = new Random(7);
+        final List<long[]> records = new ArrayList<>();
+        for (int i = 0; i < 5000; i++)
+            records.add(new long[] { random.nextInt(10) - 5, random.nextLong() % 3, random.nextInt(7) });
+
+        final List<long[]> expected = new ArrayList<>(records);
+        expected.sort(Comparator.<long[]>comparingInt(r -> (int) r[0]).reversed().thenComparingLong(r -> r[1]).thenComparingDouble(r -> r[2] == 6 ? Double.NaN : -r[2]));
+
+        final List<long[]> actual = new ArrayList<>(records);
+        Sorting.sort(actual, CheckedComparator.<long[]>comparingInt(r -> (int) r[0]).reversed().thenComparingLong(r -> r[1]).thenComparingDouble(r -> r[2] == 6 ? Double.NaN : -r[2]));
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void test_sort_primitive_keys_array() throws Exception {
+        final String[] expected = strings.toArray(new String[0]);
+        Arrays.sort(expected, Comparator.comparingInt(Integer::parseInt));
+
+        final String[] actual = strings.toArray(new String[0]);
+        Sorting.sort(actual, CheckedComparator.comparingInt(Integer::parseInt));
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void test_sort_not_primitive_keys() throws Exception {
+        final List<String> expected = new ArrayList<>(strings);
+        expected.sort(Comparator.comparingInt(String::length).thenComparing(Comparator.reverseOrder()));
+
+        final List<String> actual = new ArrayList<>(strings);
+        Sorting.sort(actual, CheckedComparator.<String>comparingInt(String::length).thenComparing(CheckedComparator.reverseOrder()));
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void test_sort_rethrows_checked_exception() throws Exception {
+        final List<String> actual = new ArrayList<>(strings);
+
+        assertThrows(IOException.class, () -> Sorting.sort(actual, CheckedComparator.comparingInt(s -> {
+            if (s.equals(strings.get(500)))
+                throw new IOException(s);
+            return s.length();
+        })));
+
+        assertThat(actual).isEqualTo(strings);
+    }
+
+    @Test
+    void test_parallelSort() throws Exception {
+        final Random    random   = new Random(11);
+        final Integer[] expected = new Integer[100_000];
+        for (int i = 0; i < expected.length; i++)
+            expected[i] = random.nextInt(1000);
+
+        final Integer[] actual = expected.clone();
+        Arrays.sort(expected, Comparator.comparing(i -> i % 100));
+
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Sorting.parallelSort(actual, (left, right) -> Integer.compare(left % 100, right % 100), pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void test_parallelSort_rethrows_original_exception() throws Exception {
+        final Integer[] actual = new Integer[100_000];
+        for (int i = 0; i < actual.length; i++)
+            actual[i] = actual.length - i;
+
+        final IOException  expected = new IOException();
+        final AtomicLong   calls    = new AtomicLong();
+        final ForkJoinPool pool     = new ForkJoinPool(4);
+        try {
+            final IOException e = assertThrows(IOException.class, () -> Sorting.parallelSort(actual, (left, right) -> {
+                if (calls.incrementAndGet() == 1000)
+                    throw expected;
+                return left.compareTo(right);
+            }, pool));
+            assertThat(e).isSameInstanceAs(expected);
+        } finally {
+            pool.shutdown();
+        }
+
+        // a full sort would take well over a million comparisons
+        assertThat(calls.get()).isLessThan(100_000L);
+    }
+
+    @Test
+    void test_parallelSort_exception_keeps_elements() throws Exception {
+        final Random    random = new Random(5);
+        final Integer[] input  = new Integer[50_000];
+        for (int i = 0; i < input.length; i++)
+            input[i] = random.nextInt();
+
+        final Integer[] expected = input.clone();
+        Arrays.sort(expected);
+
+        final AtomicLong   calls = new AtomicLong();
+        final ForkJoinPool pool  = new ForkJoinPool(4);
+        try {
+            Sorting.parallelSort(input.clone(), (left, right) -> {
+                calls.incrementAndGet();
+                return left.compareTo(right);
+            }, pool);
+
+            final long total = calls.get();
+
+            // the last comparisons are made by the final merges
+            for (final double fraction : new double[] { 0.5, 0.8, 0.9, 0.95, 0.99 }) {
+                final Integer[] actual = input.clone();
+                final long      limit  = (long) (total * fraction);
+
+                calls.set(0);
+                assertThrows(IOException.class, () -> Sorting.parallelSort(actual, (left, right) -> {
+                    if (calls.incrementAndGet() == limit)
+                        throw new IOException();
+                    return left.compareTo(right);
+                }, pool));
+
+                Arrays.sort(actual);
+                assertThat(actual).isEqualTo(expected);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void test_merge() throws Exception {
+        final Random                         random    = new Random(3);
+        final List<Integer>                  expected  = new ArrayList<>();
+        final List<CheckedIterator<Integer>> iterators = new ArrayList<>();
+
+        for (int i = 0; i < 13; i++) {
+            final List<Integer> run = new ArrayList<>();
+            for (int j = random.nextInt(50); j > 0; j--)
+                run.add(random.nextInt(100));
+            run.sort(null);
+            expected.addAll(run);
+            iterators.add(checked(run.iterator()));
+        }
+        expected.sort(null);
+
+        final List<Integer> actual = new ArrayList<>();
+        Sorting.merge(iterators, CheckedComparator.<Integer>naturalOrder()).forEachRemaining(actual::add);
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(Sorting.merge(Collections.<CheckedIterator<Integer>>emptyList(), naturalOrder()).hasNext()).isFalse();
+    }
+
+    @Test
+    void test_merge_is_lazy_and_rethrows_checked_exception() throws Exception {
+        final CheckedIterator<Integer> failing = new CheckedIterator<Integer>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() throws IOException {
+                if (next == 2)
+                    throw new IOException();
+                return next++;
+            }
+        };
+
+        final Iterator<Integer> merged = CheckedIterator.unchecked(Sorting.merge(Arrays.asList(checked(Arrays.asList(5, 6).iterator()), failing), naturalOrder()));
+
+        assertThat(merged.next()).isEqualTo(0);
+        assertThat(merged.next()).isEqualTo(1);
+        assertThrows(IOException.class, merged::next);
+    }
+
+    private static <T> CheckedIterator<T> checked(final Iterator<T> iterator) {
+        return new CheckedIterator<T>() {
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return iterator.next();
+            }
+
+        };
+    }
+
+}
@@ -0,0 +1,50 @@
+package software.leonov.common.util.function;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/*
+ * Runs against the packaged multi-release JAR rather than the class directory, under the java21 profile on Java 21 or
+ * later (mvn verify), so the Java 21 layer is the one which is loaded.
+ */
+class StructuredTasksIT {
+
+    @BeforeAll
+    static void setUpBeforeClass() throws Exception {
+    }
+
+    @AfterAll
+    static void tearDownAfterClass() throws Exception {
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+    }
+
+    @Test
+    void test_isVirtual() throws Exception {
+        assertThat(StructuredTasks.isVirtual()).isTrue();
+    }
+
+    @Test
+    void test_tasks_run_on_virtual_threads() throws Exception {
+        final CheckedSupplier<String> task = () -> Thread.currentThread().getClass().getName();
+
+        final List<String> classes = StructuredTasks.invokeAll(Arrays.asList(task, task));
+
+        assertThat(classes).containsExactly("java.lang.VirtualThread", "java.lang.VirtualThread");
+    }
+
+}
@@ -0,0 +1,213 @@
+package software.leonov.common.util.function;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StructuredTasksTest {
+
+    @BeforeAll
+    static void setUpBeforeClass() throws Exception {
+    }
+
+    @AfterAll
+    static void tearDownAfterClass() throws Exception {
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+    }
+
+    @Test
+    void test_invokeAll() throws Exception {
+        final List<CheckedSupplier<Integer>> suppliers = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final int n = i;
+            suppliers.add(() -> {
+                Thread.sleep(n % 5);
+                return n * n;
+            });
+        }
+
+        final List<Integer> results = StructuredTasks.invokeAll(suppliers);
+
+        assertThat(results).hasSize(100);
+        for (int i = 0; i < 100; i++)
+            assertThat(results.get(i)).isEqualTo(i * i);
+    }
+
+    @Test
+    void test_invokeAll_empty() throws Exception {
+        assertThat(StructuredTasks.invokeAll(Collections.<CheckedSupplier<Object>>emptyList())).isEmpty();
+    }
+
+    @Test
+    void test_runAll() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+
+        StructuredTasks.runAll(Collections.nCopies(50, count::incrementAndGet));
+
+        assertThat(count.get()).isEqualTo(50);
+    }
+
+    @Test
+    void test_first_failure_cancels_others() throws Exception {
+        final IOException    failure     = new IOException();
+        final CountDownLatch started     = new CountDownLatch(2);
+        final AtomicInteger  interrupted = new AtomicInteger();
+
+        final CheckedRunnable blocking = () -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (final InterruptedException e) {
+                interrupted.incrementAndGet();
+                throw e;
+            }
+        };
+
+        final CheckedRunnable failing = () -> {
+            started.await();
+            throw failure;
+        };
+
+        assertThat(assertThrows(IOException.class, () -> StructuredTasks.runAll(Arrays.asList(blocking, blocking, failing)))).isSameInstanceAs(failure);
+        assertThat(interrupted.get()).isEqualTo(2); // both threads have stopped by the time runAll returns
+    }
+
+    @Test
+    void test_isVirtual() throws Exception {
+        assertThat(StructuredTasks.isVirtual()).isFalse(); // tests run against the class directory, which is not a multi-release JAR
+    }
+
+    @Test
+    void test_invokeAll_timeout() throws Exception {
+        final AtomicInteger interrupted = new AtomicInteger();
+
+        final CheckedSupplier<Integer> slow = () -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (final InterruptedException e) {
+                interrupted.incrementAndGet();
+                throw e;
+            }
+            return 0;
+        };
+
+        assertThrows(TimeoutException.class, () -> StructuredTasks.invokeAll(Arrays.asList(() -> 1, slow, slow), 50, TimeUnit.MILLISECONDS));
+        assertThat(interrupted.get()).isEqualTo(2);
+    }
+
+    @Test
+    void test_timeout_does_not_wait_for_queued_tasks() throws Exception {
+        final int            threads = Math.max(16, Runtime.getRuntime().availableProcessors() * 4); // the size of the pool
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch running = new CountDownLatch(threads);
+
+        final List<CheckedRunnable> blockers = new ArrayList<>();
+        for (int i = 0; i < threads; i++)
+            blockers.add(() -> {
+                running.countDown();
+                while (true) // uninterruptible
+                    try {
+                        release.await();
+                        return;
+                    } catch (final InterruptedException e) {
+                    }
+            });
+
+        final Thread owner = new Thread(() -> StructuredTasks.runAll(blockers));
+        owner.start();
+        try {
+            running.await();
+
+            // every pool thread is busy, so these tasks stay queued until they are cancelled
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+                assertThrows(TimeoutException.class, () -> StructuredTasks.invokeAll(Arrays.asList(() -> 1, () -> 2), 50, TimeUnit.MILLISECONDS));
+            });
+        } finally {
+            release.countDown();
+            owner.join();
+        }
+    }
+
+    @Test
+    void test_invokeAny() throws Exception {
+        final AtomicInteger interrupted = new AtomicInteger();
+
+        final CheckedSupplier<String> slow = () -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (final InterruptedException e) {
+                interrupted.incrementAndGet();
+                throw e;
+            }
+            return "slow";
+        };
+
+        final CheckedSupplier<String> failing = () -> {
+            throw new IOException();
+        };
+
+        final CheckedSupplier<String> fast = () -> {
+            Thread.sleep(20);
+            return "fast";
+        };
+
+        assertThat(StructuredTasks.invokeAny(Arrays.asList(slow, failing, fast, slow))).isEqualTo("fast");
+        assertThat(interrupted.get()).isEqualTo(2);
+    }
+
+    @Test
+    void test_invokeAny_all_fail() throws Exception {
+        final IOException first  = new IOException();
+        final IOException second = new IOException();
+
+        final CheckedSupplier<Object> failsFirst = () -> {
+            throw first;
+        };
+
+        final CheckedSupplier<Object> failsLater = () -> {
+            Thread.sleep(50);
+            throw second;
+        };
+
+        final IOException e = assertThrows(IOException.class, () -> StructuredTasks.invokeAny(Arrays.asList(failsLater, failsFirst)));
+
+        assertThat(e).isSameInstanceAs(first);
+        assertThat(e.getSuppressed()).asList().containsExactly(second);
+        assertThrows(IllegalArgumentException.class, () -> StructuredTasks.invokeAny(Collections.<CheckedSupplier<Object>>emptyList()));
+    }
+
+    @Test
+    void test_invokeAny_timeout() throws Exception {
+        final CheckedSupplier<Object> slow = () -> {
+            Thread.sleep(10_000);
+            return null;
+        };
+
+        assertThrows(TimeoutException.class, () -> StructuredTasks.invokeAny(Arrays.asList(slow, slow), 50, TimeUnit.MILLISECONDS));
+    }
+
+}
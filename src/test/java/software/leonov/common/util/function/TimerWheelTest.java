@@ -0,0 +1,130 @@
+package software.leonov.common.util.function;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TimerWheelTest {
+
+    @BeforeAll
+    static void setUpBeforeClass() throws Exception {
+    }
+
+    @AfterAll
+    static void tearDownAfterClass() throws Exception {
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Thread.interrupted();
+    }
+
+    @Test
+    void test_completes_within_timeout() throws Exception {
+        final Thread caller = Thread.currentThread();
+
+        assertThat(CheckedSupplier.withTimeout(() -> Thread.currentThread() == caller, 1, TimeUnit.SECONDS).get()).isTrue();
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+
+    @Test
+    void test_timeout_interrupts_call() throws Exception {
+        final AtomicBoolean interrupted = new AtomicBoolean();
+
+        final CheckedSupplier<Object> supplier = CheckedSupplier.withTimeout(() -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (final InterruptedException e) {
+                interrupted.set(true);
+                throw e;
+            }
+            return null;
+        }, 20, TimeUnit.MILLISECONDS);
+
+        final long start = System.nanoTime();
+
+        final TimeoutException e = assertThrows(TimeoutException.class, supplier::get);
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5_000);
+        assertThat(interrupted.get()).isTrue();
+        assertThat(e.getSuppressed()[0]).isInstanceOf(InterruptedException.class);
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+
+    @Test
+    void test_call_ignoring_interrupt_still_times_out() throws Exception {
+        final CheckedRunnable runnable = CheckedRunnable.withTimeout(() -> {
+            final long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50);
+            while (System.nanoTime() < end)
+                Thread.yield();
+        }, 10, TimeUnit.MILLISECONDS);
+
+        assertThrows(TimeoutException.class, runnable::run);
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+
+    @Test
+    void test_prior_interrupt_is_preserved() throws Exception {
+        final CheckedRunnable runnable = CheckedRunnable.withTimeout(() -> {
+            final long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50);
+            while (System.nanoTime() < end)
+                Thread.yield();
+        }, 10, TimeUnit.MILLISECONDS);
+
+        Thread.currentThread().interrupt();
+        assertThrows(TimeoutException.class, runnable::run);
+        assertThat(Thread.interrupted()).isTrue();
+    }
+
+    @Test
+    void test_interrupt_during_call_is_preserved() throws Exception {
+        final CheckedRunnable runnable = CheckedRunnable.withTimeout(() -> {
+            Thread.currentThread().interrupt(); // not the timer's
+            final long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50);
+            while (System.nanoTime() < end)
+                Thread.yield();
+        }, 10, TimeUnit.MILLISECONDS);
+
+        assertThrows(TimeoutException.class, runnable::run);
+        assertThat(Thread.interrupted()).isTrue();
+    }
+
+    @Test
+    void test_exception_is_rethrown() throws Exception {
+        final IOException failure = new IOException();
+
+        final CheckedFunction<Integer, Integer> function = CheckedFunction.withTimeout(n -> {
+            if (n < 0)
+                throw failure;
+            return n;
+        }, 1, TimeUnit.SECONDS);
+
+        assertThat(function.apply(1)).isEqualTo(1);
+        assertThat(assertThrows(IOException.class, () -> function.apply(-1))).isSameInstanceAs(failure);
+        assertThrows(IllegalArgumentException.class, () -> CheckedFunction.withTimeout(n -> n, 0, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void test_many_short_calls() throws Exception {
+        final CheckedFunction<Integer, Integer> function = CheckedFunction.withTimeout(n -> n + 1, 1, TimeUnit.SECONDS);
+
+        for (int i = 0; i < 100_000; i++)
+            assertThat(function.apply(i)).isEqualTo(i + 1);
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+
+}